@@ -0,0 +1,28 @@
+package net.darkhax.prickle.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * When this annotation is used on a String field the field will be set to the template after references to other
+ * properties have been replaced with their values. For example {@code ${host}:${port}} references the {@code host} and
+ * {@code port} properties. References use the dotted path of a property, such as {@code database.host}, and may also
+ * reference other interpolated fields by their path. Use <code>$${</code> to write <code>${</code> without starting a
+ * reference.
+ * <p>
+ * Interpolated fields are not written to the config file. They are updated each time the config is loaded, after the
+ * properties they reference have been read.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Interpolate {
+
+    /**
+     * The template used to produce the value of the field.
+     *
+     * @return The template for the field.
+     */
+    String value();
+}
@@ -0,0 +1,246 @@
+package net.darkhax.prickle.config;
+
+import net.darkhax.prickle.config.property.ConfigObjectProperty;
+import net.darkhax.prickle.config.property.IConfigProperty;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * A typed handle to a property of a config object. The path of the property is resolved once when the key is created,
+ * including paths to the properties of config objects such as {@code network.timeout}. Reading the key follows a
+ * precompiled chain of field reads, so no names are looked up and no reflection is used.
+ *
+ * @param <V> The type of the property value.
+ */
+public final class ConfigKey<V> {
+
+    private static final MethodType OBJECT_GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodHandle SUPPLIER_GET;
+
+    static {
+        try {
+            SUPPLIER_GET = MethodHandles.publicLookup().findVirtual(Supplier.class, "get", MethodType.methodType(Object.class));
+        }
+        catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * The serializer the key was resolved against.
+     */
+    private final ConfigObjectSerializer<?> owner;
+
+    /**
+     * The dotted path of the property.
+     */
+    private final String path;
+
+    /**
+     * The type of the property value.
+     */
+    private final Class<V> type;
+
+    /**
+     * The property the key points to.
+     */
+    private final IConfigProperty<?> property;
+
+    /**
+     * Reads the value from any object that shares the schema. The type of the handle is (Object)Object.
+     */
+    private final MethodHandle getter;
+
+    /**
+     * Reads the value from the current config object. The type of the handle is ()Object.
+     */
+    private final MethodHandle boundGetter;
+
+    /**
+     * Ensures the property has been read before it is read from the config object, or null if the property is always
+     * read when the config is loaded.
+     */
+    @Nullable
+    private final Consumer<String> loader;
+
+    private ConfigKey(ConfigObjectSerializer<?> owner, String path, Class<V> type, IConfigProperty<?> property, MethodHandle getter, MethodHandle boundGetter, @Nullable Consumer<String> loader) {
+        this.owner = owner;
+        this.path = path;
+        this.type = type;
+        this.property = property;
+        this.getter = getter;
+        this.boundGetter = boundGetter;
+        this.loader = loader;
+    }
+
+    /**
+     * Gets the current value of the property from the config object. When the config was loaded lazily the property
+     * will be read from the file the first time it is requested.
+     *
+     * @return The current value of the property.
+     */
+    public V get() {
+        if (this.loader != null) {
+            this.loader.accept(this.path);
+        }
+        DerivedValue.recordRead(this.owner, this.path);
+        try {
+            return this.type.cast((Object) this.boundGetter.invokeExact());
+        }
+        catch (Throwable e) {
+            throw propagate(e);
+        }
+    }
+
+    /**
+     * Gets the current value of the property from another object that shares the schema.
+     *
+     * @param root An object of the same type as the config object the key was resolved against.
+     * @return The current value of the property.
+     */
+    public V get(Object root) {
+        try {
+            return this.type.cast((Object) this.getter.invokeExact(root));
+        }
+        catch (Throwable e) {
+            throw propagate(e);
+        }
+    }
+
+    /**
+     * Gets the dotted path of the property.
+     *
+     * @return The path of the property.
+     */
+    public String path() {
+        return this.path;
+    }
+
+    /**
+     * Gets the type of the property value.
+     *
+     * @return The type of the value.
+     */
+    public Class<V> type() {
+        return this.type;
+    }
+
+    /**
+     * Gets the property the key points to.
+     *
+     * @return The property.
+     */
+    public IConfigProperty<?> property() {
+        return this.property;
+    }
+
+    /**
+     * Creates a copy of the key that ensures the property has been read before it is read from the config object. This
+     * is used by configs that are loaded lazily.
+     *
+     * @param loader Reads the property with the given path if it has not been read yet.
+     * @return A copy of the key that uses the loader.
+     */
+    ConfigKey<V> withLoader(Consumer<String> loader) {
+        return new ConfigKey<>(this.owner, this.path, this.type, this.property, this.getter, this.boundGetter, loader);
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigKey[" + this.path + ": " + this.type.getSimpleName() + "]";
+    }
+
+    /**
+     * Resolves a key against a mapped schema.
+     *
+     * @param serializer The serializer that holds the schema.
+     * @param path       The serialized name of the property, or a dotted path to a property of a config object.
+     * @param type       The type of the property value. This must be the type of the field or one of its supertypes.
+     * @param <V>        The type of the property value.
+     * @return The resolved key.
+     * @throws IllegalArgumentException If the path does not point to a property, or the type does not match.
+     */
+    public static <V> ConfigKey<V> resolve(ConfigObjectSerializer<?> serializer, String path, Class<V> type) {
+        final Object root = serializer.object();
+        return resolve(serializer, path, type, getter -> getter.bindTo(root));
+    }
+
+    /**
+     * Resolves a key against a mapped schema, where the config object may be replaced over time. This is used for
+     * records, which are replaced with a new instance each time the config is loaded.
+     *
+     * @param serializer The serializer that holds the schema.
+     * @param path       The serialized name of the property, or a dotted path to a property of a config object.
+     * @param type       The type of the property value. This must be the type of the field or one of its supertypes.
+     * @param root       Supplies the current config object each time the key is read.
+     * @param <V>        The type of the property value.
+     * @return The resolved key.
+     * @throws IllegalArgumentException If the path does not point to a property, or the type does not match.
+     */
+    public static <V> ConfigKey<V> resolve(ConfigObjectSerializer<?> serializer, String path, Class<V> type, Supplier<?> root) {
+        final MethodHandle supplier = SUPPLIER_GET.bindTo(root);
+        return resolve(serializer, path, type, getter -> MethodHandles.filterReturnValue(supplier, getter));
+    }
+
+    private static <V> ConfigKey<V> resolve(ConfigObjectSerializer<?> serializer, String path, Class<V> type, UnaryOperator<MethodHandle> binder) {
+        final String[] names = path.split("\\.");
+        ConfigObjectSerializer<?> current = serializer;
+        MethodHandle getter = null;
+        IConfigProperty<?> property = null;
+        Field field = null;
+        for (String name : names) {
+            if (current == null) {
+                throw new IllegalArgumentException("The property '" + field.getName() + "' in '" + path + "' does not hold sub-properties.");
+            }
+            property = current.property(name);
+            field = current.field(name);
+            if (property == null || field == null) {
+                throw new IllegalArgumentException("The property '" + path + "' does not exist.");
+            }
+            final MethodHandle fieldGetter = unreflect(field);
+            getter = getter == null ? fieldGetter : MethodHandles.filterReturnValue(getter, fieldGetter);
+            current = property instanceof ConfigObjectProperty<?> configObject ? configObject.serializer() : null;
+        }
+
+        if (!type.isAssignableFrom(wrap(field.getType()))) {
+            throw new IllegalArgumentException("The property '" + path + "' holds " + field.getType().getName() + " values which can not be read as " + type.getName() + ".");
+        }
+        return new ConfigKey<>(serializer, path, type, property, getter, binder.apply(getter), null);
+    }
+
+    /**
+     * Creates a handle that reads a field. The field must already be accessible.
+     *
+     * @param field The field to read.
+     * @return A handle with the type (Object)Object that reads the field.
+     */
+    private static MethodHandle unreflect(Field field) {
+        try {
+            return MethodHandles.lookup().unreflectGetter(field).asType(OBJECT_GETTER);
+        }
+        catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable to access field " + field, e);
+        }
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    private static RuntimeException propagate(Throwable error) {
+        if (error instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        return new IllegalStateException(error);
+    }
+}
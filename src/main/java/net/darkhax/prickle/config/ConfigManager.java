@@ -2,38 +2,82 @@ package net.darkhax.prickle.config;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.ToNumberPolicy;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 import net.darkhax.prickle.Prickle;
-import net.darkhax.prickle.config.comment.CommentTypeAdapter;
+import net.darkhax.prickle.config.cache.ConfigCache;
 import net.darkhax.prickle.config.comment.ICommentResolver;
-import net.darkhax.prickle.config.comment.WrappedComment;
+import net.darkhax.prickle.config.interpolate.Interpolator;
+import net.darkhax.prickle.config.layer.ConfigLayer;
+import net.darkhax.prickle.config.layer.ILayerListener;
+import net.darkhax.prickle.config.layer.OverrideIndex;
+import net.darkhax.prickle.config.layer.OverrideSource;
+import net.darkhax.prickle.config.property.ConfigObjectProperty;
+import net.darkhax.prickle.config.property.IConfigProperty;
 import net.darkhax.prickle.config.property.IPropertyAdapter;
-import net.darkhax.prickle.config.property.RangedProperty;
-import net.darkhax.prickle.config.property.RegexStringProperty;
-import net.darkhax.prickle.config.property.array.ArrayProperty;
-import net.darkhax.prickle.config.property.array.CollectionArrayProperty;
+import net.darkhax.prickle.config.scan.LazyPropertyIndex;
+import net.darkhax.prickle.config.scan.SpanScanner;
+import net.darkhax.prickle.config.validate.ConfigValidator;
+import net.darkhax.prickle.util.ByteBufferOutputStream;
+import net.darkhax.prickle.util.IoBufferPool;
+import net.darkhax.prickle.util.IoBuffers;
+import net.darkhax.prickle.util.StringDeduplicator;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class ConfigManager<T> {
 
+    /**
+     * The smallest amount of data, in bytes, that will be read or written in parallel. Smaller configs are read and
+     * written faster on a single thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 64 * 1024;
+
+    /**
+     * Writes JSON trees without changing the settings of the writer.
+     */
+    private static final TypeAdapter<JsonElement> JSON_TREE = new Gson().getAdapter(JsonElement.class);
+
     /**
      * The path to the config file.
      */
     private final Path filePath;
 
+    /**
+     * The size, in bytes, of the config the last time it was read from or written to bytes. The size of the output is
+     * not known until it has been written, so this is used to decide if the config is large enough to write in
+     * parallel.
+     */
+    private volatile int documentSize;
+
     /**
      * A logger instance used by the config manager and all of its property adapters.
      */
@@ -49,12 +93,141 @@ public class ConfigManager<T> {
      */
     private final T obj;
 
-    private ConfigManager(Path filePath, Logger log, T obj, PropertyResolver resolver) {
+    /**
+     * An optional cache that holds a binary form of the config file. When null the config is always read as JSON.
+     */
+    @Nullable
+    private final ConfigCache cache;
+
+    /**
+     * When true the config is written in the compact format.
+     */
+    private final boolean compact;
+
+    /**
+     * A pool of buffers that are reused when the config is read and written.
+     */
+    private final IoBufferPool buffers;
+
+    /**
+     * An optional pool used to read and write configs in parallel. When null configs are always read and written on the
+     * calling thread.
+     */
+    @Nullable
+    private final ForkJoinPool parallelPool;
+
+    /**
+     * When true properties are only read from the file when they are first requested.
+     */
+    private final boolean lazy;
+
+    /**
+     * An index of the properties in the config file that have not been read yet. This is only present after a lazy
+     * load, and is discarded once every property has been read.
+     */
+    @Nullable
+    private volatile LazyPropertyIndex lazyIndex;
+
+    /**
+     * The current config object. For records this is replaced with a new record each time the config is loaded, and
+     * for other classes it is always the object that was mapped.
+     */
+    private final AtomicReference<T> current;
+
+    /**
+     * The layers that are merged beneath the config file, from the lowest to the highest priority. When empty the
+     * config file is read on its own.
+     */
+    private final List<ConfigLayer> layers;
+
+    /**
+     * Merges the properties of a layer again when it changes. Layers only hold a weak reference to their listeners, so
+     * the listener is held here for as long as the config manager is used.
+     */
+    @Nullable
+    private final ILayerListener layerListener;
+
+    /**
+     * The default values of the config when layers are used. Properties are reset to these values before the layers
+     * are merged, so a value that is removed from every layer returns to its default.
+     */
+    @Nullable
+    private final ConfigLayer defaults;
+
+    /**
+     * The contents of the config file when layers are used. This only holds the properties the file overrides, and is
+     * null if the config has not been loaded or the file does not exist.
+     */
+    @Nullable
+    private ConfigLayer overlay;
+
+    /**
+     * If the layers have been merged at least once.
+     */
+    private boolean layersMerged = false;
+
+    /**
+     * The sources of values that override individual properties, in the order they are applied.
+     */
+    private final List<OverrideSource> overrideSources;
+
+    /**
+     * The canonical override key of every property. This is only present when override sources have been added.
+     */
+    @Nullable
+    private final OverrideIndex overrideIndex;
+
+    /**
+     * The values that were replaced by overrides, keyed by the dotted path of the property. Values that still hold
+     * their override when the config is saved are written as the values they replaced, so overrides are never written
+     * to the config file or the cache.
+     */
+    private volatile Map<String, OverriddenValue> overridden = Map.of();
+
+    /**
+     * Held while values are read into the config and published, so loads, lazily read properties, and changed layers
+     * are applied one at a time.
+     */
+    private final Object loadLock = new Object();
+
+    /**
+     * Tracks the properties that derived values depend on.
+     */
+    private final DependencyTracker dependencyTracker;
+
+    /**
+     * Updates the interpolated fields of the config object, or null if the config does not have any.
+     */
+    @Nullable
+    private final Interpolator interpolator;
+
+    private ConfigManager(Path filePath, Logger log, T obj, PropertyResolver resolver, @Nullable ConfigCache cache, IoBufferPool buffers, @Nullable ForkJoinPool parallelPool, boolean lazy, List<ConfigLayer> layers, List<OverrideSource> overrideSources) {
 
         this.filePath = filePath;
         this.log = log;
         this.obj = obj;
         this.configSerializer = new ConfigObjectSerializer<>(resolver, this.obj);
+        this.cache = cache;
+        this.compact = resolver.compact();
+        this.buffers = buffers;
+        this.parallelPool = parallelPool;
+        this.lazy = lazy;
+        this.current = new AtomicReference<>(obj);
+        this.layers = List.copyOf(layers);
+        this.defaults = this.layers.isEmpty() ? null : this.captureDefaults();
+        this.layerListener = this.layers.isEmpty() ? null : (layer, properties) -> this.remerge(properties);
+        for (ConfigLayer layer : this.layers) {
+            layer.subscribe(this.layerListener);
+        }
+        this.overrideSources = List.copyOf(overrideSources);
+        this.overrideIndex = this.overrideSources.isEmpty() ? null : OverrideIndex.of(this.configSerializer, log);
+        // Derived values are compared without reading lazy properties, as only the properties they have read can change.
+        this.dependencyTracker = new DependencyTracker(resolver.gson(), log, path -> this.resolveKey(path, Object.class));
+        // Interpolated fields are rendered while the config is published, so their properties are read without publishing again.
+        this.interpolator = Interpolator.of(this.configSerializer, resolver.gson(), path -> this.lazy ? this.resolveKey(path, Object.class).withLoader(this::readLazily) : this.resolveKey(path, Object.class), this.current::get);
+        if (this.interpolator != null) {
+            this.interpolator.update();
+        }
     }
 
     /**
@@ -62,18 +235,466 @@ public class ConfigManager<T> {
      * mapped out when building the config manager.
      */
     public void load() {
+        this.update(this::readConfig);
+    }
+
+    /**
+     * Reads the config from its layers, the binary cache, or the config file, and applies the overrides.
+     */
+    private void readConfig() {
+
+        if (!this.layers.isEmpty()) {
+            this.loadLayers();
+            this.applyOverrides();
+            return;
+        }
 
         if (!Files.exists(this.filePath)) {
             this.save();
         }
 
-        try (JsonReader reader = new JsonReader(Files.newBufferedReader(this.filePath))) {
-            configSerializer.read(reader);
+        if (this.lazy && this.indexLazily()) {
+            this.applyOverrides();
+            return;
+        }
+
+        if (this.readCache()) {
+            this.applyOverrides();
+            return;
+        }
+
+        final IoBuffers buffers = this.buffers.acquire();
+        try {
+            this.read(buffers, buffers.readFile(this.filePath));
+        }
+        catch (IOException e) {
+            this.log.error("Unable to load config file from {}!", this.filePath);
+            throw new RuntimeException(e);
+        }
+        finally {
+            this.buffers.release(buffers);
+        }
+
+        // The cache is written before overrides are applied, so it only holds the values from the file.
+        this.writeCache(null);
+        this.applyOverrides();
+    }
+
+    /**
+     * Loads the config from a stream of UTF-8 encoded JSON. The stream is decoded as it is read and will not be closed.
+     *
+     * @param stream The stream to read the config from.
+     */
+    public void load(InputStream stream) {
+
+        this.update(() -> {
+            try {
+                this.configSerializer.read(new JsonReader(new InputStreamReader(stream, StandardCharsets.UTF_8)));
+            }
+            catch (IOException e) {
+                this.log.error("Unable to load config from stream!");
+                throw new RuntimeException(e);
+            }
+            this.applyOverrides();
+        });
+    }
+
+    /**
+     * Loads the config from an array of UTF-8 encoded JSON.
+     *
+     * @param bytes The bytes to read the config from.
+     */
+    public void load(byte[] bytes) {
+        this.load(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Loads the config from the remaining bytes of a buffer of UTF-8 encoded JSON. The position of the buffer will not
+     * be changed.
+     *
+     * @param buffer The buffer to read the config from.
+     */
+    public void load(ByteBuffer buffer) {
+
+        this.update(() -> {
+            final IoBuffers buffers = this.buffers.acquire();
+            try {
+                this.read(buffers, buffer.duplicate());
+            }
+            catch (IOException e) {
+                this.log.error("Unable to load config from buffer!");
+                throw new RuntimeException(e);
+            }
+            finally {
+                this.buffers.release(buffers);
+            }
+            this.applyOverrides();
+        });
+    }
+
+    /**
+     * Reads the config file as the highest layer, and merges it with the other layers. The file is optional and only
+     * needs to hold the properties it overrides.
+     */
+    private void loadLayers() {
+        final ConfigLayer overlay;
+        try {
+            overlay = Files.exists(this.filePath) ? ConfigLayer.of(this.filePath) : null;
         }
         catch (IOException e) {
             this.log.error("Unable to load config file from {}!", this.filePath);
             throw new RuntimeException(e);
         }
+        synchronized (this.layers) {
+            this.overlay = overlay;
+            try {
+                this.merge(this.configSerializer.propertyNames());
+            }
+            catch (IOException e) {
+                this.log.error("Unable to merge the layers of config file {}!", this.filePath);
+                throw new RuntimeException(e);
+            }
+            this.layersMerged = true;
+        }
+    }
+
+    /**
+     * Writes the values the config object was created with, so properties can be reset to them when the layers are
+     * merged.
+     *
+     * @return A layer that holds the default value of every property.
+     */
+    private ConfigLayer captureDefaults() {
+        final StringWriter out = new StringWriter();
+        try {
+            this.configSerializer.write(new JsonWriter(out));
+            return ConfigLayer.of(this.filePath + " defaults", out.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        catch (IOException e) {
+            this.log.error("Unable to capture the default values of config {}!", this.filePath);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Applies the values from each override source. Every source is scanned once, and each value is matched to its
+     * property using the override index. Values are read and validated just like values from the config file. The
+     * value each override replaced is tracked, so it can be written in place of the override when the config is saved.
+     */
+    private void applyOverrides() {
+        if (this.overrideIndex == null) {
+            return;
+        }
+        final Map<String, OverriddenValue> previous = this.overridden;
+        final Map<String, OverriddenValue> applied = new HashMap<>();
+        for (OverrideSource source : this.overrideSources) {
+            for (OverrideIndex.Match match : this.overrideIndex.match(source)) {
+                // Lazily loaded properties are read first, so the override is not replaced when they are requested.
+                this.require(match.property());
+                final String[] names = match.path().split("\\.");
+                try {
+                    final JsonElement replaced = this.currentValue(names);
+                    this.configSerializer.readProperty(match.property(), match.data());
+                    final JsonElement value = this.currentValue(names);
+                    // Properties that were not read again since the last time overrides were applied still hold the old override.
+                    final OverriddenValue earlier = applied.containsKey(match.path()) ? applied.get(match.path()) : previous.get(match.path());
+                    final JsonElement original = earlier != null && Objects.equals(replaced, earlier.value()) ? earlier.original() : replaced;
+                    if (original != null && value != null) {
+                        applied.put(match.path(), new OverriddenValue(names, original, value));
+                    }
+                }
+                catch (IOException | RuntimeException e) {
+                    this.log.error("Unable to override property {} using {} from {}!", match.path(), match.key(), source.name());
+                    throw new RuntimeException(e);
+                }
+                this.log.debug("Property {} was overridden by {} from {}.", match.path(), match.key(), source.name());
+            }
+        }
+        this.overridden = Map.copyOf(applied);
+    }
+
+    /**
+     * Renders the current value of a property.
+     *
+     * @param names The names of each property along the path to the property.
+     * @return The JSON of the value, or null if the property was not written.
+     * @throws IOException If the property could not be written.
+     */
+    @Nullable
+    private JsonElement currentValue(String[] names) throws IOException {
+        final StringWriter out = new StringWriter();
+        this.configSerializer.write(new JsonWriter(out), Set.of(names[0]));
+        final JsonObject entry = propertyEntry(JsonParser.parseString(out.toString()).getAsJsonObject(), names);
+        return entry != null ? entry.get("value") : null;
+    }
+
+    /**
+     * Writes the config object to a JSON tree. Overridden properties that still hold their override are written with
+     * the value the override replaced.
+     *
+     * @return The JSON of the config object.
+     * @throws IOException If the config could not be written.
+     */
+    private JsonObject render() throws IOException {
+        final StringWriter out = new StringWriter();
+        this.configSerializer.write(new JsonWriter(out));
+        final JsonObject config = JsonParser.parseString(out.toString()).getAsJsonObject();
+        for (OverriddenValue value : this.overridden.values()) {
+            final JsonObject entry = propertyEntry(config, value.names());
+            if (entry != null && Objects.equals(entry.get("value"), value.value())) {
+                entry.add("value", value.original());
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Merges properties again after a layer has changed. Changes are ignored until the config has been loaded.
+     *
+     * @param properties The names of the properties that changed.
+     */
+    private void remerge(Set<String> properties) {
+        synchronized (this.loadLock) {
+            synchronized (this.layers) {
+                if (!this.layersMerged) {
+                    return;
+                }
+            }
+            try {
+                this.update(() -> {
+                    synchronized (this.layers) {
+                        try {
+                            this.merge(properties);
+                        }
+                        catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                    // A layer may have replaced a value that was overridden.
+                    this.applyOverrides();
+                });
+            }
+            catch (RuntimeException e) {
+                this.log.error("Unable to merge changed properties {} into config {}!", properties, this.filePath, e);
+            }
+        }
+    }
+
+    /**
+     * Merges properties from the layers into the config object. Most properties are read from the highest layer that
+     * defines them. Config objects are read from every layer that defines them, starting with the lowest, so each layer
+     * only needs to hold the sub-properties it overrides. Each property is reset to its default value first, so
+     * properties and sub-properties that are no longer defined by any layer return to their default value.
+     *
+     * @param properties The names of the properties to merge.
+     * @throws IOException If a property could not be read.
+     */
+    private void merge(Set<String> properties) throws IOException {
+        for (String name : properties) {
+            final IConfigProperty<?> property = this.configSerializer.property(name);
+            if (property instanceof ConfigObjectProperty<?>) {
+                this.mergeFrom(this.defaults, name);
+                for (ConfigLayer layer : this.layers) {
+                    this.mergeFrom(layer, name);
+                }
+                this.mergeFrom(this.overlay, name);
+            }
+            else if (property != null) {
+                ByteBuffer data = this.overlay != null ? this.overlay.property(name) : null;
+                for (int i = this.layers.size() - 1; data == null && i >= 0; i--) {
+                    data = this.layers.get(i).property(name);
+                }
+                if (data == null && this.defaults != null) {
+                    data = this.defaults.property(name);
+                }
+                if (data != null) {
+                    this.configSerializer.readProperty(name, data);
+                }
+            }
+        }
+    }
+
+    private void mergeFrom(@Nullable ConfigLayer layer, String name) throws IOException {
+        final ByteBuffer data = layer != null ? layer.property(name) : null;
+        if (data != null) {
+            this.configSerializer.readProperty(name, data);
+        }
+    }
+
+    /**
+     * Reads values into the config while holding the load lock, publishes them, and then notifies derived values whose
+     * properties have changed. When the config is a record and the values are rejected, or could not be read, the
+     * staged components are restored to the values they held before, so the rejected values are not kept or saved.
+     *
+     * @param read Reads the values into the config.
+     */
+    private void update(Runnable read) {
+        synchronized (this.loadLock) {
+            final Object[] staged = this.configSerializer.isRecord() ? this.configSerializer.copyStaged() : null;
+            // Derived values that are produced while the values change are not cached.
+            this.dependencyTracker.beginUpdate();
+            try {
+                read.run();
+                this.publish();
+            }
+            catch (RuntimeException e) {
+                if (staged != null) {
+                    this.configSerializer.restoreStaged(staged);
+                }
+                throw e;
+            }
+            finally {
+                this.dependencyTracker.endUpdate();
+            }
+            this.dependencyTracker.check();
+        }
+    }
+
+    /**
+     * Replaces the current config object with a new record that holds the values that were read, and renders
+     * interpolated fields whose properties have changed. Fields of config objects that are not records are updated
+     * directly.
+     */
+    private void publish() {
+        if (this.configSerializer.isRecord()) {
+            try {
+                this.current.set(this.configSerializer.construct());
+            }
+            catch (IllegalArgumentException e) {
+                this.log.error("Unable to construct config record {}!", this.obj.getClass().getName());
+                throw e;
+            }
+        }
+        if (this.interpolator != null) {
+            this.interpolator.update();
+        }
+    }
+
+    /**
+     * Reads the config from UTF-8 encoded JSON. Large configs are read in parallel when a parallel pool has been set.
+     *
+     * @param buffers Buffers used to decode the data.
+     * @param data    The data to read.
+     * @throws IOException If the config could not be read.
+     */
+    private void read(IoBuffers buffers, ByteBuffer data) throws IOException {
+        this.documentSize = data.remaining();
+        if (this.parallelPool != null && data.remaining() >= PARALLEL_THRESHOLD && this.configSerializer.readParallel(data, this.parallelPool)) {
+            return;
+        }
+        this.configSerializer.read(new JsonReader(buffers.decode(data)));
+    }
+
+    /**
+     * Indexes the properties in the config file without reading them. The properties will be read when they are
+     * requested using {@link #value(String)} or {@link #require(String)}.
+     *
+     * @return If the file was indexed. If false the file must be read normally.
+     */
+    private boolean indexLazily() {
+        try {
+            this.lazyIndex = LazyPropertyIndex.open(this.filePath, this.configSerializer);
+        }
+        catch (IOException e) {
+            this.log.error("Unable to index config file {}!", this.filePath);
+            throw new RuntimeException(e);
+        }
+        if (this.lazyIndex == null) {
+            this.log.debug("Config file {} could not be indexed and will be read in full.", this.filePath);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Ensures a property has been read from the config file. This only has an effect when the config was loaded lazily,
+     * otherwise every property is read when the config is loaded.
+     *
+     * @param path The serialized name of the property, or a dotted path to a property of a config object.
+     */
+    public void require(String path) {
+        final LazyPropertyIndex index = this.lazyIndex;
+        if (index != null && !index.isLoaded(path)) {
+            this.update(() -> this.readLazily(path));
+        }
+    }
+
+    /**
+     * Reads a property from the config file if the config was loaded lazily and the property has not been read yet.
+     *
+     * @param path The serialized name of the property, or a dotted path to a property of a config object.
+     * @return If the property was read.
+     */
+    private boolean readLazily(String path) {
+        final LazyPropertyIndex index = this.lazyIndex;
+        if (index != null) {
+            try {
+                if (!index.isLoaded(path)) {
+                    index.load(path);
+                    return true;
+                }
+            }
+            catch (IOException e) {
+                this.log.error("Unable to read property {} from {}!", path, this.filePath);
+                throw new RuntimeException(e);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the current value of a property. When the config was loaded lazily the property will be read from the file
+     * the first time it is requested.
+     *
+     * @param path The serialized name of the property, or a dotted path to a property of a config object.
+     * @param <V>  The type of the value.
+     * @return The current value of the property.
+     */
+    public <V> V value(String path) {
+        final IConfigProperty<?> property = this.property(path);
+        if (property == null) {
+            throw new IllegalArgumentException("The property '" + path + "' does not exist.");
+        }
+        this.require(path);
+        DerivedValue.recordRead(this.configSerializer, path);
+        // The caller chooses the type of the value, so it can not be checked.
+        @SuppressWarnings("unchecked")
+        final V value = (V) property.value();
+        return value;
+    }
+
+    /**
+     * Attempts to read the config from the binary cache. Any problems with the cache are logged and the config will be
+     * read from JSON instead.
+     *
+     * @return If the config was read from the cache.
+     */
+    private boolean readCache() {
+        if (this.cache != null) {
+            try {
+                return this.cache.read(this.filePath, this.configSerializer);
+            }
+            catch (Exception e) {
+                this.log.warn("Unable to read config cache {}. The config will be read from {} instead.", this.cache.cacheFile(), this.filePath, e);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the current values of the config to the binary cache. Failing to write the cache is not fatal.
+     *
+     * @param values The JSON of the config object, or null to write the current values of the config object.
+     */
+    private void writeCache(@Nullable JsonObject values) {
+        if (this.cache != null) {
+            try {
+                this.cache.write(this.filePath, this.configSerializer, values);
+            }
+            catch (Exception e) {
+                this.log.warn("Unable to write config cache {}.", this.cache.cacheFile(), e);
+            }
+        }
     }
 
     /**
@@ -81,6 +702,23 @@ public class ConfigManager<T> {
      */
     public void save() {
 
+        // Properties that have not been read would be replaced by their current values, so they are read first.
+        if (this.lazyIndex != null) {
+            this.update(() -> {
+                final LazyPropertyIndex index = this.lazyIndex;
+                if (index != null) {
+                    try {
+                        index.loadAll();
+                    }
+                    catch (IOException e) {
+                        this.log.error("Unable to read config file {} before saving!", this.filePath);
+                        throw new RuntimeException(e);
+                    }
+                    this.lazyIndex = null;
+                }
+            });
+        }
+
         if (!Files.exists(this.filePath)) {
             try {
                 Files.createFile(this.filePath);
@@ -91,24 +729,358 @@ public class ConfigManager<T> {
             }
         }
 
-        try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(this.filePath, StandardCharsets.UTF_8))) {
-            writer.setIndent(Prickle.DEFAULT_INDENT);
-            this.configSerializer.write(writer);
+        // Files such as sidecars are written first, so the config file never references a file that does not exist.
+        try {
+            this.configSerializer.writeFiles();
+        }
+        catch (IOException e) {
+            this.log.error("Could not save the files referenced by config file {}!", this.filePath);
+            throw new RuntimeException(e);
+        }
+
+        final IoBuffers buffers = this.buffers.acquire();
+        try {
+            this.write(buffers.writer());
+            this.documentSize = buffers.encode().remaining();
+            buffers.writeFile(this.filePath);
         }
 
         catch (IOException e) {
             this.log.error("Could not save config file to {}!", this.filePath);
             throw new RuntimeException(e);
         }
+        finally {
+            this.buffers.release(buffers);
+        }
+
+        try {
+            this.writeCache(this.overridden.isEmpty() ? null : this.render());
+        }
+        catch (IOException e) {
+            this.log.warn("Unable to write config cache for {}.", this.filePath, e);
+        }
+    }
+
+    /**
+     * Saves the config object to a stream as UTF-8 encoded JSON. The stream will be flushed but not closed.
+     *
+     * @param stream The stream to write the config to.
+     */
+    public void save(OutputStream stream) {
+
+        final IoBuffers buffers = this.buffers.acquire();
+        try {
+            this.write(buffers.writer());
+            final ByteBuffer bytes = buffers.encode();
+            this.documentSize = bytes.remaining();
+            stream.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+            stream.flush();
+        }
+        catch (IOException e) {
+            this.log.error("Could not save config to stream!");
+            throw new RuntimeException(e);
+        }
+        finally {
+            this.buffers.release(buffers);
+        }
+    }
+
+    /**
+     * Saves the config object to a channel as UTF-8 encoded JSON. The channel will not be closed.
+     *
+     * @param channel The channel to write the config to.
+     */
+    public void save(WritableByteChannel channel) {
+
+        final IoBuffers buffers = this.buffers.acquire();
+        try {
+            this.write(buffers.writer());
+            final ByteBuffer bytes = buffers.encode();
+            this.documentSize = bytes.remaining();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+        catch (IOException e) {
+            this.log.error("Could not save config to channel!");
+            throw new RuntimeException(e);
+        }
+        finally {
+            this.buffers.release(buffers);
+        }
+    }
+
+    /**
+     * Saves the config object to a reusable buffer as UTF-8 encoded JSON. The buffer is reset before the config is
+     * written, so the same buffer can be used to save the config many times without allocating a new array.
+     *
+     * @param buffer The buffer to write the config to.
+     * @return A read-only view of the bytes that were written. This is only valid until the buffer is used again.
+     */
+    public ByteBuffer saveToBuffer(ByteBufferOutputStream buffer) {
+
+        buffer.reset();
+        this.save(buffer);
+        return buffer.buffer();
+    }
+
+    /**
+     * Writes the config object to a character stream. The stream will be flushed but not closed.
+     *
+     * @param out The stream to write to.
+     * @throws IOException If the config could not be written.
+     */
+    private void write(Writer out) throws IOException {
+
+        final JsonWriter writer = new JsonWriter(out);
+        if (!this.compact) {
+            writer.setIndent(Prickle.DEFAULT_INDENT);
+        }
+        if (!this.layers.isEmpty()) {
+            this.writeOverlay(writer);
+        }
+        else if (!this.overridden.isEmpty()) {
+            JSON_TREE.write(writer, this.render());
+        }
+        else if (this.parallelPool != null && this.documentSize >= PARALLEL_THRESHOLD) {
+            this.configSerializer.writeParallel(writer, this.compact ? null : Prickle.DEFAULT_INDENT, this.parallelPool);
+        }
+        else {
+            this.configSerializer.write(writer);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes the properties that the config file overrides when layers are used. A property is written when the config
+     * file defines it, or when its value differs from the value merged from the defaults and the layers. Config objects
+     * only hold the sub-properties that are written, so values from other layers are not copied into the file.
+     *
+     * @param writer The writer to write the config file to.
+     * @throws IOException If the config could not be written.
+     */
+    private void writeOverlay(JsonWriter writer) throws IOException {
+        final ConfigLayer overlay = this.overlay;
+        final JsonObject file = new JsonObject();
+        for (Map.Entry<String, JsonElement> entry : this.render().entrySet()) {
+            final String name = entry.getKey();
+            final IConfigProperty<?> property = this.configSerializer.property(name);
+            JsonObject base = entry(this.defaults, name);
+            for (ConfigLayer layer : this.layers) {
+                base = mergeEntry(property, base, entry(layer, name));
+            }
+            final JsonObject kept = overlayEntry(property, asObject(entry.getValue()), base, entry(overlay, name));
+            if (kept != null) {
+                file.add(name, kept);
+            }
+        }
+        JSON_TREE.write(writer, file);
+    }
+
+    /**
+     * Reads the JSON of a property from a layer.
+     */
+    @Nullable
+    private static JsonObject entry(@Nullable ConfigLayer layer, String name) throws IOException {
+        final ByteBuffer data = layer != null ? layer.property(name) : null;
+        return data != null ? asObject(JsonParser.parseReader(SpanScanner.reader(data))) : null;
+    }
+
+    /**
+     * Applies the JSON of a property from a higher layer to the JSON merged from the layers beneath it, in the same way
+     * the property is merged into the config object.
+     */
+    @Nullable
+    private static JsonObject mergeEntry(@Nullable IConfigProperty<?> property, @Nullable JsonObject base, @Nullable JsonObject layer) {
+        if (layer == null) {
+            return base;
+        }
+        if (base == null) {
+            return layer;
+        }
+        if (property instanceof ConfigObjectProperty<?> configObject && base.get("value") instanceof JsonObject baseValues && layer.get("value") instanceof JsonObject layerValues) {
+            for (Map.Entry<String, JsonElement> child : layerValues.entrySet()) {
+                baseValues.add(child.getKey(), mergeEntry(configObject.serializer().property(child.getKey()), asObject(baseValues.get(child.getKey())), asObject(child.getValue())));
+            }
+            return base;
+        }
+        base.add("value", layer.get("value"));
+        return base;
+    }
+
+    /**
+     * Removes the parts of the JSON of a property that the config file does not override.
+     *
+     * @return The JSON to write to the config file, or null if the property should not be written.
+     */
+    @Nullable
+    private static JsonObject overlayEntry(@Nullable IConfigProperty<?> property, @Nullable JsonObject current, @Nullable JsonObject base, @Nullable JsonObject overlay) {
+        if (current == null) {
+            return null;
+        }
+        if (property instanceof ConfigObjectProperty<?> configObject && current.get("value") instanceof JsonObject values) {
+            final JsonObject kept = new JsonObject();
+            for (Map.Entry<String, JsonElement> child : values.entrySet()) {
+                final String name = child.getKey();
+                final JsonObject entry = overlayEntry(configObject.serializer().property(name), asObject(child.getValue()), child(base, name), child(overlay, name));
+                if (entry != null) {
+                    kept.add(name, entry);
+                }
+            }
+            if (kept.size() == 0 && overlay == null) {
+                return null;
+            }
+            current.add("value", kept);
+            return current;
+        }
+        return overlay != null || base == null || !Objects.equals(current.get("value"), base.get("value")) ? current : null;
+    }
+
+    /**
+     * Gets the JSON of a sub-property from the JSON of a config object.
+     */
+    @Nullable
+    private static JsonObject child(@Nullable JsonObject entry, String name) {
+        return entry != null && entry.get("value") instanceof JsonObject values ? asObject(values.get(name)) : null;
     }
 
     /**
-     * Gets the object being managed.
+     * Gets the JSON of a property from the JSON of the config object.
+     */
+    @Nullable
+    private static JsonObject propertyEntry(JsonObject config, String[] names) {
+        JsonObject entry = asObject(config.get(names[0]));
+        for (int i = 1; i < names.length; i++) {
+            entry = child(entry, names[i]);
+        }
+        return entry;
+    }
+
+    @Nullable
+    private static JsonObject asObject(@Nullable JsonElement element) {
+        return element instanceof JsonObject object ? object : null;
+    }
+
+    /**
+     * Gets the object being managed. When the config object is a record, a new record is created each time the config
+     * is loaded, and this returns the most recent one. Records are never modified, so they can be shared freely.
      *
      * @return The config object being managed.
      */
     public T get() {
-        return this.obj;
+        return this.current.get();
+    }
+
+    /**
+     * Gets a property that was mapped from the config object. Properties of config objects can be found using a dotted
+     * path such as {@code database.pool.size}.
+     *
+     * @param name The serialized name of the property, or a dotted path to a property of a config object.
+     * @return The mapped property, or null if no property exists with that name.
+     */
+    @Nullable
+    public IConfigProperty<?> property(String name) {
+        final IConfigProperty<?> property = this.configSerializer.property(name);
+        if (property != null || name.indexOf('.') < 0) {
+            return property;
+        }
+        ConfigObjectSerializer<?> serializer = this.configSerializer;
+        IConfigProperty<?> current = null;
+        for (String part : name.split("\\.")) {
+            if (serializer == null) {
+                return null;
+            }
+            current = serializer.property(part);
+            serializer = current instanceof ConfigObjectProperty<?> configObject ? configObject.serializer() : null;
+        }
+        return current;
+    }
+
+    /**
+     * Creates a typed handle to a property of the config object. The key should be created once and reused, as reading
+     * a key does not need to look up the property again. When the config was loaded lazily, reading the key reads the
+     * property from the file the first time it is requested.
+     *
+     * @param path The serialized name of the property, or a dotted path to a property of a config object.
+     * @param type The type of the property value.
+     * @param <V>  The type of the property value.
+     * @return A key for the property.
+     * @throws IllegalArgumentException If the path does not point to a property, or the type does not match.
+     */
+    public <V> ConfigKey<V> key(String path, Class<V> type) {
+        final ConfigKey<V> key = this.resolveKey(path, type);
+        return this.lazy ? key.withLoader(this::require) : key;
+    }
+
+    /**
+     * Resolves a key that reads the current value of a property without reading lazily loaded properties.
+     */
+    private <V> ConfigKey<V> resolveKey(String path, Class<V> type) {
+        return this.configSerializer.isRecord() ? ConfigKey.resolve(this.configSerializer, path, type, this.current::get) : ConfigKey.resolve(this.configSerializer, path, type);
+    }
+
+    /**
+     * Creates a value that is derived from the properties of this config. The value is cached until one of the
+     * properties it reads changes when the config is loaded. Properties are recorded when they are read using
+     * {@link #value(String)} or a {@link ConfigKey}. Use {@link DerivedValue.Builder} to declare the properties or to
+     * produce changed values in the background.
+     *
+     * @param compute Produces the value from the current config.
+     * @param <V>     The type of the value.
+     * @return The derived value.
+     */
+    public <V> DerivedValue<V> derive(Supplier<V> compute) {
+        return new DerivedValue.Builder<>(this, compute).build();
+    }
+
+    /**
+     * Gets the version of the tracked properties, which should be read before a derived value is produced.
+     *
+     * @return The version of the tracked properties, or -1 if the config is being updated.
+     */
+    long dependencyVersion() {
+        return this.dependencyTracker.version();
+    }
+
+    /**
+     * Tracks the properties a derived value depends on.
+     *
+     * @param value    The derived value.
+     * @param previous The dotted paths of the properties the value depended on before.
+     * @param paths    The dotted paths of the properties.
+     * @param version  The version of the tracked properties from before the value was produced.
+     * @return If the properties have not changed since the version was read, so the value may be cached.
+     */
+    boolean trackDependencies(DerivedValue<?> value, Set<String> previous, Set<String> paths, long version) {
+        return this.dependencyTracker.track(value, previous, paths, version);
+    }
+
+    /**
+     * Gets the serializer of the config object.
+     *
+     * @return The serializer of the config object.
+     */
+    ConfigObjectSerializer<T> serializer() {
+        return this.configSerializer;
+    }
+
+    /**
+     * Creates a validator that checks config files against the schema of this config, without applying any values.
+     *
+     * @return A validator for this config schema.
+     */
+    public ConfigValidator validator() {
+        return new ConfigValidator(this.configSerializer);
+    }
+
+    /**
+     * A value that was replaced by an override.
+     *
+     * @param names    The names of each property along the path to the property.
+     * @param original The JSON of the value the override replaced.
+     * @param value    The JSON of the override.
+     */
+    private record OverriddenValue(String[] names, JsonElement original, JsonElement value) {
     }
 
     /**
@@ -119,45 +1091,21 @@ public class ConfigManager<T> {
     public static class Builder<T> {
 
         private final Path filePath;
-        private final List<IPropertyAdapter<?>> propertyAdapters = new LinkedList<>();
-        private final Map<Class<?>, IPropertyAdapter<?>> adapterOverrideCache = new HashMap<>();
-        private final List<Consumer<GsonBuilder>> gsonConfigs = new LinkedList<>();
-        private GsonBuilder gsonBuilder;
-        private ICommentResolver commentResolver;
+        private final PrickleContext.Builder contextBuilder = new PrickleContext.Builder();
+        private boolean customized = false;
+        private PrickleContext context = null;
         private Logger logger = null;
+        private ConfigCache cache = null;
+        private boolean compact = false;
+        private IoBufferPool buffers = IoBufferPool.shared();
+        private ForkJoinPool parallelPool = null;
+        private boolean lazy = false;
+        private boolean generatedAccessors = false;
+        private final List<ConfigLayer> layers = new ArrayList<>();
+        private final List<OverrideSource> overrideSources = new ArrayList<>();
 
         public Builder(Path filePath) {
             this.filePath = filePath;
-
-            this.gsonConfig(builder -> {
-                builder
-                        // Tells GSON to use indents when serializing values. While the JsonWriter
-                        // already has an indent this GSON instance may be used to write values into
-                        // the writer and will need their own indents.
-                        .setPrettyPrinting()
-
-                        // Our configuration files are not being embedded as HTML. There is no need for
-                        // us to escape HTML characters. Disabling this option helps ensure values are
-                        // written as the developer and user would expect.
-                        .disableHtmlEscaping()
-
-                        // Allows special double like NaN and Infinity to be serialized. While special
-                        // floating point values are not permitted in standard JSON they are often
-                        // deserialized regardless.
-                        .serializeSpecialFloatingPointValues()
-
-                        // Disables some weird number serialization quirks like scientific notation
-                        // being used for long numbers.
-                        .setNumberToNumberStrategy(ToNumberPolicy.BIG_DECIMAL)
-
-                        // Registers a type adapter to handle our implementation of comments.
-                        .registerTypeAdapter(WrappedComment.class, CommentTypeAdapter.INSTANCE);
-            });
-            this.adapter(RegexStringProperty.ADAPTER);
-            this.adapter(RangedProperty.ADAPTER);
-            this.adapter(ArrayProperty.ADAPTER);
-            this.adapter(CollectionArrayProperty.ADAPTER);
-            this.commentResolver(WrappedComment.RESOLVER);
         }
 
         /**
@@ -179,7 +1127,8 @@ public class ConfigManager<T> {
          * @return The same builder instance.
          */
         public Builder<T> adapter(IPropertyAdapter<?> adapter) {
-            this.propertyAdapters.add(adapter);
+            this.contextBuilder.adapter(adapter);
+            this.customized = true;
             return this;
         }
 
@@ -191,7 +1140,8 @@ public class ConfigManager<T> {
          * @return The same builder instance.
          */
         public Builder<T> gsonBuilder(GsonBuilder builder) {
-            this.gsonBuilder = builder;
+            this.contextBuilder.gsonBuilder(builder);
+            this.customized = true;
             return this;
         }
 
@@ -202,7 +1152,8 @@ public class ConfigManager<T> {
          * @return The same builder instance.
          */
         public Builder<T> gsonConfig(Consumer<GsonBuilder> config) {
-            this.gsonConfigs.add(config);
+            this.contextBuilder.gsonConfig(config);
+            this.customized = true;
             return this;
         }
 
@@ -213,7 +1164,165 @@ public class ConfigManager<T> {
          * @return The same builder instance.
          */
         public Builder<T> commentResolver(ICommentResolver resolver) {
-            this.commentResolver = resolver;
+            this.contextBuilder.commentResolver(resolver);
+            this.customized = true;
+            return this;
+        }
+
+        /**
+         * Deduplicates strings that are read from the config file, including the elements of collections and the keys
+         * and values of maps. To share strings between many configs, pass the same table to each builder or use a
+         * {@link #context(PrickleContext) context} that deduplicates strings.
+         *
+         * @param strings The table to deduplicate strings with.
+         * @return The same builder instance.
+         */
+        public Builder<T> dedupeStrings(StringDeduplicator strings) {
+            this.contextBuilder.dedupeStrings(strings);
+            this.customized = true;
+            return this;
+        }
+
+        /**
+         * Uses a context that may be shared with other config managers. The context provides the GSON instance,
+         * property adapters, and comment resolver, so those options can not also be set on this builder. When no
+         * context is set and those options are not changed, the {@link PrickleContext#shared() shared} context is used.
+         *
+         * @param context The context to use.
+         * @return The same builder instance.
+         */
+        public Builder<T> context(PrickleContext context) {
+            this.context = context;
+            return this;
+        }
+
+        /**
+         * Enables a binary cache that is stored next to the config file. When the config file and schema have not
+         * changed since the cache was written, the cache will be read instead of parsing the JSON.
+         *
+         * @return The same builder instance.
+         */
+        public Builder<T> cache() {
+            this.cache = ConfigCache.beside(this.filePath);
+            return this;
+        }
+
+        /**
+         * Enables a binary cache that is stored in a specific directory. When the config file and schema have not
+         * changed since the cache was written, the cache will be read instead of parsing the JSON.
+         *
+         * @param directory The directory to store the cache in.
+         * @return The same builder instance.
+         */
+        public Builder<T> cache(Path directory) {
+            this.cache = ConfigCache.inDirectory(directory, this.filePath);
+            return this;
+        }
+
+        /**
+         * Writes the config in a compact format. Compact files are minified and only hold the values of properties,
+         * without comments, decorators, or default values. This is intended for configs that are written and read by
+         * tools rather than edited by people. This only changes how the config is written. Values are still wrapped in
+         * their property objects, so compact files are read the same way as other files.
+         *
+         * @return The same builder instance.
+         */
+        public Builder<T> compact() {
+            this.compact = true;
+            return this;
+        }
+
+        /**
+         * Sets the pool of buffers that are reused when the config is read and written. By default a pool that is
+         * shared by all config managers is used.
+         *
+         * @param buffers The pool of buffers to use.
+         * @return The same builder instance.
+         */
+        public Builder<T> buffers(IoBufferPool buffers) {
+            this.buffers = buffers;
+            return this;
+        }
+
+        /**
+         * Reads and writes large configs in parallel using the common fork/join pool. When reading, the
+         * top-level properties are read and validated concurrently, then applied in the order they appear in the file.
+         * When writing, the top-level properties are rendered concurrently and then written in order.
+         *
+         * @return The same builder instance.
+         */
+        public Builder<T> parallel() {
+            return this.parallel(ForkJoinPool.commonPool());
+        }
+
+        /**
+         * Reads and writes large configs in parallel using a specific fork/join pool. When reading, the
+         * top-level properties are read and validated concurrently, then applied in the order they appear in the file.
+         * When writing, the top-level properties are rendered concurrently and then written in order.
+         *
+         * @param pool The pool used to read and write properties.
+         * @return The same builder instance.
+         */
+        public Builder<T> parallel(ForkJoinPool pool) {
+            this.parallelPool = pool;
+            return this;
+        }
+
+        /**
+         * Loads the config lazily. Loading the config only indexes where each property is located in the file, and a
+         * property is read the first time it is requested using {@link ConfigManager#value(String)},
+         * {@link ConfigManager#require(String)}, or a {@link ConfigKey}. Interpolated fields read the properties they
+         * reference. Fields of the config object keep their previous values until their property is requested. This is
+         * intended for large configs where only a few properties are used.
+         *
+         * @return The same builder instance.
+         */
+        public Builder<T> lazy() {
+            this.lazy = true;
+            return this;
+        }
+
+        /**
+         * Accesses the fields of the config object using small classes that are generated at runtime, instead of
+         * reflection. The generated classes read and write the fields directly, which allows the JIT to inline field
+         * access when the config is loaded and saved. Fields that can not be accessed this way, such as final fields,
+         * continue to use reflection.
+         *
+         * @return The same builder instance.
+         */
+        public Builder<T> generatedAccessors() {
+            this.generatedAccessors = true;
+            return this;
+        }
+
+        /**
+         * Adds a layer that is merged beneath the config file. Layers are merged in the order they are added, so later
+         * layers override earlier ones, and the config file overrides every layer. Layers are parsed once and can be
+         * shared by many config managers. When a layer changes, only the properties it changed are merged again.
+         * <p>
+         * When layers are used the config file is optional and only holds the properties it overrides. Saving the
+         * config only writes those properties and any values that differ from the layers, and the lazy, cache, and
+         * parallel options are not used when loading.
+         *
+         * @param layer The layer to add.
+         * @return The same builder instance.
+         */
+        public Builder<T> layer(ConfigLayer layer) {
+            this.layers.add(layer);
+            return this;
+        }
+
+        /**
+         * Adds a source of values that override individual properties, such as environment variables or system
+         * properties. Sources are applied each time the config is loaded, after the file and layers have been read,
+         * and later sources override earlier ones. Overridden values are validated like values from the file. When the
+         * config is saved, properties that still hold their override are written with the value the override replaced.
+         *
+         * @param source The source of override values.
+         * @return The same builder instance.
+         */
+        public Builder<T> overrides(OverrideSource source) {
+            this.overrideSources.add(source);
             return this;
         }
 
@@ -238,16 +1347,24 @@ public class ConfigManager<T> {
                 this.logger = LoggerFactory.getLogger(cfgData.getClass());
             }
 
-            if (this.gsonBuilder == null) {
-                this.gsonBuilder = new GsonBuilder();
+            if (this.context != null && this.customized) {
+                throw new IllegalStateException("Config manager can not use a shared context when GSON, property adapters, the comment resolver, or string deduplication are also configured!");
             }
 
-            for (Consumer<GsonBuilder> gsonConfig : this.gsonConfigs) {
-                gsonConfig.accept(this.gsonBuilder);
-            }
-            final Gson gson = this.gsonBuilder.create();
+            final PrickleContext context = this.context != null ? this.context : this.customized ? this.contextBuilder.build() : PrickleContext.shared();
+            return new ConfigManager<T>(this.filePath, this.logger, cfgData, new PropertyResolver(context, this.logger, this.filePath.toAbsolutePath().getParent(), resourcePrefix(this.filePath), this.compact, this.generatedAccessors), this.cache, this.buffers, this.parallelPool, this.lazy, this.layers, this.overrideSources);
+        }
 
-            return new ConfigManager<T>(this.filePath, this.logger, cfgData, new PropertyResolver(gson, this.logger, this.propertyAdapters, this.commentResolver));
+        /**
+         * Gets the prefix used to name resources of a config file, which is the name of the file without its extension.
+         *
+         * @param filePath The path of the config file.
+         * @return The prefix for resources of the config.
+         */
+        private static String resourcePrefix(Path filePath) {
+            final String fileName = filePath.getFileName().toString();
+            final int extension = fileName.lastIndexOf('.');
+            return extension > 0 ? fileName.substring(0, extension) : fileName;
         }
     }
 }
\ No newline at end of file
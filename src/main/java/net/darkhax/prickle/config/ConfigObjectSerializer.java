@@ -1,16 +1,52 @@
 package net.darkhax.prickle.config;
 
+import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.property.ConfigObjectProperty;
 import net.darkhax.prickle.config.property.IConfigProperty;
+import net.darkhax.prickle.config.property.IFileBackedProperty;
+import net.darkhax.prickle.config.property.IPendingRead;
+import net.darkhax.prickle.config.property.IPropertyAdapter;
+import net.darkhax.prickle.config.property.ObjectProperty;
+import net.darkhax.prickle.config.property.access.ComponentAccessor;
+import net.darkhax.prickle.config.property.array.ElementSchema;
+import net.darkhax.prickle.config.scan.PropertySpan;
+import net.darkhax.prickle.config.scan.SpanScanner;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.StringWriter;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * A serializer that will map an object to config property adapters and make the serializable.
@@ -34,10 +70,29 @@ public class ConfigObjectSerializer<T> {
      */
     private final Map<String, SchemaEntry> properties;
 
+    /**
+     * The object the schema was mapped from.
+     */
+    private final T object;
+
+    /**
+     * When the object is a record this holds its staged components. Properties are applied to the staged components
+     * instead of the record, and new records are created from them using {@link #construct()}.
+     */
+    @Nullable
+    private final RecordShape record;
+
+    /**
+     * A lazily computed fingerprint of the mapped schema.
+     */
+    private long fingerprint;
+
     public ConfigObjectSerializer(PropertyResolver propertyResolver, T dataObj) {
         this.propertyResolver = propertyResolver;
         this.log = propertyResolver.logger();
-        this.properties = mapSchema(dataObj);
+        this.record = dataObj.getClass().isRecord() ? RecordShape.of(dataObj.getClass()) : null;
+        this.properties = this.record != null ? this.mapRecordSchema(dataObj) : mapSchema(dataObj);
+        this.object = dataObj;
     }
 
     /**
@@ -78,6 +133,347 @@ public class ConfigObjectSerializer<T> {
         return Collections.unmodifiableMap(schema);
     }
 
+    /**
+     * Maps the components of a record to config properties. The current values of the record are copied into the
+     * staged components, and each property reads and writes its component through the staged components.
+     *
+     * @param dataObj The record to map.
+     * @return The mapped out config schema.
+     */
+    private Map<String, SchemaEntry> mapRecordSchema(T dataObj) {
+
+        final Map<String, SchemaEntry> schema = new LinkedHashMap<>();
+        final RecordComponent[] components = dataObj.getClass().getRecordComponents();
+
+        for (int i = 0; i < components.length; i++) {
+            final Field field;
+            try {
+                field = dataObj.getClass().getDeclaredField(components[i].getName());
+                field.setAccessible(true);
+                this.record.components()[i] = copy(field.getType(), field.get(dataObj), false);
+            }
+            catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+
+            final Value valueMeta = field.getAnnotation(Value.class);
+            if (valueMeta != null) {
+                final String propertyName = (valueMeta.name() == null || valueMeta.name().isBlank()) ? field.getName() : valueMeta.name();
+
+                if (schema.containsKey(propertyName)) {
+                    throw new IllegalStateException("The property name '" + propertyName + "' has already been found to property '" + schema.get(propertyName) + "'. Check " + dataObj.getClass().getName() + "#" + field.getName());
+                }
+                try {
+                    final IConfigProperty<?> property = this.propertyResolver.toProperty(field, this.record.components(), this.record.components()[i], valueMeta);
+                    if (property instanceof ObjectProperty<?> objectProperty) {
+                        objectProperty.useAccessor(new ComponentAccessor(i, field));
+                    }
+                    // Records held by the record are staged as well, and are constructed along with the outer record.
+                    if (property instanceof ConfigObjectProperty<?> configObject && configObject.serializer().record != null) {
+                        this.record.components()[i] = configObject.serializer().record.components();
+                        this.record.nested()[i] = configObject.serializer();
+                    }
+                    schema.put(propertyName, new SchemaEntry(field, propertyName, valueMeta, property));
+                    this.log.info("{} = {}", propertyName, property);
+                }
+                catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+
+        if (schema.isEmpty()) {
+            throw new RuntimeException("Invalid cfg class!");
+        }
+
+        return Collections.unmodifiableMap(schema);
+    }
+
+    /**
+     * Gets a property that was mapped from the config object.
+     *
+     * @param name The serialized name of the property.
+     * @return The mapped property, or null if no property exists with that name.
+     */
+    @Nullable
+    public IConfigProperty<?> property(String name) {
+        final SchemaEntry entry = this.properties.get(name);
+        return entry != null ? entry.property() : null;
+    }
+
+    /**
+     * Gets the field that a property was mapped from.
+     *
+     * @param name The serialized name of the property.
+     * @return The mapped field, or null if no property exists with that name.
+     */
+    @Nullable
+    public Field field(String name) {
+        final SchemaEntry entry = this.properties.get(name);
+        return entry != null ? entry.field() : null;
+    }
+
+    /**
+     * Gets the object the schema was mapped from.
+     *
+     * @return The mapped object.
+     */
+    public T object() {
+        return this.object;
+    }
+
+    /**
+     * Checks if the schema was mapped from a record. The properties of records are applied to staged components, and
+     * {@link #construct()} must be used to create a record with the values that were read.
+     *
+     * @return If the schema was mapped from a record.
+     */
+    public boolean isRecord() {
+        return this.record != null;
+    }
+
+    /**
+     * Gets the object that properties are read into and written from. This is the mapped object, or the staged
+     * components when the object is a record.
+     *
+     * @return The target of the properties.
+     */
+    public Object target() {
+        return this.record != null ? this.record.components() : this.object;
+    }
+
+    /**
+     * Creates a new record from the staged components using its canonical constructor. Collections and arrays are
+     * copied, so the record does not share any mutable state with the staged components or other records. Records that
+     * are held by the record are constructed as well.
+     *
+     * @return The new record.
+     * @throws IllegalStateException    If the schema was not mapped from a record.
+     * @throws IllegalArgumentException If the canonical constructor rejected the values.
+     */
+    public T construct() {
+        if (this.record == null) {
+            throw new IllegalStateException("Only records can be constructed. " + this.object.getClass().getName() + " is not a record.");
+        }
+        final Object[] staged = this.record.components();
+        final Object[] arguments = new Object[staged.length];
+        for (int i = 0; i < arguments.length; i++) {
+            final ConfigObjectSerializer<?> nested = this.record.nested()[i];
+            arguments[i] = nested != null ? nested.construct() : copy(this.record.types()[i], staged[i], true);
+        }
+        try {
+            // The constructor was found on the class of the mapped object, so it creates a T.
+            @SuppressWarnings("unchecked")
+            final T constructed = (T) this.record.constructor().newInstance(arguments);
+            return constructed;
+        }
+        catch (InvocationTargetException e) {
+            throw new IllegalArgumentException("Could not construct " + this.object.getClass().getName() + ". " + e.getCause().getMessage(), e.getCause());
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not construct " + this.object.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * Copies the staged components of a record, including the components of the records it holds. Collections, maps,
+     * and arrays are copied as well, so reading values into the staged components does not change the copy.
+     *
+     * @return A copy of the staged components that can be restored using {@link #restoreStaged(Object[])}.
+     * @throws IllegalStateException If the schema was not mapped from a record.
+     */
+    public Object[] copyStaged() {
+        if (this.record == null) {
+            throw new IllegalStateException("Only records have staged components. " + this.object.getClass().getName() + " is not a record.");
+        }
+        final Object[] staged = this.record.components();
+        final Object[] copy = new Object[staged.length];
+        for (int i = 0; i < copy.length; i++) {
+            final ConfigObjectSerializer<?> nested = this.record.nested()[i];
+            copy[i] = nested != null ? nested.copyStaged() : copy(this.record.types()[i], staged[i], false);
+        }
+        return copy;
+    }
+
+    /**
+     * Restores the staged components of a record to a copy made by {@link #copyStaged()}. This is used to discard
+     * values that were read when the record rejects them.
+     *
+     * @param copy The copy to restore. The copy is held by the staged components afterwards, so it must not be reused.
+     * @throws IllegalStateException If the schema was not mapped from a record.
+     */
+    public void restoreStaged(Object[] copy) {
+        if (this.record == null) {
+            throw new IllegalStateException("Only records have staged components. " + this.object.getClass().getName() + " is not a record.");
+        }
+        final Object[] staged = this.record.components();
+        for (int i = 0; i < staged.length; i++) {
+            final ConfigObjectSerializer<?> nested = this.record.nested()[i];
+            if (nested != null) {
+                nested.restoreStaged((Object[]) copy[i]);
+            }
+            else {
+                staged[i] = copy[i];
+            }
+        }
+    }
+
+    /**
+     * Copies a collection, map, or array so it is not shared between the staged components and a record. Other values
+     * are returned as is.
+     *
+     * @param type         The declared type of the value.
+     * @param value        The value to copy.
+     * @param unmodifiable When true, collections and maps declared using their interface are copied into unmodifiable
+     *                     views.
+     * @return The copied value.
+     */
+    @Nullable
+    private static Object copy(Class<?> type, @Nullable Object value, boolean unmodifiable) {
+        if (value == null) {
+            return null;
+        }
+        if (value.getClass().isArray()) {
+            return value instanceof Object[] array ? array.clone() : copyArray(value);
+        }
+        if (value instanceof Map<?, ?> map && type == Map.class) {
+            return unmodifiable ? Collections.unmodifiableMap(new LinkedHashMap<>(map)) : new LinkedHashMap<>(map);
+        }
+        if (value instanceof Collection<?> collection && type.isInterface()) {
+            if (type == Set.class) {
+                return unmodifiable ? Collections.unmodifiableSet(new LinkedHashSet<>(collection)) : new LinkedHashSet<>(collection);
+            }
+            if (type == List.class || type == Collection.class) {
+                return unmodifiable ? Collections.unmodifiableList(new ArrayList<>(collection)) : new ArrayList<>(collection);
+            }
+        }
+        if ((value instanceof Map<?, ?> || value instanceof Collection<?>) && !type.isInterface()) {
+            // Concrete collection types are copied using their copy constructor when they have one.
+            try {
+                return value.getClass().getConstructor(value instanceof Map<?, ?> ? Map.class : Collection.class).newInstance(value);
+            }
+            catch (ReflectiveOperationException e) {
+                return value;
+            }
+        }
+        return value;
+    }
+
+    private static Object copyArray(Object array) {
+        final int length = Array.getLength(array);
+        final Object copy = Array.newInstance(array.getClass().getComponentType(), length);
+        System.arraycopy(array, 0, copy, 0, length);
+        return copy;
+    }
+
+    /**
+     * Gets a fingerprint of the mapped schema. The fingerprint is derived from the names, property types, and field
+     * types of every mapped property, including the properties of sub-objects and config object elements, as well as
+     * the property adapters that were registered with the resolver and the GSON type adapters that handle the type of
+     * each property and its type arguments. Two serializers with the same fingerprint will read and write the same
+     * data.
+     *
+     * @return A fingerprint of the mapped schema.
+     */
+    public long fingerprint() {
+        if (this.fingerprint == 0) {
+            final StringBuilder builder = new StringBuilder();
+            for (IPropertyAdapter<?> adapter : this.propertyResolver.adapters()) {
+                builder.append(adapter.getClass().getName()).append(';');
+            }
+            this.describe(builder, Collections.newSetFromMap(new IdentityHashMap<>()));
+            try {
+                final byte[] hash = MessageDigest.getInstance("SHA-256").digest(builder.toString().getBytes(StandardCharsets.UTF_8));
+                this.fingerprint = ByteBuffer.wrap(hash).getLong();
+            }
+            catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return this.fingerprint;
+    }
+
+    /**
+     * Writes a description of the mapped schema to a string builder. Element schemas may hold themselves, so schemas
+     * that are already being described are written as a reference to their type.
+     *
+     * @param builder  The builder to write the description to.
+     * @param visiting The serializers that are currently being described.
+     */
+    private void describe(StringBuilder builder, Set<ConfigObjectSerializer<?>> visiting) {
+        if (!visiting.add(this)) {
+            builder.append('^').append(this.object.getClass().getName());
+            return;
+        }
+        builder.append('{');
+        for (SchemaEntry entry : this.properties.values()) {
+            builder.append(entry.serializedName()).append('=').append(entry.property().getClass().getName()).append(':').append(entry.field().getGenericType().getTypeName());
+            this.describeAdapters(entry.field().getGenericType(), builder);
+            if (entry.property() instanceof ConfigObjectProperty<?> configObject) {
+                configObject.serializer().describe(builder, visiting);
+            }
+            this.describeElements(entry.field().getGenericType(), builder, visiting);
+            builder.append(';');
+        }
+        builder.append('}');
+        visiting.remove(this);
+    }
+
+    /**
+     * Writes the GSON type adapters that handle a type and its type arguments to a string builder. Type adapters that
+     * are registered with GSON replace the default adapters, so changing them changes the description.
+     *
+     * @param type    The type to describe.
+     * @param builder The builder to write the description to.
+     */
+    private void describeAdapters(Type type, StringBuilder builder) {
+        if (type instanceof ParameterizedType paramType) {
+            for (Type argument : paramType.getActualTypeArguments()) {
+                this.describeAdapters(argument, builder);
+            }
+        }
+        else if (type instanceof GenericArrayType arrayType) {
+            this.describeAdapters(arrayType.getGenericComponentType(), builder);
+        }
+        else if (type instanceof Class<?> clazz && clazz.isArray()) {
+            this.describeAdapters(clazz.getComponentType(), builder);
+        }
+        else if (type instanceof WildcardType wildcard) {
+            for (Type bound : wildcard.getUpperBounds()) {
+                this.describeAdapters(bound, builder);
+            }
+            return;
+        }
+        if (type instanceof TypeVariable<?>) {
+            return;
+        }
+        builder.append('@');
+        try {
+            builder.append(this.propertyResolver.gson().getAdapter(TypeToken.get(type)).getClass().getName());
+        }
+        catch (RuntimeException e) {
+            // Types that GSON can not handle are always handled by a property, so they do not need an adapter.
+            builder.append('!');
+        }
+    }
+
+    private void describeElements(Type type, StringBuilder builder, Set<ConfigObjectSerializer<?>> visiting) {
+        if (type instanceof ParameterizedType paramType) {
+            for (Type argument : paramType.getActualTypeArguments()) {
+                final ElementSchema<?> schema = this.propertyResolver.toElementSchema(argument);
+                if (schema != null) {
+                    schema.serializer().describe(builder, visiting);
+                }
+            }
+        }
+        else if (type instanceof Class<?> clazz && clazz.isArray()) {
+            final ElementSchema<?> schema = this.propertyResolver.toElementSchema(clazz.getComponentType());
+            if (schema != null) {
+                schema.serializer().describe(builder, visiting);
+            }
+        }
+    }
+
     /**
      * Writes the config object to a JSON writer.
      *
@@ -93,6 +489,104 @@ public class ConfigObjectSerializer<T> {
         out.endObject();
     }
 
+    /**
+     * Writes some of the top-level properties of the config object to a JSON writer. The properties are written in
+     * schema order.
+     *
+     * @param out   The writer that data should be written to.
+     * @param names The serialized names of the properties to write. Names that are not mapped are ignored.
+     * @throws IOException This may be raised if a fatal error is encountered while writing the data.
+     */
+    public void write(JsonWriter out, Set<String> names) throws IOException {
+        out.beginObject();
+        for (Map.Entry<String, SchemaEntry> entry : this.properties.entrySet()) {
+            if (names.contains(entry.getKey())) {
+                out.name(entry.getKey());
+                entry.getValue().property().write(out, this.propertyResolver, log);
+            }
+        }
+        out.endObject();
+    }
+
+    /**
+     * Writes the config object to a JSON writer, rendering the top-level properties concurrently. Each property is
+     * rendered into its own buffer on the pool, and the buffers are written in schema order once they are complete. The
+     * output is identical to {@link #write(JsonWriter)} when the same indent is used.
+     *
+     * @param out    The writer that data should be written to.
+     * @param indent The indent used by the writer, or null if the writer does not use an indent.
+     * @param pool   The pool used to render the properties.
+     * @throws IOException This may be raised if a fatal error is encountered while writing the data.
+     */
+    public void writeParallel(JsonWriter out, @Nullable String indent, ForkJoinPool pool) throws IOException {
+        final List<ForkJoinTask<String>> tasks = new ArrayList<>(this.properties.size());
+        for (SchemaEntry entry : this.properties.values()) {
+            tasks.add(pool.submit(() -> this.render(entry.property(), indent)));
+        }
+
+        out.beginObject();
+        int index = 0;
+        for (String name : this.properties.keySet()) {
+            out.name(name);
+            try {
+                out.jsonValue(tasks.get(index++).get());
+            }
+            catch (ExecutionException e) {
+                throw rethrow(e.getCause());
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while writing config properties.");
+            }
+        }
+        out.endObject();
+    }
+
+    /**
+     * Renders a top-level property as JSON text. Every line after the first is indented by one level, so the text is
+     * aligned as if it had been written inside the config object.
+     *
+     * @param property The property to render.
+     * @param indent   The indent to use, or null if no indent should be used.
+     * @return The rendered JSON text.
+     * @throws IOException If the property could not be written.
+     */
+    private String render(IConfigProperty<?> property, @Nullable String indent) throws IOException {
+        final StringWriter buffer = new StringWriter();
+        final JsonWriter writer = new JsonWriter(buffer);
+        if (indent != null) {
+            writer.setIndent(indent);
+        }
+        property.write(writer, this.propertyResolver, this.log);
+        writer.flush();
+
+        // Strings are always escaped, so any line break in the output is formatting added by the writer.
+        final String rendered = buffer.toString();
+        return indent == null || indent.isEmpty() ? rendered : rendered.replace("\n", "\n" + indent);
+    }
+
+    /**
+     * Writes the values of another object that shares the mapped schema to a JSON writer. If the target is the object
+     * the schema was mapped from, its own properties are written, so they do not need to extend {@link ObjectProperty}.
+     *
+     * @param out    The writer that data should be written to.
+     * @param target The object to write. This must be of the same type as the object the schema was mapped from.
+     * @throws IOException This may be raised if a fatal error is encountered while writing the data.
+     */
+    public void write(JsonWriter out, Object target) throws IOException {
+        out.beginObject();
+        for (Map.Entry<String, SchemaEntry> entry : this.properties.entrySet()) {
+            out.name(entry.getKey());
+            if (target == this.target()) {
+                entry.getValue().property().write(out, this.propertyResolver, log);
+            }
+            else {
+                shared(entry.getValue(), target).write(out, target, this.propertyResolver, log);
+            }
+        }
+        out.endObject();
+    }
+
     /**
      * Reads JSON data and updates the properties on the config object.
      *
@@ -121,6 +615,280 @@ public class ConfigObjectSerializer<T> {
         in.endObject();
     }
 
+    /**
+     * Reads JSON data and updates the properties of another object that shares the mapped schema. If the target is the
+     * object the schema was mapped from, its own properties are read, so they do not need to extend
+     * {@link ObjectProperty}.
+     *
+     * @param in     The input reader.
+     * @param target The object to update. This must be of the same type as the object the schema was mapped from.
+     * @throws IOException This may be raised if a fatal error is encountered while reading the data.
+     */
+    public void read(JsonReader in, Object target) throws IOException {
+
+        in.beginObject();
+
+        while (in.hasNext()) {
+
+            final String propertyKey = in.nextName();
+            final SchemaEntry entry = this.properties.get(propertyKey);
+
+            if (entry != null && target == this.target()) {
+                entry.field().setAccessible(true);
+                entry.property().read(in, this.propertyResolver, log);
+            }
+            else if (entry != null) {
+                shared(entry, target).read(in, target, this.propertyResolver, log);
+            }
+            else {
+                this.log.warn("Skipping unknown property '{}' found in user JSON.", propertyKey);
+                in.skipValue();
+            }
+        }
+
+        in.endObject();
+    }
+
+    /**
+     * Reads a single property from UTF-8 encoded JSON and applies it to the config object.
+     *
+     * @param name The serialized name of the property.
+     * @param data The JSON data of the property. The position of the buffer is not changed.
+     * @throws IOException This may be raised if a fatal error is encountered while reading the data.
+     */
+    public void readProperty(String name, ByteBuffer data) throws IOException {
+        final SchemaEntry entry = this.properties.get(name);
+        if (entry == null) {
+            throw new IllegalArgumentException("The property '" + name + "' does not exist.");
+        }
+        entry.property().read(SpanScanner.reader(data), this.propertyResolver, this.log);
+    }
+
+    /**
+     * Reads and validates a single property from UTF-8 encoded JSON without applying it to the config object. The
+     * property is read using {@link IConfigProperty#readPending(JsonReader, Object, PropertyResolver, Logger)} and the
+     * pending read is discarded, so this does not change the config object and may be used by many threads at the same
+     * time. Properties that do not override the default pending read are only checked to be valid JSON.
+     *
+     * @param name The serialized name of the property.
+     * @param data The JSON data of the property. The position of the buffer is not changed.
+     * @throws IOException              If the data could not be read.
+     * @throws IllegalArgumentException If the value is not valid for the property.
+     */
+    public void validateProperty(String name, ByteBuffer data) throws IOException {
+        this.validateProperty(name, data, this.propertyResolver);
+    }
+
+    /**
+     * Reads and validates a single property from UTF-8 encoded JSON without applying it to the config object, resolving
+     * the resources it references, such as sidecar files, against a specific directory.
+     *
+     * @param name      The serialized name of the property.
+     * @param data      The JSON data of the property. The position of the buffer is not changed.
+     * @param directory The directory that holds the file the data was read from.
+     * @throws IOException              If the data could not be read.
+     * @throws IllegalArgumentException If the value is not valid for the property.
+     * @see #validateProperty(String, ByteBuffer)
+     */
+    public void validateProperty(String name, ByteBuffer data, Path directory) throws IOException {
+        this.validateProperty(name, data, this.propertyResolver.withDirectory(directory));
+    }
+
+    private void validateProperty(String name, ByteBuffer data, PropertyResolver resolver) throws IOException {
+        final SchemaEntry entry = this.properties.get(name);
+        if (entry == null) {
+            throw new IllegalArgumentException("The property '" + name + "' does not exist.");
+        }
+        entry.property().readPending(SpanScanner.reader(data), this.target(), resolver, this.log);
+    }
+
+    /**
+     * Checks if two objects that share the mapped schema hold the same values. Each property is compared using
+     * {@link ObjectProperty#sameValue(Object, Object)}, so config objects do not need to implement equals.
+     *
+     * @param first  The first object.
+     * @param second The second object.
+     * @return If every property holds the same value.
+     * @throws IllegalStateException If a property can only be applied to the object it was mapped from.
+     */
+    public boolean sameValues(Object first, Object second) {
+        for (SchemaEntry entry : this.properties.values()) {
+            if (!shared(entry, first).sameValue(first, second)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the files that hold part of the values of properties, such as sidecar files, including the files of
+     * nested config objects. This should only be called when the config file itself is saved.
+     *
+     * @throws IOException If a file could not be written.
+     */
+    public void writeFiles() throws IOException {
+        for (SchemaEntry entry : this.properties.values()) {
+            if (entry.property() instanceof IFileBackedProperty property) {
+                property.writeFiles(this.log);
+            }
+        }
+    }
+
+    /**
+     * Gets the serialized names of the mapped properties, in schema order.
+     *
+     * @return The names of the mapped properties.
+     */
+    public Set<String> propertyNames() {
+        return this.properties.keySet();
+    }
+
+    /**
+     * Reads and validates JSON data for another object that shares the mapped schema, without applying it. The
+     * returned pending read applies the values in the order they appeared in the JSON.
+     *
+     * @param in     The input reader.
+     * @param target The object to update. This must be of the same type as the object the schema was mapped from.
+     * @return A pending read that will apply the values.
+     * @throws IOException This may be raised if a fatal error is encountered while reading the data.
+     */
+    public IPendingRead readPending(JsonReader in, Object target) throws IOException {
+
+        final List<IPendingRead> pending = new ArrayList<>();
+        in.beginObject();
+
+        while (in.hasNext()) {
+
+            final String propertyKey = in.nextName();
+            final SchemaEntry entry = this.properties.get(propertyKey);
+
+            if (entry != null) {
+                pending.add((target == this.target() ? entry.property() : shared(entry, target)).readPending(in, target, this.propertyResolver, log));
+            }
+            else {
+                this.log.warn("Skipping unknown property '{}' found in user JSON.", propertyKey);
+                in.skipValue();
+            }
+        }
+
+        in.endObject();
+        return IPendingRead.all(pending);
+    }
+
+    /**
+     * Reads UTF-8 encoded JSON data and updates the properties on the config object, reading the top-level properties
+     * concurrently. The data is scanned to find where each top-level property starts and ends, then the properties are
+     * read and validated on the pool. Once every property has been read the values are applied in the order they
+     * appeared in the data, so the result is the same as {@link #read(JsonReader)}. If a property can not be read, the
+     * properties before it are applied and the error is thrown.
+     *
+     * @param data The data to read. The position of the buffer is not changed.
+     * @param pool The pool used to read the properties.
+     * @return If the data was read. False is returned when the data could not be split into properties, in which case
+     * it should be read using {@link #read(JsonReader)}.
+     * @throws IOException This may be raised if a fatal error is encountered while reading the data.
+     */
+    public boolean readParallel(ByteBuffer data, ForkJoinPool pool) throws IOException {
+
+        final List<PropertySpan> spans = SpanScanner.scanObject(data);
+        if (spans == null) {
+            return false;
+        }
+
+        // Properties are read in batches of roughly equal size so small properties do not each need their own task.
+        long totalBytes = 0;
+        for (PropertySpan span : spans) {
+            totalBytes += span.length();
+        }
+        final long batchBytes = Math.max(totalBytes / (pool.getParallelism() * 4L), 1);
+        final Object[] staged = new Object[spans.size()];
+        final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        int batchStart = 0;
+        long currentBytes = 0;
+        for (int i = 0; i < spans.size(); i++) {
+            currentBytes += spans.get(i).length();
+            if (currentBytes >= batchBytes || i == spans.size() - 1) {
+                final int from = batchStart;
+                final int to = i + 1;
+                tasks.add(pool.submit(() -> this.stage(data, spans, staged, from, to)));
+                batchStart = to;
+                currentBytes = 0;
+            }
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+
+        for (int i = 0; i < staged.length; i++) {
+            if (staged[i] instanceof IPendingRead pending) {
+                pending.apply();
+            }
+            else if (staged[i] instanceof Throwable error) {
+                throw rethrow(error);
+            }
+            else {
+                this.log.warn("Skipping unknown property '{}' found in user JSON.", spans.get(i).name());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a range of property spans without applying them. The result of each span is either a pending read, the
+     * error that was raised while reading it, or null if the property is not part of the schema. Reading stops at the
+     * first error because later properties would not be applied.
+     *
+     * @param data   The data that was scanned.
+     * @param spans  The spans of the top-level properties.
+     * @param staged The results for each span.
+     * @param from   The first span to read.
+     * @param to     The index after the last span to read.
+     */
+    private void stage(ByteBuffer data, List<PropertySpan> spans, Object[] staged, int from, int to) {
+        for (int i = from; i < to; i++) {
+            final PropertySpan span = spans.get(i);
+            final SchemaEntry entry = this.properties.get(span.name());
+            if (entry != null) {
+                try {
+                    staged[i] = entry.property().readPending(SpanScanner.reader(span.slice(data)), this.target(), this.propertyResolver, this.log);
+                }
+                catch (Throwable e) {
+                    staged[i] = e;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets a property that will be applied to an object other than the one it was mapped from. Only properties that
+     * extend {@link ObjectProperty} can be applied to other objects.
+     *
+     * @param entry  The entry of the property.
+     * @param target The object the property will be applied to.
+     * @return The property.
+     * @throws IllegalStateException If the property can only be applied to the object it was mapped from.
+     */
+    private ObjectProperty<?> shared(SchemaEntry entry, Object target) {
+        if (entry.property() instanceof ObjectProperty<?> property) {
+            return property;
+        }
+        throw new IllegalStateException("The property '" + entry.serializedName() + "' of " + target.getClass().getName() + " uses " + entry.property().getClass().getName() + " which can not be applied to other objects. Properties that are shared, such as the properties of array elements, must extend ObjectProperty.");
+    }
+
+    private static IOException rethrow(Throwable error) {
+        if (error instanceof IOException ioException) {
+            return ioException;
+        }
+        if (error instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        return new IOException(error);
+    }
+
     /**
      * Represents a mapped out entry in the config schema.
      *
@@ -131,4 +899,31 @@ public class ConfigObjectSerializer<T> {
      */
     private record SchemaEntry(Field field, String serializedName, Value valueMeta, IConfigProperty<?> property) {
     }
+
+    /**
+     * The structure of a record that is used as a config object.
+     *
+     * @param constructor The canonical constructor of the record.
+     * @param types       The types of each component.
+     * @param components  The staged value of each component.
+     * @param nested      The serializer of each component that holds a record, or null for other components.
+     */
+    private record RecordShape(Constructor<?> constructor, Class<?>[] types, Object[] components, ConfigObjectSerializer<?>[] nested) {
+
+        private static RecordShape of(Class<?> type) {
+            final RecordComponent[] components = type.getRecordComponents();
+            final Class<?>[] types = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                types[i] = components[i].getType();
+            }
+            try {
+                final Constructor<?> constructor = type.getDeclaredConstructor(types);
+                constructor.setAccessible(true);
+                return new RecordShape(constructor, types, new Object[components.length], new ConfigObjectSerializer<?>[components.length]);
+            }
+            catch (NoSuchMethodException e) {
+                throw new IllegalStateException("Record " + type.getName() + " has no canonical constructor.", e);
+            }
+        }
+    }
 }
\ No newline at end of file
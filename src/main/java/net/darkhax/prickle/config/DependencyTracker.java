@@ -0,0 +1,192 @@
+package net.darkhax.prickle.config;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonNull;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * Tracks the properties that derived values depend on, and finds the values that are affected when a config is loaded.
+ * Only the properties that some derived value depends on are tracked. A snapshot of each tracked property is taken
+ * when it is first tracked and after each load, and the derived values of the properties whose snapshot changed are
+ * notified. Properties are no longer tracked once no derived value depends on them.
+ * <p>
+ * The properties a value depends on are only known once it has been produced, so the snapshot of a new property is
+ * taken afterwards. The version of the tracker changes each time the config starts or finishes being updated, and is
+ * read before a value is produced. A value is only cached when the version has not changed, as only then does the
+ * snapshot hold the values the derived value was produced from.
+ */
+final class DependencyTracker {
+
+    private final Gson gson;
+    private final Logger log;
+
+    /**
+     * Resolves a key for reading the current value of a property.
+     */
+    private final Function<String, ConfigKey<Object>> keys;
+
+    /**
+     * The tracked properties, keyed by their dotted path.
+     */
+    private final Map<String, Tracked> tracked = new HashMap<>();
+
+    /**
+     * Incremented when the config starts or finishes being updated.
+     */
+    private long version;
+
+    /**
+     * The number of updates that are in progress. Updates can be nested when lazy properties are read.
+     */
+    private int updating;
+
+    DependencyTracker(Gson gson, Logger log, Function<String, ConfigKey<Object>> keys) {
+        this.gson = gson;
+        this.log = log;
+        this.keys = keys;
+    }
+
+    /**
+     * Invoked before values are read into the config.
+     */
+    synchronized void beginUpdate() {
+        this.updating++;
+        this.version++;
+    }
+
+    /**
+     * Invoked once values have been read into the config, or could not be read.
+     */
+    synchronized void endUpdate() {
+        this.updating--;
+        this.version++;
+    }
+
+    /**
+     * Gets the current version of the tracker.
+     *
+     * @return The current version, or -1 if the config is being updated.
+     */
+    synchronized long version() {
+        return this.updating > 0 ? -1 : this.version;
+    }
+
+    /**
+     * Tracks the properties that a derived value depends on, and stops tracking the properties it no longer depends on.
+     *
+     * @param value    The derived value.
+     * @param previous The dotted paths of the properties the value depended on before.
+     * @param paths    The dotted paths of the properties the value depends on.
+     * @param version  The version of the tracker from before the value was produced.
+     * @return If the config has not been updated since the version was read, so the value may be cached.
+     */
+    synchronized boolean track(DerivedValue<?> value, Set<String> previous, Set<String> paths, long version) {
+        for (String path : previous) {
+            final Tracked tracked = this.tracked.get(path);
+            if (tracked != null && !paths.contains(path)) {
+                tracked.dependents.remove(value);
+                if (tracked.dependents.isEmpty()) {
+                    this.tracked.remove(path);
+                }
+            }
+        }
+        for (String path : paths) {
+            Tracked tracked = this.tracked.get(path);
+            if (tracked == null) {
+                final ConfigKey<Object> key = this.keys.apply(path);
+                tracked = new Tracked(key, this.snapshot(key));
+                this.tracked.put(path, tracked);
+            }
+            tracked.dependents.put(value, Boolean.TRUE);
+        }
+        return version >= 0 && version == this.version;
+    }
+
+    /**
+     * Compares the tracked properties to their last snapshot, and notifies the derived values of the properties that
+     * changed. Each derived value is only notified once. Properties whose derived values have all been discarded are no
+     * longer tracked.
+     */
+    void check() {
+        final List<DerivedValue<?>> changed = new ArrayList<>();
+        synchronized (this) {
+            if (this.tracked.isEmpty()) {
+                return;
+            }
+            final Set<DerivedValue<?>> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+            final Iterator<Map.Entry<String, Tracked>> entries = this.tracked.entrySet().iterator();
+            while (entries.hasNext()) {
+                final Map.Entry<String, Tracked> entry = entries.next();
+                final Tracked tracked = entry.getValue();
+                if (tracked.dependents.isEmpty()) {
+                    entries.remove();
+                    continue;
+                }
+                final Object snapshot = this.snapshot(tracked.key);
+                if (!Objects.equals(snapshot, tracked.snapshot)) {
+                    tracked.snapshot = snapshot;
+                    this.log.debug("Property {} changed. Notifying {} derived values.", entry.getKey(), tracked.dependents.size());
+                    affected.addAll(tracked.dependents.keySet());
+                }
+            }
+            changed.addAll(affected);
+        }
+        for (DerivedValue<?> value : changed) {
+            value.dependencyChanged();
+        }
+    }
+
+    /**
+     * Takes a snapshot of the current value of a property. Values are converted to a JSON tree, so changes made to
+     * collections and objects in place are detected. Values that can not be converted are compared using equals.
+     *
+     * @param key The key of the property.
+     * @return The snapshot of the value.
+     */
+    private Object snapshot(ConfigKey<Object> key) {
+        final Object value = key.get();
+        if (value == null) {
+            return JsonNull.INSTANCE;
+        }
+        try {
+            return this.gson.toJsonTree(value);
+        }
+        catch (RuntimeException e) {
+            this.log.debug("Unable to snapshot property {}. Changes will be detected using equals.", key.path(), e);
+            return value;
+        }
+    }
+
+    /**
+     * A property that derived values depend on.
+     */
+    private static final class Tracked {
+
+        private final ConfigKey<Object> key;
+
+        /**
+         * The derived values that depend on the property. Values are weakly referenced, so derived values that are no
+         * longer used are not kept alive.
+         */
+        private final Map<DerivedValue<?>, Boolean> dependents = new WeakHashMap<>();
+
+        private Object snapshot;
+
+        private Tracked(ConfigKey<Object> key, Object snapshot) {
+            this.key = key;
+            this.snapshot = snapshot;
+        }
+    }
+}
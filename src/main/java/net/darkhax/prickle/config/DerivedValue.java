@@ -0,0 +1,340 @@
+package net.darkhax.prickle.config;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A value that is derived from the properties of a config, such as a compiled rule set or a thread pool. The value is
+ * produced the first time it is requested and cached until one of the properties it depends on changes when the config
+ * is loaded. Changes to other properties do not affect the value.
+ * <p>
+ * Dependencies can be declared when the value is built. Otherwise they are recorded each time the value is produced,
+ * using the properties that are read through {@link ConfigManager#value(String)}, {@link ConfigKey#get()}, or other
+ * derived values of the same config. Fields that are read directly from the config object are not recorded.
+ * <p>
+ * By default a changed value is produced again the next time it is requested. When an executor is given, the new value
+ * is produced in the background and the previous value is returned until it is ready. Derived values are thread safe.
+ *
+ * @param <V> The type of the value.
+ */
+public final class DerivedValue<V> implements Supplier<V> {
+
+    /**
+     * The number of threads that are currently recording reads. This allows reads to skip the thread local lookup when
+     * nothing is being recorded.
+     */
+    private static final AtomicInteger RECORDING = new AtomicInteger();
+
+    /**
+     * The reads that have been recorded by the derived value being produced on each thread.
+     */
+    private static final ThreadLocal<Recorder> RECORDER = new ThreadLocal<>();
+
+    /**
+     * The config the value is derived from.
+     */
+    private final ConfigManager<?> manager;
+
+    /**
+     * The serializer of the config. Reads are recorded against the serializer, which is shared with the keys of the
+     * config.
+     */
+    private final Object owner;
+
+    /**
+     * Produces the value.
+     */
+    private final Supplier<V> compute;
+
+    /**
+     * The declared dependencies, or null if dependencies are recorded when the value is produced.
+     */
+    @Nullable
+    private final Set<String> declared;
+
+    /**
+     * Produces changed values in the background, or null if changed values are produced when requested.
+     */
+    @Nullable
+    private final Executor executor;
+
+    /**
+     * Held while a value is produced, so only one thread produces the value at a time.
+     */
+    private final Object produceLock = new Object();
+
+    /**
+     * Guards the generation, the current value, and the dependencies. This is never held while a value is produced, so
+     * the config can discard the value while a new one is being produced.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Incremented each time a dependency changes. A value that was produced from older properties is not cached.
+     */
+    private int generation;
+
+    /**
+     * The current value and the properties it was produced from, or null if the value must be produced.
+     */
+    @Nullable
+    private volatile State<V> state;
+
+    /**
+     * The properties the most recent value was produced from.
+     */
+    private volatile Set<String> dependencies;
+
+    private DerivedValue(ConfigManager<?> manager, Supplier<V> compute, @Nullable Set<String> declared, @Nullable Executor executor) {
+        this.manager = manager;
+        this.owner = manager.serializer();
+        this.compute = compute;
+        this.declared = declared;
+        this.executor = executor;
+        this.dependencies = declared != null ? declared : Set.of();
+    }
+
+    @Override
+    public V get() {
+        final State<V> state = this.state;
+        if (state != null) {
+            record(this.owner, state.dependencies());
+            return state.value();
+        }
+        synchronized (this.produceLock) {
+            final State<V> current = this.state;
+            if (current != null) {
+                record(this.owner, current.dependencies());
+                return current.value();
+            }
+            final int generation = this.generation();
+            final long version = this.manager.dependencyVersion();
+            final State<V> produced = this.produce();
+            this.publish(generation, version, produced);
+            record(this.owner, produced.dependencies());
+            return produced.value();
+        }
+    }
+
+    /**
+     * Gets the properties the value depends on. When dependencies are recorded this is empty until the value has been
+     * produced.
+     *
+     * @return The dotted paths of the properties the value depends on.
+     */
+    public Set<String> dependencies() {
+        return this.dependencies;
+    }
+
+    /**
+     * Checks if a value has been produced and its dependencies have not changed since.
+     *
+     * @return If the current value is cached.
+     */
+    public boolean isCached() {
+        return this.state != null;
+    }
+
+    /**
+     * Discards the current value, so it is produced again the next time it is requested.
+     */
+    public void invalidate() {
+        synchronized (this.lock) {
+            this.generation++;
+            this.state = null;
+        }
+    }
+
+    /**
+     * Invoked by the config manager when some of the properties the value depends on have changed.
+     */
+    void dependencyChanged() {
+        final int generation;
+        synchronized (this.lock) {
+            generation = ++this.generation;
+            if (this.executor == null || this.state == null) {
+                this.state = null;
+                return;
+            }
+        }
+        this.executor.execute(() -> {
+            synchronized (this.produceLock) {
+                try {
+                    final long version = this.manager.dependencyVersion();
+                    this.publish(generation, version, this.produce());
+                }
+                catch (RuntimeException e) {
+                    // The previous value is no longer valid, so the next request will try to produce it again.
+                    synchronized (this.lock) {
+                        if (this.generation == generation) {
+                            this.state = null;
+                        }
+                    }
+                    throw e;
+                }
+            }
+        });
+    }
+
+    private int generation() {
+        synchronized (this.lock) {
+            return this.generation;
+        }
+    }
+
+    private State<V> produce() {
+        if (this.declared != null) {
+            return new State<>(this.compute.get(), this.declared);
+        }
+        final Recorder outer = RECORDER.get();
+        final Recorder recorder = new Recorder(this.owner);
+        RECORDER.set(recorder);
+        RECORDING.incrementAndGet();
+        try {
+            return new State<>(this.compute.get(), Collections.unmodifiableSet(recorder.paths));
+        }
+        finally {
+            RECORDING.decrementAndGet();
+            RECORDER.set(outer);
+        }
+    }
+
+    /**
+     * Tracks the dependencies of a value and caches it. Nothing is changed if a dependency changed or the value was
+     * invalidated while it was produced. The value is not cached if the config was updated while it was produced, as
+     * it may have been produced from a mix of old and new properties.
+     *
+     * @param generation The generation from before the value was produced.
+     * @param version    The version of the tracked properties from before the value was produced.
+     * @param produced   The value and the properties it was produced from.
+     */
+    private void publish(int generation, long version, State<V> produced) {
+        synchronized (this.lock) {
+            if (this.generation != generation) {
+                return;
+            }
+            final Set<String> previous = this.dependencies;
+            this.dependencies = produced.dependencies();
+            this.state = this.manager.trackDependencies(this, previous, produced.dependencies(), version) ? produced : null;
+        }
+    }
+
+    /**
+     * Records that a property was read by the derived value that is being produced on the current thread.
+     *
+     * @param owner The serializer of the config the property belongs to.
+     * @param path  The dotted path of the property.
+     */
+    static void recordRead(Object owner, String path) {
+        if (RECORDING.get() > 0) {
+            final Recorder recorder = RECORDER.get();
+            if (recorder != null && recorder.owner == owner) {
+                recorder.paths.add(path);
+            }
+        }
+    }
+
+    private static void record(Object owner, Set<String> paths) {
+        if (RECORDING.get() > 0) {
+            final Recorder recorder = RECORDER.get();
+            if (recorder != null && recorder.owner == owner) {
+                recorder.paths.addAll(paths);
+            }
+        }
+    }
+
+    /**
+     * A value and the properties it was produced from.
+     */
+    private record State<V>(V value, Set<String> dependencies) {
+    }
+
+    /**
+     * Collects the properties that are read while a value is produced.
+     */
+    private static final class Recorder {
+
+        private final Object owner;
+        private final Set<String> paths = new LinkedHashSet<>();
+
+        private Recorder(Object owner) {
+            this.owner = owner;
+        }
+    }
+
+    /**
+     * A builder for {@link DerivedValue} objects.
+     *
+     * @param <V> The type of the value.
+     */
+    public static class Builder<V> {
+
+        private final ConfigManager<?> manager;
+        private final Supplier<V> compute;
+        private final List<String> declared = new ArrayList<>();
+        private Executor executor = null;
+
+        /**
+         * Creates a builder for a derived value.
+         *
+         * @param manager The config the value is derived from.
+         * @param compute Produces the value from the current config.
+         */
+        public Builder(ConfigManager<?> manager, Supplier<V> compute) {
+            this.manager = manager;
+            this.compute = compute;
+        }
+
+        /**
+         * Declares properties the value depends on. When properties are declared, reads are not recorded.
+         *
+         * @param paths The serialized names of the properties, or dotted paths to properties of config objects.
+         * @return The same builder instance.
+         * @throws IllegalArgumentException If a property does not exist.
+         */
+        public Builder<V> dependsOn(String... paths) {
+            for (String path : paths) {
+                if (this.manager.property(path) == null) {
+                    throw new IllegalArgumentException("The property '" + path + "' does not exist.");
+                }
+                this.declared.add(path);
+            }
+            return this;
+        }
+
+        /**
+         * Produces changed values in the background using an executor. The previous value is returned until the new
+         * value is ready.
+         *
+         * @param executor The executor used to produce changed values.
+         * @return The same builder instance.
+         */
+        public Builder<V> background(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Builds the derived value.
+         *
+         * @return The newly built derived value.
+         */
+        public DerivedValue<V> build() {
+            final Set<String> declared = this.declared.isEmpty() ? null : Collections.unmodifiableSet(new LinkedHashSet<>(this.declared));
+            final DerivedValue<V> value = new DerivedValue<>(this.manager, this.compute, declared, this.executor);
+            if (declared != null) {
+                // Declared properties are tracked before the value is first produced.
+                this.manager.trackDependencies(value, Set.of(), declared, -1);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package net.darkhax.prickle.config;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.ToNumberPolicy;
+import net.darkhax.prickle.config.bind.DedupStringAdapter;
+import net.darkhax.prickle.config.bind.ValueBinder;
+import net.darkhax.prickle.config.comment.CommentTypeAdapter;
+import net.darkhax.prickle.config.comment.ICommentResolver;
+import net.darkhax.prickle.config.comment.WrappedComment;
+import net.darkhax.prickle.config.property.IPropertyAdapter;
+import net.darkhax.prickle.config.property.MapProperty;
+import net.darkhax.prickle.config.property.RangedProperty;
+import net.darkhax.prickle.config.property.RegexStringProperty;
+import net.darkhax.prickle.config.property.array.ArrayProperty;
+import net.darkhax.prickle.config.property.array.CollectionArrayProperty;
+import net.darkhax.prickle.config.property.mapped.MappedArrayProperty;
+import net.darkhax.prickle.util.StringDeduplicator;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * The runtime state that can be shared by many config managers. This holds the GSON instance, the registered property
+ * adapters, and the comment resolver, along with caches that are populated as configs are mapped. Sharing a context
+ * allows the type adapters that GSON creates and the property adapters that are created for the
+ * {@link net.darkhax.prickle.annotations.Adapter} annotation to be reused by every config. Contexts are thread safe.
+ * <p>
+ * Config managers that do not customize GSON, the property adapters, or the comment resolver all use the
+ * {@link #shared() shared} context.
+ */
+public final class PrickleContext {
+
+    /**
+     * The gson instance used to serialize values.
+     */
+    private final Gson gson;
+
+    /**
+     * The registered property adapters, in the order they are tried.
+     */
+    private final List<IPropertyAdapter<?>> adapters;
+
+    /**
+     * Resolves comments for config properties.
+     */
+    private final ICommentResolver commentResolver;
+
+    /**
+     * A cache of property adapters constructed using their class. This is used in conjunction with the
+     * {@link net.darkhax.prickle.annotations.Adapter} annotation.
+     */
+    private final Map<Class<?>, IPropertyAdapter<?>> adapterCache = new ConcurrentHashMap<>();
+
+    /**
+     * An optional table that strings are passed through when they are read.
+     */
+    @Nullable
+    private final StringDeduplicator strings;
+
+    public PrickleContext(Gson gson, List<IPropertyAdapter<?>> adapters, ICommentResolver commentResolver) {
+        this(gson, adapters, commentResolver, null);
+    }
+
+    public PrickleContext(Gson gson, List<IPropertyAdapter<?>> adapters, ICommentResolver commentResolver, @Nullable StringDeduplicator strings) {
+        this.gson = gson;
+        this.adapters = Collections.unmodifiableList(new ArrayList<>(adapters));
+        this.commentResolver = commentResolver;
+        this.strings = strings;
+    }
+
+    /**
+     * Gets the context that is shared by every config manager that uses the default settings.
+     *
+     * @return The shared context.
+     */
+    public static PrickleContext shared() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * Gets the GSON instance used to serialize values.
+     *
+     * @return The GSON instance.
+     */
+    public Gson gson() {
+        return this.gson;
+    }
+
+    /**
+     * Gets the registered property adapters.
+     *
+     * @return An unmodifiable list of the property adapters, in the order they are tried.
+     */
+    public List<IPropertyAdapter<?>> adapters() {
+        return this.adapters;
+    }
+
+    /**
+     * Gets the comment resolver.
+     *
+     * @return The comment resolver.
+     */
+    public ICommentResolver commentResolver() {
+        return this.commentResolver;
+    }
+
+    /**
+     * Gets the table that strings are deduplicated with when they are read.
+     *
+     * @return The string table, or null if strings are not deduplicated.
+     */
+    @Nullable
+    public StringDeduplicator strings() {
+        return this.strings;
+    }
+
+    /**
+     * Deduplicates a string that was read using the string table of the context.
+     *
+     * @param value The string that was read.
+     * @return An equal string, or the same string if the context does not deduplicate strings.
+     */
+    public String dedupe(String value) {
+        return this.strings != null ? this.strings.dedupe(value) : value;
+    }
+
+    /**
+     * Gets a property adapter by its class, constructing it the first time it is requested. The adapter must have a
+     * public no-args constructor.
+     *
+     * @param adapterClass The class of the adapter.
+     * @return The adapter instance.
+     * @throws IllegalArgumentException If the class is not a property adapter.
+     */
+    public IPropertyAdapter<?> adapter(Class<?> adapterClass) {
+        return this.adapterCache.computeIfAbsent(adapterClass, clazz -> {
+            final Object adapterObj;
+            try {
+                adapterObj = clazz.getConstructor().newInstance();
+            }
+            catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+            if (adapterObj instanceof IPropertyAdapter<?> adapterInst) {
+                return adapterInst;
+            }
+            throw new IllegalArgumentException("Adapter override " + clazz.getName() + " must implement IPropertyAdapter!");
+        });
+    }
+
+    /**
+     * Holds the shared context, which is created the first time it is used.
+     */
+    private static final class Shared {
+        private static final PrickleContext INSTANCE = new Builder().build();
+    }
+
+    /**
+     * A builder for {@link PrickleContext} objects. New builders start with the default GSON options, property
+     * adapters, and comment resolver.
+     */
+    public static class Builder {
+
+        private final List<IPropertyAdapter<?>> propertyAdapters = new LinkedList<>();
+        private final List<Consumer<GsonBuilder>> gsonConfigs = new LinkedList<>();
+        private GsonBuilder gsonBuilder;
+        private ICommentResolver commentResolver;
+        private StringDeduplicator strings;
+
+        public Builder() {
+
+            this.gsonConfig(builder -> {
+                builder
+                        // Tells GSON to use indents when serializing values. While the JsonWriter
+                        // already has an indent this GSON instance may be used to write values into
+                        // the writer and will need their own indents.
+                        .setPrettyPrinting()
+
+                        // Our configuration files are not being embedded as HTML. There is no need for
+                        // us to escape HTML characters. Disabling this option helps ensure values are
+                        // written as the developer and user would expect.
+                        .disableHtmlEscaping()
+
+                        // Allows special double like NaN and Infinity to be serialized. While special
+                        // floating point values are not permitted in standard JSON they are often
+                        // deserialized regardless.
+                        .serializeSpecialFloatingPointValues()
+
+                        // Disables some weird number serialization quirks like scientific notation
+                        // being used for long numbers.
+                        .setNumberToNumberStrategy(ToNumberPolicy.BIG_DECIMAL)
+
+                        // Registers a type adapter to handle our implementation of comments.
+                        .registerTypeAdapter(WrappedComment.class, CommentTypeAdapter.INSTANCE)
+
+                        // Binds records and plain objects using mappings that are shared by every config,
+                        // instead of the reflective adapter that each GSON instance maps separately.
+                        .registerTypeAdapterFactory(ValueBinder.INSTANCE);
+            });
+            this.adapter(RegexStringProperty.ADAPTER);
+            this.adapter(RangedProperty.ADAPTER);
+            this.adapter(ArrayProperty.ADAPTER);
+            this.adapter(CollectionArrayProperty.ADAPTER);
+            this.adapter(MapProperty.ADAPTER);
+            this.adapter(MappedArrayProperty.ADAPTER);
+            this.commentResolver(WrappedComment.RESOLVER);
+        }
+
+        /**
+         * Registers a new property adapter.
+         *
+         * @param adapter The property adapter to register.
+         * @return The same builder instance.
+         */
+        public Builder adapter(IPropertyAdapter<?> adapter) {
+            this.propertyAdapters.add(adapter);
+            return this;
+        }
+
+        /**
+         * Overrides the GsonBuilder with a new one. This builder will still be configured using the options from
+         * {@link #gsonConfig(Consumer)}.
+         *
+         * @param builder The new GSON builder.
+         * @return The same builder instance.
+         */
+        public Builder gsonBuilder(GsonBuilder builder) {
+            this.gsonBuilder = builder;
+            return this;
+        }
+
+        /**
+         * Registers a consumer that can be used to set up the underlying Gson instance.
+         *
+         * @param config A consumer that accepts the GsonBuilder and configures it.
+         * @return The same builder instance.
+         */
+        public Builder gsonConfig(Consumer<GsonBuilder> config) {
+            this.gsonConfigs.add(config);
+            return this;
+        }
+
+        /**
+         * Sets a new comment resolver that should handle creating comments.
+         *
+         * @param resolver The new comment resolver.
+         * @return The same builder instance.
+         */
+        public Builder commentResolver(ICommentResolver resolver) {
+            this.commentResolver = resolver;
+            return this;
+        }
+
+        /**
+         * Deduplicates strings that are read from config files, including the elements of collections and the keys and
+         * values of maps. This is useful when many configs repeat the same values, as they will share one instance of
+         * each string.
+         *
+         * @param strings The table to deduplicate strings with. A table may be shared by many contexts.
+         * @return The same builder instance.
+         */
+        public Builder dedupeStrings(StringDeduplicator strings) {
+            this.strings = strings;
+            return this;
+        }
+
+        /**
+         * Builds the context.
+         *
+         * @return The newly built context.
+         */
+        public PrickleContext build() {
+            final GsonBuilder builder = this.gsonBuilder != null ? this.gsonBuilder : new GsonBuilder();
+            for (Consumer<GsonBuilder> gsonConfig : this.gsonConfigs) {
+                gsonConfig.accept(builder);
+            }
+            if (this.strings != null) {
+                // Registered last so it wraps any string adapter added by the GSON config instead of replacing it.
+                builder.registerTypeAdapterFactory(DedupStringAdapter.factory(this.strings));
+            }
+            return new PrickleContext(builder.create(), this.propertyAdapters, this.commentResolver, this.strings);
+        }
+    }
+}
@@ -9,11 +9,16 @@ import net.darkhax.prickle.config.property.ConfigObjectProperty;
 import net.darkhax.prickle.config.property.IConfigProperty;
 import net.darkhax.prickle.config.property.IPropertyAdapter;
 import net.darkhax.prickle.config.property.ObjectProperty;
+import net.darkhax.prickle.config.property.access.GeneratedAccessors;
+import net.darkhax.prickle.config.property.access.IFieldAccessor;
+import net.darkhax.prickle.config.property.array.ElementSchema;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,15 +29,17 @@ import java.util.Map;
 public class PropertyResolver {
 
     /**
-     * A list of registered property adapters.
+     * The context that holds the GSON instance, property adapters, and comment resolver. The context may be shared
+     * with other resolvers.
      */
-    private final List<IPropertyAdapter<?>> propertyAdapters;
+    private final PrickleContext context;
 
     /**
-     * A cache of property adapters constructed using their class. This is used in conjunction with the {@link Adapter}
-     * annotation.
+     * A cache of element schemas that have been mapped for arrays and collections that hold config objects. Elements of
+     * the same type will share a single schema. Types that could not be mapped are cached as null. The cache is guarded
+     * by the resolver, see {@link #toElementSchema(Type)}.
      */
-    private final Map<Class<?>, IPropertyAdapter<?>> adapterCache = new HashMap<>();
+    private final Map<Type, ElementSchema<?>> elementSchemaCache = new HashMap<>();
 
     /**
      * A property adapter used for sub-properties that are also config properties.
@@ -40,23 +47,55 @@ public class PropertyResolver {
     private final IPropertyAdapter<?> configObjectAdapter;
 
     /**
-     * The configured gson instance.
+     * A logger for errors and warnings.
      */
-    private final Gson gson;
+    private final Logger logger;
 
-    private final ICommentResolver commentResolver;
+    /**
+     * The directory that resources related to the config, such as sidecar files, are resolved against.
+     */
+    private final Path directory;
 
     /**
-     * A logger for errors and warnings.
+     * The name of the config file, used to name resources such as sidecar files. This is empty when the resolver is not
+     * used for a single config file.
      */
-    private final Logger logger;
+    private final String resourcePrefix;
+
+    /**
+     * When true properties are written without comments, decorators, or default values, and without indentation.
+     */
+    private final boolean compact;
+
+    /**
+     * When true fields are accessed using classes generated at runtime instead of reflection.
+     */
+    private final boolean generatedAccessors;
 
     public PropertyResolver(Gson gson, Logger logger, List<IPropertyAdapter<?>> propertyAdapters, ICommentResolver commentResolver) {
-        this.propertyAdapters = propertyAdapters;
-        this.gson = gson;
+        this(gson, logger, propertyAdapters, commentResolver, Path.of("").toAbsolutePath(), false);
+    }
+
+    public PropertyResolver(Gson gson, Logger logger, List<IPropertyAdapter<?>> propertyAdapters, ICommentResolver commentResolver, Path directory, boolean compact) {
+        this(gson, logger, propertyAdapters, commentResolver, directory, compact, false);
+    }
+
+    public PropertyResolver(Gson gson, Logger logger, List<IPropertyAdapter<?>> propertyAdapters, ICommentResolver commentResolver, Path directory, boolean compact, boolean generatedAccessors) {
+        this(new PrickleContext(gson, propertyAdapters, commentResolver), logger, directory, compact, generatedAccessors);
+    }
+
+    public PropertyResolver(PrickleContext context, Logger logger, Path directory, boolean compact, boolean generatedAccessors) {
+        this(context, logger, directory, "", compact, generatedAccessors);
+    }
+
+    public PropertyResolver(PrickleContext context, Logger logger, Path directory, String resourcePrefix, boolean compact, boolean generatedAccessors) {
+        this.context = context;
         this.logger = logger;
         this.configObjectAdapter = ConfigObjectProperty.adapter(this);
-        this.commentResolver = commentResolver;
+        this.directory = directory;
+        this.resourcePrefix = resourcePrefix;
+        this.compact = compact;
+        this.generatedAccessors = generatedAccessors;
     }
 
     /**
@@ -65,7 +104,79 @@ public class PropertyResolver {
      * @return The GSON instance to use for serializing.
      */
     public Gson gson() {
-        return gson;
+        return this.context.gson();
+    }
+
+    /**
+     * Gets the context that holds the GSON instance, property adapters, and comment resolver.
+     *
+     * @return The context used by the resolver.
+     */
+    public PrickleContext context() {
+        return this.context;
+    }
+
+    /**
+     * Gets the property adapters that were registered with the resolver.
+     *
+     * @return An unmodifiable view of the registered property adapters.
+     */
+    public List<IPropertyAdapter<?>> adapters() {
+        return this.context.adapters();
+    }
+
+    /**
+     * Checks if properties should be written in the compact format. Compact files are meant to be written and read by
+     * tools rather than people, so they only hold the values of properties and are written without indentation. The
+     * format only affects writing, and compact files are read the same way as other files.
+     *
+     * @return If properties should use the compact format.
+     */
+    public boolean compact() {
+        return this.compact;
+    }
+
+    /**
+     * Creates an accessor that properties use to read and write the value of a field.
+     *
+     * @param field The field to access. The field must already be accessible.
+     * @return An accessor for the field.
+     */
+    public IFieldAccessor toAccessor(Field field) {
+        return this.generatedAccessors ? GeneratedAccessors.create(field) : IFieldAccessor.reflective(field);
+    }
+
+    /**
+     * Gets the directory that resources related to the config, such as sidecar files, are resolved against. This is
+     * generally the directory that holds the config file.
+     *
+     * @return The directory for config resources.
+     */
+    public Path directory() {
+        return this.directory;
+    }
+
+    /**
+     * Gets a resolver that resolves resources related to the config, such as sidecar files, against a different
+     * directory. This is used to read config files that are not in the directory of the config, such as files that are
+     * being validated.
+     *
+     * @param directory The directory for config resources.
+     * @return A resolver that uses the directory, or this resolver if it already uses the directory.
+     */
+    public PropertyResolver withDirectory(Path directory) {
+        return directory.equals(this.directory) ? this : new PropertyResolver(this.context, this.logger, directory, this.resourcePrefix, this.compact, this.generatedAccessors);
+    }
+
+    /**
+     * Gets the name of a resource that belongs to the config, such as a sidecar file. Names are prefixed with the name
+     * of the config file, so configs in the same directory do not share resources that have the same name.
+     *
+     * @param name The name of the resource.
+     * @return The name of the resource for this config.
+     */
+    public String resourceName(String name) {
+        return this.resourcePrefix.isEmpty() ? name : this.resourcePrefix + "." + name;
     }
 
     /**
@@ -79,7 +190,38 @@ public class PropertyResolver {
      */
     @Nullable
     public IComment toComment(Field field, Object value, Value valueMeta) throws IOException {
-        return this.commentResolver.resolve(field, value, valueMeta);
+        return this.context.commentResolver().resolve(field, value, valueMeta);
+    }
+
+    /**
+     * Gets the schema used to serialize elements of an array or collection. The schema is mapped the first time it is
+     * requested and reused for every array or collection with the same element type.
+     * <p>
+     * The schema is cached before its properties are mapped, so element types that hold arrays or collections of
+     * themselves resolve to the schema that is being mapped. This method is synchronized, so a schema that is being
+     * mapped is only visible to the thread that is mapping it.
+     *
+     * @param elementType The type of the elements.
+     * @return The element schema, or null if the elements are not config objects.
+     */
+    @Nullable
+    public synchronized ElementSchema<?> toElementSchema(Type elementType) {
+        // The cache is not populated using computeIfAbsent because mapping the schema may resolve other element types.
+        if (this.elementSchemaCache.containsKey(elementType)) {
+            return this.elementSchemaCache.get(elementType);
+        }
+        final ElementSchema<?> schema = ElementSchema.of(this, elementType);
+        this.elementSchemaCache.put(elementType, schema);
+        if (schema != null) {
+            try {
+                schema.map(this);
+            }
+            catch (RuntimeException e) {
+                this.elementSchemaCache.remove(elementType);
+                throw e;
+            }
+        }
+        return schema;
     }
 
     /**
@@ -104,28 +246,38 @@ public class PropertyResolver {
      * @throws IllegalAccessException This exception may be raised if the field is not accessible.
      */
     public IConfigProperty<?> toProperty(Field field, Object parent, Value cfgValue) throws IOException, IllegalAccessException {
+        return this.toProperty(field, parent, field.get(parent), cfgValue);
+    }
 
-        final Object propertyValue = field.get(parent);
+    /**
+     * Maps a Java field to a config property using a value that was already read. This is used when the parent is not
+     * the object that declares the field, such as the staged components of a record.
+     *
+     * @param field         The field to map.
+     * @param parent        The object that the property will read and write its value through.
+     * @param propertyValue The current value of the field.
+     * @param cfgValue      The Value annotation that was on the field.
+     * @return The mapped config property.
+     * @throws IOException An IOException may be raised when a property adapter encounters a fatal error.
+     */
+    public IConfigProperty<?> toProperty(Field field, Object parent, Object propertyValue, Value cfgValue) throws IOException {
+        final IConfigProperty<?> property = this.createProperty(field, parent, propertyValue, cfgValue);
+        if (this.generatedAccessors && property instanceof ObjectProperty<?> objectProperty) {
+            objectProperty.useAccessor(this.toAccessor(field));
+        }
+        return property;
+    }
+
+    private IConfigProperty<?> createProperty(Field field, Object parent, Object propertyValue, Value cfgValue) throws IOException {
 
         // Use field specific adapter override first
         final Adapter adapterOverride = field.getAnnotation(Adapter.class);
         if (adapterOverride != null) {
-            return this.adapterCache.computeIfAbsent(adapterOverride.value(), clazz -> {
-                try {
-                    final Object adapterObj = clazz.getConstructor().newInstance();
-                    if (adapterObj instanceof IPropertyAdapter<?> adapterInst) {
-                        return adapterInst;
-                    }
-                    throw new IllegalArgumentException("Adapter override on field '" + field.getName() + "' must implement IPropertyAdapter!");
-                }
-                catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
-            }).toValue(this, field, parent, propertyValue, cfgValue);
+            return this.context.adapter(adapterOverride.value()).toValue(this, field, parent, propertyValue, cfgValue);
         }
 
         // Try the provided adapters
-        for (IPropertyAdapter<?> adapter : this.propertyAdapters) {
+        for (IPropertyAdapter<?> adapter : this.context.adapters()) {
             try {
                 final IConfigProperty<?> property = adapter.toValue(this, field, parent, propertyValue, cfgValue);
                 if (property != null) {
@@ -0,0 +1,67 @@
+package net.darkhax.prickle.config.bind;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import net.darkhax.prickle.util.StringDeduplicator;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * A GSON type adapter that passes every string it reads through a {@link StringDeduplicator}. When registered for
+ * strings this also applies to the elements of collections, the keys and values of maps, and the string fields of
+ * objects that are read by GSON.
+ * <p>
+ * Strings are read and written by the adapter that GSON would otherwise use, so a string adapter registered by the user
+ * is still used, and only its results are deduplicated.
+ */
+public final class DedupStringAdapter extends TypeAdapter<String> {
+
+    private final TypeAdapter<String> delegate;
+    private final StringDeduplicator deduplicator;
+
+    public DedupStringAdapter(TypeAdapter<String> delegate, StringDeduplicator deduplicator) {
+        this.delegate = delegate;
+        this.deduplicator = deduplicator;
+    }
+
+    @Override
+    public void write(JsonWriter out, String value) throws IOException {
+        this.delegate.write(out, value);
+    }
+
+    @Override
+    public String read(JsonReader in) throws IOException {
+        return this.deduplicator.dedupe(this.delegate.read(in));
+    }
+
+    /**
+     * Creates a factory that wraps the string adapter of a GSON instance with a deduplicating adapter. The factory
+     * should be registered after any other string adapters, so it can wrap them.
+     *
+     * @param deduplicator The table to deduplicate strings with.
+     * @return A factory for deduplicating string adapters.
+     */
+    public static TypeAdapterFactory factory(StringDeduplicator deduplicator) {
+        return new Factory(deduplicator);
+    }
+
+    private record Factory(StringDeduplicator deduplicator) implements TypeAdapterFactory {
+
+        @Override
+        @Nullable
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            if (type.getRawType() != String.class) {
+                return null;
+            }
+            // The type was checked above, so T is String.
+            @SuppressWarnings("unchecked")
+            final TypeAdapter<T> adapter = (TypeAdapter<T>) new DedupStringAdapter(gson.getDelegateAdapter(this, TypeToken.get(String.class)), this.deduplicator);
+            return adapter;
+        }
+    }
+}
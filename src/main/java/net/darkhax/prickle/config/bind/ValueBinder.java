@@ -0,0 +1,451 @@
+package net.darkhax.prickle.config.bind;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import net.darkhax.prickle.config.property.access.GeneratedAccessors;
+import net.darkhax.prickle.config.property.access.IFieldAccessor;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A GSON type adapter factory that binds records and plain objects that are held as property values, such as the
+ * elements of a list. The structure of each class is mapped once and shared by every config manager, and values are
+ * read and written through cached accessors rather than reflection. Records are created using their canonical
+ * constructor, and plain objects using their no-args constructor.
+ * <p>
+ * Values are written and read exactly as the GSON reflective adapter would. Types that this binder can not represent
+ * the same way, such as generic classes, classes that use GSON annotations, or classes without a suitable constructor,
+ * are left to GSON. GSON instances that exclude fields or classes beyond the defaults, such as with
+ * {@link com.google.gson.GsonBuilder#excludeFieldsWithModifiers(int...)} or an exclusion strategy, also leave every
+ * class to GSON. Classes that have their own type adapter, even one registered before this factory, are also left to
+ * that adapter.
+ */
+public final class ValueBinder implements TypeAdapterFactory {
+
+    /**
+     * The single instance of this factory.
+     */
+    public static final ValueBinder INSTANCE = new ValueBinder();
+
+    /**
+     * Gets the excluder of a GSON instance, or null if GSON does not provide it. The excluder is an internal GSON class
+     * that is only exposed by this method, so the method is invoked reflectively and the excluder is only compared.
+     */
+    @Nullable
+    private static final Method EXCLUDER = excluderMethod();
+
+    /**
+     * The excluder shared by every GSON instance that uses the default exclusions. Configuring any exclusion gives an
+     * instance its own excluder.
+     */
+    @Nullable
+    private static final Object DEFAULT_EXCLUDER = excluder(new Gson());
+
+    /**
+     * The bindings that have been mapped. Types that can not be bound are mapped to null.
+     */
+    private static final ClassValue<Binding> BINDINGS = new ClassValue<>() {
+        @Override
+        protected Binding computeValue(Class<?> type) {
+            return Binding.of(type);
+        }
+    };
+
+    private ValueBinder() {
+    }
+
+    @Override
+    @Nullable
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (!(type.getType() instanceof Class<?>) || gson.fieldNamingStrategy() != FieldNamingPolicy.IDENTITY || !hasDefaultExclusions(gson)) {
+            return null;
+        }
+        final Binding binding = BINDINGS.get(type.getRawType());
+        // Adapters that were registered before this factory, such as those of a custom GsonBuilder, are still used.
+        return binding != null && isReflective(gson.getDelegateAdapter(this, type)) ? new BoundAdapter<>(gson, binding) : null;
+    }
+
+    /**
+     * Checks if a GSON instance only excludes the fields and classes that are excluded by default. The binder skips the
+     * same fields as those defaults, so any other exclusions are left to GSON.
+     *
+     * @param gson The GSON instance.
+     * @return If the instance uses the default exclusions. This is false if the exclusions can not be determined.
+     */
+    private static boolean hasDefaultExclusions(Gson gson) {
+        final Object excluder = excluder(gson);
+        return excluder != null && excluder == DEFAULT_EXCLUDER;
+    }
+
+    @Nullable
+    private static Object excluder(Gson gson) {
+        try {
+            return EXCLUDER != null ? EXCLUDER.invoke(gson) : null;
+        }
+        catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static Method excluderMethod() {
+        try {
+            return Gson.class.getMethod("excluder");
+        }
+        catch (NoSuchMethodException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks if a type adapter reads objects field by field. GSON prefers a declared adapter over the adapter of the
+     * runtime type when only the runtime adapter is reflective, and bound adapters follow the same rule.
+     *
+     * @param adapter The adapter to check.
+     * @return If the adapter is reflective.
+     */
+    private static boolean isReflective(TypeAdapter<?> adapter) {
+        return adapter instanceof BoundAdapter<?> || adapter.getClass().getName().startsWith("com.google.gson.internal.bind.ReflectiveTypeAdapterFactory");
+    }
+
+    /**
+     * The mapped structure of a record or plain object.
+     *
+     * @param names        The serialized names of the fields.
+     * @param types        The declared classes of the fields.
+     * @param genericTypes The declared generic types of the fields.
+     * @param indices      The index of each field, keyed by its serialized name.
+     * @param getters      Reads each field. The type of the handles is (Object)Object.
+     * @param setters      Writes each field of a plain object, or null for records.
+     * @param defaults     The values of record components that are not present in the JSON, or null for plain
+     *                     objects.
+     * @param constructor  Creates new instances. For records this takes an Object[] of the component values, and for
+     *                     plain objects it takes no arguments. The handle always returns Object.
+     */
+    private record Binding(String[] names, Class<?>[] types, Type[] genericTypes, Map<String, Integer> indices, MethodHandle[] getters, @Nullable IFieldAccessor[] setters, @Nullable Object[] defaults, MethodHandle constructor) {
+
+        private boolean isRecord() {
+            return this.setters == null;
+        }
+
+        /**
+         * Maps the structure of a class.
+         *
+         * @param type The class to map.
+         * @return The mapped structure, or null if the class should be left to GSON.
+         */
+        @Nullable
+        private static Binding of(Class<?> type) {
+            if (!isBindable(type)) {
+                return null;
+            }
+            try {
+                return type.isRecord() ? ofRecord(type) : ofObject(type);
+            }
+            catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        @Nullable
+        private static Binding ofRecord(Class<?> type) throws ReflectiveOperationException {
+            final RecordComponent[] components = type.getRecordComponents();
+            final Class<?>[] componentTypes = new Class<?>[components.length];
+            final Type[] genericTypes = new Type[components.length];
+            final MethodHandle[] getters = new MethodHandle[components.length];
+            final String[] names = new String[components.length];
+            final Object[] defaults = new Object[components.length];
+            for (int i = 0; i < components.length; i++) {
+                final Field field = type.getDeclaredField(components[i].getName());
+                if (!isPlain(field) || !isPlain(components[i].getAccessor()) || !isPlain(components[i])) {
+                    return null;
+                }
+                names[i] = components[i].getName();
+                componentTypes[i] = components[i].getType();
+                genericTypes[i] = components[i].getGenericType();
+                getters[i] = unreflect(components[i].getAccessor());
+                defaults[i] = componentTypes[i].isPrimitive() ? Array.get(Array.newInstance(componentTypes[i], 1), 0) : null;
+            }
+            final Constructor<?> constructor = type.getDeclaredConstructor(componentTypes);
+            constructor.setAccessible(true);
+            final MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor).asSpreader(Object[].class, components.length).asType(MethodType.methodType(Object.class, Object[].class));
+            return new Binding(names, componentTypes, genericTypes, indices(names), getters, null, defaults, handle);
+        }
+
+        @Nullable
+        private static Binding ofObject(Class<?> type) throws ReflectiveOperationException {
+            final List<Field> fields = new ArrayList<>();
+            for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+                if (current.getTypeParameters().length > 0) {
+                    return null;
+                }
+                for (Field field : current.getDeclaredFields()) {
+                    final int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                        continue;
+                    }
+                    if (!isPlain(field) || isAnonymousOrLocal(field.getType())) {
+                        return null;
+                    }
+                    fields.add(field);
+                }
+            }
+
+            final String[] names = new String[fields.size()];
+            final Class<?>[] fieldTypes = new Class<?>[fields.size()];
+            final Type[] genericTypes = new Type[fields.size()];
+            final MethodHandle[] getters = new MethodHandle[fields.size()];
+            final IFieldAccessor[] setters = new IFieldAccessor[fields.size()];
+            for (int i = 0; i < names.length; i++) {
+                final Field field = fields.get(i);
+                field.setAccessible(true);
+                names[i] = field.getName();
+                fieldTypes[i] = field.getType();
+                genericTypes[i] = field.getGenericType();
+                getters[i] = MethodHandles.lookup().unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+                setters[i] = GeneratedAccessors.create(field);
+            }
+            final Map<String, Integer> indices = indices(names);
+            if (indices.size() != names.length) {
+                // GSON rejects classes that declare the same name more than once.
+                return null;
+            }
+            final Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            final MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+            return new Binding(names, fieldTypes, genericTypes, indices, getters, setters, null, handle);
+        }
+
+        /**
+         * Checks if a class can be bound. Only concrete, non-generic classes outside the JDK and GSON are bound, and
+         * classes that are mapped by other means, such as collections and enums, are left to GSON.
+         *
+         * @param type The class to check.
+         * @return If the class can be bound.
+         */
+        private static boolean isBindable(Class<?> type) {
+            if (type.isPrimitive() || type.isArray() || type.isEnum() || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+                return false;
+            }
+            if (isAnonymousOrLocal(type) || (type.getEnclosingClass() != null && !Modifier.isStatic(type.getModifiers()))) {
+                return false;
+            }
+            if (Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type) || JsonElement.class.isAssignableFrom(type)) {
+                return false;
+            }
+            final String name = type.getName();
+            if (name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun.") || name.startsWith("com.google.gson.")) {
+                return false;
+            }
+            return type.getTypeParameters().length == 0 && isPlain(type);
+        }
+
+        private static boolean isAnonymousOrLocal(Class<?> type) {
+            return type.isAnonymousClass() || type.isLocalClass();
+        }
+
+        /**
+         * Checks that an element does not use GSON annotations, which change how it is serialized.
+         *
+         * @param element The element to check.
+         * @return If the element has no GSON annotations.
+         */
+        private static boolean isPlain(AnnotatedElement element) {
+            for (Annotation annotation : element.getDeclaredAnnotations()) {
+                if (annotation.annotationType().getName().startsWith("com.google.gson.annotations.")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method).asType(MethodType.methodType(Object.class, Object.class));
+        }
+
+        private static Map<String, Integer> indices(String[] names) {
+            final Map<String, Integer> indices = new HashMap<>(names.length * 2);
+            for (int i = 0; i < names.length; i++) {
+                indices.put(names[i], i);
+            }
+            return indices;
+        }
+    }
+
+    /**
+     * Reads and writes values of a bound class for a specific GSON instance.
+     *
+     * @param <T> The type of the values.
+     */
+    private static final class BoundAdapter<T> extends TypeAdapter<T> {
+
+        private final Gson gson;
+        private final Binding binding;
+
+        /**
+         * The adapters used for the declared type of each field.
+         */
+        private final TypeAdapter<?>[] adapters;
+
+        private BoundAdapter(Gson gson, Binding binding) {
+            this.gson = gson;
+            this.binding = binding;
+            this.adapters = new TypeAdapter<?>[binding.genericTypes().length];
+            for (int i = 0; i < this.adapters.length; i++) {
+                this.adapters[i] = gson.getAdapter(TypeToken.get(binding.genericTypes()[i]));
+            }
+        }
+
+        @Override
+        public void write(JsonWriter out, T value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            for (int i = 0; i < this.adapters.length; i++) {
+                final Object fieldValue = invoke(this.binding.getters()[i], value);
+                out.name(this.binding.names()[i]);
+                this.adapterFor(i, fieldValue).write(out, fieldValue);
+            }
+            out.endObject();
+        }
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return this.binding.isRecord() ? this.readRecord(in) : this.readObject(in);
+        }
+
+        private T readObject(JsonReader in) throws IOException {
+            final T instance = this.construct(null);
+            in.beginObject();
+            while (in.hasNext()) {
+                final Integer index = this.binding.indices().get(in.nextName());
+                if (index == null) {
+                    in.skipValue();
+                    continue;
+                }
+                final Object fieldValue = this.adapters[index].read(in);
+                if (fieldValue != null || !this.binding.types()[index].isPrimitive()) {
+                    this.binding.setters()[index].set(instance, fieldValue);
+                }
+            }
+            in.endObject();
+            return instance;
+        }
+
+        private T readRecord(JsonReader in) throws IOException {
+            final Class<?>[] types = this.binding.types();
+            final Object[] arguments = this.binding.defaults().clone();
+            in.beginObject();
+            while (in.hasNext()) {
+                final Integer index = this.binding.indices().get(in.nextName());
+                if (index == null) {
+                    in.skipValue();
+                    continue;
+                }
+                final Object componentValue = this.adapters[index].read(in);
+                if (componentValue == null && types[index].isPrimitive()) {
+                    throw new JsonParseException("null is not allowed as value for record component '" + this.binding.names()[index] + "' of primitive type; at path " + in.getPath());
+                }
+                arguments[index] = componentValue;
+            }
+            in.endObject();
+            return this.construct(arguments);
+        }
+
+        /**
+         * Gets the adapter used to write the value of a field. Like GSON, the adapter for the runtime type is used when
+         * the value is a subtype of the declared type, unless that would replace a custom adapter with a reflective one.
+         *
+         * @param index The index of the field.
+         * @param value The value of the field.
+         * @return The adapter to write the value with.
+         */
+        private TypeAdapter<Object> adapterFor(int index, @Nullable Object value) {
+            final TypeAdapter<?> declared = this.adapters[index];
+            final Class<?> type = this.binding.types()[index];
+            if (value == null || type.isPrimitive() || value.getClass() == type || !(this.binding.genericTypes()[index] instanceof Class<?>)) {
+                return accepting(declared);
+            }
+            final TypeAdapter<?> runtime = this.gson.getAdapter(value.getClass());
+            return accepting(!isReflective(runtime) || isReflective(declared) ? runtime : declared);
+        }
+
+        /**
+         * Gets an adapter as one that accepts any object. Values are only written by the adapter of the declared type
+         * of their field, or of their own runtime type, so the adapter always accepts the value it is given.
+         *
+         * @param adapter The adapter.
+         * @return The same adapter.
+         */
+        @SuppressWarnings("unchecked")
+        private static TypeAdapter<Object> accepting(TypeAdapter<?> adapter) {
+            return (TypeAdapter<Object>) adapter;
+        }
+
+        private static Object invoke(MethodHandle getter, Object value) {
+            try {
+                return (Object) getter.invokeExact(value);
+            }
+            catch (RuntimeException | Error e) {
+                throw e;
+            }
+            catch (Throwable e) {
+                throw new JsonParseException(e);
+            }
+        }
+
+        /**
+         * Creates a new instance of the bound class. Adapters are only created for a bound class when it is the type
+         * being adapted, and bound classes are never generic, so every instance is a T.
+         *
+         * @param arguments The values of the record components, or null for plain objects.
+         * @return The new instance.
+         */
+        @SuppressWarnings("unchecked")
+        private T construct(@Nullable Object[] arguments) {
+            final MethodHandle constructor = this.binding.constructor();
+            try {
+                return (T) (arguments == null ? (Object) constructor.invokeExact() : (Object) constructor.invokeExact(arguments));
+            }
+            catch (RuntimeException | Error e) {
+                throw e;
+            }
+            catch (Throwable e) {
+                throw new JsonParseException(e);
+            }
+        }
+    }
+}
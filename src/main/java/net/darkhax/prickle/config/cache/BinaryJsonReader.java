@@ -0,0 +1,361 @@
+package net.darkhax.prickle.config.cache;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.darkhax.prickle.config.cache.BinaryJsonWriter.BEGIN_ARRAY;
+import static net.darkhax.prickle.config.cache.BinaryJsonWriter.BEGIN_OBJECT;
+import static net.darkhax.prickle.config.cache.BinaryJsonWriter.DOUBLE;
+import static net.darkhax.prickle.config.cache.BinaryJsonWriter.END_ARRAY;
+import static net.darkhax.prickle.config.cache.BinaryJsonWriter.END_OBJECT;
+import static net.darkhax.prickle.config.cache.BinaryJsonWriter.FALSE;
+import static net.darkhax.prickle.config.cache.BinaryJsonWriter.LONG;
+import static net.darkhax.prickle.config.cache.BinaryJsonWriter.NAME_DEF;
+import static net.darkhax.prickle.config.cache.BinaryJsonWriter.NAME_REF;
+import static net.darkhax.prickle.config.cache.BinaryJsonWriter.NULL;
+import static net.darkhax.prickle.config.cache.BinaryJsonWriter.NUMBER;
+import static net.darkhax.prickle.config.cache.BinaryJsonWriter.STRING;
+import static net.darkhax.prickle.config.cache.BinaryJsonWriter.TRUE;
+
+/**
+ * A JSON reader that reads the binary token stream written by {@link BinaryJsonWriter}. This allows config properties
+ * to read binary data using the same code they use to read JSON text.
+ */
+public class BinaryJsonReader extends JsonReader {
+
+    /**
+     * A marker used when no tag has been peeked.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * The binary data being read.
+     */
+    private final ByteBuffer in;
+
+    /**
+     * Names that have been defined so far, in the order they were defined.
+     */
+    private final List<String> names = new ArrayList<>();
+
+    /**
+     * The tag that was peeked but not yet consumed.
+     */
+    private int peeked = NONE;
+
+    /**
+     * The path segments of the current position, used for error messages.
+     */
+    private final List<Object> path = new ArrayList<>();
+
+    public BinaryJsonReader(ByteBuffer in) {
+        super(Reader.nullReader());
+        if (in.hasArray()) {
+            this.in = in;
+        }
+        else {
+            // Strings are decoded directly from the backing array, so direct buffers are copied to the heap.
+            this.in = ByteBuffer.allocate(in.remaining());
+            this.in.put(in.duplicate()).flip();
+        }
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        this.expect(BEGIN_ARRAY, JsonToken.BEGIN_ARRAY);
+        this.path.add(0);
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        this.expect(END_ARRAY, JsonToken.END_ARRAY);
+        this.path.remove(this.path.size() - 1);
+        this.advancePath();
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        this.expect(BEGIN_OBJECT, JsonToken.BEGIN_OBJECT);
+        this.path.add(null);
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        this.expect(END_OBJECT, JsonToken.END_OBJECT);
+        this.path.remove(this.path.size() - 1);
+        this.advancePath();
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        final JsonToken token = this.peek();
+        return token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY && token != JsonToken.END_DOCUMENT;
+    }
+
+    @Override
+    public JsonToken peek() throws IOException {
+        return switch (this.peekTag()) {
+            case BEGIN_ARRAY -> JsonToken.BEGIN_ARRAY;
+            case END_ARRAY -> JsonToken.END_ARRAY;
+            case BEGIN_OBJECT -> JsonToken.BEGIN_OBJECT;
+            case END_OBJECT -> JsonToken.END_OBJECT;
+            case NAME_DEF, NAME_REF -> JsonToken.NAME;
+            case STRING -> JsonToken.STRING;
+            case NUMBER, LONG, DOUBLE -> JsonToken.NUMBER;
+            case TRUE, FALSE -> JsonToken.BOOLEAN;
+            case NULL -> JsonToken.NULL;
+            case NONE -> JsonToken.END_DOCUMENT;
+            default -> throw new IOException("Unknown binary tag " + this.peeked + this.locationString());
+        };
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        final int tag = this.peekTag();
+        final String name;
+        if (tag == NAME_DEF) {
+            this.peeked = NONE;
+            name = this.readString();
+            this.names.add(name);
+        }
+        else if (tag == NAME_REF) {
+            this.peeked = NONE;
+            final int index = this.readVarInt();
+            if (index < 0 || index >= this.names.size()) {
+                throw new IOException("Undefined name reference " + index + this.locationString());
+            }
+            name = this.names.get(index);
+        }
+        else {
+            throw this.unexpected(JsonToken.NAME);
+        }
+        this.path.set(this.path.size() - 1, name);
+        return name;
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        final int tag = this.peekTag();
+        final String value = switch (tag) {
+            case STRING, NUMBER -> this.consume(tag).readString();
+            case LONG -> Long.toString(this.consume(tag).readLong());
+            case DOUBLE -> Double.toString(this.consume(tag).readDouble());
+            default -> throw this.unexpected(JsonToken.STRING);
+        };
+        this.advancePath();
+        return value;
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        final int tag = this.peekTag();
+        if (tag != TRUE && tag != FALSE) {
+            throw this.unexpected(JsonToken.BOOLEAN);
+        }
+        this.peeked = NONE;
+        this.advancePath();
+        return tag == TRUE;
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        this.expect(NULL, JsonToken.NULL);
+        this.advancePath();
+    }
+
+    @Override
+    public double nextDouble() throws IOException {
+        final int tag = this.peekTag();
+        final double value = switch (tag) {
+            case DOUBLE -> this.consume(tag).readDouble();
+            case LONG -> this.consume(tag).readLong();
+            case NUMBER, STRING -> {
+                final String text = this.consume(tag).readString();
+                try {
+                    yield Double.parseDouble(text);
+                }
+                catch (NumberFormatException e) {
+                    throw new NumberFormatException("Expected a double but was " + text + this.locationString());
+                }
+            }
+            default -> throw this.unexpected(JsonToken.NUMBER);
+        };
+        this.advancePath();
+        return value;
+    }
+
+    @Override
+    public long nextLong() throws IOException {
+        final int tag = this.peekTag();
+        final long value = switch (tag) {
+            case LONG -> this.consume(tag).readLong();
+            case DOUBLE -> {
+                final double doubleVal = this.consume(tag).readDouble();
+                if ((long) doubleVal != doubleVal) {
+                    throw new NumberFormatException("Expected a long but was " + doubleVal + this.locationString());
+                }
+                yield (long) doubleVal;
+            }
+            case NUMBER, STRING -> {
+                final String text = this.consume(tag).readString();
+                try {
+                    yield Long.parseLong(text);
+                }
+                catch (NumberFormatException e) {
+                    final double doubleVal = Double.parseDouble(text);
+                    if ((long) doubleVal != doubleVal) {
+                        throw new NumberFormatException("Expected a long but was " + text + this.locationString());
+                    }
+                    yield (long) doubleVal;
+                }
+            }
+            default -> throw this.unexpected(JsonToken.NUMBER);
+        };
+        this.advancePath();
+        return value;
+    }
+
+    @Override
+    public int nextInt() throws IOException {
+        final long value = this.nextLong();
+        if ((int) value != value) {
+            throw new NumberFormatException("Expected an int but was " + value + this.locationString());
+        }
+        return (int) value;
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            final int tag = this.peekTag();
+            this.peeked = NONE;
+            switch (tag) {
+                case BEGIN_ARRAY, BEGIN_OBJECT -> depth++;
+                case END_ARRAY, END_OBJECT -> depth--;
+                case NAME_DEF -> this.names.add(this.readString());
+                case NAME_REF -> this.readVarInt();
+                case STRING, NUMBER -> this.readString();
+                case LONG -> this.readLong();
+                case DOUBLE -> this.readDouble();
+                case TRUE, FALSE, NULL -> {
+                }
+                case NONE -> throw new IOException("Unexpected end of binary data" + this.locationString());
+                default -> throw new IOException("Unknown binary tag " + tag + this.locationString());
+            }
+        }
+        while (depth > 0);
+        this.advancePath();
+    }
+
+    @Override
+    public void close() {
+        this.peeked = NONE;
+        this.in.position(this.in.limit());
+    }
+
+    @Override
+    public String getPath() {
+        final StringBuilder builder = new StringBuilder("$");
+        for (Object segment : this.path) {
+            if (segment instanceof Integer index) {
+                builder.append('[').append(index).append(']');
+            }
+            else if (segment != null) {
+                builder.append('.').append(segment);
+            }
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + this.locationString();
+    }
+
+    private String locationString() {
+        return " at byte " + this.in.position() + " path " + this.getPath();
+    }
+
+    private int peekTag() throws IOException {
+        if (this.peeked == NONE && this.in.hasRemaining()) {
+            this.peeked = this.in.get() & 0xFF;
+        }
+        return this.peeked;
+    }
+
+    private BinaryJsonReader consume(int tag) {
+        if (this.peeked == tag) {
+            this.peeked = NONE;
+        }
+        return this;
+    }
+
+    private void expect(int tag, JsonToken token) throws IOException {
+        if (this.peekTag() != tag) {
+            throw this.unexpected(token);
+        }
+        this.peeked = NONE;
+    }
+
+    private IllegalStateException unexpected(JsonToken expected) throws IOException {
+        return new IllegalStateException("Expected " + expected + " but was " + this.peek() + this.locationString());
+    }
+
+    private void advancePath() {
+        if (!this.path.isEmpty() && this.path.get(this.path.size() - 1) instanceof Integer index) {
+            this.path.set(this.path.size() - 1, index + 1);
+        }
+    }
+
+    private String readString() throws IOException {
+        final int length = this.readVarInt();
+        if (length < 0 || length > this.in.remaining()) {
+            throw new IOException("Invalid string length " + length + this.locationString());
+        }
+        final String value = new String(this.in.array(), this.in.arrayOffset() + this.in.position(), length, StandardCharsets.UTF_8);
+        this.in.position(this.in.position() + length);
+        return value;
+    }
+
+    private long readLong() throws IOException {
+        try {
+            return this.in.getLong();
+        }
+        catch (BufferUnderflowException e) {
+            throw new IOException("Unexpected end of binary data" + this.locationString(), e);
+        }
+    }
+
+    private double readDouble() throws IOException {
+        try {
+            return this.in.getDouble();
+        }
+        catch (BufferUnderflowException e) {
+            throw new IOException("Unexpected end of binary data" + this.locationString(), e);
+        }
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (!this.in.hasRemaining()) {
+                throw new IOException("Unexpected end of binary data" + this.locationString());
+            }
+            final int b = this.in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length integer" + this.locationString());
+    }
+}
@@ -0,0 +1,504 @@
+package net.darkhax.prickle.config.cache;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A JSON writer that writes a compact binary token stream instead of JSON text. Property names are only written once
+ * and then referenced by index, numbers are written in their binary form where possible, and decorators are dropped
+ * along with their values. Decorators are names that start with {@code //} and are siblings of a {@code value} name, so
+ * they only describe a property. Other names that start with {@code //}, such as map keys, are kept. The output can be
+ * read using {@link BinaryJsonReader}.
+ */
+public class BinaryJsonWriter extends JsonWriter {
+
+    static final int BEGIN_OBJECT = 1;
+    static final int END_OBJECT = 2;
+    static final int BEGIN_ARRAY = 3;
+    static final int END_ARRAY = 4;
+    static final int NAME_DEF = 5;
+    static final int NAME_REF = 6;
+    static final int STRING = 7;
+    static final int NUMBER = 8;
+    static final int LONG = 9;
+    static final int DOUBLE = 10;
+    static final int TRUE = 11;
+    static final int FALSE = 12;
+    static final int NULL = 13;
+
+    /**
+     * The stream that binary data is written to.
+     */
+    private final DataOutputStream out;
+
+    /**
+     * Names that have already been written, mapped to their index.
+     */
+    private final Map<String, Integer> names = new HashMap<>();
+
+    /**
+     * The containers that are being written, with the innermost container first.
+     */
+    private final Deque<Container> containers = new ArrayDeque<>();
+
+    /**
+     * The calls that are being recorded, or null when calls are written. Names that may be decorators are recorded
+     * along with their values until it is known if their object describes a property.
+     */
+    @Nullable
+    private List<Call> recording = null;
+
+    /**
+     * The depth of the value that is being recorded.
+     */
+    private int recordingDepth = 0;
+
+    /**
+     * When true the next value will be dropped because it belongs to a decorator.
+     */
+    private boolean skipNext = false;
+
+    /**
+     * The depth of the decorator value that is being dropped. Zero when no value is being dropped.
+     */
+    private int skipDepth = 0;
+
+    public BinaryJsonWriter(OutputStream out) {
+        super(Writer.nullWriter());
+        this.out = new DataOutputStream(out);
+    }
+
+    @Override
+    public JsonWriter beginArray() throws IOException {
+        if (this.record(JsonWriter::beginArray)) {
+            this.recordingDepth++;
+        }
+        else if (this.enterContainer()) {
+            this.out.writeByte(BEGIN_ARRAY);
+            this.containers.push(new Container(false));
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter endArray() throws IOException {
+        if (this.record(JsonWriter::endArray)) {
+            this.recordingDepth--;
+            this.endRecordedValue();
+        }
+        else if (this.exitContainer()) {
+            this.containers.pop();
+            this.out.writeByte(END_ARRAY);
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter beginObject() throws IOException {
+        if (this.record(JsonWriter::beginObject)) {
+            this.recordingDepth++;
+        }
+        else if (this.enterContainer()) {
+            this.out.writeByte(BEGIN_OBJECT);
+            this.containers.push(new Container(true));
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter endObject() throws IOException {
+        if (this.record(JsonWriter::endObject)) {
+            this.recordingDepth--;
+            this.endRecordedValue();
+        }
+        else if (this.exitContainer()) {
+            // The object did not hold a value, so the names that were held back are not decorators.
+            this.replay(this.containers.peek());
+            this.containers.pop();
+            this.out.writeByte(END_OBJECT);
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter name(String name) throws IOException {
+        if (this.record(writer -> writer.name(name)) || this.skipDepth > 0) {
+            return this;
+        }
+        final Container container = this.containers.peek();
+        if (container != null && container.object) {
+            if (name.startsWith("//") && container.state == State.PROPERTY) {
+                this.skipNext = true;
+                return this;
+            }
+            if (name.startsWith("//") && container.state == State.UNKNOWN) {
+                container.held.add(writer -> writer.name(name));
+                this.recording = container.held;
+                this.recordingDepth = 0;
+                return this;
+            }
+            if (container.state == State.UNKNOWN && "value".equals(name)) {
+                container.state = State.PROPERTY;
+                container.held.clear();
+            }
+            else {
+                this.replay(container);
+            }
+        }
+        final Integer index = this.names.get(name);
+        if (index != null) {
+            this.out.writeByte(NAME_REF);
+            writeVarInt(this.out, index);
+        }
+        else {
+            this.names.put(name, this.names.size());
+            this.out.writeByte(NAME_DEF);
+            writeString(this.out, name);
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return this.nullValue();
+        }
+        if (this.recordValue(writer -> writer.value(value))) {
+            return this;
+        }
+        if (this.writeScalar()) {
+            this.out.writeByte(STRING);
+            writeString(this.out, value);
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(boolean value) throws IOException {
+        if (this.recordValue(writer -> writer.value(value))) {
+            return this;
+        }
+        if (this.writeScalar()) {
+            this.out.writeByte(value ? TRUE : FALSE);
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Boolean value) throws IOException {
+        return value == null ? this.nullValue() : this.value(value.booleanValue());
+    }
+
+    @Override
+    public JsonWriter value(float value) throws IOException {
+        // Floats are written as text so they are read back with the same precision.
+        return this.value((Number) value);
+    }
+
+    @Override
+    public JsonWriter value(double value) throws IOException {
+        if (this.recordValue(writer -> writer.value(value))) {
+            return this;
+        }
+        if (this.writeScalar()) {
+            this.out.writeByte(DOUBLE);
+            this.out.writeDouble(value);
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(long value) throws IOException {
+        if (this.recordValue(writer -> writer.value(value))) {
+            return this;
+        }
+        if (this.writeScalar()) {
+            this.out.writeByte(LONG);
+            this.out.writeLong(value);
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Number value) throws IOException {
+        if (value == null) {
+            return this.nullValue();
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return this.value(value.longValue());
+        }
+        if (value instanceof Double doubleVal) {
+            return this.value(doubleVal.doubleValue());
+        }
+        return this.number(value.toString());
+    }
+
+    @Override
+    public JsonWriter nullValue() throws IOException {
+        if (this.recordValue(JsonWriter::nullValue)) {
+            return this;
+        }
+        if (this.writeScalar()) {
+            this.out.writeByte(NULL);
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter jsonValue(String value) throws IOException {
+        if (value == null) {
+            return this.nullValue();
+        }
+        final JsonReader reader = new JsonReader(new StringReader(value));
+        reader.setLenient(true);
+        this.copy(reader);
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.out.close();
+    }
+
+    /**
+     * Copies a single JSON value from a reader into this writer.
+     *
+     * @param reader The reader to copy from.
+     * @throws IOException If the value could not be copied.
+     */
+    private void copy(JsonReader reader) throws IOException {
+        final JsonToken token = reader.peek();
+        switch (token) {
+            case BEGIN_ARRAY -> {
+                reader.beginArray();
+                this.beginArray();
+                while (reader.hasNext()) {
+                    this.copy(reader);
+                }
+                reader.endArray();
+                this.endArray();
+            }
+            case BEGIN_OBJECT -> {
+                reader.beginObject();
+                this.beginObject();
+                while (reader.hasNext()) {
+                    this.name(reader.nextName());
+                    this.copy(reader);
+                }
+                reader.endObject();
+                this.endObject();
+            }
+            case STRING -> this.value(reader.nextString());
+            case NUMBER -> this.number(reader.nextString());
+            case BOOLEAN -> this.value(reader.nextBoolean());
+            case NULL -> {
+                reader.nextNull();
+                this.nullValue();
+            }
+            default -> throw new IOException("Unexpected token " + token + " in raw JSON value.");
+        }
+    }
+
+    /**
+     * Writes a number using its text form.
+     *
+     * @param number The text of the number.
+     * @return The same writer.
+     * @throws IOException If the number could not be written.
+     */
+    private JsonWriter number(String number) throws IOException {
+        if (this.recordValue(writer -> writer.number(number))) {
+            return this;
+        }
+        if (this.writeScalar()) {
+            this.out.writeByte(NUMBER);
+            writeString(this.out, number);
+        }
+        return this;
+    }
+
+    /**
+     * Records a call if a value is being recorded.
+     *
+     * @param call The call to record.
+     * @return If the call was recorded.
+     */
+    private boolean record(Call call) {
+        if (this.recording == null) {
+            return false;
+        }
+        this.recording.add(call);
+        return true;
+    }
+
+    /**
+     * Records a call that writes a scalar value if a value is being recorded.
+     *
+     * @param call The call to record.
+     * @return If the call was recorded.
+     */
+    private boolean recordValue(Call call) {
+        if (this.record(call)) {
+            this.endRecordedValue();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Stops recording once the value that is being recorded is complete.
+     */
+    private void endRecordedValue() {
+        if (this.recordingDepth == 0) {
+            this.recording = null;
+        }
+    }
+
+    /**
+     * Writes the names and values that were held back by an object, because it is now known that they are not
+     * decorators.
+     *
+     * @param container The object that holds the names.
+     * @throws IOException If the names could not be written.
+     */
+    private void replay(@Nullable Container container) throws IOException {
+        if (container == null || container.state != State.UNKNOWN) {
+            return;
+        }
+        container.state = State.PLAIN;
+        final List<Call> held = new ArrayList<>(container.held);
+        container.held.clear();
+        for (Call call : held) {
+            call.apply(this);
+        }
+    }
+
+    /**
+     * Starts a container value, or increases the depth of a decorator that is being dropped.
+     *
+     * @return If the container should be written.
+     */
+    private boolean enterContainer() {
+        if (this.skipDepth > 0 || this.skipNext) {
+            this.skipNext = false;
+            this.skipDepth++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Ends a container value, or decreases the depth of a decorator that is being dropped.
+     *
+     * @return If the end of the container should be written.
+     */
+    private boolean exitContainer() {
+        if (this.skipDepth > 0) {
+            this.skipDepth--;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a scalar value should be written. Scalar values that belong to a decorator are dropped.
+     *
+     * @return If the scalar value should be written.
+     */
+    private boolean writeScalar() {
+        if (this.skipNext) {
+            this.skipNext = false;
+            return false;
+        }
+        return this.skipDepth == 0;
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * A call to the writer that can be replayed.
+     */
+    @FunctionalInterface
+    private interface Call {
+
+        void apply(BinaryJsonWriter writer) throws IOException;
+    }
+
+    /**
+     * What is known about the names of an object.
+     */
+    private enum State {
+
+        /**
+         * Only names that may be decorators have been written.
+         */
+        UNKNOWN,
+
+        /**
+         * The object holds a value, so names that start with {@code //} are decorators.
+         */
+        PROPERTY,
+
+        /**
+         * The object does not describe a property, so every name is kept.
+         */
+        PLAIN
+    }
+
+    /**
+     * An object or array that is being written.
+     */
+    private static final class Container {
+
+        /**
+         * If the container is an object.
+         */
+        private final boolean object;
+
+        /**
+         * What is known about the names of the object.
+         */
+        private State state = State.UNKNOWN;
+
+        /**
+         * The names that may be decorators, and their values, that are held back until the state is known.
+         */
+        private final List<Call> held = new ArrayList<>();
+
+        private Container(boolean object) {
+            this.object = object;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package net.darkhax.prickle.config.cache;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
+import net.darkhax.prickle.config.ConfigObjectSerializer;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * A cache that stores a compact binary form of a loaded config file. The cache is keyed by the size, modification
+ * time, and content hash of the source file, as well as the fingerprint of the schema that was used to read it. When
+ * every key matches, the binary form can be read instead of parsing the JSON text. If any key does not match the cache
+ * is ignored and will be replaced the next time it is written.
+ */
+public class ConfigCache {
+
+    /**
+     * A magic number used to identify cache files.
+     */
+    private static final int MAGIC = 0x50524B43;
+
+    /**
+     * The version of the cache format. Changing this will invalidate all existing caches.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The length of the content hash in bytes.
+     */
+    private static final int HASH_LENGTH = 32;
+
+    /**
+     * Writes JSON trees to the binary writer.
+     */
+    private static final TypeAdapter<JsonElement> JSON_TREE = new Gson().getAdapter(JsonElement.class);
+
+    /**
+     * The file that holds the cached data.
+     */
+    private final Path cacheFile;
+
+    public ConfigCache(Path cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * Gets the file that holds the cached data.
+     *
+     * @return The cache file.
+     */
+    public Path cacheFile() {
+        return this.cacheFile;
+    }
+
+    /**
+     * Attempts to read the cached data into the config object. The cache will only be read if it was written for the
+     * current contents of the source file and the current schema.
+     *
+     * @param source     The config file that was cached.
+     * @param serializer The serializer for the config object.
+     * @return If the cache was valid and has been read.
+     * @throws IOException If the cache could not be read.
+     */
+    public boolean read(Path source, ConfigObjectSerializer<?> serializer) throws IOException {
+        if (!Files.exists(this.cacheFile)) {
+            return false;
+        }
+
+        final ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(this.cacheFile));
+        if (data.remaining() < 4 + 4 + 8 + 8 + HASH_LENGTH + 8 || data.getInt() != MAGIC || data.getInt() != VERSION) {
+            return false;
+        }
+
+        final BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        final long size = data.getLong();
+        final long modified = data.getLong();
+        final byte[] hash = new byte[HASH_LENGTH];
+        data.get(hash);
+        final long fingerprint = data.getLong();
+
+        if (size != attributes.size() || modified != attributes.lastModifiedTime().toMillis() || fingerprint != serializer.fingerprint() || !Arrays.equals(hash, hash(source))) {
+            return false;
+        }
+
+        serializer.read(new BinaryJsonReader(data.slice()));
+        return true;
+    }
+
+    /**
+     * Writes the current values of the config object to the cache. The cache is keyed to the current state of the
+     * source file.
+     *
+     * @param source     The config file that is being cached.
+     * @param serializer The serializer for the config object.
+     * @throws IOException If the cache could not be written.
+     */
+    public void write(Path source, ConfigObjectSerializer<?> serializer) throws IOException {
+        this.write(source, serializer, null);
+    }
+
+    /**
+     * Writes values that were rendered from the config object to the cache, such as values that had overrides removed.
+     * The cache is keyed to the current state of the source file.
+     *
+     * @param source     The config file that is being cached.
+     * @param serializer The serializer for the config object.
+     * @param values     The JSON of the config object, or null to write the current values of the config object.
+     * @throws IOException If the cache could not be written.
+     */
+    public void write(Path source, ConfigObjectSerializer<?> serializer, @Nullable JsonElement values) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream header = new DataOutputStream(bytes);
+        header.writeInt(MAGIC);
+        header.writeInt(VERSION);
+        header.writeLong(attributes.size());
+        header.writeLong(attributes.lastModifiedTime().toMillis());
+        header.write(hash(source));
+        header.writeLong(serializer.fingerprint());
+
+        try (BinaryJsonWriter writer = new BinaryJsonWriter(bytes)) {
+            if (values != null) {
+                JSON_TREE.write(writer, values);
+            }
+            else {
+                serializer.write(writer);
+            }
+        }
+
+        final Path parent = this.cacheFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        final Path temp = this.cacheFile.resolveSibling(this.cacheFile.getFileName() + ".tmp");
+        Files.write(temp, bytes.toByteArray());
+        try {
+            Files.move(temp, this.cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, this.cacheFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Creates a cache that is stored next to the config file.
+     *
+     * @param source The config file to cache.
+     * @return A cache for the config file.
+     */
+    public static ConfigCache beside(Path source) {
+        return new ConfigCache(source.resolveSibling(source.getFileName() + ".cache"));
+    }
+
+    /**
+     * Creates a cache that is stored in a cache directory. The name of the cache file includes a hash of the path to
+     * the config file, so config files with the same name in different directories will not share a cache.
+     *
+     * @param directory The directory to store the cache in.
+     * @param source    The config file to cache.
+     * @return A cache for the config file.
+     */
+    public static ConfigCache inDirectory(Path directory, Path source) {
+        final String pathHash = Integer.toHexString(source.toAbsolutePath().normalize().toString().hashCode());
+        return new ConfigCache(directory.resolve(source.getFileName() + "-" + pathHash + ".cache"));
+    }
+
+    private static byte[] hash(Path file) throws IOException {
+        try (InputStream stream = Files.newInputStream(file)) {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return digest.digest();
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,16 +1,19 @@
 package net.darkhax.prickle.config.comment;
 
 import net.darkhax.prickle.annotations.Value;
-import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Represents a comment in a Prickle file. This supports single line comments or multi-line comments as arrays.
+ * Represents a comment in a Prickle file. This supports single line comments or multi-line comments as arrays. The
+ * text is wrapped the first time the lines are requested, so comments on configs that are never written are not
+ * rendered.
  */
 public class WrappedComment extends Comment {
 
@@ -19,6 +22,20 @@ public class WrappedComment extends Comment {
      */
     public static final ICommentResolver RESOLVER = new WrappedCommentResolver(80, true);
 
+    /**
+     * Rendered comments that are shared by every config, keyed by their text, line length, and padding.
+     */
+    private static final Map<Key, WrappedComment> INTERNED = new ConcurrentHashMap<>();
+
+    private final String text;
+    private final int lineLength;
+    private final boolean pad;
+
+    /**
+     * The wrapped lines of the comment. These are rendered the first time the comment is written.
+     */
+    private volatile String[] lines;
+
     /**
      * Create a wrapped comment.
      *
@@ -29,11 +46,37 @@ public class WrappedComment extends Comment {
      *                   limit.
      */
     public WrappedComment(String text, int lineLength, boolean pad) {
-        super(wrap(text, lineLength, pad));
+        this.text = text;
+        this.lineLength = lineLength;
+        this.pad = pad;
     }
 
     /**
-     * An internal helper to wrap and pad a string to a given length.
+     * Gets a wrapped comment from the shared cache, creating it if an identical comment has not been requested before.
+     * Comments are immutable, so the same instance is used by every property that has the same comment.
+     *
+     * @param text       The comment text.
+     * @param lineLength The maximum length per line of the comment.
+     * @param pad        When true the lines will be padded to the line length.
+     * @return The shared comment.
+     */
+    public static WrappedComment of(String text, int lineLength, boolean pad) {
+        return INTERNED.computeIfAbsent(new Key(text, lineLength, pad), key -> new WrappedComment(key.text(), key.lineLength(), key.pad()));
+    }
+
+    @Override
+    public String[] getLines() {
+        String[] lines = this.lines;
+        if (lines == null) {
+            lines = wrap(this.text, this.lineLength, this.pad);
+            this.lines = lines;
+        }
+        return lines;
+    }
+
+    /**
+     * An internal helper to wrap and pad a string to a given length. Words are separated by whitespace, and lengths
+     * are measured in code points so characters outside the basic multilingual plane count as one character.
      *
      * @param text       The text to wrap.
      * @param lineLength The maximum length per-line.
@@ -41,30 +84,59 @@ public class WrappedComment extends Comment {
      * @return A list of strings representing the wrapped lines of the text.
      */
     private static String[] wrap(String text, int lineLength, boolean pad) {
-        final List<String> lines = new LinkedList<>();
-        final String[] words = text.split("\\s+");
-        StringBuilder currentLine = new StringBuilder();
-        for (String word : words) {
-            if (currentLine.length() + word.length() <= lineLength) {
-                currentLine.append(word);
-                if (currentLine.length() != lineLength) {
-                    currentLine.append(" ");
-                }
+        final List<String> lines = new ArrayList<>();
+        final StringBuilder line = new StringBuilder(lineLength);
+        final int length = text.length();
+        int lineWidth = 0;
+        int index = 0;
+        while (index < length) {
+            int codePoint = text.codePointAt(index);
+            if (Character.isWhitespace(codePoint)) {
+                index += Character.charCount(codePoint);
+                continue;
+            }
+
+            // Find the end of the word.
+            final int wordStart = index;
+            int wordWidth = 0;
+            while (index < length && !Character.isWhitespace(codePoint = text.codePointAt(index))) {
+                index += Character.charCount(codePoint);
+                wordWidth++;
+            }
+
+            if (lineWidth > 0 && lineWidth + 1 + wordWidth > lineLength) {
+                lines.add(finishLine(line, lineWidth, lineLength, pad));
+                line.setLength(0);
+                lineWidth = 0;
             }
-            else {
-                lines.add(pad ? StringUtils.rightPad(currentLine.toString(), lineLength) : currentLine.toString().trim());
-                currentLine = new StringBuilder(word + " ");
+            if (lineWidth > 0) {
+                line.append(' ');
+                lineWidth++;
             }
+            line.append(text, wordStart, index);
+            lineWidth += wordWidth;
         }
-        if (!currentLine.isEmpty()) {
-            lines.add(pad ? StringUtils.rightPad(currentLine.toString(), lineLength) : currentLine.toString().trim());
+        if (lineWidth > 0 || lines.isEmpty()) {
+            lines.add(finishLine(line, lineWidth, lineLength, pad));
         }
         return lines.toArray(String[]::new);
     }
 
+    private static String finishLine(StringBuilder line, int lineWidth, int lineLength, boolean pad) {
+        if (pad) {
+            for (int i = lineWidth; i < lineLength; i++) {
+                line.append(' ');
+            }
+        }
+        return line.toString();
+    }
+
+    private record Key(String text, int lineLength, boolean pad) {
+    }
+
     /**
      * Resolves comments by wrapping the text to the specified width and optionally padding multi-line comments to the
-     * maximum line length.
+     * maximum line length. Comments with the same text are shared using {@link #of(String, int, boolean)}.
      */
     public static class WrappedCommentResolver implements ICommentResolver {
 
@@ -79,7 +151,7 @@ public class WrappedComment extends Comment {
         @Nullable
         @Override
         public WrappedComment resolve(Field field, @Nullable Object value, Value valueMeta) throws IOException {
-            return ICommentResolver.hasComment(valueMeta) ? new WrappedComment(valueMeta.comment(), this.lineLength, this.padLength) : null;
+            return ICommentResolver.hasComment(valueMeta) ? WrappedComment.of(valueMeta.comment(), this.lineLength, this.padLength) : null;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,359 @@
+package net.darkhax.prickle.config.interpolate;
+
+import com.google.gson.Gson;
+import net.darkhax.prickle.annotations.Interpolate;
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.ConfigKey;
+import net.darkhax.prickle.config.ConfigObjectSerializer;
+import net.darkhax.prickle.config.property.ConfigObjectProperty;
+import net.darkhax.prickle.config.property.IConfigProperty;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Updates the fields of a config that are marked with {@link Interpolate}. The templates and the graph of references
+ * between fields and properties are built once when the schema is mapped. References to unknown properties and cycles
+ * between interpolated fields are rejected at that time, and the fields are sorted so every field is rendered after the
+ * fields it references.
+ * <p>
+ * When the config is loaded, the referenced properties are compared to their previous values, and only the fields that
+ * depend on a changed property, directly or through other fields, are rendered again. Strings, numbers, booleans,
+ * characters and enums are rendered as text, and other values such as arrays and collections are rendered as compact
+ * JSON so that equal values always produce the same text.
+ */
+public final class Interpolator {
+
+    /**
+     * Renders referenced values that are not scalars.
+     */
+    private final Gson gson;
+
+    /**
+     * Reads the current value of each referenced property.
+     */
+    private final List<ConfigKey<Object>> inputs;
+
+    /**
+     * The interpolated fields, in the order they are rendered.
+     */
+    private final Node[] nodes;
+
+    /**
+     * The indices of the nodes that reference each input.
+     */
+    private final int[][] inputDependents;
+
+    /**
+     * The indices of the nodes that reference each node.
+     */
+    private final int[][] nodeDependents;
+
+    /**
+     * The previous value of each input, as text.
+     */
+    private final String[] inputValues;
+
+    /**
+     * The previous value of each node.
+     */
+    private final String[] nodeValues;
+
+    private boolean initialized = false;
+
+    private Interpolator(Gson gson, List<ConfigKey<Object>> inputs, Node[] nodes, int[][] inputDependents, int[][] nodeDependents) {
+        this.gson = gson;
+        this.inputs = inputs;
+        this.nodes = nodes;
+        this.inputDependents = inputDependents;
+        this.nodeDependents = nodeDependents;
+        this.inputValues = new String[inputs.size()];
+        this.nodeValues = new String[nodes.length];
+    }
+
+    /**
+     * Builds the interpolator for a config schema.
+     *
+     * @param serializer The serializer of the config object.
+     * @param gson       Renders referenced values that are not scalars, such as arrays and collections.
+     * @param keys       Resolves a key for reading the current value of a property.
+     * @param root       Supplies the current config object.
+     * @return The interpolator, or null if the config does not have any interpolated fields.
+     * @throws IllegalArgumentException If a field can not be interpolated, a template references a property that does
+     *                                  not exist, or the interpolated fields reference each other in a cycle.
+     */
+    @Nullable
+    public static Interpolator of(ConfigObjectSerializer<?> serializer, Gson gson, Function<String, ConfigKey<Object>> keys, Supplier<?> root) {
+        final Map<String, Field> fields = new LinkedHashMap<>();
+        final Map<String, String> ownerPaths = new HashMap<>();
+        scan(serializer, "", fields, ownerPaths);
+        if (fields.isEmpty()) {
+            return null;
+        }
+        if (serializer.isRecord()) {
+            throw new IllegalArgumentException("Records can not have interpolated fields. Found " + fields.keySet());
+        }
+
+        // Index every field, and find the properties and fields referenced by each template.
+        final List<String> paths = new ArrayList<>(fields.keySet());
+        final Map<String, Integer> fieldIndex = new HashMap<>();
+        for (int i = 0; i < paths.size(); i++) {
+            fieldIndex.put(paths.get(i), i);
+        }
+        final List<ConfigKey<Object>> inputs = new ArrayList<>();
+        final Map<String, Integer> inputIndex = new HashMap<>();
+        final int[][] refs = new int[paths.size()][];
+        final Template[] templates = new Template[paths.size()];
+        for (int i = 0; i < paths.size(); i++) {
+            final String path = paths.get(i);
+            templates[i] = Template.compile(fields.get(path).getAnnotation(Interpolate.class).value());
+            final List<String> references = templates[i].references();
+            refs[i] = new int[references.size()];
+            for (int r = 0; r < references.size(); r++) {
+                final String reference = references.get(r);
+                final Integer node = fieldIndex.get(reference);
+                if (node != null) {
+                    refs[i][r] = -(node + 1);
+                    continue;
+                }
+                Integer input = inputIndex.get(reference);
+                if (input == null) {
+                    try {
+                        inputs.add(keys.apply(reference));
+                    }
+                    catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("The template of interpolated field '" + path + "' references '" + reference + "' which is not a property or interpolated field.", e);
+                    }
+                    input = inputs.size() - 1;
+                    inputIndex.put(reference, input);
+                }
+                refs[i][r] = input;
+            }
+        }
+
+        // Sort the fields so each field is rendered after the fields it references.
+        final int[] order = sort(paths, refs);
+        final int[] position = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            position[order[i]] = i;
+        }
+        // The objects that hold the fields are resolved once, and shared by the fields of the same object.
+        final Map<String, Supplier<?>> owners = new HashMap<>();
+        owners.put("", root);
+        final Node[] nodes = new Node[order.length];
+        final List<List<Integer>> inputDependents = new ArrayList<>();
+        final List<List<Integer>> nodeDependents = new ArrayList<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            inputDependents.add(new ArrayList<>());
+        }
+        for (int i = 0; i < order.length; i++) {
+            nodeDependents.add(new ArrayList<>());
+        }
+        for (int i = 0; i < order.length; i++) {
+            final int original = order[i];
+            final int[] nodeRefs = refs[original].clone();
+            for (int r = 0; r < nodeRefs.length; r++) {
+                if (nodeRefs[r] < 0) {
+                    final int target = position[-nodeRefs[r] - 1];
+                    nodeRefs[r] = -(target + 1);
+                    addOnce(nodeDependents.get(target), i);
+                }
+                else {
+                    addOnce(inputDependents.get(nodeRefs[r]), i);
+                }
+            }
+            final String path = paths.get(original);
+            final Supplier<?> owner = owners.computeIfAbsent(ownerPaths.get(path), ownerPath -> keys.apply(ownerPath)::get);
+            nodes[i] = new Node(path, owner, fields.get(path), templates[original], nodeRefs);
+        }
+        return new Interpolator(gson, List.copyOf(inputs), nodes, toArrays(inputDependents), toArrays(nodeDependents));
+    }
+
+    /**
+     * Finds the interpolated fields of a config object and the config objects it holds.
+     */
+    private static void scan(ConfigObjectSerializer<?> serializer, String ownerPath, Map<String, Field> fields, Map<String, String> ownerPaths) {
+        final String prefix = ownerPath.isEmpty() ? "" : ownerPath + ".";
+        for (Class<?> type = serializer.object().getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                final Interpolate interpolate = field.getAnnotation(Interpolate.class);
+                if (interpolate == null) {
+                    continue;
+                }
+                final String path = prefix + field.getName();
+                if (field.getType() != String.class) {
+                    throw new IllegalArgumentException("Interpolated field '" + path + "' must be a String. Found " + field.getType().getName());
+                }
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+                    throw new IllegalArgumentException("Interpolated field '" + path + "' must not be static or final.");
+                }
+                if (field.isAnnotationPresent(Value.class)) {
+                    throw new IllegalArgumentException("Interpolated field '" + path + "' can not also be a config property.");
+                }
+                field.setAccessible(true);
+                fields.put(path, field);
+                ownerPaths.put(path, ownerPath);
+            }
+        }
+        for (String name : serializer.propertyNames()) {
+            final IConfigProperty<?> property = serializer.property(name);
+            if (property instanceof ConfigObjectProperty<?> configObject) {
+                scan(configObject.serializer(), prefix + name, fields, ownerPaths);
+            }
+        }
+    }
+
+    /**
+     * Sorts the fields so that every field comes after the fields it references.
+     *
+     * @return The original indices of the fields, in the order they should be rendered.
+     * @throws IllegalArgumentException If the fields reference each other in a cycle.
+     */
+    private static int[] sort(List<String> paths, int[][] refs) {
+        final int[] pending = new int[paths.size()];
+        final List<List<Integer>> dependents = new ArrayList<>();
+        for (int i = 0; i < paths.size(); i++) {
+            dependents.add(new ArrayList<>());
+        }
+        for (int i = 0; i < refs.length; i++) {
+            for (int ref : refs[i]) {
+                if (ref < 0 && !dependents.get(-ref - 1).contains(i)) {
+                    dependents.get(-ref - 1).add(i);
+                    pending[i]++;
+                }
+            }
+        }
+        final Deque<Integer> ready = new ArrayDeque<>();
+        for (int i = 0; i < pending.length; i++) {
+            if (pending[i] == 0) {
+                ready.add(i);
+            }
+        }
+        final int[] order = new int[paths.size()];
+        int sorted = 0;
+        while (!ready.isEmpty()) {
+            final int node = ready.poll();
+            order[sorted++] = node;
+            for (int dependent : dependents.get(node)) {
+                if (--pending[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (sorted < order.length) {
+            final List<String> cycle = new ArrayList<>();
+            for (int i = 0; i < pending.length; i++) {
+                if (pending[i] > 0) {
+                    cycle.add(paths.get(i));
+                }
+            }
+            throw new IllegalArgumentException("Interpolated fields reference each other in a cycle: " + cycle);
+        }
+        return order;
+    }
+
+    /**
+     * Renders the fields whose referenced properties have changed since the last update. Every field is rendered the
+     * first time this is used.
+     */
+    public synchronized void update() {
+        final boolean[] dirty = new boolean[this.nodes.length];
+        if (!this.initialized) {
+            Arrays.fill(dirty, true);
+        }
+        for (int i = 0; i < this.inputs.size(); i++) {
+            final String value = this.render(this.inputs.get(i).get());
+            if (!value.equals(this.inputValues[i])) {
+                this.inputValues[i] = value;
+                for (int node : this.inputDependents[i]) {
+                    dirty[node] = true;
+                }
+            }
+        }
+        for (int i = 0; i < this.nodes.length; i++) {
+            if (!dirty[i]) {
+                continue;
+            }
+            final Node node = this.nodes[i];
+            final String value = node.template().render(r -> {
+                final int ref = node.refs()[r];
+                return ref < 0 ? this.nodeValues[-ref - 1] : this.inputValues[ref];
+            });
+            if (!value.equals(this.nodeValues[i])) {
+                this.nodeValues[i] = value;
+                for (int dependent : this.nodeDependents[i]) {
+                    dirty[dependent] = true;
+                }
+            }
+            try {
+                node.field().set(node.owner().get(), value);
+            }
+            catch (IllegalAccessException e) {
+                throw new IllegalStateException("Unable to set interpolated field '" + node.path() + "'.", e);
+            }
+        }
+        this.initialized = true;
+    }
+
+    /**
+     * Renders a referenced value as text. Values that are not scalars are rendered as JSON, as their string form may
+     * be based on their identity.
+     */
+    private String render(@Nullable Object value) {
+        if (value == null || value instanceof CharSequence || value instanceof Number || value instanceof Boolean || value instanceof Character || value instanceof Enum<?>) {
+            return String.valueOf(value);
+        }
+        return this.gson.toJsonTree(value).toString();
+    }
+
+    /**
+     * Gets the paths of the interpolated fields, in the order they are rendered.
+     *
+     * @return The paths of the interpolated fields.
+     */
+    public List<String> fields() {
+        final List<String> paths = new ArrayList<>(this.nodes.length);
+        for (Node node : this.nodes) {
+            paths.add(node.path());
+        }
+        return paths;
+    }
+
+    private static void addOnce(List<Integer> list, int value) {
+        if (!list.contains(value)) {
+            list.add(value);
+        }
+    }
+
+    private static int[][] toArrays(List<List<Integer>> lists) {
+        final int[][] arrays = new int[lists.size()][];
+        for (int i = 0; i < arrays.length; i++) {
+            arrays[i] = lists.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return arrays;
+    }
+
+    /**
+     * An interpolated field.
+     *
+     * @param path     The dotted path of the field.
+     * @param owner    Supplies the current config object that holds the field.
+     * @param field    The field.
+     * @param template The compiled template of the field.
+     * @param refs     The source of each reference in the template. Positive values are the index of an input, and
+     *                 negative values are the index of a node plus one, negated.
+     */
+    private record Node(String path, Supplier<?> owner, Field field, Template template, int[] refs) {
+    }
+}
@@ -0,0 +1,122 @@
+package net.darkhax.prickle.config.interpolate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * A compiled template that references other properties, such as {@code ${host}:${port}}. Templates are parsed once
+ * into literal text and references, and are cached so that every config using the same template shares the compiled
+ * form. Templates are immutable and thread safe.
+ */
+public final class Template {
+
+    /**
+     * Templates that have been compiled, keyed by their source text.
+     */
+    private static final Map<String, Template> COMPILED = new ConcurrentHashMap<>();
+
+    /**
+     * The source text of the template.
+     */
+    private final String source;
+
+    /**
+     * The literal text around each reference. There is always one more literal than there are references, and the
+     * literals may be empty.
+     */
+    private final String[] literals;
+
+    /**
+     * The dotted paths that are referenced, in the order they appear.
+     */
+    private final String[] references;
+
+    private Template(String source, String[] literals, String[] references) {
+        this.source = source;
+        this.literals = literals;
+        this.references = references;
+    }
+
+    /**
+     * Gets the compiled form of a template, compiling it if it has not been compiled before.
+     *
+     * @param source The source text of the template.
+     * @return The compiled template.
+     * @throws IllegalArgumentException If a reference is not closed or is empty.
+     */
+    public static Template compile(String source) {
+        final Template cached = COMPILED.get(source);
+        return cached != null ? cached : COMPILED.computeIfAbsent(source, Template::parse);
+    }
+
+    private static Template parse(String source) {
+        final List<String> literals = new ArrayList<>();
+        final List<String> references = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+        int index = 0;
+        while (index < source.length()) {
+            // The source is read from left to right, so a dollar sign that was written as part of an escape or a
+            // reference is never read again.
+            if (source.startsWith("$${", index)) {
+                literal.append("${");
+                index += 3;
+                continue;
+            }
+            if (!source.startsWith("${", index)) {
+                literal.append(source.charAt(index));
+                index++;
+                continue;
+            }
+            final int end = source.indexOf('}', index + 2);
+            if (end < 0) {
+                throw new IllegalArgumentException("The reference at index " + index + " of template '" + source + "' is not closed.");
+            }
+            final String reference = source.substring(index + 2, end).trim();
+            if (reference.isEmpty()) {
+                throw new IllegalArgumentException("The reference at index " + index + " of template '" + source + "' is empty.");
+            }
+            literals.add(literal.toString());
+            literal.setLength(0);
+            references.add(reference);
+            index = end + 1;
+        }
+        literals.add(literal.toString());
+        return new Template(source, literals.toArray(String[]::new), references.toArray(String[]::new));
+    }
+
+    /**
+     * Gets the paths that are referenced by the template.
+     *
+     * @return An unmodifiable list of the referenced paths, in the order they appear. Paths that are referenced more
+     * than once appear more than once.
+     */
+    public List<String> references() {
+        return Collections.unmodifiableList(List.of(this.references));
+    }
+
+    /**
+     * Renders the template.
+     *
+     * @param values Provides the value of each reference, using its index in {@link #references()}.
+     * @return The rendered text.
+     */
+    public String render(IntFunction<String> values) {
+        if (this.references.length == 0) {
+            return this.literals[0];
+        }
+        final StringBuilder builder = new StringBuilder(this.source.length() + 16);
+        for (int i = 0; i < this.references.length; i++) {
+            builder.append(this.literals[i]).append(values.apply(i));
+        }
+        return builder.append(this.literals[this.references.length]).toString();
+    }
+
+    @Override
+    public String toString() {
+        return this.source;
+    }
+}
@@ -0,0 +1,216 @@
+package net.darkhax.prickle.config.layer;
+
+import net.darkhax.prickle.config.scan.PropertySpan;
+import net.darkhax.prickle.config.scan.SpanScanner;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * A source of config values that can be shared by many config managers, such as a base config that is shared by every
+ * process, or an overlay for an environment or host. The layer is split into its top-level properties once, and the
+ * raw JSON of each property is held as immutable data. Config managers read the properties they need from the layer
+ * instead of parsing the whole source again.
+ * <p>
+ * The contents of a layer can be replaced using {@link #reload()} or {@link #update(byte[])}. Listeners are told which
+ * properties changed, so config managers only need to merge those properties again. Listeners are weakly referenced
+ * and are removed once they are no longer used. Layers are thread safe.
+ */
+public final class ConfigLayer {
+
+    /**
+     * A name for the layer, used when logging.
+     */
+    private final String name;
+
+    /**
+     * The file the layer is read from, or null if the layer was created from data.
+     */
+    @Nullable
+    private final Path file;
+
+    /**
+     * The current contents of the layer.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * The listeners that are notified when the layer changes.
+     */
+    private final Map<ILayerListener, Boolean> listeners = new WeakHashMap<>();
+
+    private ConfigLayer(String name, @Nullable Path file, Snapshot snapshot) {
+        this.name = name;
+        this.file = file;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Reads a layer from a file.
+     *
+     * @param file The file to read. This must hold a JSON object in the Prickle format.
+     * @return The layer that was read.
+     * @throws IOException If the file could not be read or does not hold a JSON object.
+     */
+    public static ConfigLayer of(Path file) throws IOException {
+        return new ConfigLayer(file.toString(), file, Snapshot.of(file.toString(), Files.readAllBytes(file)));
+    }
+
+    /**
+     * Creates a layer from UTF-8 encoded JSON.
+     *
+     * @param name A name for the layer, used when logging.
+     * @param data The JSON data of the layer. This must hold a JSON object in the Prickle format.
+     * @return The layer.
+     * @throws IOException If the data does not hold a JSON object.
+     */
+    public static ConfigLayer of(String name, byte[] data) throws IOException {
+        return new ConfigLayer(name, null, Snapshot.of(name, data.clone()));
+    }
+
+    /**
+     * Gets the name of the layer.
+     *
+     * @return The name of the layer.
+     */
+    public String name() {
+        return this.name;
+    }
+
+    /**
+     * Gets the names of the top-level properties defined by the layer.
+     *
+     * @return An unmodifiable set of property names.
+     */
+    public Set<String> propertyNames() {
+        return this.snapshot.spans().keySet();
+    }
+
+    /**
+     * Gets the raw JSON of a property defined by the layer.
+     *
+     * @param name The serialized name of the property.
+     * @return A read-only view of the UTF-8 encoded JSON of the property, or null if the layer does not define it.
+     */
+    @Nullable
+    public ByteBuffer property(String name) {
+        final Snapshot snapshot = this.snapshot;
+        final PropertySpan span = snapshot.spans().get(name);
+        return span != null ? span.slice(snapshot.data()) : null;
+    }
+
+    /**
+     * Reads the file of the layer again. Listeners are notified of the properties that changed.
+     *
+     * @return The names of the properties that were added, removed, or changed.
+     * @throws IOException           If the file could not be read or does not hold a JSON object. The previous contents
+     *                               are kept.
+     * @throws IllegalStateException If the layer was not read from a file.
+     */
+    public Set<String> reload() throws IOException {
+        if (this.file == null) {
+            throw new IllegalStateException("The layer '" + this.name + "' was not read from a file.");
+        }
+        return this.replace(Snapshot.of(this.name, Files.readAllBytes(this.file)));
+    }
+
+    /**
+     * Replaces the contents of the layer. Listeners are notified of the properties that changed.
+     *
+     * @param data The new UTF-8 encoded JSON of the layer.
+     * @return The names of the properties that were added, removed, or changed.
+     * @throws IOException If the data does not hold a JSON object. The previous contents are kept.
+     */
+    public Set<String> update(byte[] data) throws IOException {
+        return this.replace(Snapshot.of(this.name, data.clone()));
+    }
+
+    /**
+     * Adds a listener that is notified when the layer changes. The listener is weakly referenced, so the caller must
+     * keep a reference to it for as long as it should be notified.
+     *
+     * @param listener The listener to add.
+     */
+    public void subscribe(ILayerListener listener) {
+        synchronized (this.listeners) {
+            this.listeners.put(listener, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public void unsubscribe(ILayerListener listener) {
+        synchronized (this.listeners) {
+            this.listeners.remove(listener);
+        }
+    }
+
+    private Set<String> replace(Snapshot next) {
+        final List<ILayerListener> targets;
+        final Set<String> changed;
+        synchronized (this) {
+            final Snapshot previous = this.snapshot;
+            changed = new LinkedHashSet<>();
+            for (Map.Entry<String, PropertySpan> entry : previous.spans().entrySet()) {
+                final PropertySpan span = next.spans().get(entry.getKey());
+                if (span == null || !Objects.equals(entry.getValue().slice(previous.data()), span.slice(next.data()))) {
+                    changed.add(entry.getKey());
+                }
+            }
+            for (String property : next.spans().keySet()) {
+                if (!previous.spans().containsKey(property)) {
+                    changed.add(property);
+                }
+            }
+            this.snapshot = next;
+        }
+        if (!changed.isEmpty()) {
+            synchronized (this.listeners) {
+                targets = new ArrayList<>(this.listeners.keySet());
+            }
+            final Set<String> properties = Collections.unmodifiableSet(changed);
+            for (ILayerListener listener : targets) {
+                listener.layerChanged(this, properties);
+            }
+        }
+        return Collections.unmodifiableSet(changed);
+    }
+
+    /**
+     * The contents of a layer at one point in time.
+     *
+     * @param data  The UTF-8 encoded JSON of the layer.
+     * @param spans The location of each top-level property in the data.
+     */
+    private record Snapshot(ByteBuffer data, Map<String, PropertySpan> spans) {
+
+        private static Snapshot of(String name, byte[] bytes) throws IOException {
+            final ByteBuffer data = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+            final List<PropertySpan> spans = SpanScanner.scanObject(data);
+            if (spans == null) {
+                throw new IOException("The layer '" + name + "' does not hold a JSON object.");
+            }
+            // Later definitions of a property replace earlier ones, just like a normal read.
+            final Map<String, PropertySpan> index = new HashMap<>();
+            for (PropertySpan span : spans) {
+                index.put(span.name(), span);
+            }
+            return new Snapshot(data, Collections.unmodifiableMap(index));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package net.darkhax.prickle.config.layer;
+
+import java.util.Set;
+
+/**
+ * Listens for changes to the properties of a {@link ConfigLayer}.
+ */
+public interface ILayerListener {
+
+    /**
+     * Invoked after the contents of a layer have been replaced.
+     *
+     * @param layer      The layer that changed.
+     * @param properties The names of the top-level properties that were added, removed, or changed by the layer.
+     */
+    void layerChanged(ConfigLayer layer, Set<String> properties);
+}
@@ -0,0 +1,126 @@
+package net.darkhax.prickle.config.layer;
+
+import com.google.gson.JsonPrimitive;
+import net.darkhax.prickle.config.ConfigObjectSerializer;
+import net.darkhax.prickle.config.property.ConfigObjectProperty;
+import net.darkhax.prickle.config.property.IConfigProperty;
+import org.slf4j.Logger;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the canonical override key of every property in a config schema, including the properties of nested
+ * config objects. The index is built once when the schema is mapped, so each key of an {@link OverrideSource} can be
+ * matched with a single lookup instead of being compared against every property.
+ */
+public final class OverrideIndex {
+
+    /**
+     * The properties that can be overridden, keyed by the canonical form of their path.
+     */
+    private final Map<String, Target> targets;
+
+    private OverrideIndex(Map<String, Target> targets) {
+        this.targets = targets;
+    }
+
+    /**
+     * Builds the index for a config schema.
+     *
+     * @param serializer The serializer of the config object.
+     * @param log        A logger used to report properties that can not be told apart by their canonical key.
+     * @return The index for the schema.
+     */
+    public static OverrideIndex of(ConfigObjectSerializer<?> serializer, Logger log) {
+        final Map<String, Target> targets = new HashMap<>();
+        index(serializer, new ArrayList<>(), targets, log);
+        return new OverrideIndex(targets);
+    }
+
+    private static void index(ConfigObjectSerializer<?> serializer, List<String> parents, Map<String, Target> targets, Logger log) {
+        for (String name : serializer.propertyNames()) {
+            final IConfigProperty<?> property = serializer.property(name);
+            final List<String> path = new ArrayList<>(parents);
+            path.add(name);
+            if (property instanceof ConfigObjectProperty<?> configObject) {
+                index(configObject.serializer(), path, targets, log);
+                continue;
+            }
+            final Target target = new Target(String.join(".", path), path.toArray(String[]::new), isText(serializer.field(name)));
+            final Target existing = targets.putIfAbsent(OverrideSource.canonicalize(target.path()), target);
+            if (existing != null) {
+                log.warn("Properties '{}' and '{}' have the same override key. Only '{}' can be overridden.", existing.path(), target.path(), existing.path());
+            }
+        }
+    }
+
+    private static boolean isText(Field field) {
+        final Class<?> type = field.getType();
+        return CharSequence.class.isAssignableFrom(type) || type == char.class || type == Character.class || type.isEnum();
+    }
+
+    /**
+     * Finds the values of a source that override properties in the schema. The keys of the source are only scanned
+     * once.
+     *
+     * @param source The source to scan.
+     * @return The overrides that were found, in no particular order.
+     */
+    public List<Match> match(OverrideSource source) {
+        final List<Match> overrides = new ArrayList<>();
+        final String prefix = source.prefix();
+        for (Map.Entry<String, String> entry : source.values().get().entrySet()) {
+            final String key = entry.getKey();
+            if (entry.getValue() == null || !key.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                continue;
+            }
+            final Target target = this.targets.get(OverrideSource.canonicalize(key.substring(prefix.length())));
+            if (target != null) {
+                overrides.add(new Match(target.path(), target.names()[0], key, target.wrap(entry.getValue())));
+            }
+        }
+        return overrides;
+    }
+
+    /**
+     * A property that can be overridden.
+     *
+     * @param path  The dotted path of the property.
+     * @param names The names of each property along the path.
+     * @param text  If the property holds text, in which case values are used as written instead of being read as JSON.
+     */
+    private record Target(String path, String[] names, boolean text) {
+
+        /**
+         * Creates the JSON of the top-level property that holds the override. Properties of config objects are wrapped
+         * in the objects that hold them, so only the overridden property is changed when the JSON is read.
+         *
+         * @param value The value of the override.
+         * @return The UTF-8 encoded JSON of the top-level property.
+         */
+        private ByteBuffer wrap(String value) {
+            String json = "{\"value\":" + (this.text ? new JsonPrimitive(value).toString() : value.trim()) + "}";
+            for (int i = this.names.length - 1; i > 0; i--) {
+                json = "{\"value\":{" + new JsonPrimitive(this.names[i]) + ":" + json + "}}";
+            }
+            return ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * A value that overrides a property.
+     *
+     * @param path     The dotted path of the property.
+     * @param property The name of the top-level property that holds the overridden property.
+     * @param key      The key of the value in the source.
+     * @param data     The UTF-8 encoded JSON of the top-level property, which only holds the overridden value.
+     */
+    public record Match(String path, String property, String key, ByteBuffer data) {
+    }
+}
@@ -0,0 +1,77 @@
+package net.darkhax.prickle.config.layer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A source of values that override individual config properties, such as environment variables or system properties.
+ * Only keys that start with the prefix are used. The rest of the key is matched against the path of each property
+ * ignoring case and any characters that are not letters or digits, so {@code APP_NETWORK_MAX_CONNECTIONS} and
+ * {@code app.network.maxConnections} both match the {@code maxConnections} property of the {@code network} object.
+ * <p>
+ * Values are read as JSON, except for properties that hold text which use the value as written.
+ *
+ * @param name   A name for the source, used when logging.
+ * @param prefix The prefix of the keys that override properties. The prefix is not case-sensitive.
+ * @param values Supplies the current keys and values of the source. This is invoked each time the config is loaded.
+ */
+public record OverrideSource(String name, String prefix, Supplier<Map<String, String>> values) {
+
+    /**
+     * Creates a source for environment variables.
+     *
+     * @param prefix The prefix of the variables that override properties, for example {@code APP_}.
+     * @return A source for environment variables.
+     */
+    public static OverrideSource environment(String prefix) {
+        return new OverrideSource("environment", prefix, System::getenv);
+    }
+
+    /**
+     * Creates a source for system properties, such as those set with {@code -D} flags.
+     *
+     * @param prefix The prefix of the system properties that override properties, for example {@code app.}.
+     * @return A source for system properties.
+     */
+    public static OverrideSource systemProperties(String prefix) {
+        return new OverrideSource("system properties", prefix, () -> {
+            final Map<String, String> values = new HashMap<>();
+            for (String key : System.getProperties().stringPropertyNames()) {
+                values.put(key, System.getProperty(key));
+            }
+            return values;
+        });
+    }
+
+    /**
+     * Creates a source for a fixed set of values.
+     *
+     * @param name   A name for the source, used when logging.
+     * @param prefix The prefix of the keys that override properties.
+     * @param values The keys and values of the source.
+     * @return A source for the values.
+     */
+    public static OverrideSource of(String name, String prefix, Map<String, String> values) {
+        final Map<String, String> copy = Map.copyOf(values);
+        return new OverrideSource(name, prefix, () -> copy);
+    }
+
+    /**
+     * Creates the canonical form of a key or property path. Letters are converted to upper case, and every character
+     * that is not a letter or digit is removed.
+     *
+     * @param key The key to convert.
+     * @return The canonical form of the key.
+     */
+    public static String canonicalize(CharSequence key) {
+        final StringBuilder builder = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            final char c = key.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                builder.append(Character.toUpperCase(c));
+            }
+        }
+        return builder.toString();
+    }
+}
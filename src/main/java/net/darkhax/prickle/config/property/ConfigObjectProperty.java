@@ -17,7 +17,7 @@ import java.lang.reflect.Field;
  *
  * @param <T> The type of the config property.
  */
-public class ConfigObjectProperty<T> extends ObjectProperty<T> {
+public class ConfigObjectProperty<T> extends ObjectProperty<T> implements IFileBackedProperty {
 
     /**
      * The serializer for the sub-properties object.
@@ -29,23 +29,43 @@ public class ConfigObjectProperty<T> extends ObjectProperty<T> {
         this.serializer = serializer;
     }
 
+    /**
+     * Gets the serializer for the sub-properties object.
+     *
+     * @return The serializer for the sub-properties.
+     */
+    public ConfigObjectSerializer<?> serializer() {
+        return this.serializer;
+    }
+
     @Override
     public void writeValue(T value, JsonWriter writer, PropertyResolver resolver, Logger logger) throws IOException {
-        this.serializer.write(writer);
+        this.serializer.write(writer, value);
     }
 
     @Override
-    public void read(JsonReader reader, PropertyResolver resolver, Logger logger) throws IOException {
-        reader.beginObject();
-        while (reader.hasNext()) {
-            if ("value".equals(reader.nextName())) {
-                this.serializer.read(reader);
-            }
-            else {
-                reader.skipValue();
-            }
+    public boolean sameValue(Object first, Object second) {
+        final T firstValue = this.value(first);
+        final T secondValue = this.value(second);
+        if (firstValue == secondValue) {
+            return true;
         }
-        reader.endObject();
+        return firstValue != null && secondValue != null && this.serializer.sameValues(firstValue, secondValue);
+    }
+
+    @Override
+    public void writeFiles(Logger logger) throws IOException {
+        this.serializer.writeFiles();
+    }
+
+    @Override
+    protected void readAndApply(JsonReader reader, Object parent, PropertyResolver resolver, Logger logger) throws IOException {
+        this.serializer.read(reader, this.value(parent));
+    }
+
+    @Override
+    protected IPendingRead readPendingValue(JsonReader reader, Object parent, PropertyResolver resolver, Logger logger) throws IOException {
+        return this.serializer.readPending(reader, this.value(parent));
     }
 
     /**
@@ -64,7 +84,7 @@ public class ConfigObjectProperty<T> extends ObjectProperty<T> {
         @Override
         public @Nullable ConfigObjectProperty<?> toValue(PropertyResolver resolver, Field field, Object parent, Object value, Value valueMeta) throws IOException {
 
-            if (isConfigObject(value)) {
+            if (value != null && isConfigType(value.getClass())) {
                 final ConfigObjectSerializer<?> serializer = new ConfigObjectSerializer<>(resolver, value);
                 return new ConfigObjectProperty<>(field, parent, value, valueMeta, serializer, resolver.toComment(field, value, valueMeta));
             }
@@ -72,13 +92,21 @@ public class ConfigObjectProperty<T> extends ObjectProperty<T> {
             return null;
         }
 
-        private static boolean isConfigObject(Object value) {
-            for (Field subField : value.getClass().getDeclaredFields()) {
-                if (subField.getAnnotation(Value.class) != null) {
-                    return true;
-                }
+    }
+
+    /**
+     * Checks if a class can be mapped to a config object. Config objects must declare at least one field with the
+     * {@link Value} annotation.
+     *
+     * @param type The class to test.
+     * @return If the class can be mapped to a config object.
+     */
+    public static boolean isConfigType(Class<?> type) {
+        for (Field subField : type.getDeclaredFields()) {
+            if (subField.getAnnotation(Value.class) != null) {
+                return true;
             }
-            return false;
         }
+        return false;
     }
 }
\ No newline at end of file
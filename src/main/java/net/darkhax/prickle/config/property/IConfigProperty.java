@@ -1,11 +1,13 @@
 package net.darkhax.prickle.config.property;
 
+import com.google.gson.JsonParser;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 import net.darkhax.prickle.config.PropertyResolver;
 import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.io.StringReader;
 
 /**
  * Represents a field that has been mapped to a config property. The config property is responsible for serializing,
@@ -42,6 +44,31 @@ public interface IConfigProperty<T> {
      */
     void write(JsonWriter writer, PropertyResolver resolver, Logger logger) throws IOException;
 
+    /**
+     * Reads and validates the value from the JSON without applying it to the parent object. The returned pending read
+     * applies the value when it is invoked. Reading must not change the state of the property or the parent object,
+     * because validators read values that are never applied, and may read the same property from many threads at the
+     * same time.
+     * <p>
+     * The default implementation captures the JSON and reads it using {@link #read(JsonReader, PropertyResolver, Logger)}
+     * when the value is applied, so until then the value is only checked to be valid JSON, and validating a file will
+     * not report other problems with it. The value is always applied to the object the property was mapped from.
+     * Properties should override this to do their reading and validation up front. Only properties that extend
+     * {@link ObjectProperty} can be applied to other objects, such as the elements of an array.
+     *
+     * @param reader   A reader containing a stream of JSON data.
+     * @param parent   The object to apply the value to. This is always the object the property was mapped from unless
+     *                 the property extends {@link ObjectProperty}.
+     * @param resolver Resolves properties with GSON or config properties.
+     * @param logger   A log instance used to log warnings and errors encountered when the value is read.
+     * @return A pending read that will apply the value.
+     * @throws IOException Fatal errors should be thrown if invalid data is encountered.
+     */
+    default IPendingRead readPending(JsonReader reader, Object parent, PropertyResolver resolver, Logger logger) throws IOException {
+        final String json = JsonParser.parseReader(reader).toString();
+        return () -> this.read(new JsonReader(new StringReader(json)), resolver, logger);
+    }
+
     /**
      * Validates if a value is valid for the property.
      *
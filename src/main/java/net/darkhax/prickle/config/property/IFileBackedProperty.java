@@ -0,0 +1,21 @@
+package net.darkhax.prickle.config.property;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+
+/**
+ * A config property that stores part of its value in files next to the config file, such as sidecar files. These
+ * files are only written when the config file itself is saved, so writing the config to a stream, a buffer, or the
+ * binary cache does not change them.
+ */
+public interface IFileBackedProperty {
+
+    /**
+     * Writes the files that hold the current value of the property. This is called before the config file is saved.
+     *
+     * @param logger A log instance used to log warnings and errors encountered when writing the files.
+     * @throws IOException If the files could not be written.
+     */
+    void writeFiles(Logger logger) throws IOException;
+}
@@ -0,0 +1,43 @@
+package net.darkhax.prickle.config.property;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A value that has been read and validated but not yet applied to its parent object. Pending reads allow the expensive
+ * parts of reading a property to happen separately from, and possibly on a different thread than, the changes made to
+ * the config object.
+ */
+@FunctionalInterface
+public interface IPendingRead {
+
+    /**
+     * A pending read that does nothing when applied.
+     */
+    IPendingRead NONE = () -> {};
+
+    /**
+     * Applies the value to its parent object.
+     *
+     * @throws IOException Fatal errors may be thrown if the value can not be applied.
+     */
+    void apply() throws IOException;
+
+    /**
+     * Combines several pending reads into one that applies each of them in order.
+     *
+     * @param reads The pending reads to combine.
+     * @return A pending read that applies all the given reads.
+     */
+    static IPendingRead all(List<IPendingRead> reads) {
+        return switch (reads.size()) {
+            case 0 -> NONE;
+            case 1 -> reads.get(0);
+            default -> () -> {
+                for (IPendingRead read : reads) {
+                    read.apply();
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,392 @@
+package net.darkhax.prickle.config.property;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import net.darkhax.prickle.annotations.RangedDouble;
+import net.darkhax.prickle.annotations.RangedFloat;
+import net.darkhax.prickle.annotations.RangedInt;
+import net.darkhax.prickle.annotations.RangedLong;
+import net.darkhax.prickle.annotations.Regex;
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.PropertyResolver;
+import net.darkhax.prickle.config.comment.IComment;
+import net.darkhax.prickle.config.property.array.ElementSchema;
+import net.darkhax.prickle.util.NumberUtils;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A property that holds a map of string keys to values. When the property is read the entries are applied to the
+ * existing map instance, and only keys that were added, removed, or changed are updated. The values of the map can be
+ * constrained using the ranged number annotations and the {@link Regex} annotation.
+ *
+ * @param <V> The type of the map values.
+ */
+public class MapProperty<V> extends ObjectProperty<Map<String, V>> {
+
+    /**
+     * A property adapter for maps with string keys.
+     */
+    public static final IPropertyAdapter<MapProperty<?>> ADAPTER = new Adapter();
+
+    /**
+     * The type of the map values.
+     */
+    private final Type valueType;
+
+    /**
+     * The schema for the values of the map. This is only present when the values are config objects.
+     */
+    @Nullable
+    private final ElementSchema<?> valueSchema;
+
+    /**
+     * The lowest value permitted for number values. If the minimum is null the minimum check is disabled.
+     */
+    @Nullable
+    private final Number min;
+
+    /**
+     * The highest value permitted for number values. If the maximum is null the maximum check is disabled.
+     */
+    @Nullable
+    private final Number max;
+
+    /**
+     * A regex pattern that string values must match. If the pattern is null the check is disabled.
+     */
+    @Nullable
+    private final Pattern pattern;
+
+    /**
+     * A lazily resolved type adapter for the map values.
+     */
+    @Nullable
+    private TypeAdapter<V> valueAdapter;
+
+    /**
+     * The changes that were made the last time the property was read.
+     */
+    private Changes lastChanges = Changes.NONE;
+
+    private MapProperty(Field field, Object parent, Map<String, V> defaultValue, Type valueType, @Nullable ElementSchema<?> valueSchema, @Nullable Number min, @Nullable Number max, @Nullable String regex, Value valueMeta, IComment comment) {
+        super(field, parent, defaultValue, valueMeta, comment);
+        this.valueType = valueType;
+        this.valueSchema = valueSchema;
+        this.min = min;
+        this.max = max;
+        this.pattern = regex != null ? Pattern.compile(regex) : null;
+        this.validate(defaultValue);
+    }
+
+    /**
+     * Gets the changes that were made to the map the last time the property was read.
+     *
+     * @return The changes from the last read.
+     */
+    public Changes lastChanges() {
+        return this.lastChanges;
+    }
+
+    @Override
+    protected void readAndApply(JsonReader reader, Object parent, PropertyResolver resolver, Logger logger) throws IOException {
+        this.readPendingValue(reader, parent, resolver, logger).apply();
+    }
+
+    /**
+     * Reads and validates the entries of the map. All entries are validated before any changes are applied, so an
+     * invalid entry will leave the map unchanged. A null value is read as a map without any entries.
+     *
+     * @param reader   A reader containing a stream of JSON data.
+     * @param parent   The object that holds the map.
+     * @param resolver Resolves properties with GSON or config properties.
+     * @param logger   A log instance used to log warnings and errors encountered when the value is read.
+     * @return A pending read that applies the entries to the existing map.
+     * @throws IOException A fatal exception may be thrown if the entries could not be read.
+     */
+    @Override
+    protected IPendingRead readPendingValue(JsonReader reader, Object parent, PropertyResolver resolver, Logger logger) throws IOException {
+        final List<Map.Entry<String, V>> entries = new ArrayList<>();
+        // A null map is read as a map without entries, so every key is removed from the existing map.
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return () -> this.applyEntries(entries, parent, logger);
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String key = resolver.context().dedupe(reader.nextName());
+            final V entry = this.readEntry(reader, resolver);
+            this.validateEntry(key, entry);
+            entries.add(new AbstractMap.SimpleImmutableEntry<>(key, entry));
+        }
+        reader.endObject();
+        return () -> this.applyEntries(entries, parent, logger);
+    }
+
+    /**
+     * Applies entries that were read to the existing map. Only keys that were added, removed, or changed are updated.
+     *
+     * @param entries The entries that were read, in the order they were read.
+     * @param parent  The object that holds the map.
+     * @param logger  A log instance used to log the changes that were made.
+     */
+    private void applyEntries(List<Map.Entry<String, V>> entries, Object parent, Logger logger) {
+        Map<String, V> target = this.value(parent);
+        if (target == null) {
+            target = new LinkedHashMap<>();
+        }
+
+        final Map<String, V> updates = new HashMap<>();
+        final Set<String> added = new LinkedHashSet<>();
+        final Set<String> changed = new LinkedHashSet<>();
+        final Set<String> seen = new HashSet<>();
+
+        for (Map.Entry<String, V> entry : entries) {
+            final String key = entry.getKey();
+            seen.add(key);
+            if (!target.containsKey(key)) {
+                added.add(key);
+                updates.put(key, entry.getValue());
+            }
+            else if (!this.sameEntry(target.get(key), entry.getValue())) {
+                changed.add(key);
+                updates.put(key, entry.getValue());
+            }
+        }
+
+        // Removed keys only need to be searched for when there are existing keys that were not seen.
+        final Set<String> removed = new LinkedHashSet<>();
+        if (target.size() > seen.size() - added.size()) {
+            for (String key : target.keySet()) {
+                if (!seen.contains(key)) {
+                    removed.add(key);
+                }
+            }
+        }
+
+        try {
+            applyChanges(target, updates, removed);
+        }
+        catch (UnsupportedOperationException e) {
+            // The map can not be modified, such as maps created with Map.of. A mutable copy is used instead.
+            target = new LinkedHashMap<>(target);
+            applyChanges(target, updates, removed);
+        }
+        if (target != this.value(parent)) {
+            this.applyValue(parent, target);
+        }
+
+        this.lastChanges = new Changes(Collections.unmodifiableSet(added), Collections.unmodifiableSet(removed), Collections.unmodifiableSet(changed));
+        if (!this.lastChanges.isEmpty()) {
+            logger.debug("Map property updated. added={} removed={} changed={}", added.size(), removed.size(), changed.size());
+        }
+    }
+
+    /**
+     * Checks if a value that was read is the same as the existing value. Config objects do not generally implement
+     * equals, so they are compared using their properties instead.
+     *
+     * @param existing The value in the map.
+     * @param read     The value that was read.
+     * @return If the values are the same.
+     */
+    private boolean sameEntry(@Nullable V existing, @Nullable V read) {
+        return this.valueSchema != null ? this.valueSchema.sameValues(existing, read) : Objects.equals(existing, read);
+    }
+
+    private static <V> void applyChanges(Map<String, V> target, Map<String, V> updates, Set<String> removed) {
+        for (String key : removed) {
+            target.remove(key);
+        }
+        target.putAll(updates);
+    }
+
+    // The schema and the adapter are both resolved from the value type of the map, so they produce values of type V.
+    @SuppressWarnings("unchecked")
+    private V readEntry(JsonReader reader, PropertyResolver resolver) throws IOException {
+        if (this.valueSchema != null) {
+            return (V) this.valueSchema.read(reader);
+        }
+        if (this.valueAdapter == null) {
+            this.valueAdapter = (TypeAdapter<V>) resolver.gson().getAdapter(TypeToken.get(this.valueType));
+        }
+        return this.valueAdapter.read(reader);
+    }
+
+    @Override
+    public void writeValue(Map<String, V> value, JsonWriter writer, PropertyResolver resolver, Logger logger) throws IOException {
+        if (this.valueSchema == null) {
+            super.writeValue(value, writer, resolver, logger);
+            return;
+        }
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        writer.beginObject();
+        for (Map.Entry<String, V> entry : value.entrySet()) {
+            writer.name(entry.getKey());
+            this.valueSchema.write(writer, entry.getValue());
+        }
+        writer.endObject();
+    }
+
+    @Override
+    public boolean sameValue(Object first, Object second) {
+        if (this.valueSchema == null) {
+            return super.sameValue(first, second);
+        }
+        final Map<String, V> firstValue = this.value(first);
+        final Map<String, V> secondValue = this.value(second);
+        if (firstValue == secondValue) {
+            return true;
+        }
+        if (firstValue == null || secondValue == null || !firstValue.keySet().equals(secondValue.keySet())) {
+            return false;
+        }
+        for (Map.Entry<String, V> entry : firstValue.entrySet()) {
+            if (!this.valueSchema.sameValues(entry.getValue(), secondValue.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void writeAdditionalComments(JsonWriter writer, PropertyResolver resolver, Logger logger) throws IOException {
+        final StringBuilder range = new StringBuilder();
+        if (this.min != null) {
+            range.append(">=").append(this.min);
+        }
+        if (this.max != null) {
+            if (!range.isEmpty()) {
+                range.append(" AND ");
+            }
+            range.append("<=").append(this.max);
+        }
+        if (!range.isEmpty()) {
+            writer.name("//range");
+            writer.value(range.toString());
+        }
+        if (this.pattern != null) {
+            writer.name("//regex");
+            writer.value(this.pattern.pattern());
+        }
+    }
+
+    @Override
+    public boolean validate(Map<String, V> value) throws IllegalArgumentException {
+        if (value != null) {
+            for (Map.Entry<String, V> entry : value.entrySet()) {
+                this.validateEntry(entry.getKey(), entry.getValue());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Validates a single entry of the map.
+     *
+     * @param key   The key of the entry.
+     * @param value The value of the entry.
+     * @throws IllegalArgumentException When the value does not meet the constraints of the property.
+     */
+    private void validateEntry(String key, V value) throws IllegalArgumentException {
+        if (this.min != null || this.max != null) {
+            if (!(value instanceof Number number)) {
+                throw new IllegalArgumentException("Value of key '" + key + "' must be a number. Found " + value);
+            }
+            if (this.min != null && NumberUtils.lessThan(number, this.min)) {
+                throw new IllegalArgumentException("Value '" + value + "' of key '" + key + "' is less than the minimum value '" + this.min + "'.");
+            }
+            if (this.max != null && NumberUtils.greaterThan(number, this.max)) {
+                throw new IllegalArgumentException("Value '" + value + "' of key '" + key + "' is greater than the maximum value '" + this.max + "'.");
+            }
+        }
+        if (this.pattern != null && (!(value instanceof String string) || !this.pattern.matcher(string).matches())) {
+            throw new IllegalArgumentException("Value '" + value + "' of key '" + key + "' does not match the pattern '" + this.pattern.pattern() + "'.");
+        }
+    }
+
+    /**
+     * The keys that were changed when a map property was read.
+     *
+     * @param added   Keys that were not in the map before.
+     * @param removed Keys that were removed from the map.
+     * @param changed Keys that were mapped to a different value.
+     */
+    public record Changes(Set<String> added, Set<String> removed, Set<String> changed) {
+
+        /**
+         * An empty set of changes.
+         */
+        public static final Changes NONE = new Changes(Set.of(), Set.of(), Set.of());
+
+        /**
+         * Checks if no keys were changed.
+         *
+         * @return If no keys were changed.
+         */
+        public boolean isEmpty() {
+            return this.added.isEmpty() && this.removed.isEmpty() && this.changed.isEmpty();
+        }
+    }
+
+    private static class Adapter implements IPropertyAdapter<MapProperty<?>> {
+
+        @Override
+        public MapProperty<?> toValue(PropertyResolver resolver, Field field, Object parent, Object value, Value valueMeta) throws IOException {
+            if (value instanceof Map<?, ?> && field.getGenericType() instanceof ParameterizedType paramType && paramType.getActualTypeArguments()[0] == String.class) {
+                final Type valueType = paramType.getActualTypeArguments()[1];
+                Number min = null;
+                Number max = null;
+                final RangedInt rangedInt = field.getAnnotation(RangedInt.class);
+                if (rangedInt != null) {
+                    min = rangedInt.min() != Integer.MIN_VALUE ? rangedInt.min() : null;
+                    max = rangedInt.max() != Integer.MAX_VALUE ? rangedInt.max() : null;
+                }
+                final RangedLong rangedLong = field.getAnnotation(RangedLong.class);
+                if (rangedLong != null) {
+                    min = rangedLong.min() != Long.MIN_VALUE ? rangedLong.min() : null;
+                    max = rangedLong.max() != Long.MAX_VALUE ? rangedLong.max() : null;
+                }
+                final RangedFloat rangedFloat = field.getAnnotation(RangedFloat.class);
+                if (rangedFloat != null) {
+                    min = rangedFloat.min() != -Float.MAX_VALUE ? rangedFloat.min() : null;
+                    max = rangedFloat.max() != Float.MAX_VALUE ? rangedFloat.max() : null;
+                }
+                final RangedDouble rangedDouble = field.getAnnotation(RangedDouble.class);
+                if (rangedDouble != null) {
+                    min = rangedDouble.min() != -Double.MAX_VALUE ? rangedDouble.min() : null;
+                    max = rangedDouble.max() != Double.MAX_VALUE ? rangedDouble.max() : null;
+                }
+                final Regex regex = field.getAnnotation(Regex.class);
+                // The generic type of the field was checked to have string keys.
+                @SuppressWarnings("unchecked")
+                final Map<String, Object> map = (Map<String, Object>) value;
+                return new MapProperty<>(field, parent, map, valueType, resolver.toElementSchema(valueType), min, max, regex != null ? regex.value() : null, valueMeta, resolver.toComment(field, value, valueMeta));
+            }
+            return null;
+        }
+    }
+}
@@ -6,10 +6,14 @@ import net.darkhax.prickle.annotations.Value;
 import net.darkhax.prickle.config.PropertyResolver;
 import net.darkhax.prickle.config.comment.IComment;
 import net.darkhax.prickle.config.comment.WrappedComment;
+import net.darkhax.prickle.config.property.access.IFieldAccessor;
 import org.slf4j.Logger;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 
 public class ObjectProperty<T> implements IConfigProperty<T> {
 
@@ -23,6 +27,12 @@ public class ObjectProperty<T> implements IConfigProperty<T> {
      */
     private final Field field;
 
+    /**
+     * Reads and writes the value of the field. This is reflective by default and may be replaced before the property is
+     * used.
+     */
+    private IFieldAccessor accessor;
+
     /**
      * The parent that holds the field.
      */
@@ -50,6 +60,7 @@ public class ObjectProperty<T> implements IConfigProperty<T> {
 
     public ObjectProperty(Field field, Object parent, T defaultValue, Value valueMeta, IComment comment) {
         this.field = field;
+        this.accessor = IFieldAccessor.reflective(field);
         this.parent = parent;
         this.comment = comment;
         this.defaultValue = defaultValue;
@@ -57,6 +68,15 @@ public class ObjectProperty<T> implements IConfigProperty<T> {
         this.reference = valueMeta.reference();
     }
 
+    /**
+     * Replaces how the value of the field is read and written. This must be done before the property is used.
+     *
+     * @param accessor The accessor to use.
+     */
+    public void useAccessor(IFieldAccessor accessor) {
+        this.accessor = accessor;
+    }
+
     /**
      * Gets the comment for the property.
      *
@@ -91,28 +111,52 @@ public class ObjectProperty<T> implements IConfigProperty<T> {
      */
     @Override
     public T value() {
-        try {
-            return (T) this.field.get(parent);
-        }
-        catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return this.value(this.parent);
+    }
+
+    /**
+     * Gets the current value of the property from a parent object.
+     *
+     * @param parent The object that holds the field.
+     * @return The current value of the property.
+     */
+    public T value(Object parent) {
+        return (T) this.accessor.get(parent);
+    }
+
+    /**
+     * Checks if two objects that share the mapped schema hold the same value for this property. Values are compared
+     * using equals, and arrays are compared by their contents.
+     *
+     * @param first  The first object that holds the field.
+     * @param second The second object that holds the field.
+     * @return If both objects hold the same value.
+     */
+    public boolean sameValue(Object first, Object second) {
+        return Objects.deepEquals(this.value(first), this.value(second));
     }
 
     @Override
     public void read(JsonReader reader, PropertyResolver resolver, Logger logger) throws IOException {
+        this.read(reader, this.parent, resolver, logger);
+    }
+
+    /**
+     * Reads the value from the JSON and applies it to a different parent object than the one the property was mapped
+     * from. This allows a single mapped schema to be reused for many objects of the same type, such as the elements of
+     * an array.
+     *
+     * @param reader   A reader containing a stream of JSON data.
+     * @param parent   The object to apply the value to. This must be of the same type as the original parent.
+     * @param resolver Resolves properties with GSON or config properties.
+     * @param logger   A log instance used to log warnings and errors encountered when the value is read.
+     * @throws IOException Fatal errors should be thrown if invalid data is encountered.
+     */
+    public void read(JsonReader reader, Object parent, PropertyResolver resolver, Logger logger) throws IOException {
         reader.beginObject();
         while (reader.hasNext()) {
             if ("value".equals(reader.nextName())) {
-                final T readValue = this.readValue(reader, resolver, logger);
-                if (this.validate(readValue)) {
-                    try {
-                        this.field.set(parent, readValue);
-                    }
-                    catch (IllegalAccessException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
+                this.readAndApply(reader, parent, resolver, logger);
             }
             else {
                 reader.skipValue();
@@ -121,10 +165,90 @@ public class ObjectProperty<T> implements IConfigProperty<T> {
         reader.endObject();
     }
 
+    @Override
+    public IPendingRead readPending(JsonReader reader, Object parent, PropertyResolver resolver, Logger logger) throws IOException {
+        final List<IPendingRead> pending = new ArrayList<>(1);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("value".equals(reader.nextName())) {
+                pending.add(this.readPendingValue(reader, parent, resolver, logger));
+            }
+            else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return IPendingRead.all(pending);
+    }
+
+    /**
+     * Reads the value from the JSON reader and validates it, without applying it to the parent object. The reader will
+     * be positioned at the value of the property.
+     *
+     * @param reader   A reader containing a stream of JSON data.
+     * @param parent   The object to apply the value to.
+     * @param resolver Resolves properties with GSON or config properties.
+     * @param logger   A log instance used to log warnings and errors encountered when the value is read.
+     * @return A pending read that will apply the value.
+     * @throws IOException A fatal exception may be thrown if the value could not be read.
+     */
+    protected IPendingRead readPendingValue(JsonReader reader, Object parent, PropertyResolver resolver, Logger logger) throws IOException {
+        final T readValue = this.readValue(reader, resolver, logger);
+        return this.validate(readValue) ? () -> this.applyValue(parent, readValue) : IPendingRead.NONE;
+    }
+
+    /**
+     * Reads the value from the JSON reader, validates it, and applies it to the parent object. The reader will be
+     * positioned at the value of the property.
+     *
+     * @param reader   A reader containing a stream of JSON data.
+     * @param parent   The object to apply the value to.
+     * @param resolver Resolves properties with GSON or config properties.
+     * @param logger   A log instance used to log warnings and errors encountered when the value is read.
+     * @throws IOException A fatal exception may be thrown if the value could not be read.
+     */
+    protected void readAndApply(JsonReader reader, Object parent, PropertyResolver resolver, Logger logger) throws IOException {
+        final T readValue = this.readValue(reader, resolver, logger);
+        if (this.validate(readValue)) {
+            this.applyValue(parent, readValue);
+        }
+    }
+
+    /**
+     * Applies a value to the field of a parent object.
+     *
+     * @param parent The object that holds the field.
+     * @param value  The value to apply.
+     */
+    protected void applyValue(Object parent, T value) {
+        this.accessor.set(parent, value);
+    }
+
     @Override
     public void write(JsonWriter writer, PropertyResolver resolver, Logger logger) throws IOException {
+        this.write(writer, this.parent, resolver, logger);
+    }
+
+    /**
+     * Writes the value held by a different parent object than the one the property was mapped from.
+     *
+     * @param writer   A writer to write JSON data to.
+     * @param parent   The object to read the value from. This must be of the same type as the original parent.
+     * @param resolver Resolves properties with GSON or config properties.
+     * @param logger   A log instance used to log warnings and errors encountered when saving the value.
+     * @throws IOException Fatal errors should be thrown if the property can not be written.
+     */
+    public void write(JsonWriter writer, Object parent, PropertyResolver resolver, Logger logger) throws IOException {
         writer.beginObject();
 
+        // Compact files only hold the value. The value is still wrapped, so compact files are read like any other file.
+        if (resolver.compact()) {
+            writer.name("value");
+            this.writeValue(this.value(parent), writer, resolver, logger);
+            writer.endObject();
+            return;
+        }
+
         // Write the comment
         if (this.comment() != null) {
             writer.name("//");
@@ -147,7 +271,7 @@ public class ObjectProperty<T> implements IConfigProperty<T> {
 
         // Write the value.
         writer.name("value");
-        this.writeValue(this.value(), writer, resolver, logger);
+        this.writeValue(this.value(parent), writer, resolver, logger);
         writer.endObject();
     }
 
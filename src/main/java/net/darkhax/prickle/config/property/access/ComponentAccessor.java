@@ -0,0 +1,36 @@
+package net.darkhax.prickle.config.property.access;
+
+import java.lang.reflect.Field;
+
+/**
+ * Accesses a component of a record. Records can not be modified, so values are written to an array of staged
+ * components that is later passed to the canonical constructor. Values can be read from either the staged components
+ * or an existing record.
+ *
+ * @param index The index of the component.
+ * @param field The field that holds the component. The field must already be accessible.
+ */
+public record ComponentAccessor(int index, Field field) implements IFieldAccessor {
+
+    @Override
+    public Object get(Object parent) {
+        if (parent instanceof Object[] components) {
+            return components[this.index];
+        }
+        try {
+            return this.field.get(parent);
+        }
+        catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void set(Object parent, Object value) {
+        if (parent instanceof Object[] components) {
+            components[this.index] = value;
+            return;
+        }
+        throw new UnsupportedOperationException("The record component '" + this.field.getName() + "' can not be modified. Values must be staged before the record is constructed.");
+    }
+}
@@ -0,0 +1,279 @@
+package net.darkhax.prickle.config.property.access;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates field accessors that are generated at runtime. Each accessor is a small hidden class that is defined as a
+ * nestmate of the class that declares the field, so it can read and write the field directly, including private fields,
+ * without going through reflection. The JIT treats these accessors like any other class, which allows the field access
+ * to be inlined into the code that loads and saves the config.
+ * <p>
+ * Accessors are generated once for each field and are shared by every config that maps the same class. Fields that can
+ * not be accessed this way, such as final fields or fields in packages that are not open to Prickle, use a reflective
+ * accessor instead.
+ */
+public final class GeneratedAccessors {
+
+    /**
+     * The accessors that have been generated, grouped by the class that declares the field.
+     */
+    private static final ClassValue<Map<String, IFieldAccessor>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Map<String, IFieldAccessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final String ACCESSOR_NAME = IFieldAccessor.class.getName().replace('.', '/');
+    private static final String OBJECT_NAME = "java/lang/Object";
+
+    private GeneratedAccessors() {
+    }
+
+    /**
+     * Gets an accessor for a field, generating it if it does not exist yet.
+     *
+     * @param field The field to access.
+     * @return An accessor for the field. This will be a reflective accessor if one could not be generated.
+     */
+    public static IFieldAccessor create(Field field) {
+        if (Modifier.isFinal(field.getModifiers())) {
+            return IFieldAccessor.reflective(field);
+        }
+        return ACCESSORS.get(field.getDeclaringClass()).computeIfAbsent(field.getName(), name -> generate(field));
+    }
+
+    private static IFieldAccessor generate(Field field) {
+        try {
+            final Class<?> owner = field.getDeclaringClass();
+            final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            Class<?> type = field.getType();
+            while (type.isArray()) {
+                type = type.getComponentType();
+            }
+            if (!type.isPrimitive()) {
+                lookup.accessClass(type);
+            }
+            final Class<?> accessor = lookup.defineHiddenClass(writeClass(field), true, MethodHandles.Lookup.ClassOption.NESTMATE).lookupClass();
+            return (IFieldAccessor) accessor.getConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException | IOException | RuntimeException | LinkageError e) {
+            return IFieldAccessor.reflective(field);
+        }
+    }
+
+    /**
+     * Writes the class file for an accessor. The class is equivalent to the following, where the casts unbox and box
+     * primitive values.
+     * <pre>{@code
+     * public final class Owner$$PrickleAccessor implements IFieldAccessor {
+     *     public Object get(Object parent) { return ((Owner) parent).field; }
+     *     public void set(Object parent, Object value) { ((Owner) parent).field = (Type) value; }
+     * }
+     * }</pre>
+     *
+     * @param field The field to access.
+     * @return The bytes of the class file.
+     * @throws IOException If the class could not be written.
+     */
+    private static byte[] writeClass(Field field) throws IOException {
+        final ConstantPool pool = new ConstantPool();
+        final String owner = internalName(field.getDeclaringClass());
+        final Class<?> type = field.getType();
+        final boolean isStatic = Modifier.isStatic(field.getModifiers());
+        final int fieldRef = pool.member(9, owner, field.getName(), type.descriptorString());
+        final int ownerClass = pool.classRef(owner);
+
+        final Code init = new Code();
+        init.op(0x2A); // aload_0
+        init.op(0xB7, pool.member(10, OBJECT_NAME, "<init>", "()V")); // invokespecial
+        init.op(0xB1); // return
+
+        final Code get = new Code();
+        if (!isStatic) {
+            get.op(0x2B); // aload_1
+            get.op(0xC0, ownerClass); // checkcast
+        }
+        get.op(isStatic ? 0xB2 : 0xB4, fieldRef); // getstatic, getfield
+        if (type.isPrimitive()) {
+            final Class<?> wrapper = wrap(type);
+            get.op(0xB8, pool.member(10, internalName(wrapper), "valueOf", MethodType.methodType(wrapper, type).toMethodDescriptorString())); // invokestatic
+        }
+        get.op(0xB0); // areturn
+
+        final Code set = new Code();
+        if (!isStatic) {
+            set.op(0x2B); // aload_1
+            set.op(0xC0, ownerClass); // checkcast
+        }
+        set.op(0x2C); // aload_2
+        if (type.isPrimitive()) {
+            final Class<?> wrapper = wrap(type);
+            set.op(0xC0, pool.classRef(internalName(wrapper))); // checkcast
+            set.op(0xB6, pool.member(10, internalName(wrapper), type.getName() + "Value", MethodType.methodType(type).toMethodDescriptorString())); // invokevirtual
+        }
+        else if (type != Object.class) {
+            set.op(0xC0, pool.classRef(internalName(type))); // checkcast
+        }
+        set.op(isStatic ? 0xB3 : 0xB5, fieldRef); // putstatic, putfield
+        set.op(0xB1); // return
+
+        final int thisClass = pool.classRef(owner + "$$PrickleAccessor");
+        final int superClass = pool.classRef(OBJECT_NAME);
+        final int accessorInterface = pool.classRef(ACCESSOR_NAME);
+        final int codeName = pool.utf8("Code");
+        final int[] initMethod = {pool.utf8("<init>"), pool.utf8("()V")};
+        final int[] getMethod = {pool.utf8("get"), pool.utf8("(Ljava/lang/Object;)Ljava/lang/Object;")};
+        final int[] setMethod = {pool.utf8("set"), pool.utf8("(Ljava/lang/Object;Ljava/lang/Object;)V")};
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(61);
+        pool.writeTo(out);
+        out.writeShort(0x0001 | 0x0010 | 0x0020); // public, final, super
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(1);
+        out.writeShort(accessorInterface);
+        out.writeShort(0);
+        out.writeShort(3);
+        init.writeMethod(out, initMethod, codeName, 1);
+        get.writeMethod(out, getMethod, codeName, 2);
+        set.writeMethod(out, setMethod, codeName, 3);
+        out.writeShort(0);
+        return bytes.toByteArray();
+    }
+
+    private static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    /**
+     * The constant pool of a class file that is being written. Entries are only added once.
+     */
+    private static final class ConstantPool {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        private final DataOutputStream out = new DataOutputStream(this.bytes);
+        private final Map<String, Integer> indices = new HashMap<>();
+        private int count = 1;
+
+        private int utf8(String value) throws IOException {
+            final Integer existing = this.indices.get("U" + value);
+            if (existing != null) {
+                return existing;
+            }
+            this.out.writeByte(1);
+            this.out.writeUTF(value);
+            return this.add("U" + value);
+        }
+
+        private int classRef(String internalName) throws IOException {
+            final Integer existing = this.indices.get("C" + internalName);
+            if (existing != null) {
+                return existing;
+            }
+            final int name = this.utf8(internalName);
+            this.out.writeByte(7);
+            this.out.writeShort(name);
+            return this.add("C" + internalName);
+        }
+
+        /**
+         * Adds a reference to a field or method.
+         *
+         * @param tag        The tag of the entry, 9 for fields and 10 for methods.
+         * @param owner      The internal name of the class that declares the member.
+         * @param name       The name of the member.
+         * @param descriptor The descriptor of the member.
+         * @return The index of the entry.
+         * @throws IOException If the entry could not be written.
+         */
+        private int member(int tag, String owner, String name, String descriptor) throws IOException {
+            final String key = tag + owner + "." + name + descriptor;
+            final Integer existing = this.indices.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            final int ownerClass = this.classRef(owner);
+            final int memberName = this.utf8(name);
+            final int memberType = this.utf8(descriptor);
+            this.out.writeByte(12);
+            this.out.writeShort(memberName);
+            this.out.writeShort(memberType);
+            final int nameAndType = this.add(" " + key);
+            this.out.writeByte(tag);
+            this.out.writeShort(ownerClass);
+            this.out.writeShort(nameAndType);
+            return this.add(key);
+        }
+
+        private int add(String key) {
+            final int index = this.count++;
+            this.indices.put(key, index);
+            return index;
+        }
+
+        private void writeTo(DataOutputStream target) throws IOException {
+            target.writeShort(this.count);
+            this.bytes.writeTo(target);
+        }
+    }
+
+    /**
+     * The bytecode of a method. The methods do not branch, so no stack map frames are needed.
+     */
+    private static final class Code {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(16);
+
+        private void op(int opcode) {
+            this.bytes.write(opcode);
+        }
+
+        private void op(int opcode, int index) {
+            this.bytes.write(opcode);
+            this.bytes.write(index >> 8);
+            this.bytes.write(index);
+        }
+
+        /**
+         * Writes a public method with this code.
+         *
+         * @param out       The class file to write to.
+         * @param signature The constant pool indices of the name and descriptor of the method.
+         * @param codeName  The constant pool index of the name of the code attribute.
+         * @param maxLocals The number of local variable slots used by the method, including the parameters.
+         * @throws IOException If the method could not be written.
+         */
+        private void writeMethod(DataOutputStream out, int[] signature, int codeName, int maxLocals) throws IOException {
+            out.writeShort(0x0001);
+            out.writeShort(signature[0]);
+            out.writeShort(signature[1]);
+            out.writeShort(1);
+            out.writeShort(codeName);
+            out.writeInt(12 + this.bytes.size());
+            out.writeShort(4);
+            out.writeShort(maxLocals);
+            out.writeInt(this.bytes.size());
+            this.bytes.writeTo(out);
+            out.writeShort(0);
+            out.writeShort(0);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package net.darkhax.prickle.config.property.access;
+
+import java.lang.reflect.Field;
+
+/**
+ * Reads and writes the field that a property is mapped to.
+ */
+public interface IFieldAccessor {
+
+    /**
+     * Gets the value of the field.
+     *
+     * @param parent The object that holds the field. This is ignored for static fields.
+     * @return The value of the field. Primitive values are boxed.
+     */
+    Object get(Object parent);
+
+    /**
+     * Sets the value of the field.
+     *
+     * @param parent The object that holds the field. This is ignored for static fields.
+     * @param value  The value to set. Primitive fields expect the boxed value.
+     */
+    void set(Object parent, Object value);
+
+    /**
+     * Creates an accessor that uses reflection. The field must already be accessible.
+     *
+     * @param field The field to access.
+     * @return An accessor for the field.
+     */
+    static IFieldAccessor reflective(Field field) {
+        return new IFieldAccessor() {
+
+            @Override
+            public Object get(Object parent) {
+                try {
+                    return field.get(parent);
+                }
+                catch (IllegalAccessException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+
+            @Override
+            public void set(Object parent, Object value) {
+                try {
+                    field.set(parent, value);
+                }
+                catch (IllegalAccessException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+    }
+}
@@ -66,8 +66,9 @@ public abstract class AbstractArrayProperty<T> extends ObjectProperty<T> {
      * @param out      The JSON writer to write data to.
      * @param resolver A resolver for GSON objects and config properties.
      * @param log      A logger that can be used to display errors and warnings.
+     * @throws IOException A fatal exception may be thrown if the entries could not be written.
      */
-    public abstract void writeArrayValues(T value, JsonWriter out, PropertyResolver resolver, Logger log);
+    public abstract void writeArrayValues(T value, JsonWriter out, PropertyResolver resolver, Logger log) throws IOException;
 
     /**
      * Gets settings for the array value. These are specified using an annotation on the field.
@@ -81,7 +82,7 @@ public abstract class AbstractArrayProperty<T> extends ObjectProperty<T> {
     @Override
     public void writeValue(T value, JsonWriter out, PropertyResolver resolver, Logger log) throws IOException {
 
-        if (!this.isOverInlineThreshold(value) && (this.settings.inlineComplex() || !isComplex(value))) {
+        if (!resolver.compact() && !this.isOverInlineThreshold(value) && (this.settings.inlineComplex() || !isComplex(value))) {
             out.beginArray();
             out.setIndent("");
             this.writeArrayValues(value, out, resolver, log);
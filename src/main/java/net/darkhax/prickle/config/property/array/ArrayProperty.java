@@ -1,15 +1,19 @@
 package net.darkhax.prickle.config.property.array;
 
+import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 import net.darkhax.prickle.annotations.Array;
 import net.darkhax.prickle.annotations.Value;
 import net.darkhax.prickle.config.PropertyResolver;
 import net.darkhax.prickle.config.comment.IComment;
 import net.darkhax.prickle.config.property.IPropertyAdapter;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * An array property that can handle Java arrays.
@@ -23,8 +27,21 @@ public class ArrayProperty<T> extends AbstractArrayProperty<Object> {
      */
     public static final Adapter ADAPTER = new Adapter();
 
-    private ArrayProperty(Field field, Object parent, T defaultValue, Value valueMeta, ArraySettings meta, IComment comment) {
+    /**
+     * The type of the array entries.
+     */
+    private final Class<?> componentType;
+
+    /**
+     * The schema for the entries of the array. This is only present when the entries are config objects.
+     */
+    @Nullable
+    private final ElementSchema<?> elementSchema;
+
+    private ArrayProperty(Field field, Object parent, T defaultValue, Value valueMeta, ArraySettings meta, IComment comment, @Nullable ElementSchema<?> elementSchema) {
         super(field, parent, defaultValue, valueMeta, meta, comment);
+        this.componentType = field.getType().getComponentType();
+        this.elementSchema = elementSchema;
     }
 
     @Override
@@ -49,11 +66,55 @@ public class ArrayProperty<T> extends AbstractArrayProperty<Object> {
     }
 
     @Override
-    public void writeArrayValues(Object value, JsonWriter out, PropertyResolver resolver, Logger log) {
+    public void writeArrayValues(Object value, JsonWriter out, PropertyResolver resolver, Logger log) throws IOException {
         for (int i = 0; i < java.lang.reflect.Array.getLength(value); i++) {
             final Object entry = java.lang.reflect.Array.get(value, i);
-            resolver.gson().toJson(entry, entry.getClass(), out);
+            if (this.elementSchema != null) {
+                this.elementSchema.write(out, entry);
+            }
+            else {
+                resolver.gson().toJson(entry, entry.getClass(), out);
+            }
+        }
+    }
+
+    @Override
+    public boolean sameValue(Object first, Object second) {
+        if (this.elementSchema == null) {
+            return super.sameValue(first, second);
+        }
+        final Object firstValue = this.value(first);
+        final Object secondValue = this.value(second);
+        if (firstValue == secondValue) {
+            return true;
+        }
+        if (firstValue == null || secondValue == null || java.lang.reflect.Array.getLength(firstValue) != java.lang.reflect.Array.getLength(secondValue)) {
+            return false;
+        }
+        for (int i = 0; i < java.lang.reflect.Array.getLength(firstValue); i++) {
+            if (!this.elementSchema.sameValues(java.lang.reflect.Array.get(firstValue, i), java.lang.reflect.Array.get(secondValue, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Object readValue(JsonReader reader, PropertyResolver resolver, Logger logger) throws IOException {
+        if (this.elementSchema == null) {
+            return super.readValue(reader, resolver, logger);
+        }
+        final List<Object> entries = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            entries.add(this.elementSchema.read(reader));
+        }
+        reader.endArray();
+        final Object array = java.lang.reflect.Array.newInstance(this.componentType, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            java.lang.reflect.Array.set(array, i, entries.get(i));
         }
+        return array;
     }
 
     private static class Adapter implements IPropertyAdapter<ArrayProperty<?>> {
@@ -63,7 +124,8 @@ public class ArrayProperty<T> extends AbstractArrayProperty<Object> {
             if (field.getType().isArray()) {
                 final Array arrayMeta = field.getAnnotation(Array.class);
                 final ArraySettings settings = arrayMeta != null ? new ArraySettings(arrayMeta) : ArraySettings.DEFAULT;
-                return new ArrayProperty<>(field, parent, value, valueMeta, settings, resolver.toComment(field, value, valueMeta));
+                final ElementSchema<?> elementSchema = resolver.toElementSchema(field.getType().getComponentType());
+                return new ArrayProperty<>(field, parent, value, valueMeta, settings, resolver.toComment(field, value, valueMeta), elementSchema);
             }
             return null;
         }
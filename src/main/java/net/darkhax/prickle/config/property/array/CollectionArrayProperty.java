@@ -1,17 +1,30 @@
 package net.darkhax.prickle.config.property.array;
 
+import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 import net.darkhax.prickle.annotations.Array;
 import net.darkhax.prickle.annotations.Value;
 import net.darkhax.prickle.config.PropertyResolver;
 import net.darkhax.prickle.config.comment.IComment;
 import net.darkhax.prickle.config.property.IPropertyAdapter;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Supplier;
 
 /**
  * An array property that can handle Java collections.
@@ -27,9 +40,23 @@ public class CollectionArrayProperty<T extends Collection<?>> extends AbstractAr
 
     private final ParameterizedType paramType;
 
-    private CollectionArrayProperty(Field field, Object parent, T defaultValue, ParameterizedType paramType, Value valueMeta, ArraySettings meta, IComment comment) {
+    /**
+     * The schema for the entries of the collection. This is only present when the entries are config objects.
+     */
+    @Nullable
+    private final ElementSchema<?> elementSchema;
+
+    /**
+     * Creates new collections when entries are read using the element schema.
+     */
+    @Nullable
+    private final Supplier<Collection<Object>> collectionFactory;
+
+    private CollectionArrayProperty(Field field, Object parent, T defaultValue, ParameterizedType paramType, Value valueMeta, ArraySettings meta, IComment comment, @Nullable ElementSchema<?> elementSchema) {
         super(field, parent, defaultValue, valueMeta, meta, comment);
         this.paramType = paramType;
+        this.elementSchema = elementSchema;
+        this.collectionFactory = elementSchema != null ? collectionFactory(field.getType()) : null;
     }
 
     @Override
@@ -53,12 +80,94 @@ public class CollectionArrayProperty<T extends Collection<?>> extends AbstractAr
     }
 
     @Override
-    public void writeArrayValues(T value, JsonWriter out, PropertyResolver resolver, Logger log) {
+    public void writeArrayValues(T value, JsonWriter out, PropertyResolver resolver, Logger log) throws IOException {
+        if (this.elementSchema != null) {
+            for (Object o : value) {
+                this.elementSchema.write(out, o);
+            }
+            return;
+        }
         for (Object o : value) {
             resolver.gson().toJson(o, paramType.getActualTypeArguments()[0], out);
         }
     }
 
+    @Override
+    public boolean sameValue(Object first, Object second) {
+        if (this.elementSchema == null) {
+            return super.sameValue(first, second);
+        }
+        final T firstValue = this.value(first);
+        final T secondValue = this.value(second);
+        if (firstValue == secondValue) {
+            return true;
+        }
+        if (firstValue == null || secondValue == null || firstValue.size() != secondValue.size()) {
+            return false;
+        }
+        final Iterator<?> secondEntries = secondValue.iterator();
+        for (Object entry : firstValue) {
+            if (!this.elementSchema.sameValues(entry, secondEntries.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked") // The collection is created by a factory for the type of the field, so it is a T.
+    public T readValue(JsonReader reader, PropertyResolver resolver, Logger logger) throws IOException {
+        if (this.elementSchema == null) {
+            return super.readValue(reader, resolver, logger);
+        }
+        final Collection<Object> collection = this.collectionFactory.get();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            collection.add(this.elementSchema.read(reader));
+        }
+        reader.endArray();
+        return (T) collection;
+    }
+
+    /**
+     * Creates a factory for new collections that are compatible with the type of the field.
+     *
+     * @param type The type of the field.
+     * @return A factory that creates new collections for the field.
+     */
+    private static Supplier<Collection<Object>> collectionFactory(Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            if (SortedSet.class.isAssignableFrom(type)) {
+                return TreeSet::new;
+            }
+            if (Set.class.isAssignableFrom(type)) {
+                return LinkedHashSet::new;
+            }
+            if (Queue.class.isAssignableFrom(type)) {
+                return ArrayDeque::new;
+            }
+            return ArrayList::new;
+        }
+        try {
+            final Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return () -> {
+                try {
+                    // The type is a collection, and elements are only added to it while it is being read.
+                    @SuppressWarnings("unchecked")
+                    final Collection<Object> collection = (Collection<Object>) constructor.newInstance();
+                    return collection;
+                }
+                catch (ReflectiveOperationException e) {
+                    throw new RuntimeException("Could not construct collection of type " + type.getName(), e);
+                }
+            };
+        }
+        catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Collection type " + type.getName() + " must have a no-args constructor!", e);
+        }
+    }
+
     private static class Adapter implements IPropertyAdapter<CollectionArrayProperty<?>> {
 
         @Override
@@ -66,7 +175,8 @@ public class CollectionArrayProperty<T extends Collection<?>> extends AbstractAr
             if (value instanceof Collection<?> collection && field.getGenericType() instanceof ParameterizedType paramType) {
                 final Array arrayMeta = field.getAnnotation(Array.class);
                 final ArraySettings settings = arrayMeta != null ? new ArraySettings(arrayMeta) : ArraySettings.DEFAULT;
-                return new CollectionArrayProperty<>(field, parent, collection, paramType, valueMeta, settings, resolver.toComment(field, value, valueMeta));
+                final ElementSchema<?> elementSchema = resolver.toElementSchema(paramType.getActualTypeArguments()[0]);
+                return new CollectionArrayProperty<>(field, parent, collection, paramType, valueMeta, settings, resolver.toComment(field, value, valueMeta), elementSchema);
             }
             return null;
         }
@@ -0,0 +1,151 @@
+package net.darkhax.prickle.config.property.array;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import net.darkhax.prickle.config.ConfigObjectSerializer;
+import net.darkhax.prickle.config.PropertyResolver;
+import net.darkhax.prickle.config.property.ConfigObjectProperty;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * A config schema that is shared by every element of an array or collection that holds config objects. The schema is
+ * mapped once using a template element, and is then reused to read and write every element. This allows elements to
+ * have comments, decorators, and validation just like the properties of the root config object.
+ *
+ * @param <E> The type of the elements.
+ */
+public class ElementSchema<E> {
+
+    /**
+     * The constructor used to create new elements when they are read.
+     */
+    private final Constructor<E> constructor;
+
+    /**
+     * The serializer that was mapped from the template element. This is null until the schema has been mapped.
+     */
+    private ConfigObjectSerializer<E> serializer;
+
+    private ElementSchema(Constructor<E> constructor) {
+        this.constructor = constructor;
+    }
+
+    /**
+     * Maps the properties of the element type using a new template element. Schemas are created before they are
+     * mapped, so an element type that holds arrays or collections of itself will resolve to the schema that is being
+     * mapped instead of mapping it again.
+     *
+     * @param resolver The property resolver used to map the properties of the element.
+     * @throws IllegalStateException If the schema has already been mapped.
+     */
+    public void map(PropertyResolver resolver) {
+        if (this.serializer != null) {
+            throw new IllegalStateException("The element schema for " + this.constructor.getDeclaringClass().getName() + " has already been mapped.");
+        }
+        this.serializer = new ConfigObjectSerializer<>(resolver, this.newElement());
+    }
+
+    /**
+     * Reads a new element from the JSON reader. A new element is constructed and the properties that were read will be
+     * applied to it. Properties that are not defined in the JSON will keep the value they were constructed with.
+     *
+     * @param reader A reader containing a stream of JSON data.
+     * @return The element that was read.
+     * @throws IOException A fatal exception may be thrown if the element could not be read.
+     */
+    @Nullable
+    public E read(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        final E element = this.newElement();
+        this.serializer.read(reader, element);
+        return element;
+    }
+
+    /**
+     * Writes an element to the JSON writer.
+     *
+     * @param writer  A writer to write JSON data to.
+     * @param element The element to write.
+     * @throws IOException A fatal exception may be thrown if the element could not be written.
+     */
+    public void write(JsonWriter writer, @Nullable Object element) throws IOException {
+        if (element == null) {
+            writer.nullValue();
+            return;
+        }
+        this.serializer.write(writer, element);
+    }
+
+    /**
+     * Checks if two elements hold the same values. Config objects do not generally implement equals, so the elements
+     * are compared property by property.
+     *
+     * @param first  The first element.
+     * @param second The second element.
+     * @return If the elements hold the same values.
+     */
+    public boolean sameValues(@Nullable Object first, @Nullable Object second) {
+        if (first == second) {
+            return true;
+        }
+        if (first == null || second == null || first.getClass() != second.getClass()) {
+            return false;
+        }
+        return this.serializer.sameValues(first, second);
+    }
+
+    /**
+     * Gets the serializer that was mapped from the template element.
+     *
+     * @return The serializer for the element schema.
+     */
+    public ConfigObjectSerializer<E> serializer() {
+        return this.serializer;
+    }
+
+    private E newElement() {
+        try {
+            return this.constructor.newInstance();
+        }
+        catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Could not construct element of type " + this.constructor.getDeclaringClass().getName(), e);
+        }
+    }
+
+    /**
+     * Attempts to create an element schema for a given type. Only config object types that have a no-args constructor
+     * can be mapped. The schema must be mapped using {@link #map(PropertyResolver)} before it is used.
+     *
+     * @param resolver    The property resolver used to map the properties of the element.
+     * @param elementType The type of the elements.
+     * @return The unmapped element schema, or null if the type can not be mapped.
+     */
+    @Nullable
+    public static ElementSchema<?> of(PropertyResolver resolver, Type elementType) {
+        final Class<?> rawType = elementType instanceof Class<?> clazz ? clazz : elementType instanceof ParameterizedType paramType && paramType.getRawType() instanceof Class<?> clazz ? clazz : null;
+        if (rawType == null || !ConfigObjectProperty.isConfigType(rawType)) {
+            return null;
+        }
+        try {
+            return create(rawType.getDeclaredConstructor());
+        }
+        catch (NoSuchMethodException e) {
+            resolver.logger().warn("Config object {} has no no-args constructor. Elements will be serialized without a schema.", rawType.getName());
+            return null;
+        }
+    }
+
+    private static <E> ElementSchema<E> create(Constructor<E> constructor) {
+        constructor.setAccessible(true);
+        return new ElementSchema<>(constructor);
+    }
+}
@@ -0,0 +1,247 @@
+package net.darkhax.prickle.config.property.mapped;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.PropertyResolver;
+import net.darkhax.prickle.config.comment.IComment;
+import net.darkhax.prickle.config.property.IFileBackedProperty;
+import net.darkhax.prickle.config.property.IPendingRead;
+import net.darkhax.prickle.config.property.IPropertyAdapter;
+import net.darkhax.prickle.config.property.ObjectProperty;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A property that holds a {@link MappedNumericArray}. The values of the array are stored in a binary sidecar file next
+ * to the config file, while the config file only holds a reference to the sidecar and metadata that describes it.
+ * <pre>{@code
+ * "lookup_table": {
+ *   "value": {
+ *     "file": "config.lookup_table.bin",
+ *     "dtype": "float64",
+ *     "length": 1000000,
+ *     "checksum": "8a2b61f0"
+ *   }
+ * }
+ * }</pre>
+ * The sidecar is only written when the config file is saved, and only when the contents of the array differ from the
+ * contents of the sidecar on disk. Writing the config to a stream or a buffer does not write the sidecar. Sidecar files
+ * are named after the config file and the property, and must be located in the directory of the config file that
+ * references them.
+ */
+public class MappedArrayProperty extends ObjectProperty<MappedNumericArray> implements IFileBackedProperty {
+
+    /**
+     * A property adapter for mapped numeric arrays.
+     */
+    public static final IPropertyAdapter<MappedArrayProperty> ADAPTER = new Adapter();
+
+    /**
+     * The directory that sidecar files are written to. Sidecars that are read are resolved against the directory of
+     * the property resolver, which is the directory of the file that is being read.
+     */
+    private final Path directory;
+
+    /**
+     * The name of the sidecar file. This is updated when a value that references a different file is applied.
+     */
+    private volatile String fileName;
+
+    /**
+     * The checksum of the sidecar file the last time it was applied or written. This is used to avoid writing the
+     * sidecar when it has not changed.
+     */
+    private volatile long syncedChecksum = -1;
+
+    private MappedArrayProperty(Field field, Object parent, MappedNumericArray defaultValue, Path directory, String fileName, Value valueMeta, IComment comment) {
+        super(field, parent, defaultValue, valueMeta, comment);
+        this.directory = directory;
+        this.fileName = fileName;
+    }
+
+    @Override
+    public MappedNumericArray readValue(JsonReader reader, PropertyResolver resolver, Logger logger) throws IOException {
+        return this.readReference(reader, resolver.directory()).array();
+    }
+
+    @Override
+    protected IPendingRead readPendingValue(JsonReader reader, Object parent, PropertyResolver resolver, Logger logger) throws IOException {
+        final SidecarReference reference = this.readReference(reader, resolver.directory());
+        return this.validate(reference.array()) ? () -> this.apply(parent, reference) : IPendingRead.NONE;
+    }
+
+    @Override
+    protected void readAndApply(JsonReader reader, Object parent, PropertyResolver resolver, Logger logger) throws IOException {
+        this.readPendingValue(reader, parent, resolver, logger).apply();
+    }
+
+    /**
+     * Applies a sidecar that was read, and remembers which file it was read from so the sidecar is not written again
+     * until its contents change.
+     *
+     * @param parent    The object that holds the field.
+     * @param reference The sidecar that was read.
+     */
+    private void apply(Object parent, SidecarReference reference) {
+        this.applyValue(parent, reference.array());
+        this.fileName = reference.file();
+        this.syncedChecksum = reference.array().checksum();
+    }
+
+    /**
+     * Reads a reference to a sidecar file and maps the file. Reading a reference does not change the state of the
+     * property, so references can be read and validated without being applied.
+     *
+     * @param reader    A reader positioned at the value of the property.
+     * @param directory The directory of the file that is being read.
+     * @return The sidecar that was read.
+     * @throws IOException If the reference is invalid or the sidecar could not be mapped.
+     */
+    private SidecarReference readReference(JsonReader reader, Path directory) throws IOException {
+        String file = this.fileName;
+        NumericType type = null;
+        int length = -1;
+        String checksum = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "file" -> file = reader.nextString();
+                case "dtype" -> {
+                    final String typeName = reader.nextString();
+                    type = NumericType.byName(typeName);
+                    if (type == null) {
+                        throw new IOException("Unknown dtype '" + typeName + "' for sidecar " + file + ".");
+                    }
+                }
+                case "length" -> length = reader.nextInt();
+                case "checksum" -> checksum = reader.nextString();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (type == null || length < 0) {
+            throw new IOException("Sidecar reference for " + file + " must specify a dtype and length.");
+        }
+
+        final MappedNumericArray array = MappedNumericArray.map(resolveSidecar(directory, file), type, length);
+        if (checksum != null && Long.parseLong(checksum, 16) != array.checksum()) {
+            throw new IOException("Sidecar file " + file + " does not match checksum " + checksum + ".");
+        }
+        return new SidecarReference(file, array);
+    }
+
+    /**
+     * Resolves the path of a sidecar file. Sidecar files must be located in the directory of the config file.
+     *
+     * @param configDirectory The directory of the config file.
+     * @param file            The name of the sidecar file, relative to the directory of the config file.
+     * @return The path of the sidecar file.
+     * @throws IOException If the file is not located in the directory of the config file.
+     */
+    private static Path resolveSidecar(Path configDirectory, String file) throws IOException {
+        final Path directory = configDirectory.toAbsolutePath().normalize();
+        final Path sidecar = directory.resolve(file).normalize();
+        if (!sidecar.startsWith(directory) || sidecar.equals(directory)) {
+            throw new IOException("Sidecar file " + file + " must be located in the config directory " + directory + ".");
+        }
+        return sidecar;
+    }
+
+    @Override
+    public void writeFiles(Logger logger) throws IOException {
+        final MappedNumericArray value = this.value();
+        final Path sidecar = resolveSidecar(this.directory, this.fileName);
+        if (value.checksum() != this.syncedChecksum || !Files.exists(sidecar)) {
+            writeSidecar(sidecar, value);
+            this.syncedChecksum = value.checksum();
+            logger.debug("Wrote {} values to sidecar file {}.", value.length(), sidecar);
+        }
+    }
+
+    @Override
+    public void writeValue(MappedNumericArray value, JsonWriter writer, PropertyResolver resolver, Logger logger) throws IOException {
+        writer.beginObject();
+        writer.name("file");
+        writer.value(this.fileName);
+        writer.name("dtype");
+        writer.value(value.type().serializedName());
+        writer.name("length");
+        writer.value(value.length());
+        writer.name("checksum");
+        writer.value(Long.toHexString(value.checksum()));
+        writer.endObject();
+    }
+
+    @Override
+    public void writeDefaultValue(JsonWriter writer, PropertyResolver resolver, Logger logger) throws IOException {
+        // The default value is not written because it would require a second sidecar file.
+    }
+
+    @Override
+    public boolean validate(MappedNumericArray value) throws IllegalArgumentException {
+        if (value == null) {
+            throw new IllegalArgumentException("Mapped arrays must not be null!");
+        }
+        return true;
+    }
+
+    /**
+     * Writes the contents of an array to a sidecar file. The contents are written to a temporary file first and then
+     * moved into place, so arrays that are still mapped from the old file remain readable.
+     *
+     * @param sidecar The sidecar file to write.
+     * @param value   The array to write.
+     * @throws IOException If the file could not be written.
+     */
+    private static void writeSidecar(Path sidecar, MappedNumericArray value) throws IOException {
+        final Path temp = sidecar.resolveSibling(sidecar.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ByteBuffer buffer = value.buffer();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        try {
+            Files.move(temp, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, sidecar, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * A sidecar file that was read.
+     *
+     * @param file  The name of the sidecar file.
+     * @param array The array that was mapped from the file.
+     */
+    private record SidecarReference(String file, MappedNumericArray array) {
+    }
+
+    private static class Adapter implements IPropertyAdapter<MappedArrayProperty> {
+
+        @Override
+        public MappedArrayProperty toValue(PropertyResolver resolver, Field field, Object parent, Object value, Value valueMeta) throws IOException {
+            if (field.getType() == MappedNumericArray.class) {
+                if (value == null) {
+                    throw new IllegalArgumentException("Mapped array field '" + field.getName() + "' must have a default value!");
+                }
+                final String name = (valueMeta.name() == null || valueMeta.name().isBlank()) ? field.getName() : valueMeta.name();
+                return new MappedArrayProperty(field, parent, (MappedNumericArray) value, resolver.directory(), resolver.resourceName(name + ".bin"), valueMeta, resolver.toComment(field, value, valueMeta));
+            }
+            return null;
+        }
+    }
+}
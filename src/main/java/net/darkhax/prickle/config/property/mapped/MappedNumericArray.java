@@ -0,0 +1,214 @@
+package net.darkhax.prickle.config.property.mapped;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * A large array of numbers that is stored outside the Java heap. Arrays that are read from a config are memory-mapped
+ * from a binary sidecar file, while arrays created in code are held in a direct buffer until they are saved. Values
+ * are always stored in little-endian byte order. The contents of the array can not be modified once it has been
+ * created.
+ */
+public final class MappedNumericArray {
+
+    /**
+     * The type of number held by the array.
+     */
+    private final NumericType type;
+
+    /**
+     * A read-only buffer that holds the values of the array.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The amount of values in the array.
+     */
+    private final int length;
+
+    /**
+     * A lazily computed checksum of the array contents.
+     */
+    private volatile long checksum = -1;
+
+    private MappedNumericArray(NumericType type, ByteBuffer buffer) {
+        this.type = type;
+        this.buffer = buffer.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        this.length = buffer.capacity() / type.bytes();
+    }
+
+    /**
+     * Gets the type of number held by the array.
+     *
+     * @return The type of number held by the array.
+     */
+    public NumericType type() {
+        return this.type;
+    }
+
+    /**
+     * Gets the amount of values in the array.
+     *
+     * @return The length of the array.
+     */
+    public int length() {
+        return this.length;
+    }
+
+    /**
+     * Gets a value from an {@link NumericType#INT32} array.
+     *
+     * @param index The index of the value.
+     * @return The value at the index.
+     */
+    public int getInt(int index) {
+        this.checkType(NumericType.INT32);
+        return this.buffer.getInt(index * Integer.BYTES);
+    }
+
+    /**
+     * Gets a value from an {@link NumericType#INT32} or {@link NumericType#INT64} array.
+     *
+     * @param index The index of the value.
+     * @return The value at the index.
+     */
+    public long getLong(int index) {
+        if (this.type == NumericType.INT32) {
+            return this.buffer.getInt(index * Integer.BYTES);
+        }
+        this.checkType(NumericType.INT64);
+        return this.buffer.getLong(index * Long.BYTES);
+    }
+
+    /**
+     * Gets a value from an {@link NumericType#FLOAT32} array.
+     *
+     * @param index The index of the value.
+     * @return The value at the index.
+     */
+    public float getFloat(int index) {
+        this.checkType(NumericType.FLOAT32);
+        return this.buffer.getFloat(index * Float.BYTES);
+    }
+
+    /**
+     * Gets a value from the array as a double. Values from arrays of other types will be widened to a double.
+     *
+     * @param index The index of the value.
+     * @return The value at the index.
+     */
+    public double getDouble(int index) {
+        return switch (this.type) {
+            case INT32 -> this.buffer.getInt(index * Integer.BYTES);
+            case INT64 -> this.buffer.getLong(index * Long.BYTES);
+            case FLOAT32 -> this.buffer.getFloat(index * Float.BYTES);
+            case FLOAT64 -> this.buffer.getDouble(index * Double.BYTES);
+        };
+    }
+
+    /**
+     * Gets a read-only view of the raw bytes held by the array.
+     *
+     * @return A read-only view of the array contents.
+     */
+    public ByteBuffer buffer() {
+        return this.buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Gets a CRC32C checksum of the array contents. The checksum is computed the first time it is requested.
+     *
+     * @return The checksum of the array contents.
+     */
+    public long checksum() {
+        if (this.checksum == -1) {
+            final CRC32C crc = new CRC32C();
+            crc.update(this.buffer());
+            this.checksum = crc.getValue();
+        }
+        return this.checksum;
+    }
+
+    private void checkType(NumericType expected) {
+        if (this.type != expected) {
+            throw new IllegalStateException("Can not read " + expected.serializedName() + " values from an array of " + this.type.serializedName() + " values.");
+        }
+    }
+
+    /**
+     * Memory-maps an array from a binary file. The file is mapped read-only and the contents are not copied onto the
+     * heap.
+     *
+     * @param file   The file to map.
+     * @param type   The type of number held by the file.
+     * @param length The expected amount of values in the file.
+     * @return An array backed by the mapped file.
+     * @throws IOException If the file could not be mapped, or the size of the file does not match the expected length.
+     */
+    public static MappedNumericArray map(Path file, NumericType type, int length) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long expectedSize = (long) length * type.bytes();
+            if (channel.size() != expectedSize) {
+                throw new IOException("Sidecar file " + file + " has " + channel.size() + " bytes, expected " + expectedSize + ".");
+            }
+            return new MappedNumericArray(type, channel.map(FileChannel.MapMode.READ_ONLY, 0, expectedSize));
+        }
+    }
+
+    /**
+     * Creates an array of int values.
+     *
+     * @param values The values of the array.
+     * @return An array holding the values.
+     */
+    public static MappedNumericArray ofInts(int... values) {
+        final ByteBuffer buffer = allocate(values.length, NumericType.INT32);
+        buffer.asIntBuffer().put(values);
+        return new MappedNumericArray(NumericType.INT32, buffer);
+    }
+
+    /**
+     * Creates an array of long values.
+     *
+     * @param values The values of the array.
+     * @return An array holding the values.
+     */
+    public static MappedNumericArray ofLongs(long... values) {
+        final ByteBuffer buffer = allocate(values.length, NumericType.INT64);
+        buffer.asLongBuffer().put(values);
+        return new MappedNumericArray(NumericType.INT64, buffer);
+    }
+
+    /**
+     * Creates an array of float values.
+     *
+     * @param values The values of the array.
+     * @return An array holding the values.
+     */
+    public static MappedNumericArray ofFloats(float... values) {
+        final ByteBuffer buffer = allocate(values.length, NumericType.FLOAT32);
+        buffer.asFloatBuffer().put(values);
+        return new MappedNumericArray(NumericType.FLOAT32, buffer);
+    }
+
+    /**
+     * Creates an array of double values.
+     *
+     * @param values The values of the array.
+     * @return An array holding the values.
+     */
+    public static MappedNumericArray ofDoubles(double... values) {
+        final ByteBuffer buffer = allocate(values.length, NumericType.FLOAT64);
+        buffer.asDoubleBuffer().put(values);
+        return new MappedNumericArray(NumericType.FLOAT64, buffer);
+    }
+
+    private static ByteBuffer allocate(int length, NumericType type) {
+        return ByteBuffer.allocateDirect(Math.multiplyExact(length, type.bytes())).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,63 @@
+package net.darkhax.prickle.config.property.mapped;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The numeric types that can be stored in a {@link MappedNumericArray}.
+ */
+public enum NumericType {
+
+    INT32("int32", Integer.BYTES),
+    INT64("int64", Long.BYTES),
+    FLOAT32("float32", Float.BYTES),
+    FLOAT64("float64", Double.BYTES);
+
+    /**
+     * The name used to identify the type in the config file.
+     */
+    private final String serializedName;
+
+    /**
+     * The amount of bytes used to store a single value.
+     */
+    private final int bytes;
+
+    NumericType(String serializedName, int bytes) {
+        this.serializedName = serializedName;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Gets the name used to identify the type in the config file.
+     *
+     * @return The serialized name of the type.
+     */
+    public String serializedName() {
+        return this.serializedName;
+    }
+
+    /**
+     * Gets the amount of bytes used to store a single value.
+     *
+     * @return The size of a single value in bytes.
+     */
+    public int bytes() {
+        return this.bytes;
+    }
+
+    /**
+     * Gets a numeric type using its serialized name.
+     *
+     * @param name The serialized name of the type.
+     * @return The numeric type, or null if no type exists with that name.
+     */
+    @Nullable
+    public static NumericType byName(String name) {
+        for (NumericType type : values()) {
+            if (type.serializedName.equals(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,265 @@
+package net.darkhax.prickle.config.scan;
+
+import net.darkhax.prickle.config.ConfigObjectSerializer;
+import net.darkhax.prickle.config.property.ConfigObjectProperty;
+import net.darkhax.prickle.config.property.IConfigProperty;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index of where properties are located in a memory mapped config file. Properties are only read from the file when
+ * they are first requested, and are then applied to the config object like a normal load. Nested properties of config
+ * objects can be requested individually using a dotted path such as {@code database.pool.size}, in which case only
+ * the requested part of the file is read.
+ * <p>
+ * The mapped file must not be modified while the index is in use. Instances are thread safe.
+ */
+public class LazyPropertyIndex {
+
+    /**
+     * The mapped contents of the config file.
+     */
+    private final ByteBuffer data;
+
+    /**
+     * The serializer for the config object.
+     */
+    private final ConfigObjectSerializer<?> serializer;
+
+    /**
+     * The objects that hold the properties at each path, keyed by the path of their parent. The root object is keyed by
+     * an empty path. Only the paths that have been requested are scanned.
+     */
+    private final Map<String, List<Scope>> scopes = new HashMap<>();
+
+    /**
+     * The paths that have been read.
+     */
+    private final Set<String> loaded = new HashSet<>();
+
+    private LazyPropertyIndex(ByteBuffer data, ConfigObjectSerializer<?> serializer) {
+        this.data = data;
+        this.serializer = serializer;
+    }
+
+    /**
+     * Maps a config file and indexes its top-level properties. None of the property values are read.
+     *
+     * @param file       The config file to index.
+     * @param serializer The serializer for the config object.
+     * @return The index, or null if the file could not be indexed and should be read normally.
+     * @throws IOException If the file could not be mapped.
+     */
+    @Nullable
+    public static LazyPropertyIndex open(Path file, ConfigObjectSerializer<?> serializer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final LazyPropertyIndex index = new LazyPropertyIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), serializer);
+            return index.scope("") != null ? index : null;
+        }
+    }
+
+    /**
+     * Checks if a property has been read. A property is also considered read when the config object that holds it
+     * has been read.
+     *
+     * @param path The dotted path of the property.
+     * @return If the property has been read.
+     */
+    public synchronized boolean isLoaded(String path) {
+        int dot = path.indexOf('.');
+        while (dot >= 0) {
+            if (this.loaded.contains(path.substring(0, dot))) {
+                return true;
+            }
+            dot = path.indexOf('.', dot + 1);
+        }
+        return this.loaded.contains(path);
+    }
+
+    /**
+     * Reads a property from the file and applies it to the config object, unless it has already been read.
+     *
+     * @param path The dotted path of the property.
+     * @throws IOException If the property could not be read.
+     */
+    public synchronized void load(String path) throws IOException {
+        if (this.isLoaded(path)) {
+            return;
+        }
+
+        final String[] names = path.split("\\.");
+        ConfigObjectSerializer<?> current = this.serializer;
+        String parentPath = "";
+        for (int i = 0; i < names.length; i++) {
+            final IConfigProperty<?> property = current.property(names[i]);
+            if (property == null) {
+                throw new IllegalArgumentException("The property '" + path + "' does not exist.");
+            }
+            final List<Scope> objects = this.scope(parentPath);
+            if (objects == null) {
+                throw new IOException("The property '" + parentPath + "' does not hold a JSON object.");
+            }
+
+            if (i == names.length - 1) {
+                for (Scope object : objects) {
+                    for (PropertySpan span : object.find(names[i])) {
+                        current.readProperty(names[i], span.slice(object.data()));
+                    }
+                }
+                this.loaded.add(path);
+                return;
+            }
+
+            if (!(property instanceof ConfigObjectProperty<?> configObject)) {
+                throw new IllegalArgumentException("The property '" + names[i] + "' in '" + path + "' does not hold sub-properties.");
+            }
+            current = configObject.serializer();
+            parentPath = parentPath.isEmpty() ? names[i] : parentPath + "." + names[i];
+        }
+    }
+
+    /**
+     * Reads every property that has not been read yet. Config objects that already had some of their properties read
+     * are read one property at a time, so the properties that were read are not replaced.
+     *
+     * @throws IOException If a property could not be read.
+     */
+    public synchronized void loadAll() throws IOException {
+        this.loadAll(this.serializer, "");
+    }
+
+    private void loadAll(ConfigObjectSerializer<?> serializer, String parentPath) throws IOException {
+        for (String name : serializer.propertyNames()) {
+            final String path = parentPath.isEmpty() ? name : parentPath + "." + name;
+            if (this.isLoaded(path)) {
+                continue;
+            }
+            if (serializer.property(name) instanceof ConfigObjectProperty<?> configObject && this.hasLoadedChildren(path)) {
+                this.loadAll(configObject.serializer(), path);
+            }
+            else {
+                this.load(path);
+            }
+        }
+    }
+
+    /**
+     * Checks if any property of a config object has been read on its own.
+     *
+     * @param path The dotted path of the config object.
+     * @return If any of its properties have been read.
+     */
+    private boolean hasLoadedChildren(String path) {
+        final String prefix = path + ".";
+        for (String loaded : this.loaded) {
+            if (loaded.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the JSON objects that hold the properties of a config object. The root path refers to the whole file, while
+     * other paths refer to the {@code value} objects of the properties at that path.
+     *
+     * @param path The dotted path of the config object.
+     * @return The objects that hold the properties, or null if the data could not be scanned.
+     */
+    @Nullable
+    private List<Scope> scope(String path) {
+        if (this.scopes.containsKey(path)) {
+            return this.scopes.get(path);
+        }
+        List<Scope> objects = null;
+        if (path.isEmpty()) {
+            final Scope root = Scope.of(this.data);
+            objects = root != null ? List.of(root) : null;
+        }
+        else {
+            final int dot = path.lastIndexOf('.');
+            final List<Scope> parents = this.scope(dot < 0 ? "" : path.substring(0, dot));
+            if (parents != null) {
+                objects = valueObjects(parents, path.substring(dot + 1));
+            }
+        }
+        this.scopes.put(path, objects);
+        return objects;
+    }
+
+    /**
+     * Finds the {@code value} objects of every property with a specific name.
+     *
+     * @param parents The objects to search.
+     * @param name    The name of the property.
+     * @return The value objects, in the order they appear, or null if a value could not be scanned.
+     */
+    @Nullable
+    private static List<Scope> valueObjects(List<Scope> parents, String name) {
+        final List<Scope> objects = new ArrayList<>();
+        for (Scope parent : parents) {
+            for (PropertySpan span : parent.find(name)) {
+                final Scope property = Scope.of(span.slice(parent.data()));
+                if (property == null) {
+                    return null;
+                }
+                for (PropertySpan value : property.find("value")) {
+                    final Scope valueObject = Scope.of(value.slice(property.data()));
+                    if (valueObject == null) {
+                        return null;
+                    }
+                    objects.add(valueObject);
+                }
+            }
+        }
+        return objects;
+    }
+
+    /**
+     * A JSON object that has been scanned.
+     *
+     * @param data  The data of the object.
+     * @param spans The properties of the object, in the order they appear.
+     */
+    private record Scope(ByteBuffer data, List<PropertySpan> spans) {
+
+        /**
+         * Scans a JSON object.
+         *
+         * @param data The data of the object.
+         * @return The scanned object, or null if the data is not a JSON object that can be scanned.
+         */
+        @Nullable
+        private static Scope of(ByteBuffer data) {
+            final List<PropertySpan> spans = SpanScanner.scanObject(data);
+            return spans != null ? new Scope(data, spans) : null;
+        }
+
+        /**
+         * Finds every property with a specific name.
+         *
+         * @param name The name of the property.
+         * @return The spans of the matching properties, in the order they appear.
+         */
+        private List<PropertySpan> find(String name) {
+            final List<PropertySpan> matches = new ArrayList<>(1);
+            for (PropertySpan span : this.spans) {
+                if (span.name().equals(name)) {
+                    matches.add(span);
+                }
+            }
+            return matches;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package net.darkhax.prickle.config.scan;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The location of a property within a buffer of UTF-8 encoded JSON.
+ *
+ * @param name      The name of the property.
+ * @param nameStart The index of the opening quote of the property name.
+ * @param start     The index of the first byte of the property value.
+ * @param end       The index after the last byte of the property value.
+ */
+public record PropertySpan(String name, int nameStart, int start, int end) {
+
+    /**
+     * Gets the length of the property value in bytes.
+     *
+     * @return The length of the value.
+     */
+    public int length() {
+        return this.end - this.start;
+    }
+
+    /**
+     * Gets a view of the property value from the buffer the span was scanned from.
+     *
+     * @param data The buffer the span was scanned from.
+     * @return A view of the bytes of the property value.
+     */
+    public ByteBuffer slice(ByteBuffer data) {
+        return data.slice(this.start, this.length());
+    }
+}
@@ -0,0 +1,238 @@
+package net.darkhax.prickle.config.scan;
+
+import com.google.gson.stream.JsonReader;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the locations of properties in UTF-8 encoded JSON without parsing their values. The scanner only tracks
+ * brackets and strings, so it is much faster than a full parse and can be used to split a document into independent
+ * pieces. Because every structural character in JSON is ASCII, and ASCII bytes never appear inside multibyte UTF-8
+ * sequences, the bytes can be scanned without decoding them.
+ * <p>
+ * The scanner does not validate the contents of values. When the document does not have the expected structure no
+ * spans are returned and the document should be read normally, which will report the problem.
+ */
+public final class SpanScanner {
+
+    private SpanScanner() {
+    }
+
+    /**
+     * Scans the properties of a JSON object that fills the remaining bytes of a buffer. The position of the buffer is
+     * not changed.
+     *
+     * @param data The buffer to scan.
+     * @return The spans of each property in the order they appear, or null if the data is not a JSON object that can be
+     * scanned.
+     */
+    @Nullable
+    public static List<PropertySpan> scanObject(ByteBuffer data) {
+        return scanObject(data, data.position(), data.limit());
+    }
+
+    /**
+     * Scans the properties of a JSON object that fills a range of a buffer. The position of the buffer is not changed.
+     *
+     * @param data  The buffer to scan.
+     * @param start The index of the first byte of the object.
+     * @param end   The index after the last byte of the object.
+     * @return The spans of each property in the order they appear, or null if the range is not a JSON object that can
+     * be scanned.
+     */
+    @Nullable
+    public static List<PropertySpan> scanObject(ByteBuffer data, int start, int end) {
+        int pos = skipWhitespace(data, skipByteOrderMark(data, start, end), end);
+        if (pos >= end || data.get(pos) != '{') {
+            return null;
+        }
+
+        final List<PropertySpan> spans = new ArrayList<>();
+        pos = skipWhitespace(data, pos + 1, end);
+        if (pos < end && data.get(pos) == '}') {
+            return skipWhitespace(data, pos + 1, end) == end ? spans : null;
+        }
+
+        while (pos < end && data.get(pos) == '"') {
+            final int nameStart = pos;
+            final int nameEnd = skipString(data, pos, end);
+            if (nameEnd < 0) {
+                return null;
+            }
+            pos = skipWhitespace(data, nameEnd, end);
+            if (pos >= end || data.get(pos) != ':') {
+                return null;
+            }
+            final int valueStart = skipWhitespace(data, pos + 1, end);
+            final int valueEnd = skipValue(data, valueStart, end);
+            final String name = decodeName(data, nameStart, nameEnd);
+            if (valueEnd < 0 || name == null) {
+                return null;
+            }
+            spans.add(new PropertySpan(name, nameStart, valueStart, valueEnd));
+
+            pos = skipWhitespace(data, valueEnd, end);
+            if (pos < end && data.get(pos) == ',') {
+                pos = skipWhitespace(data, pos + 1, end);
+            }
+            else if (pos < end && data.get(pos) == '}') {
+                return skipWhitespace(data, pos + 1, end) == end ? spans : null;
+            }
+            else {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates a JSON reader for the remaining bytes of a buffer of UTF-8 encoded JSON. The bytes are decoded up front
+     * and the position of the buffer is not changed.
+     *
+     * @param data The data to read.
+     * @return A reader for the decoded data.
+     * @throws CharacterCodingException If the data is not valid UTF-8.
+     */
+    public static JsonReader reader(ByteBuffer data) throws CharacterCodingException {
+        final CharBuffer chars = StandardCharsets.UTF_8.newDecoder().decode(data.duplicate());
+        return new JsonReader(new CharArrayReader(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining()));
+    }
+
+    /**
+     * Finds the end of a JSON value.
+     *
+     * @param data  The buffer to scan.
+     * @param start The index of the first byte of the value.
+     * @param end   The index after the last byte that may be scanned.
+     * @return The index after the last byte of the value, or -1 if the value does not end before the end index.
+     */
+    public static int skipValue(ByteBuffer data, int start, int end) {
+        if (start >= end) {
+            return -1;
+        }
+        final byte first = data.get(start);
+        if (first == '"') {
+            return skipString(data, start, end);
+        }
+        if (first == '{' || first == '[') {
+            int depth = 0;
+            int pos = start;
+            while (pos < end) {
+                final byte b = data.get(pos);
+                if (b == '"') {
+                    pos = skipString(data, pos, end);
+                    if (pos < 0) {
+                        return -1;
+                    }
+                    continue;
+                }
+                if (b == '{' || b == '[') {
+                    depth++;
+                }
+                else if (b == '}' || b == ']') {
+                    depth--;
+                    if (depth == 0) {
+                        return pos + 1;
+                    }
+                }
+                pos++;
+            }
+            return -1;
+        }
+
+        // Numbers and literals end at the next structural character or whitespace.
+        int pos = start;
+        while (pos < end) {
+            final byte b = data.get(pos);
+            if (b == ',' || b == '}' || b == ']' || b == ':' || isWhitespace(b)) {
+                break;
+            }
+            pos++;
+        }
+        return pos > start ? pos : -1;
+    }
+
+    /**
+     * Finds the end of a JSON string.
+     *
+     * @param data  The buffer to scan.
+     * @param start The index of the opening quote.
+     * @param end   The index after the last byte that may be scanned.
+     * @return The index after the closing quote, or -1 if the string does not end before the end index.
+     */
+    public static int skipString(ByteBuffer data, int start, int end) {
+        int pos = start + 1;
+        while (pos < end) {
+            final byte b = data.get(pos);
+            if (b == '\\') {
+                pos += 2;
+            }
+            else if (b == '"') {
+                return pos + 1;
+            }
+            else {
+                pos++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Skips JSON whitespace.
+     *
+     * @param data  The buffer to scan.
+     * @param start The index to start from.
+     * @param end   The index after the last byte that may be scanned.
+     * @return The index of the first byte that is not whitespace, or the end index.
+     */
+    public static int skipWhitespace(ByteBuffer data, int start, int end) {
+        int pos = start;
+        while (pos < end && isWhitespace(data.get(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private static int skipByteOrderMark(ByteBuffer data, int start, int end) {
+        if (end - start >= 3 && data.get(start) == (byte) 0xEF && data.get(start + 1) == (byte) 0xBB && data.get(start + 2) == (byte) 0xBF) {
+            return start + 3;
+        }
+        return start;
+    }
+
+    /**
+     * Decodes a quoted JSON string into its value.
+     *
+     * @param data  The buffer to read from.
+     * @param start The index of the opening quote.
+     * @param end   The index after the closing quote.
+     * @return The decoded string, or null if it is not a valid string.
+     */
+    @Nullable
+    private static String decodeName(ByteBuffer data, int start, int end) {
+        try {
+            final String raw = StandardCharsets.UTF_8.newDecoder().decode(data.slice(start, end - start)).toString();
+            if (raw.indexOf('\\') < 0) {
+                return raw.substring(1, raw.length() - 1);
+            }
+            // Escaped names are rare, so the JSON reader is used to handle them.
+            return new JsonReader(new StringReader(raw)).nextString();
+        }
+        catch (IOException | IllegalStateException e) {
+            return null;
+        }
+    }
+}
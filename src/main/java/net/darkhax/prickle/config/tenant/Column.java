@@ -0,0 +1,347 @@
+package net.darkhax.prickle.config.tenant;
+
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+/**
+ * The values of one property for every tenant in a {@link TenantStore}. Each tenant has a fixed index into the column.
+ * Properties with primitive types are stored in primitive arrays, so they can be scanned without boxing.
+ * <p>
+ * Columns are not thread safe on their own, so they are only accessed by the store while it holds its lock.
+ */
+public abstract class Column {
+
+    /**
+     * The name of the property held by the column.
+     */
+    private final String name;
+
+    protected Column(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of the property held by the column.
+     *
+     * @return The serialized name of the property.
+     */
+    public String name() {
+        return this.name;
+    }
+
+    /**
+     * Gets the value of a tenant as an object. Primitive values are boxed.
+     *
+     * @param tenant The index of the tenant.
+     * @return The value of the tenant.
+     */
+    public abstract Object get(int tenant);
+
+    /**
+     * Gets a copy of the value of a tenant that does not share any state with the column. Primitive values are boxed.
+     *
+     * @param tenant The index of the tenant.
+     * @return A copy of the value of the tenant.
+     */
+    public Object copy(int tenant) {
+        return this.get(tenant);
+    }
+
+    /**
+     * Sets the value of a tenant.
+     *
+     * @param tenant The index of the tenant.
+     * @param value  The value to set. Primitive columns expect the boxed value.
+     */
+    abstract void set(int tenant, Object value);
+
+    /**
+     * Releases the value of a tenant that was removed.
+     *
+     * @param tenant The index of the tenant.
+     */
+    void clear(int tenant) {
+        // Primitive values do not hold references.
+    }
+
+    /**
+     * Ensures the column can hold a number of tenants.
+     *
+     * @param capacity The number of tenants the column must hold.
+     */
+    abstract void ensureCapacity(int capacity);
+
+    /**
+     * Creates a column for a property.
+     *
+     * @param name     The serialized name of the property.
+     * @param type     The type of the field the property was mapped from.
+     * @param capacity The initial number of tenants the column can hold.
+     * @param copier   Copies values of the property that are not primitives.
+     * @return A column specialized for the type.
+     */
+    static Column of(String name, Class<?> type, int capacity, UnaryOperator<Object> copier) {
+        if (type == int.class) {
+            return new IntColumn(name, capacity);
+        }
+        if (type == long.class) {
+            return new LongColumn(name, capacity);
+        }
+        if (type == double.class) {
+            return new DoubleColumn(name, capacity);
+        }
+        if (type == float.class) {
+            return new FloatColumn(name, capacity);
+        }
+        if (type == boolean.class) {
+            return new BooleanColumn(name, capacity);
+        }
+        return new ObjectColumn(name, capacity, copier);
+    }
+
+    /**
+     * A column of int values.
+     */
+    public static final class IntColumn extends Column {
+
+        private int[] values;
+
+        private IntColumn(String name, int capacity) {
+            super(name);
+            this.values = new int[capacity];
+        }
+
+        /**
+         * Gets the value of a tenant.
+         *
+         * @param tenant The index of the tenant.
+         * @return The value of the tenant.
+         */
+        public int getInt(int tenant) {
+            return this.values[tenant];
+        }
+
+        @Override
+        public Object get(int tenant) {
+            return this.values[tenant];
+        }
+
+        @Override
+        void set(int tenant, Object value) {
+            this.values[tenant] = ((Number) value).intValue();
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (capacity > this.values.length) {
+                this.values = Arrays.copyOf(this.values, capacity);
+            }
+        }
+    }
+
+    /**
+     * A column of long values.
+     */
+    public static final class LongColumn extends Column {
+
+        private long[] values;
+
+        private LongColumn(String name, int capacity) {
+            super(name);
+            this.values = new long[capacity];
+        }
+
+        /**
+         * Gets the value of a tenant.
+         *
+         * @param tenant The index of the tenant.
+         * @return The value of the tenant.
+         */
+        public long getLong(int tenant) {
+            return this.values[tenant];
+        }
+
+        @Override
+        public Object get(int tenant) {
+            return this.values[tenant];
+        }
+
+        @Override
+        void set(int tenant, Object value) {
+            this.values[tenant] = ((Number) value).longValue();
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (capacity > this.values.length) {
+                this.values = Arrays.copyOf(this.values, capacity);
+            }
+        }
+    }
+
+    /**
+     * A column of double values.
+     */
+    public static final class DoubleColumn extends Column {
+
+        private double[] values;
+
+        private DoubleColumn(String name, int capacity) {
+            super(name);
+            this.values = new double[capacity];
+        }
+
+        /**
+         * Gets the value of a tenant.
+         *
+         * @param tenant The index of the tenant.
+         * @return The value of the tenant.
+         */
+        public double getDouble(int tenant) {
+            return this.values[tenant];
+        }
+
+        @Override
+        public Object get(int tenant) {
+            return this.values[tenant];
+        }
+
+        @Override
+        void set(int tenant, Object value) {
+            this.values[tenant] = ((Number) value).doubleValue();
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (capacity > this.values.length) {
+                this.values = Arrays.copyOf(this.values, capacity);
+            }
+        }
+    }
+
+    /**
+     * A column of float values.
+     */
+    public static final class FloatColumn extends Column {
+
+        private float[] values;
+
+        private FloatColumn(String name, int capacity) {
+            super(name);
+            this.values = new float[capacity];
+        }
+
+        /**
+         * Gets the value of a tenant.
+         *
+         * @param tenant The index of the tenant.
+         * @return The value of the tenant.
+         */
+        public float getFloat(int tenant) {
+            return this.values[tenant];
+        }
+
+        @Override
+        public Object get(int tenant) {
+            return this.values[tenant];
+        }
+
+        @Override
+        void set(int tenant, Object value) {
+            this.values[tenant] = ((Number) value).floatValue();
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (capacity > this.values.length) {
+                this.values = Arrays.copyOf(this.values, capacity);
+            }
+        }
+    }
+
+    /**
+     * A column of boolean values.
+     */
+    public static final class BooleanColumn extends Column {
+
+        private boolean[] values;
+
+        private BooleanColumn(String name, int capacity) {
+            super(name);
+            this.values = new boolean[capacity];
+        }
+
+        /**
+         * Gets the value of a tenant.
+         *
+         * @param tenant The index of the tenant.
+         * @return The value of the tenant.
+         */
+        public boolean getBoolean(int tenant) {
+            return this.values[tenant];
+        }
+
+        @Override
+        public Object get(int tenant) {
+            return this.values[tenant];
+        }
+
+        @Override
+        void set(int tenant, Object value) {
+            this.values[tenant] = (Boolean) value;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (capacity > this.values.length) {
+                this.values = Arrays.copyOf(this.values, capacity);
+            }
+        }
+    }
+
+    /**
+     * A column of values that are not primitives, such as strings, collections, and config objects.
+     */
+    public static final class ObjectColumn extends Column {
+
+        private Object[] values;
+
+        /**
+         * Copies values that can be modified.
+         */
+        private final UnaryOperator<Object> copier;
+
+        private ObjectColumn(String name, int capacity, UnaryOperator<Object> copier) {
+            super(name);
+            this.values = new Object[capacity];
+            this.copier = copier;
+        }
+
+        @Override
+        public Object get(int tenant) {
+            return this.values[tenant];
+        }
+
+        @Override
+        public Object copy(int tenant) {
+            return this.copier.apply(this.values[tenant]);
+        }
+
+        @Override
+        void set(int tenant, Object value) {
+            this.values[tenant] = value;
+        }
+
+        @Override
+        void clear(int tenant) {
+            this.values[tenant] = null;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (capacity > this.values.length) {
+                this.values = Arrays.copyOf(this.values, capacity);
+            }
+        }
+    }
+}
@@ -0,0 +1,594 @@
+package net.darkhax.prickle.config.tenant;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import net.darkhax.prickle.Prickle;
+import net.darkhax.prickle.config.ConfigObjectSerializer;
+import net.darkhax.prickle.config.PrickleContext;
+import net.darkhax.prickle.config.PropertyResolver;
+import net.darkhax.prickle.config.property.access.IFieldAccessor;
+import net.darkhax.prickle.config.property.mapped.MappedNumericArray;
+import net.darkhax.prickle.util.IoBufferPool;
+import net.darkhax.prickle.util.IoBuffers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Holds the configs of many tenants that share a single config class. The schema is mapped once, and the values of
+ * each top-level property are stored in a column that holds the value for every tenant. Properties with primitive
+ * types are stored in primitive arrays, which keeps the memory used per tenant low and allows properties to be scanned
+ * across every tenant quickly.
+ * <p>
+ * Each tenant is loaded from and saved to its own file. Files are read into a new config object created by the factory,
+ * and the values are then copied into the columns, so a tenant that fails to load keeps its previous values. Values
+ * that can be modified, such as collections and config objects, are copied again whenever they are read from the
+ * store, so changing them does not change the store. Stores are thread safe.
+ *
+ * @param <T> The type of the config class.
+ */
+public class TenantStore<T> {
+
+    /**
+     * Types whose values can not be modified, so they can be shared between the store and the objects it returns.
+     */
+    private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class, BigInteger.class, BigDecimal.class, MappedNumericArray.class);
+
+    /**
+     * Creates new config objects. These hold the default values for new tenants.
+     */
+    private final Supplier<T> factory;
+
+    /**
+     * The serializer for the shared schema.
+     */
+    private final ConfigObjectSerializer<T> serializer;
+
+    /**
+     * The columns of each top-level property, in schema order.
+     */
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+
+    /**
+     * Reads and writes the field of each column on config objects. These are in the same order as the columns.
+     */
+    private final IFieldAccessor[] accessors;
+
+    private final Logger log;
+    private final boolean compact;
+    private final IoBufferPool buffers;
+
+    /**
+     * The index of each tenant.
+     */
+    private final Map<String, Integer> indices = new HashMap<>();
+
+    /**
+     * The name of the tenant at each index, or null if the index is free.
+     */
+    private final List<String> names = new ArrayList<>();
+
+    /**
+     * The indices of tenants that have been loaded and not removed.
+     */
+    private final BitSet present = new BitSet();
+
+    /**
+     * The indices of tenants that were removed. These are reused before the columns are grown.
+     */
+    private final BitSet free = new BitSet();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int capacity = 16;
+
+    private TenantStore(Supplier<T> factory, PropertyResolver resolver, IoBufferPool buffers) {
+        this.factory = factory;
+        this.log = resolver.logger();
+        this.compact = resolver.compact();
+        this.buffers = buffers;
+        final T template = factory.get();
+        if (template.getClass().isRecord()) {
+            throw new IllegalArgumentException("Records can not be stored in a tenant store. Found " + template.getClass().getName());
+        }
+        this.serializer = new ConfigObjectSerializer<>(resolver, template);
+        this.accessors = new IFieldAccessor[this.serializer.propertyNames().size()];
+        int index = 0;
+        for (String name : this.serializer.propertyNames()) {
+            final var field = this.serializer.field(name);
+            this.columns.put(name, Column.of(name, field.getType(), this.capacity, copier(field, resolver.gson())));
+            this.accessors[index++] = resolver.toAccessor(field);
+        }
+    }
+
+    /**
+     * Loads the config of a tenant from a file. If the tenant has already been loaded its values are replaced. Values
+     * that are not present in the file use the defaults from the factory.
+     *
+     * @param tenant The name of the tenant.
+     * @param file   The file to read.
+     * @return The index of the tenant in the columns. The indices of removed tenants are reused by tenants that are
+     * loaded later.
+     */
+    public int load(String tenant, Path file) {
+        final T config = this.factory.get();
+        final IoBuffers buffers = this.buffers.acquire();
+        try {
+            this.serializer.read(new JsonReader(buffers.decode(buffers.readFile(file))), config);
+        }
+        catch (IOException e) {
+            this.log.error("Unable to load config for tenant {} from {}!", tenant, file);
+            throw new RuntimeException(e);
+        }
+        finally {
+            this.buffers.release(buffers);
+        }
+
+        this.lock.writeLock().lock();
+        try {
+            final int index = this.allocate(tenant);
+            int column = 0;
+            for (Column values : this.columns.values()) {
+                values.set(index, this.accessors[column++].get(config));
+            }
+            this.present.set(index);
+            return index;
+        }
+        finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Saves the config of a tenant to a file.
+     *
+     * @param tenant The name of the tenant.
+     * @param file   The file to write.
+     * @throws IllegalArgumentException If the tenant has not been loaded.
+     */
+    public void save(String tenant, Path file) {
+        final T config = this.materialize(tenant);
+        final IoBuffers buffers = this.buffers.acquire();
+        try {
+            final JsonWriter writer = new JsonWriter(buffers.writer());
+            if (!this.compact) {
+                writer.setIndent(Prickle.DEFAULT_INDENT);
+            }
+            this.serializer.write(writer, config);
+            writer.flush();
+            buffers.encode();
+            buffers.writeFile(file);
+        }
+        catch (IOException e) {
+            this.log.error("Could not save config for tenant {} to {}!", tenant, file);
+            throw new RuntimeException(e);
+        }
+        finally {
+            this.buffers.release(buffers);
+        }
+    }
+
+    /**
+     * Creates a config object that holds the current values of a tenant. Values that can be modified are copied, so
+     * changes to the object, including changes to its collections and config objects, are not applied to the store.
+     *
+     * @param tenant The name of the tenant.
+     * @return A new config object with the values of the tenant.
+     * @throws IllegalArgumentException If the tenant has not been loaded.
+     */
+    public T materialize(String tenant) {
+        final T config = this.factory.get();
+        this.lock.readLock().lock();
+        try {
+            final int index = this.require(tenant);
+            int column = 0;
+            for (Column values : this.columns.values()) {
+                this.accessors[column++].set(config, values.copy(index));
+            }
+        }
+        finally {
+            this.lock.readLock().unlock();
+        }
+        return config;
+    }
+
+    /**
+     * Removes a tenant from the store.
+     *
+     * @param tenant The name of the tenant.
+     * @return If the tenant was present.
+     */
+    public boolean remove(String tenant) {
+        this.lock.writeLock().lock();
+        try {
+            final Integer index = this.indices.get(tenant);
+            if (index == null || !this.present.get(index)) {
+                return false;
+            }
+            this.present.clear(index);
+            for (Column values : this.columns.values()) {
+                values.clear(index);
+            }
+            this.indices.remove(tenant);
+            this.names.set(index, null);
+            this.free.set(index);
+            return true;
+        }
+        finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the value of a property for a tenant.
+     *
+     * @param tenant   The name of the tenant.
+     * @param property The serialized name of the property.
+     * @param <V>      The type of the value.
+     * @return The value of the property. Primitive values are boxed, and values that can be modified are copied.
+     * @throws IllegalArgumentException If the tenant has not been loaded or the property does not exist.
+     */
+    public <V> V get(String tenant, String property) {
+        this.lock.readLock().lock();
+        try {
+            // The caller chooses the type of the value, so it can not be checked.
+            @SuppressWarnings("unchecked")
+            final V value = (V) this.column(property).copy(this.require(tenant));
+            return value;
+        }
+        finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks if a tenant has been loaded.
+     *
+     * @param tenant The name of the tenant.
+     * @return If the tenant is present.
+     */
+    public boolean contains(String tenant) {
+        this.lock.readLock().lock();
+        try {
+            final Integer index = this.indices.get(tenant);
+            return index != null && this.present.get(index);
+        }
+        finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the names of every tenant that has been loaded.
+     *
+     * @return The names of the tenants, ordered by their index.
+     */
+    public List<String> tenants() {
+        this.lock.readLock().lock();
+        try {
+            final List<String> tenants = new ArrayList<>(this.present.cardinality());
+            for (int i = this.present.nextSetBit(0); i >= 0; i = this.present.nextSetBit(i + 1)) {
+                tenants.add(this.names.get(i));
+            }
+            return tenants;
+        }
+        finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds every tenant where an int property matches a predicate.
+     *
+     * @param property  The serialized name of an int property.
+     * @param predicate The predicate to test each value with.
+     * @return The names of the matching tenants.
+     * @throws IllegalArgumentException If the property does not hold int values.
+     */
+    public List<String> scanInt(String property, IntPredicate predicate) {
+        this.lock.readLock().lock();
+        try {
+            if (!(this.column(property) instanceof Column.IntColumn column)) {
+                throw mismatch(property, "int");
+            }
+            final List<String> matches = new ArrayList<>();
+            for (int i = this.present.nextSetBit(0); i >= 0; i = this.present.nextSetBit(i + 1)) {
+                if (predicate.test(column.getInt(i))) {
+                    matches.add(this.names.get(i));
+                }
+            }
+            return matches;
+        }
+        finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds every tenant where a long or int property matches a predicate.
+     *
+     * @param property  The serialized name of a long or int property.
+     * @param predicate The predicate to test each value with.
+     * @return The names of the matching tenants.
+     * @throws IllegalArgumentException If the property does not hold long or int values.
+     */
+    public List<String> scanLong(String property, LongPredicate predicate) {
+        this.lock.readLock().lock();
+        try {
+            final Column column = this.column(property);
+            final List<String> matches = new ArrayList<>();
+            if (column instanceof Column.LongColumn longs) {
+                for (int i = this.present.nextSetBit(0); i >= 0; i = this.present.nextSetBit(i + 1)) {
+                    if (predicate.test(longs.getLong(i))) {
+                        matches.add(this.names.get(i));
+                    }
+                }
+            }
+            else if (column instanceof Column.IntColumn ints) {
+                for (int i = this.present.nextSetBit(0); i >= 0; i = this.present.nextSetBit(i + 1)) {
+                    if (predicate.test(ints.getInt(i))) {
+                        matches.add(this.names.get(i));
+                    }
+                }
+            }
+            else {
+                throw mismatch(property, "long");
+            }
+            return matches;
+        }
+        finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds every tenant where a double or float property matches a predicate.
+     *
+     * @param property  The serialized name of a double or float property.
+     * @param predicate The predicate to test each value with.
+     * @return The names of the matching tenants.
+     * @throws IllegalArgumentException If the property does not hold double or float values.
+     */
+    public List<String> scanDouble(String property, DoublePredicate predicate) {
+        this.lock.readLock().lock();
+        try {
+            final Column column = this.column(property);
+            final List<String> matches = new ArrayList<>();
+            if (column instanceof Column.DoubleColumn doubles) {
+                for (int i = this.present.nextSetBit(0); i >= 0; i = this.present.nextSetBit(i + 1)) {
+                    if (predicate.test(doubles.getDouble(i))) {
+                        matches.add(this.names.get(i));
+                    }
+                }
+            }
+            else if (column instanceof Column.FloatColumn floats) {
+                for (int i = this.present.nextSetBit(0); i >= 0; i = this.present.nextSetBit(i + 1)) {
+                    if (predicate.test(floats.getFloat(i))) {
+                        matches.add(this.names.get(i));
+                    }
+                }
+            }
+            else {
+                throw mismatch(property, "double");
+            }
+            return matches;
+        }
+        finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds every tenant where a property matches a predicate. This works with any property, but primitive values are
+     * boxed before they are tested. Other values are given to the predicate as they are held by the store, and must not
+     * be modified.
+     *
+     * @param property  The serialized name of the property.
+     * @param predicate The predicate to test each value with.
+     * @param <V>       The type of the values.
+     * @return The names of the matching tenants.
+     */
+    public <V> List<String> scan(String property, Predicate<V> predicate) {
+        this.lock.readLock().lock();
+        try {
+            final Column column = this.column(property);
+            final List<String> matches = new ArrayList<>();
+            for (int i = this.present.nextSetBit(0); i >= 0; i = this.present.nextSetBit(i + 1)) {
+                // The caller chooses the type of the values, so it can not be checked.
+                @SuppressWarnings("unchecked")
+                final V value = (V) column.get(i);
+                if (predicate.test(value)) {
+                    matches.add(this.names.get(i));
+                }
+            }
+            return matches;
+        }
+        finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the column that holds a property. Columns are not thread safe, so they are only accessed while holding the
+     * lock.
+     *
+     * @param property The serialized name of the property.
+     * @return The column for the property.
+     * @throws IllegalArgumentException If the property does not exist.
+     */
+    private Column column(String property) {
+        final Column column = this.columns.get(property);
+        if (column == null) {
+            throw new IllegalArgumentException("The property '" + property + "' does not exist.");
+        }
+        return column;
+    }
+
+    private int allocate(String tenant) {
+        final Integer existing = this.indices.get(tenant);
+        if (existing != null) {
+            return existing;
+        }
+        final int index = this.free.nextSetBit(0);
+        if (index >= 0) {
+            this.free.clear(index);
+            this.names.set(index, tenant);
+            this.indices.put(tenant, index);
+            return index;
+        }
+        final int next = this.names.size();
+        if (next == this.capacity) {
+            this.capacity *= 2;
+            for (Column column : this.columns.values()) {
+                column.ensureCapacity(this.capacity);
+            }
+        }
+        this.names.add(tenant);
+        this.indices.put(tenant, next);
+        return next;
+    }
+
+    private int require(String tenant) {
+        final Integer index = this.indices.get(tenant);
+        if (index == null || !this.present.get(index)) {
+            throw new IllegalArgumentException("The tenant '" + tenant + "' has not been loaded.");
+        }
+        return index;
+    }
+
+    /**
+     * Creates a function that copies the values of a field, so values read from the store do not share any state with
+     * it. Values are copied by writing them with GSON and reading the result, and values that can not be modified are
+     * shared instead.
+     *
+     * @param field The field the column was mapped from.
+     * @param gson  The GSON instance used to copy values.
+     * @return A function that copies values of the field.
+     */
+    private static UnaryOperator<Object> copier(Field field, Gson gson) {
+        final Class<?> type = field.getType();
+        if (type.isPrimitive() || type.isEnum() || IMMUTABLE_TYPES.contains(type)) {
+            return UnaryOperator.identity();
+        }
+        final Type genericType = field.getGenericType();
+        return value -> value == null ? null : gson.fromJson(gson.toJsonTree(value, genericType), genericType);
+    }
+
+    private static IllegalArgumentException mismatch(String property, String type) {
+        return new IllegalArgumentException("The property '" + property + "' does not hold " + type + " values.");
+    }
+
+    /**
+     * A builder for {@link TenantStore} objects.
+     *
+     * @param <T> The type of the config class.
+     */
+    public static class Builder<T> {
+
+        private final Supplier<T> factory;
+        private PrickleContext context = PrickleContext.shared();
+        private Logger logger = null;
+        private boolean compact = false;
+        private IoBufferPool buffers = IoBufferPool.shared();
+        private Path directory = Path.of("").toAbsolutePath();
+
+        /**
+         * Creates a builder for a store.
+         *
+         * @param factory Creates new config objects with default values. This is used to map the schema, and to read
+         *                and write the files of each tenant.
+         */
+        public Builder(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        /**
+         * Sets the logger to use when outputting errors and warnings. If a logger is not set one will be created using
+         * the class of the config object.
+         *
+         * @param logger The logger to use for errors and warnings.
+         * @return The same builder instance.
+         */
+        public Builder<T> logger(Logger logger) {
+            this.logger = logger;
+            return this;
+        }
+
+        /**
+         * Sets the context that provides the GSON instance, property adapters, and comment resolver. By default the
+         * shared context is used.
+         *
+         * @param context The context to use.
+         * @return The same builder instance.
+         */
+        public Builder<T> context(PrickleContext context) {
+            this.context = context;
+            return this;
+        }
+
+        /**
+         * Writes the files of tenants in the compact format. This only affects writing, and compact files are read the
+         * same way as other files.
+         *
+         * @return The same builder instance.
+         */
+        public Builder<T> compact() {
+            this.compact = true;
+            return this;
+        }
+
+        /**
+         * Sets the pool of buffers that are reused when files are read and written.
+         *
+         * @param buffers The pool of buffers to use.
+         * @return The same builder instance.
+         */
+        public Builder<T> buffers(IoBufferPool buffers) {
+            this.buffers = buffers;
+            return this;
+        }
+
+        /**
+         * Sets the directory that resources related to the configs, such as sidecar files, are resolved against.
+         *
+         * @param directory The directory for config resources.
+         * @return The same builder instance.
+         */
+        public Builder<T> directory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        /**
+         * Builds the store.
+         *
+         * @return The newly built store.
+         */
+        public TenantStore<T> build() {
+            final Logger logger = this.logger != null ? this.logger : LoggerFactory.getLogger(TenantStore.class);
+            return new TenantStore<>(this.factory, new PropertyResolver(this.context, logger, this.directory, this.compact, false), this.buffers);
+        }
+    }
+}
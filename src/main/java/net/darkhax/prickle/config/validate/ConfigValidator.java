@@ -0,0 +1,266 @@
+package net.darkhax.prickle.config.validate;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import net.darkhax.prickle.config.ConfigObjectSerializer;
+import net.darkhax.prickle.config.property.ConfigObjectProperty;
+import net.darkhax.prickle.config.property.IConfigProperty;
+import net.darkhax.prickle.config.scan.PropertySpan;
+import net.darkhax.prickle.config.scan.SpanScanner;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Validates config files against a mapped schema without applying any values to the config object. Each property is
+ * checked separately, so every problem in a file is reported rather than only the first one. A single validator can
+ * be used to check many files at the same time.
+ * <p>
+ * Custom properties that do not override {@link IConfigProperty#readPending} are only checked to be valid JSON, since
+ * their values can not be read without applying them.
+ */
+public class ConfigValidator {
+
+    /**
+     * Matches the location that GSON adds to the messages of parsing errors.
+     */
+    private static final Pattern LOCATION = Pattern.compile("line (\\d+) column (\\d+)");
+
+    /**
+     * The serializer that holds the mapped schema.
+     */
+    private final ConfigObjectSerializer<?> serializer;
+
+    public ConfigValidator(ConfigObjectSerializer<?> serializer) {
+        this.serializer = serializer;
+    }
+
+    /**
+     * Validates a single config file.
+     *
+     * @param file The file to validate.
+     * @return The problems that were found in the file.
+     */
+    public List<Violation> validate(Path file) {
+        final List<Violation> violations = new ArrayList<>();
+        final ByteBuffer data;
+        try {
+            data = ByteBuffer.wrap(Files.readAllBytes(file));
+        }
+        catch (IOException e) {
+            violations.add(new Violation(file, "", -1, -1, Violation.Severity.ERROR, "The file could not be read. " + e));
+            return violations;
+        }
+        new FileCheck(file, file.toAbsolutePath().getParent(), data, lineStarts(data), violations).checkObject(this.serializer, data, 0, "");
+        return violations;
+    }
+
+    /**
+     * Validates many config files in parallel using the common fork/join pool.
+     *
+     * @param files The files to validate.
+     * @return A report of the problems that were found.
+     */
+    public ValidationReport validateAll(Collection<Path> files) {
+        return this.validateAll(files, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Validates many config files in parallel.
+     *
+     * @param files    The files to validate.
+     * @param executor The executor used to validate the files.
+     * @return A report of the problems that were found.
+     */
+    public ValidationReport validateAll(Collection<Path> files, ExecutorService executor) {
+        final List<Future<List<Violation>>> tasks = new ArrayList<>(files.size());
+        for (Path file : files) {
+            tasks.add(executor.submit(() -> this.validate(file)));
+        }
+
+        final List<Violation> violations = new ArrayList<>();
+        int index = 0;
+        for (Path file : files) {
+            try {
+                violations.addAll(tasks.get(index++).get());
+            }
+            catch (ExecutionException e) {
+                violations.add(new Violation(file, "", -1, -1, Violation.Severity.ERROR, "The file could not be validated. " + e.getCause()));
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                violations.add(new Violation(file, "", -1, -1, Violation.Severity.ERROR, "Validation was interrupted."));
+            }
+        }
+        return new ValidationReport(files.size(), violations);
+    }
+
+    /**
+     * The state of validating a single file.
+     *
+     * @param file       The file being validated.
+     * @param directory  The directory of the file, which resources such as sidecar files are resolved against.
+     * @param data       The contents of the file.
+     * @param lineStarts The position of the first byte of each line, in order.
+     * @param violations The problems found so far.
+     */
+    private record FileCheck(Path file, Path directory, ByteBuffer data, int[] lineStarts, List<Violation> violations) {
+
+        /**
+         * Validates a JSON object of properties against a schema.
+         *
+         * @param serializer The schema of the object.
+         * @param object     The data of the object.
+         * @param offset     The position of the object in the file.
+         * @param prefix     The path of the config object that holds the properties, or empty for the root object.
+         */
+        private void checkObject(ConfigObjectSerializer<?> serializer, ByteBuffer object, int offset, String prefix) {
+            final List<PropertySpan> spans = SpanScanner.scanObject(object);
+            if (spans == null) {
+                this.syntaxError(object, offset, prefix);
+                return;
+            }
+
+            for (PropertySpan span : spans) {
+                final String path = prefix.isEmpty() ? span.name() : prefix + "." + span.name();
+                final IConfigProperty<?> property = serializer.property(span.name());
+                if (property == null) {
+                    this.report(path, offset + span.nameStart(), Violation.Severity.WARNING, "Unknown property will be ignored.");
+                }
+                else if (property instanceof ConfigObjectProperty<?> configObject) {
+                    this.checkConfigObject(configObject, span.slice(object), offset + span.start(), path);
+                }
+                else {
+                    try {
+                        serializer.validateProperty(span.name(), span.slice(object), this.directory);
+                    }
+                    catch (Exception e) {
+                        this.report(path, offset + span.start(), offset + span.nameStart(), e);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Validates the values of a property that holds a config object.
+         *
+         * @param property The property being validated.
+         * @param wrapper  The data of the property, including decorators.
+         * @param offset   The position of the property in the file.
+         * @param path     The path of the property.
+         */
+        private void checkConfigObject(ConfigObjectProperty<?> property, ByteBuffer wrapper, int offset, String path) {
+            final List<PropertySpan> spans = SpanScanner.scanObject(wrapper);
+            if (spans == null) {
+                this.syntaxError(wrapper, offset, path);
+                return;
+            }
+            for (PropertySpan span : spans) {
+                if ("value".equals(span.name())) {
+                    this.checkObject(property.serializer(), span.slice(wrapper), offset + span.start(), path);
+                }
+            }
+        }
+
+        /**
+         * Reports why a piece of data is not a JSON object that can be validated.
+         *
+         * @param object The data that was expected to be an object.
+         * @param offset The position of the data in the file.
+         * @param path   The path of the property that holds the data.
+         */
+        private void syntaxError(ByteBuffer object, int offset, String path) {
+            try {
+                final JsonReader reader = SpanScanner.reader(object);
+                if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    this.report(path, offset, Violation.Severity.ERROR, "Expected a JSON object but was " + reader.peek() + ".");
+                    return;
+                }
+                reader.skipValue();
+                reader.peek();
+                this.report(path, offset, Violation.Severity.ERROR, "Unexpected data after the end of the JSON object.");
+            }
+            catch (Exception e) {
+                this.report(path, offset, offset, e);
+            }
+        }
+
+        /**
+         * Reports an exception raised while reading a piece of data. If the exception describes where the problem is,
+         * that location is used. Otherwise the problem is reported at a fallback position.
+         *
+         * @param path     The path of the property.
+         * @param offset   The position of the data that was being read in the file.
+         * @param fallback The position to report when the exception does not describe a location.
+         * @param error    The exception that was raised.
+         */
+        private void report(String path, int offset, int fallback, Exception error) {
+            final String message = error.getMessage() != null ? error.getMessage() : error.toString();
+            final Matcher matcher = LOCATION.matcher(message);
+            if (matcher.find()) {
+                final int[] start = this.locate(offset);
+                final int line = Integer.parseInt(matcher.group(1));
+                final int column = Integer.parseInt(matcher.group(2));
+                this.violations.add(new Violation(this.file, path, start[0] + line - 1, line == 1 ? start[1] + column - 1 : column, Violation.Severity.ERROR, message));
+            }
+            else {
+                this.report(path, fallback, Violation.Severity.ERROR, message);
+            }
+        }
+
+        private void report(String path, int position, Violation.Severity severity, String message) {
+            final int[] location = this.locate(position);
+            this.violations.add(new Violation(this.file, path, location[0], location[1], severity, message));
+        }
+
+        /**
+         * Finds the line and column of a position in the file. Columns are counted in characters rather than bytes.
+         *
+         * @param position The position in the file.
+         * @return The line and column of the position, both starting at 1.
+         */
+        private int[] locate(int position) {
+            final int found = Arrays.binarySearch(this.lineStarts, position);
+            final int line = found >= 0 ? found : -found - 2;
+            int column = 1;
+            for (int i = this.lineStarts[line]; i < position; i++) {
+                if ((this.data.get(i) & 0xC0) != 0x80) {
+                    column++;
+                }
+            }
+            return new int[] {line + 1, column};
+        }
+    }
+
+    /**
+     * Finds where each line of a file starts, so positions can be located without scanning the file again.
+     *
+     * @param data The contents of the file.
+     * @return The position of the first byte of each line, in order.
+     */
+    private static int[] lineStarts(ByteBuffer data) {
+        int[] starts = new int[16];
+        int lines = 1;
+        for (int i = 0; i < data.limit(); i++) {
+            if (data.get(i) == '\n') {
+                if (lines == starts.length) {
+                    starts = Arrays.copyOf(starts, lines * 2);
+                }
+                starts[lines++] = i + 1;
+            }
+        }
+        return Arrays.copyOf(starts, lines);
+    }
+}
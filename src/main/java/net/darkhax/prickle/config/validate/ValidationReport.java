@@ -0,0 +1,48 @@
+package net.darkhax.prickle.config.validate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The problems that were found while validating a batch of config files.
+ *
+ * @param filesChecked The amount of files that were validated.
+ * @param violations   Every problem that was found, grouped by file in the order the files were given.
+ */
+public record ValidationReport(int filesChecked, List<Violation> violations) {
+
+    public ValidationReport {
+        violations = List.copyOf(violations);
+    }
+
+    /**
+     * Checks if every file can be loaded. Files with warnings are still considered valid.
+     *
+     * @return If no errors were found.
+     */
+    public boolean isValid() {
+        for (Violation violation : this.violations) {
+            if (violation.severity() == Violation.Severity.ERROR) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the problems that were found in a specific file.
+     *
+     * @param file The file to get problems for.
+     * @return The problems found in the file.
+     */
+    public List<Violation> forFile(Path file) {
+        final List<Violation> found = new ArrayList<>();
+        for (Violation violation : this.violations) {
+            if (violation.file().equals(file)) {
+                found.add(violation);
+            }
+        }
+        return found;
+    }
+}
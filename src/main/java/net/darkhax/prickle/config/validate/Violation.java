@@ -0,0 +1,45 @@
+package net.darkhax.prickle.config.validate;
+
+import java.nio.file.Path;
+
+/**
+ * A problem that was found while validating a config file.
+ *
+ * @param file     The file that holds the problem.
+ * @param property The dotted path of the property that holds the problem. This is empty when the problem is not
+ *                 specific to a property.
+ * @param line     The line the problem was found on, starting at 1. This is -1 if the line is not known.
+ * @param column   The column the problem was found on, starting at 1. This is -1 if the column is not known.
+ * @param severity How severe the problem is.
+ * @param message  A description of the problem.
+ */
+public record Violation(Path file, String property, int line, int column, Severity severity, String message) {
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder().append(this.severity).append(' ').append(this.file);
+        if (this.line > 0) {
+            builder.append(':').append(this.line).append(':').append(this.column);
+        }
+        if (!this.property.isEmpty()) {
+            builder.append(" [").append(this.property).append(']');
+        }
+        return builder.append(' ').append(this.message).toString();
+    }
+
+    /**
+     * How severe a problem is.
+     */
+    public enum Severity {
+
+        /**
+         * The file can not be loaded.
+         */
+        ERROR,
+
+        /**
+         * The file can be loaded, but holds data that will be ignored.
+         */
+        WARNING
+    }
+}
@@ -0,0 +1,188 @@
+package net.darkhax.prickle.query;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Reads the values of properties from Prickle files without a config class. Files are streamed, and only the
+ * properties along the queried path are entered. Everything else, including decorators and the values of other
+ * properties, is skipped without being parsed into a tree. Reading stops as soon as the property is found.
+ */
+public final class PrickleQuery {
+
+    private PrickleQuery() {
+    }
+
+    /**
+     * Finds the value of a property in a Prickle file.
+     *
+     * @param file The file to read.
+     * @param path A dotted path or JSON Pointer to the property.
+     * @return The value of the property, or null if the property does not exist.
+     * @throws IOException If the file could not be read.
+     */
+    @Nullable
+    public static JsonElement find(Path file, String path) throws IOException {
+        return find(file, PropertyPath.parse(path));
+    }
+
+    /**
+     * Finds the value of a property in a Prickle file.
+     *
+     * @param file The file to read.
+     * @param path The path to the property.
+     * @return The value of the property, or null if the property does not exist.
+     * @throws IOException If the file could not be read.
+     */
+    @Nullable
+    public static JsonElement find(Path file, PropertyPath path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return find(new JsonReader(reader), path);
+        }
+    }
+
+    /**
+     * Finds the value of a property in a stream of Prickle data. The reader is left at the point where the property
+     * was found.
+     *
+     * @param reader The reader to read from. This must be positioned at the start of a Prickle object.
+     * @param path   The path to the property.
+     * @return The value of the property, or null if the property does not exist.
+     * @throws IOException If the data could not be read.
+     */
+    @Nullable
+    public static JsonElement find(JsonReader reader, PropertyPath path) throws IOException {
+        return find(reader, path, 0);
+    }
+
+    /**
+     * Finds the value of a property in many Prickle files. The files are read in parallel using the common fork/join
+     * pool.
+     *
+     * @param files The files to read.
+     * @param path  A dotted path or JSON Pointer to the property.
+     * @return The results for each file, in the same order as the files.
+     */
+    public static List<QueryResult> findAll(Collection<Path> files, String path) {
+        return findAll(files, PropertyPath.parse(path), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Finds the value of a property in many Prickle files. The files are read in parallel using the given executor.
+     * Files that can not be read do not stop the other files from being read, and the error is held by their result.
+     *
+     * @param files    The files to read.
+     * @param path     The path to the property.
+     * @param executor The executor used to read the files.
+     * @return The results for each file, in the same order as the files.
+     */
+    public static List<QueryResult> findAll(Collection<Path> files, PropertyPath path, ExecutorService executor) {
+        final List<Future<QueryResult>> tasks = new ArrayList<>(files.size());
+        for (Path file : files) {
+            tasks.add(executor.submit(() -> {
+                try {
+                    return new QueryResult(file, find(file, path), null);
+                }
+                catch (IOException | RuntimeException e) {
+                    return new QueryResult(file, null, e);
+                }
+            }));
+        }
+
+        final List<QueryResult> results = new ArrayList<>(tasks.size());
+        int index = 0;
+        for (Path file : files) {
+            try {
+                results.add(tasks.get(index++).get());
+            }
+            catch (ExecutionException e) {
+                results.add(new QueryResult(file, null, e.getCause() instanceof Exception cause ? cause : e));
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.add(new QueryResult(file, null, new InterruptedIOException("Interrupted while querying " + file + ".")));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Searches an object of properties for a segment of the path.
+     *
+     * @param reader The reader, positioned at the start of an object of properties.
+     * @param path   The path to the property.
+     * @param depth  The index of the segment to search for.
+     * @return The value of the property, or null if the property does not exist.
+     * @throws IOException If the data could not be read.
+     */
+    @Nullable
+    private static JsonElement find(JsonReader reader, PropertyPath path, int depth) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        final String name = path.segment(depth);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (name.equals(reader.nextName())) {
+                final JsonElement value = findValue(reader, path, depth);
+                if (value != null) {
+                    return value;
+                }
+            }
+            else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return null;
+    }
+
+    /**
+     * Searches a property for its value, and continues searching the value if there are more segments in the path.
+     *
+     * @param reader The reader, positioned at the start of a property.
+     * @param path   The path to the property.
+     * @param depth  The index of the segment that named the property.
+     * @return The value of the property, or null if the property does not exist.
+     * @throws IOException If the data could not be read.
+     */
+    @Nullable
+    private static JsonElement findValue(JsonReader reader, PropertyPath path, int depth) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("value".equals(reader.nextName())) {
+                final JsonElement value = depth == path.size() - 1 ? JsonParser.parseReader(reader) : find(reader, path, depth + 1);
+                if (value != null) {
+                    return value;
+                }
+            }
+            else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return null;
+    }
+}
@@ -0,0 +1,70 @@
+package net.darkhax.prickle.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A path to a property in a Prickle file. Each segment of the path is the name of a property, and every segment except
+ * the last must name a property whose value holds more properties.
+ *
+ * @param segments The property names that make up the path.
+ */
+public record PropertyPath(List<String> segments) {
+
+    public PropertyPath {
+        if (segments.isEmpty()) {
+            throw new IllegalArgumentException("A property path must have at least one segment.");
+        }
+        segments = List.copyOf(segments);
+    }
+
+    /**
+     * Parses a property path. Paths that start with {@code /} are read as a JSON Pointer, such as
+     * {@code /database/pool/size}, where {@code ~1} and {@code ~0} are used to escape {@code /} and {@code ~}. Other
+     * paths are read as dotted paths, such as {@code database.pool.size}.
+     *
+     * @param path The path to parse.
+     * @return The parsed path.
+     */
+    public static PropertyPath parse(String path) {
+        final List<String> segments = new ArrayList<>();
+        if (path.startsWith("/")) {
+            for (String segment : path.substring(1).split("/", -1)) {
+                segments.add(segment.replace("~1", "/").replace("~0", "~"));
+            }
+        }
+        else {
+            for (String segment : path.split("\\.", -1)) {
+                if (segment.isEmpty()) {
+                    throw new IllegalArgumentException("The path '" + path + "' contains an empty segment.");
+                }
+                segments.add(segment);
+            }
+        }
+        return new PropertyPath(segments);
+    }
+
+    /**
+     * Gets the amount of segments in the path.
+     *
+     * @return The amount of segments.
+     */
+    public int size() {
+        return this.segments.size();
+    }
+
+    /**
+     * Gets a segment of the path.
+     *
+     * @param index The index of the segment.
+     * @return The segment at the index.
+     */
+    public String segment(int index) {
+        return this.segments.get(index);
+    }
+
+    @Override
+    public String toString() {
+        return String.join(".", this.segments);
+    }
+}
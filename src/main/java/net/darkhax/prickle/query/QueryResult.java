@@ -0,0 +1,25 @@
+package net.darkhax.prickle.query;
+
+import com.google.gson.JsonElement;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+
+/**
+ * The result of querying a property from a file.
+ *
+ * @param file  The file that was queried.
+ * @param value The value of the property, or null if the property was not found or the file could not be read.
+ * @param error The error raised while reading the file, or null if the file was read.
+ */
+public record QueryResult(Path file, @Nullable JsonElement value, @Nullable Exception error) {
+
+    /**
+     * Checks if the property was found.
+     *
+     * @return If the property was found.
+     */
+    public boolean found() {
+        return this.value != null;
+    }
+}
@@ -0,0 +1,87 @@
+package net.darkhax.prickle.util;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * An output stream that writes to a growable byte array which can be reused. Unlike {@link java.io.ByteArrayOutputStream}
+ * the written bytes can be accessed as a ByteBuffer without copying them, and the stream is not synchronized.
+ */
+public class ByteBufferOutputStream extends OutputStream {
+
+    /**
+     * The array that holds the written bytes.
+     */
+    private byte[] bytes;
+
+    /**
+     * The amount of bytes that have been written.
+     */
+    private int size;
+
+    public ByteBufferOutputStream() {
+        this(8192);
+    }
+
+    public ByteBufferOutputStream(int initialCapacity) {
+        this.bytes = new byte[initialCapacity];
+    }
+
+    @Override
+    public void write(int b) {
+        this.ensureCapacity(this.size + 1);
+        this.bytes[this.size++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] source, int offset, int length) {
+        this.ensureCapacity(this.size + length);
+        System.arraycopy(source, offset, this.bytes, this.size, length);
+        this.size += length;
+    }
+
+    /**
+     * Discards the written bytes. The underlying array is kept so the stream can be reused without allocating.
+     */
+    public void reset() {
+        this.size = 0;
+    }
+
+    /**
+     * Gets the amount of bytes that have been written.
+     *
+     * @return The amount of written bytes.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets a read-only view of the written bytes. The view is backed by the stream, so it is only valid until the
+     * stream is reset or written to again.
+     *
+     * @return A read-only view of the written bytes.
+     */
+    public ByteBuffer buffer() {
+        return ByteBuffer.wrap(this.bytes, 0, this.size).asReadOnlyBuffer();
+    }
+
+    /**
+     * Gets a copy of the written bytes.
+     *
+     * @return A copy of the written bytes.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(this.bytes, this.size);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new OutOfMemoryError("Required capacity exceeds the maximum array size.");
+        }
+        if (capacity > this.bytes.length) {
+            this.bytes = Arrays.copyOf(this.bytes, Math.max(capacity, this.bytes.length * 2));
+        }
+    }
+}
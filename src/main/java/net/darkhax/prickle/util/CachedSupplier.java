@@ -2,11 +2,16 @@ package net.darkhax.prickle.util;
 
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
- * An implementation of Supplier that will cache the result.
+ * An implementation of Supplier that will cache the result. This supplier is not thread safe. Use
+ * {@link #concurrent(Supplier)} when the value may be requested by multiple threads, or {@link #expiring(Supplier,
+ * Duration)} and {@link #refreshing(Supplier, Duration, Duration)} when the value should be replaced over time.
  *
  * @param <T> The type cached by the supplier.
  */
@@ -34,12 +39,22 @@ public class CachedSupplier<T> implements Supplier<T> {
         this.delegate = delegate;
     }
 
+    /**
+     * Produces a new value using the delegate supplier. The value is not cached.
+     *
+     * @return The new value.
+     */
+    protected T compute() {
+
+        return this.delegate.get();
+    }
+
     @Override
     public T get() {
 
         if (!this.isCached()) {
 
-            this.cachedValue = this.delegate.get();
+            this.cachedValue = this.compute();
             this.cached = true;
         }
 
@@ -136,4 +151,63 @@ public class CachedSupplier<T> implements Supplier<T> {
 
         return new CachedSupplier<>(delegate);
     }
+
+    /**
+     * Creates a thread safe cached supplier. The delegate is invoked exactly once, even when many threads request the
+     * value at the same time, and reading the cached value does not lock.
+     *
+     * @param delegate The delegate supplier responsible for producing the cached value.
+     * @param <T>      The type of value held by the cache.
+     * @return A thread safe supplier that will cache a value from the delegate supplier.
+     */
+    public static <T> ConcurrentCachedSupplier<T> concurrent(Supplier<T> delegate) {
+
+        return new ConcurrentCachedSupplier<>(delegate, System::nanoTime);
+    }
+
+    /**
+     * Creates a thread safe cached supplier whose value expires after a period of time. The first request after the
+     * value has expired will produce a new value, and other threads will wait for it.
+     *
+     * @param delegate    The delegate supplier responsible for producing the cached value.
+     * @param expireAfter How long a value is cached for.
+     * @param <T>         The type of value held by the cache.
+     * @return A thread safe supplier that caches a value for a period of time.
+     */
+    public static <T> ExpiringCachedSupplier<T> expiring(Supplier<T> delegate, Duration expireAfter) {
+
+        return new ExpiringCachedSupplier<>(delegate, System::nanoTime, expireAfter);
+    }
+
+    /**
+     * Creates a thread safe cached supplier that refreshes its value in the background. Once a value is older than the
+     * refresh time, the next request will start producing a new value using the common fork/join pool while the old
+     * value is still returned. Values that are older than the expiry time are not returned, and requests will wait for a
+     * new value.
+     *
+     * @param delegate     The delegate supplier responsible for producing the cached value.
+     * @param refreshAfter How long a value is used before a new value is produced in the background.
+     * @param expireAfter  How long a value may be used for. This should be longer than the refresh time.
+     * @param <T>          The type of value held by the cache.
+     * @return A thread safe supplier that refreshes its value in the background.
+     */
+    public static <T> RefreshingCachedSupplier<T> refreshing(Supplier<T> delegate, Duration refreshAfter, Duration expireAfter) {
+
+        return refreshing(delegate, refreshAfter, expireAfter, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a thread safe cached supplier that refreshes its value in the background using an executor.
+     *
+     * @param delegate     The delegate supplier responsible for producing the cached value.
+     * @param refreshAfter How long a value is used before a new value is produced in the background.
+     * @param expireAfter  How long a value may be used for. This should be longer than the refresh time.
+     * @param executor     The executor used to produce new values in the background.
+     * @param <T>          The type of value held by the cache.
+     * @return A thread safe supplier that refreshes its value in the background.
+     */
+    public static <T> RefreshingCachedSupplier<T> refreshing(Supplier<T> delegate, Duration refreshAfter, Duration expireAfter, Executor executor) {
+
+        return new RefreshingCachedSupplier<>(delegate, System::nanoTime, refreshAfter, expireAfter, executor);
+    }
 }
\ No newline at end of file
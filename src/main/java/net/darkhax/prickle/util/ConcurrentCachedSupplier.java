@@ -0,0 +1,187 @@
+package net.darkhax.prickle.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A thread safe implementation of {@link CachedSupplier}. The cached value is published through a volatile field, so
+ * once a value has been cached it can be read without locking. When no value is cached, the first thread to request
+ * one will produce it while other threads wait, so the delegate is only invoked once.
+ *
+ * @param <T> The type cached by the supplier.
+ */
+public class ConcurrentCachedSupplier<T> extends CachedSupplier<T> {
+
+    /**
+     * Held while a new value is produced.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Provides the current time in nanoseconds.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Incremented each time the supplier is invalidated. A value that was produced before the supplier was invalidated
+     * is returned to the thread that requested it, but is not cached.
+     */
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * The cached value, or null if a value has not been cached.
+     */
+    @Nullable
+    private volatile Entry<T> entry;
+
+    protected ConcurrentCachedSupplier(Supplier<T> delegate, LongSupplier clock) {
+
+        super(delegate);
+        this.clock = clock;
+    }
+
+    @Override
+    public T get() {
+
+        final Entry<T> entry = this.entry;
+        if (entry != null && this.isFresh(entry)) {
+
+            return entry.value();
+        }
+
+        return this.load();
+    }
+
+    /**
+     * Produces and caches a new value, unless another thread cached a fresh value while this thread was waiting.
+     *
+     * @return The cached value.
+     */
+    protected final T load() {
+
+        synchronized (this.lock) {
+
+            final Entry<T> entry = this.entry;
+            if (entry != null && this.isFresh(entry)) {
+
+                return entry.value();
+            }
+
+            final int generation = this.generation.get();
+            final T value = this.compute();
+            this.replace(generation, value);
+            return value;
+        }
+    }
+
+    /**
+     * Caches a new value, unless the supplier was invalidated after the value started being produced.
+     *
+     * @param generation The generation of the supplier when the value started being produced.
+     * @param value      The new value.
+     */
+    protected final void replace(int generation, T value) {
+
+        synchronized (this.lock) {
+
+            if (this.generation.get() == generation) {
+
+                this.entry = new Entry<>(value, this.now());
+            }
+        }
+    }
+
+    /**
+     * Checks if a cached value may still be returned.
+     *
+     * @param entry The cached value.
+     * @return If the value may be returned.
+     */
+    protected boolean isFresh(Entry<T> entry) {
+
+        return true;
+    }
+
+    /**
+     * Gets the cached value without checking if it is fresh.
+     *
+     * @return The cached value, or null if no value is cached.
+     */
+    @Nullable
+    protected final Entry<T> entry() {
+
+        return this.entry;
+    }
+
+    /**
+     * Gets the current generation of the supplier. This changes each time the supplier is invalidated.
+     *
+     * @return The current generation.
+     */
+    protected final int generation() {
+
+        return this.generation.get();
+    }
+
+    /**
+     * Gets the current time.
+     *
+     * @return The current time in nanoseconds.
+     */
+    protected final long now() {
+
+        return this.clock.getAsLong();
+    }
+
+    @Override
+    public void invalidate() {
+
+        // Held so a value that is being cached by replace can not be stored after it was invalidated.
+        synchronized (this.lock) {
+
+            this.generation.incrementAndGet();
+            this.entry = null;
+        }
+    }
+
+    @Override
+    public boolean isCached() {
+
+        final Entry<T> entry = this.entry;
+        return entry != null && this.isFresh(entry);
+    }
+
+    @Override
+    public void ifCached(Consumer<T> consumer) {
+
+        final Entry<T> entry = this.entry;
+        if (entry != null && this.isFresh(entry)) {
+
+            consumer.accept(entry.value());
+        }
+    }
+
+    @Override
+    public void ifPresent(Consumer<T> consumer) {
+
+        final Entry<T> entry = this.entry;
+        if (entry != null && entry.value() != null && this.isFresh(entry)) {
+
+            consumer.accept(entry.value());
+        }
+    }
+
+    /**
+     * A cached value.
+     *
+     * @param value    The value.
+     * @param cachedAt The time the value was cached, in nanoseconds.
+     * @param <T>      The type of the value.
+     */
+    protected record Entry<T>(@Nullable T value, long cachedAt) {
+    }
+}
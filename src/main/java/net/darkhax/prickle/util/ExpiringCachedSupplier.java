@@ -0,0 +1,35 @@
+package net.darkhax.prickle.util;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A thread safe cached supplier whose value expires after a period of time. The first request after the value has
+ * expired produces a new value, and other threads wait for it instead of invoking the delegate again.
+ *
+ * @param <T> The type cached by the supplier.
+ */
+public class ExpiringCachedSupplier<T> extends ConcurrentCachedSupplier<T> {
+
+    /**
+     * How long a value is cached for, in nanoseconds.
+     */
+    private final long expireAfter;
+
+    protected ExpiringCachedSupplier(Supplier<T> delegate, LongSupplier clock, Duration expireAfter) {
+
+        super(delegate, clock);
+        if (expireAfter.isNegative() || expireAfter.isZero()) {
+
+            throw new IllegalArgumentException("Expiry time must be positive. Found " + expireAfter);
+        }
+        this.expireAfter = expireAfter.toNanos();
+    }
+
+    @Override
+    protected boolean isFresh(Entry<T> entry) {
+
+        return this.now() - entry.cachedAt() < this.expireAfter;
+    }
+}
@@ -0,0 +1,75 @@
+package net.darkhax.prickle.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A thread safe pool of {@link IoBuffers}. Buffers are taken from the pool when a config is read or written and
+ * returned once the operation is complete, allowing them to be reused by the next operation.
+ */
+public class IoBufferPool {
+
+    /**
+     * A pool that is shared by every config manager that does not specify its own pool.
+     */
+    private static final IoBufferPool SHARED = new IoBufferPool(Runtime.getRuntime().availableProcessors(), 8192, 1024 * 1024);
+
+    /**
+     * Buffers that are not currently in use.
+     */
+    private final BlockingQueue<IoBuffers> idle;
+
+    /**
+     * The initial capacity of new buffers.
+     */
+    private final int initialCapacity;
+
+    /**
+     * The largest capacity a buffer may keep when it is returned to the pool.
+     */
+    private final int maxRetainedCapacity;
+
+    /**
+     * Creates a new pool of buffers.
+     *
+     * @param maxIdle             The maximum amount of unused buffers to keep.
+     * @param initialCapacity     The initial capacity of new buffers. This should be close to the size of a typical
+     *                            config file.
+     * @param maxRetainedCapacity The largest capacity a buffer may keep when it is returned to the pool. Larger buffers
+     *                            are replaced so one unusually large file does not hold on to memory.
+     */
+    public IoBufferPool(int maxIdle, int initialCapacity, int maxRetainedCapacity) {
+        this.idle = new ArrayBlockingQueue<>(Math.max(maxIdle, 1));
+        this.initialCapacity = initialCapacity;
+        this.maxRetainedCapacity = maxRetainedCapacity;
+    }
+
+    /**
+     * Takes buffers from the pool. If no buffers are available new buffers will be created.
+     *
+     * @return Buffers that can be used by the caller until they are released.
+     */
+    public IoBuffers acquire() {
+        final IoBuffers buffers = this.idle.poll();
+        return buffers != null ? buffers : new IoBuffers(this.initialCapacity);
+    }
+
+    /**
+     * Returns buffers to the pool. The buffers must not be used by the caller after they have been released.
+     *
+     * @param buffers The buffers to return.
+     */
+    public void release(IoBuffers buffers) {
+        buffers.trim(this.maxRetainedCapacity);
+        this.idle.offer(buffers);
+    }
+
+    /**
+     * Gets a pool that is shared by every config manager that does not specify its own pool.
+     *
+     * @return The shared pool.
+     */
+    public static IoBufferPool shared() {
+        return SHARED;
+    }
+}
@@ -0,0 +1,339 @@
+package net.darkhax.prickle.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * A byte buffer, along with a UTF-8 decoder and encoder, that can be reused to read and write config files. Text is
+ * decoded from and encoded into the byte buffer as it is read and written, so a file is only held in memory once. The
+ * buffer grows to fit the largest file it has handled and is kept for the next use, so repeatedly loading and saving a
+ * config does not allocate a new buffer each time.
+ * <p>
+ * Instances are not thread safe. Use an {@link IoBufferPool} to share buffers between threads.
+ */
+public class IoBuffers {
+
+    /**
+     * The initial capacity of the buffers.
+     */
+    private final int initialCapacity;
+
+    /**
+     * Decodes UTF-8 bytes into chars. Malformed input is reported instead of replaced, matching the behaviour of
+     * {@link java.nio.file.Files#newBufferedReader(Path)}.
+     */
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPORT).onUnmappableCharacter(CodingErrorAction.REPORT);
+
+    /**
+     * Encodes chars into UTF-8 bytes.
+     */
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPORT).onUnmappableCharacter(CodingErrorAction.REPORT);
+
+    /**
+     * Holds raw file contents and encoded output.
+     */
+    private ByteBuffer bytes;
+
+    /**
+     * Reads text from the byte buffer.
+     */
+    private final DecodingReader reader = new DecodingReader();
+
+    /**
+     * Writes text into the byte buffer.
+     */
+    private final EncodingWriter writer = new EncodingWriter();
+
+    public IoBuffers() {
+        this(8192);
+    }
+
+    public IoBuffers(int initialCapacity) {
+        this.initialCapacity = initialCapacity;
+        this.bytes = ByteBuffer.allocate(initialCapacity);
+    }
+
+    /**
+     * Reads the contents of a file into the byte buffer.
+     *
+     * @param file The file to read.
+     * @return A view of the bytes that were read. This is only valid until the buffers are used again.
+     * @throws IOException If the file could not be read.
+     */
+    public ByteBuffer readFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IOException("File " + file + " is too large to be read.");
+            }
+            // One extra byte is reserved so reaching the end of the file does not require the buffer to grow.
+            this.bytes = ensureCapacity(this.bytes, (int) size + 1);
+            this.bytes.clear();
+            while (channel.read(this.bytes) >= 0) {
+                if (!this.bytes.hasRemaining()) {
+                    // The file grew while it was being read.
+                    this.bytes = grow(this.bytes, this.bytes.capacity() * 2);
+                }
+            }
+            return this.bytes.flip();
+        }
+    }
+
+    /**
+     * Gets a reader that decodes UTF-8 bytes as they are read. The source buffer is read from its position to its
+     * limit, and is not copied, so it must not be changed while the reader is in use.
+     *
+     * @param source The bytes to decode.
+     * @return A reader for the decoded text. This is only valid until the buffers are used again. Reading malformed
+     * input throws a {@link CharacterCodingException}.
+     */
+    public Reader decode(ByteBuffer source) {
+        this.reader.reset(source);
+        return this.reader;
+    }
+
+    /**
+     * Clears the byte buffer and gets a writer that encodes text into it. The writer only holds a small amount of
+     * text at a time, and the remaining text is encoded by {@link #encode()}.
+     *
+     * @return A writer for the byte buffer.
+     */
+    public Writer writer() {
+        this.bytes.clear();
+        this.writer.reset();
+        return this.writer;
+    }
+
+    /**
+     * Encodes any text that is still held by {@link #writer()} and gets the encoded UTF-8 bytes.
+     *
+     * @return A view of the encoded bytes. This is only valid until the buffers are used again.
+     * @throws CharacterCodingException If the text can not be encoded.
+     */
+    public ByteBuffer encode() throws CharacterCodingException {
+        this.writer.finish();
+        return this.bytes.flip();
+    }
+
+    /**
+     * Writes the bytes from the last call to {@link #encode()} to a file, replacing the existing contents.
+     *
+     * @param file The file to write.
+     * @throws IOException If the file could not be written.
+     */
+    public void writeFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ByteBuffer view = this.bytes.duplicate();
+            while (view.hasRemaining()) {
+                channel.write(view);
+            }
+        }
+    }
+
+    /**
+     * Replaces a buffer that has grown beyond a limit with new buffers of the initial capacity. This prevents a single
+     * unusually large file from holding on to memory for the lifetime of the buffers.
+     *
+     * @param maxCapacity The largest capacity a buffer may keep.
+     */
+    public void trim(int maxCapacity) {
+        if (this.bytes.capacity() > maxCapacity) {
+            this.bytes = ByteBuffer.allocate(this.initialCapacity);
+        }
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int capacity) {
+        return capacity > buffer.capacity() ? ByteBuffer.allocate(capacity) : buffer;
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int capacity) {
+        final ByteBuffer grown = ByteBuffer.allocate(Math.max(capacity, 16));
+        grown.put(buffer.flip());
+        return grown;
+    }
+
+    /**
+     * Encodes chars into the byte buffer as they are written. Chars are collected in a small buffer first so short
+     * writes do not each invoke the encoder, and so a surrogate pair that is split between two writes is encoded
+     * together.
+     */
+    private class EncodingWriter extends Writer {
+
+        /**
+         * Chars that have been written but not yet encoded.
+         */
+        private final CharBuffer pending = CharBuffer.allocate(1024);
+
+        private void reset() {
+            IoBuffers.this.encoder.reset();
+            this.pending.clear();
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            if (!this.pending.hasRemaining()) {
+                this.drain(false);
+            }
+            this.pending.put((char) c);
+        }
+
+        @Override
+        public void write(char[] source, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, source.length);
+            while (len > 0) {
+                if (!this.pending.hasRemaining()) {
+                    this.drain(false);
+                }
+                final int count = Math.min(len, this.pending.remaining());
+                this.pending.put(source, off, count);
+                off += count;
+                len -= count;
+            }
+        }
+
+        @Override
+        public void write(String source, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, source.length());
+            while (len > 0) {
+                if (!this.pending.hasRemaining()) {
+                    this.drain(false);
+                }
+                final int count = Math.min(len, this.pending.remaining());
+                this.pending.put(source, off, off + count);
+                off += count;
+                len -= count;
+            }
+        }
+
+        private void finish() throws CharacterCodingException {
+            this.drain(true);
+            while (true) {
+                final CoderResult result = IoBuffers.this.encoder.flush(IoBuffers.this.bytes);
+                if (result.isUnderflow()) {
+                    return;
+                }
+                IoBuffers.this.bytes = grow(IoBuffers.this.bytes, IoBuffers.this.bytes.capacity() * 2);
+            }
+        }
+
+        /**
+         * Encodes the pending chars into the byte buffer. Unless this is the end of the input, a trailing high surrogate
+         * is kept until the rest of the pair is written.
+         */
+        private void drain(boolean endOfInput) throws CharacterCodingException {
+            this.pending.flip();
+            while (true) {
+                final CoderResult result = IoBuffers.this.encoder.encode(this.pending, IoBuffers.this.bytes, endOfInput);
+                if (result.isUnderflow()) {
+                    break;
+                }
+                if (result.isOverflow()) {
+                    IoBuffers.this.bytes = grow(IoBuffers.this.bytes, IoBuffers.this.bytes.capacity() * 2);
+                    continue;
+                }
+                result.throwException();
+            }
+            this.pending.compact();
+        }
+
+        @Override
+        public void flush() {
+            // Text is only encoded once the buffer is full or the output is finished.
+        }
+
+        @Override
+        public void close() {
+            // The writer is reused and does not hold any resources.
+        }
+    }
+
+    /**
+     * Decodes chars from a byte buffer as they are read.
+     */
+    private class DecodingReader extends Reader {
+
+        /**
+         * Holds a decoded char that did not fit in the caller's buffer. A single code point can decode to two chars,
+         * so reads of one char are decoded here first.
+         */
+        private final CharBuffer carry = CharBuffer.allocate(2);
+
+        /**
+         * The bytes being decoded.
+         */
+        private ByteBuffer source;
+
+        /**
+         * Whether all of the source has been decoded.
+         */
+        private boolean finished;
+
+        private void reset(ByteBuffer source) {
+            IoBuffers.this.decoder.reset();
+            this.carry.clear().flip();
+            this.source = source;
+            this.finished = false;
+        }
+
+        @Override
+        public int read(char[] target, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, target.length);
+            if (len == 0) {
+                return 0;
+            }
+            if (!this.carry.hasRemaining()) {
+                if (len >= 2) {
+                    return this.decode(CharBuffer.wrap(target, off, len));
+                }
+                this.carry.clear();
+                this.decode(this.carry);
+                this.carry.flip();
+                if (!this.carry.hasRemaining()) {
+                    return -1;
+                }
+            }
+            final int count = Math.min(len, this.carry.remaining());
+            this.carry.get(target, off, count);
+            return count;
+        }
+
+        /**
+         * Decodes as many chars as fit in the output, which must have room for at least two chars.
+         *
+         * @return The amount of chars that were decoded, or -1 if the end of the source was reached.
+         */
+        private int decode(CharBuffer output) throws CharacterCodingException {
+            final int start = output.position();
+            while (!this.finished && output.position() == start) {
+                CoderResult result = IoBuffers.this.decoder.decode(this.source, output, true);
+                if (result.isUnderflow()) {
+                    result = IoBuffers.this.decoder.flush(output);
+                    this.finished = result.isUnderflow();
+                }
+                if (result.isError()) {
+                    result.throwException();
+                }
+            }
+            final int count = output.position() - start;
+            return count == 0 ? -1 : count;
+        }
+
+        @Override
+        public void close() {
+            // The reader is reused and does not hold any resources.
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package net.darkhax.prickle.util;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A thread safe cached supplier that produces new values in the background. Once a value is older than the refresh
+ * time, the next request starts producing a new value on the executor and still returns the old value. Values that are
+ * older than the expiry time are not returned, and requests wait for a new value just like
+ * {@link ExpiringCachedSupplier}.
+ * <p>
+ * Only one refresh runs at a time. If a refresh fails the old value is kept and another refresh is attempted once the
+ * refresh time has passed again, and the exception is passed to the executor.
+ *
+ * @param <T> The type cached by the supplier.
+ */
+public class RefreshingCachedSupplier<T> extends ExpiringCachedSupplier<T> {
+
+    /**
+     * How long a value is used before a new value is produced, in nanoseconds.
+     */
+    private final long refreshAfter;
+
+    /**
+     * Produces new values in the background.
+     */
+    private final Executor executor;
+
+    /**
+     * True while a refresh is scheduled or running.
+     */
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    /**
+     * The earliest time another refresh may start after a refresh has failed, in nanoseconds.
+     */
+    private volatile long retryAt;
+
+    protected RefreshingCachedSupplier(Supplier<T> delegate, LongSupplier clock, Duration refreshAfter, Duration expireAfter, Executor executor) {
+
+        super(delegate, clock, expireAfter);
+        if (refreshAfter.isNegative() || refreshAfter.compareTo(expireAfter) > 0) {
+
+            throw new IllegalArgumentException("Refresh time must be between zero and the expiry time. Found " + refreshAfter);
+        }
+        this.refreshAfter = refreshAfter.toNanos();
+        this.executor = executor;
+        this.retryAt = this.now();
+    }
+
+    @Override
+    public T get() {
+
+        final Entry<T> entry = this.entry();
+        if (entry != null && this.isFresh(entry)) {
+
+            final long now = this.now();
+            if (now - entry.cachedAt() >= this.refreshAfter && now - this.retryAt >= 0) {
+
+                this.refresh();
+            }
+            return entry.value();
+        }
+
+        return this.load();
+    }
+
+    /**
+     * Starts producing a new value in the background, unless a refresh is already running.
+     *
+     * @return If a new refresh was started.
+     */
+    public boolean refresh() {
+
+        if (!this.refreshing.compareAndSet(false, true)) {
+
+            return false;
+        }
+
+        final int generation = this.generation();
+        try {
+
+            this.executor.execute(() -> this.runRefresh(generation));
+        }
+        catch (RuntimeException e) {
+
+            this.refreshing.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    private void runRefresh(int generation) {
+
+        try {
+
+            this.replace(generation, this.compute());
+        }
+        catch (RuntimeException e) {
+
+            // Keep the old value, and wait for the refresh time to pass before trying again.
+            this.retryAt = this.now() + this.refreshAfter;
+            throw e;
+        }
+        finally {
+
+            this.refreshing.set(false);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package net.darkhax.prickle.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded table of weakly referenced strings. Strings that are read from config files can be passed through the
+ * table, and if an equal string is already held the existing instance is returned instead. This allows configs that
+ * repeat the same values, such as many configs with the same host names, to share one instance of each string.
+ * <p>
+ * The table has a fixed number of slots, and a string that hashes to an occupied slot replaces the previous string.
+ * Strings are only weakly referenced, so the table never keeps a string alive once no config holds it. The table is
+ * thread safe.
+ */
+public class StringDeduplicator {
+
+    /**
+     * The estimated size of a string object and the header of its backing array, in bytes.
+     */
+    private static final int STRING_OVERHEAD = 40;
+
+    /**
+     * The slots of the table. The length is always a power of two.
+     */
+    private final AtomicReferenceArray<WeakReference<String>> slots;
+
+    /**
+     * Strings longer than this are not deduplicated.
+     */
+    private final int maxLength;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * Creates a new table with a default maximum string length of 256.
+     *
+     * @param capacity The number of strings the table can hold. This is rounded up to a power of two.
+     */
+    public StringDeduplicator(int capacity) {
+        this(capacity, 256);
+    }
+
+    /**
+     * Creates a new table.
+     *
+     * @param capacity  The number of strings the table can hold. This is rounded up to a power of two.
+     * @param maxLength The length of the longest string that will be deduplicated. Long strings are rarely repeated,
+     *                  and comparing them costs more than is saved.
+     */
+    public StringDeduplicator(int capacity, int maxLength) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive. Found " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity == 1 ? 1 : Integer.highestOneBit(Math.min(capacity - 1, 1 << 29)) << 1);
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Gets the instance of a string that is held by the table. If the table does not hold an equal string, the given
+     * string is added to the table and returned.
+     *
+     * @param value The string to deduplicate.
+     * @return An equal string, which may be an instance that was previously added to the table.
+     */
+    @Nullable
+    public String dedupe(@Nullable String value) {
+        if (value == null || value.length() > this.maxLength) {
+            return value;
+        }
+        this.lookups.increment();
+        final int hash = value.hashCode();
+        final int slot = (hash ^ (hash >>> 16)) & (this.slots.length() - 1);
+        final WeakReference<String> ref = this.slots.get(slot);
+        final String existing = ref != null ? ref.get() : null;
+        if (existing != null && existing.equals(value)) {
+            if (existing != value) {
+                this.hits.increment();
+                this.bytesSaved.add(estimateSize(value));
+            }
+            return existing;
+        }
+        this.slots.set(slot, new WeakReference<>(value));
+        return value;
+    }
+
+    /**
+     * Gets the statistics of the table since it was created or last reset.
+     *
+     * @return The statistics of the table.
+     */
+    public Stats stats() {
+        return new Stats(this.lookups.sum(), this.hits.sum(), this.bytesSaved.sum());
+    }
+
+    /**
+     * Resets the statistics of the table. The strings held by the table are not removed.
+     */
+    public void resetStats() {
+        this.lookups.reset();
+        this.hits.reset();
+        this.bytesSaved.reset();
+    }
+
+    /**
+     * Estimates the heap size of a string. Strings that only contain Latin-1 characters are stored with one byte per
+     * character, and other strings use two bytes per character.
+     *
+     * @param value The string to measure.
+     * @return The estimated size of the string in bytes.
+     */
+    private static long estimateSize(String value) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return (STRING_OVERHEAD + (long) value.length() * bytesPerChar + 7) & ~7L;
+    }
+
+    /**
+     * The statistics of a string table.
+     *
+     * @param lookups    The number of strings that were passed to the table.
+     * @param hits       The number of strings that were replaced with an instance held by the table.
+     * @param bytesSaved The estimated number of bytes that were saved by replacing strings.
+     */
+    public record Stats(long lookups, long hits, long bytesSaved) {
+
+        /**
+         * Gets the fraction of lookups that were replaced with an existing instance.
+         *
+         * @return The hit rate, between 0 and 1.
+         */
+        public double hitRate() {
+            return this.lookups == 0 ? 0 : (double) this.hits / this.lookups;
+        }
+    }
+}
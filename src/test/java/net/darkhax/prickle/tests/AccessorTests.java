@@ -0,0 +1,97 @@
+package net.darkhax.prickle.tests;
+
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.ConfigManager;
+import net.darkhax.prickle.config.property.access.GeneratedAccessors;
+import net.darkhax.prickle.config.property.access.IFieldAccessor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.List;
+
+public class AccessorTests {
+
+    @Test
+    public void generatedAccessorsReadAndWriteFields() throws ReflectiveOperationException {
+        final Fields fields = new Fields();
+        check(fields, "number", 42);
+        check(fields, "big", 1L << 40);
+        check(fields, "ratio", 0.25d);
+        check(fields, "flag", true);
+        check(fields, "letter", 'q');
+        check(fields, "text", "changed");
+        check(fields, "values", new int[] {1, 2});
+        check(fields, "names", List.of("a"));
+        check(null, "shared", "static");
+    }
+
+    @Test
+    public void finalFieldsUseReflection() throws ReflectiveOperationException {
+        final IFieldAccessor accessor = GeneratedAccessors.create(field("constant"));
+        Assertions.assertFalse(accessor.getClass().isHidden());
+        Assertions.assertEquals("fixed", accessor.get(new Fields()));
+    }
+
+    @Test
+    public void accessorsAreShared() throws ReflectiveOperationException {
+        Assertions.assertSame(GeneratedAccessors.create(field("number")), GeneratedAccessors.create(field("number")));
+    }
+
+    @Test
+    public void configsMatchReflection() throws IOException {
+        final byte[] json = TestFiles.utf8("{\"number\":{\"value\":7},\"text\":{\"value\":\"loaded\"},\"ratio\":{\"value\":1.5}}");
+        final Fields generated = new Fields();
+        final ConfigManager<Fields> generatedManager = new ConfigManager.Builder<Fields>(TestFiles.tempFile()).generatedAccessors().build(generated);
+        generatedManager.load(json);
+        final Fields reflective = new Fields();
+        final ConfigManager<Fields> reflectiveManager = new ConfigManager.Builder<Fields>(TestFiles.tempFile()).build(reflective);
+        reflectiveManager.load(json);
+
+        Assertions.assertEquals(7, generated.number);
+        Assertions.assertEquals("loaded", generated.text);
+        Assertions.assertEquals(TestFiles.save(reflectiveManager), TestFiles.save(generatedManager));
+    }
+
+    private static void check(Object parent, String name, Object value) throws ReflectiveOperationException {
+        final Field field = field(name);
+        final IFieldAccessor accessor = GeneratedAccessors.create(field);
+        Assertions.assertTrue(accessor.getClass().isHidden(), name);
+        accessor.set(parent, value);
+        Assertions.assertEquals(value, field.get(parent));
+        Assertions.assertEquals(value, accessor.get(parent));
+    }
+
+    private static Field field(String name) throws NoSuchFieldException {
+        final Field field = Fields.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field;
+    }
+
+    public static class Fields {
+
+        private static String shared = "default";
+
+        @Value
+        private int number = 1;
+
+        private long big;
+
+        @Value
+        private double ratio;
+
+        private boolean flag;
+
+        private char letter;
+
+        @Value
+        private String text = "default";
+
+        private int[] values;
+
+        private List<String> names;
+
+        private final String constant = "fixed";
+    }
+}
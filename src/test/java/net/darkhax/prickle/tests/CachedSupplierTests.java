@@ -0,0 +1,106 @@
+package net.darkhax.prickle.tests;
+
+import net.darkhax.prickle.util.CachedSupplier;
+import net.darkhax.prickle.util.ConcurrentCachedSupplier;
+import net.darkhax.prickle.util.RefreshingCachedSupplier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+public class CachedSupplierTests {
+
+    @Test
+    public void concurrentDelegateRunsOnce() throws InterruptedException {
+        final AtomicInteger calls = new AtomicInteger();
+        final ConcurrentCachedSupplier<Integer> supplier = CachedSupplier.concurrent(() -> {
+            calls.incrementAndGet();
+            sleep(20);
+            return 42;
+        });
+        final Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(supplier::get);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(42, (int) supplier.get());
+    }
+
+    @Test
+    public void invalidatingWhileCachingDiscardsTheValue() throws InterruptedException {
+        final AtomicBoolean armed = new AtomicBoolean();
+        final CountDownLatch caching = new CountDownLatch(1);
+        // The clock is read while the new value is being cached, so it pauses there until the supplier is invalidated.
+        final LongSupplier clock = () -> {
+            if (armed.getAndSet(false)) {
+                caching.countDown();
+                sleep(100);
+            }
+            return System.nanoTime();
+        };
+        final Supplier<Integer> delegate = () -> {
+            armed.set(true);
+            return 1;
+        };
+        final ConcurrentCachedSupplier<Integer> supplier = new TestSupplier<>(delegate, clock);
+        final Thread reader = new Thread(supplier::get);
+        reader.start();
+        Assertions.assertTrue(caching.await(5, TimeUnit.SECONDS));
+        supplier.invalidate();
+        reader.join();
+        Assertions.assertFalse(supplier.isCached());
+    }
+
+    @Test
+    public void invalidatingDiscardsRunningRefresh() {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final AtomicInteger next = new AtomicInteger();
+        final RefreshingCachedSupplier<Integer> supplier = CachedSupplier.refreshing(next::incrementAndGet, Duration.ZERO, Duration.ofHours(1), tasks::add);
+        Assertions.assertEquals(1, (int) supplier.get());
+        Assertions.assertTrue(supplier.refresh());
+        supplier.invalidate();
+        tasks.remove().run();
+        Assertions.assertFalse(supplier.isCached());
+        Assertions.assertEquals(3, (int) supplier.get());
+    }
+
+    @Test
+    public void refreshKeepsServingTheOldValue() {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final AtomicInteger next = new AtomicInteger();
+        final RefreshingCachedSupplier<Integer> supplier = CachedSupplier.refreshing(next::incrementAndGet, Duration.ZERO, Duration.ofHours(1), tasks::add);
+        Assertions.assertEquals(1, (int) supplier.get());
+        Assertions.assertEquals(1, (int) supplier.get());
+        Assertions.assertEquals(1, tasks.size());
+        tasks.remove().run();
+        Assertions.assertEquals(2, (int) supplier.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class TestSupplier<T> extends ConcurrentCachedSupplier<T> {
+
+        private TestSupplier(Supplier<T> delegate, LongSupplier clock) {
+            super(delegate, clock);
+        }
+    }
+}
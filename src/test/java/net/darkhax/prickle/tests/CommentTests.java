@@ -0,0 +1,42 @@
+package net.darkhax.prickle.tests;
+
+import net.darkhax.prickle.config.comment.WrappedComment;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CommentTests {
+
+    @Test
+    public void textIsWrappedBetweenWords() {
+        final String[] lines = new WrappedComment("the quick brown fox jumps", 10, false).getLines();
+        Assertions.assertArrayEquals(new String[] {"the quick", "brown fox", "jumps"}, lines);
+    }
+
+    @Test
+    public void longWordsAreKeptWhole() {
+        final String[] lines = new WrappedComment("a supercalifragilistic word", 8, false).getLines();
+        Assertions.assertArrayEquals(new String[] {"a", "supercalifragilistic", "word"}, lines);
+    }
+
+    @Test
+    public void linesArePaddedToTheLineLength() {
+        final String[] lines = new WrappedComment("one two\nthree", 6, true).getLines();
+        Assertions.assertArrayEquals(new String[] {"one   ", "two   ", "three "}, lines);
+        Assertions.assertArrayEquals(new String[] {"    "}, new WrappedComment("", 4, true).getLines());
+    }
+
+    @Test
+    public void supplementaryCharactersCountAsOne() {
+        final String[] lines = new WrappedComment("🌵🌵🌵 🌵🌵", 6, false).getLines();
+        Assertions.assertArrayEquals(new String[] {"🌵🌵🌵 🌵🌵"}, lines);
+    }
+
+    @Test
+    public void commentsAreInternedAndRenderedOnce() {
+        final WrappedComment comment = WrappedComment.of("shared comment text", 80, true);
+        Assertions.assertSame(comment, WrappedComment.of("shared comment text", 80, true));
+        Assertions.assertNotSame(comment, WrappedComment.of("shared comment text", 40, true));
+        Assertions.assertNotSame(comment, WrappedComment.of("shared comment text", 80, false));
+        Assertions.assertSame(comment.getLines(), comment.getLines());
+    }
+}
@@ -0,0 +1,62 @@
+package net.darkhax.prickle.tests;
+
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.ConfigManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CompactTests {
+
+    @Test
+    public void compactOutputOnlyHoldsValues() throws IOException {
+        final Settings config = new Settings();
+        final ConfigManager<Settings> manager = new ConfigManager.Builder<Settings>(TestFiles.tempFile()).compact().build(config);
+        Assertions.assertEquals("{\"name\":{\"value\":\"prickle\"},\"tags\":{\"value\":[\"a\",\"b\"]}}", TestFiles.save(manager));
+    }
+
+    @Test
+    public void compactReadsDecoratedFiles() throws IOException {
+        final Settings config = new Settings();
+        final ConfigManager<Settings> manager = new ConfigManager.Builder<Settings>(TestFiles.tempFile()).compact().build(config);
+        manager.load(TestFiles.utf8("{\"name\":{\"//\":\"The name.\",\"//default\":\"prickle\",\"value\":\"other\"},\"tags\":{\"value\":[\"c\"],\"//\":\"after\"}}"));
+        Assertions.assertEquals("other", config.name);
+        Assertions.assertEquals(List.of("c"), config.tags);
+    }
+
+    @Test
+    public void compactRoundTrip() throws IOException {
+        final Settings config = new Settings();
+        config.name = "changed";
+        config.tags.add("c");
+        final String json = TestFiles.save(new ConfigManager.Builder<Settings>(TestFiles.tempFile()).compact().build(config));
+
+        final Settings loaded = new Settings();
+        new ConfigManager.Builder<Settings>(TestFiles.tempFile()).compact().build(loaded).load(TestFiles.utf8(json));
+        Assertions.assertEquals("changed", loaded.name);
+        Assertions.assertEquals(List.of("a", "b", "c"), loaded.tags);
+    }
+
+    @Test
+    public void normalConfigsReadCompactFiles() throws IOException {
+        final Settings config = new Settings();
+        config.name = "changed";
+        final String json = TestFiles.save(new ConfigManager.Builder<Settings>(TestFiles.tempFile()).compact().build(config));
+
+        final Settings loaded = new Settings();
+        new ConfigManager.Builder<Settings>(TestFiles.tempFile()).build(loaded).load(TestFiles.utf8(json));
+        Assertions.assertEquals("changed", loaded.name);
+    }
+
+    public static class Settings {
+
+        @Value(comment = "The name.")
+        public String name = "prickle";
+
+        @Value
+        public List<String> tags = new ArrayList<>(List.of("a", "b"));
+    }
+}
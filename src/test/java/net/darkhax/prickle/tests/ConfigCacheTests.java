@@ -0,0 +1,116 @@
+package net.darkhax.prickle.tests;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.ConfigManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ConfigCacheTests {
+
+    @Test
+    public void cacheIsReadWhenFileIsUnchanged() throws IOException {
+        final Path file = TestFiles.tempFile();
+        Files.writeString(file, "{\"size\":{\"value\":42}}");
+        new ConfigManager.Builder<Sized>(file).cache().build(new Sized()).load();
+        Assertions.assertTrue(Files.exists(file.resolveSibling("config.json.cache")));
+
+        final Sized loaded = new Sized();
+        new ConfigManager.Builder<Sized>(file).cache().build(loaded).load();
+        Assertions.assertEquals(42, loaded.size);
+
+        Files.writeString(file, "{\"size\":{\"value\":7}}");
+        final Sized changed = new Sized();
+        new ConfigManager.Builder<Sized>(file).cache().build(changed).load();
+        Assertions.assertEquals(7, changed.size);
+    }
+
+    @Test
+    public void cacheIsIgnoredWhenTypeAdaptersChange() throws IOException {
+        final Path file = TestFiles.tempFile();
+        Files.writeString(file, "{\"point\":{\"value\":{\"x\":1,\"y\":2}}}");
+
+        // The first config drops the y coordinate when it reads points, so its cache only holds x.
+        final Located lossy = new Located();
+        new ConfigManager.Builder<Located>(file).cache().gsonConfig(builder -> builder.registerTypeAdapter(Point.class, new XOnlyAdapter())).build(lossy).load();
+        Assertions.assertEquals(0, lossy.point.y);
+
+        final Located loaded = new Located();
+        new ConfigManager.Builder<Located>(file).cache().build(loaded).load();
+        Assertions.assertEquals(1, loaded.point.x);
+        Assertions.assertEquals(2, loaded.point.y);
+    }
+
+    @Test
+    public void onlyPropertyDecoratorsAreDropped() throws IOException {
+        final Path file = TestFiles.tempFile();
+        Files.writeString(file, "{\"notes\":{\"//\":\"Notes about the config.\",\"value\":{\"//todo\":\"kept\",\"a\":\"b\"}},\"hidden\":{\"value\":{\"//only\":\"kept\"}}}");
+        new ConfigManager.Builder<Notes>(file).cache().build(new Notes()).load();
+        Assertions.assertFalse(Files.readString(file.resolveSibling("config.json.cache"), StandardCharsets.ISO_8859_1).contains("Notes about the config."));
+
+        final Notes loaded = new Notes();
+        new ConfigManager.Builder<Notes>(file).cache().build(loaded).load();
+        Assertions.assertEquals(Map.of("//todo", "kept", "a", "b"), loaded.notes);
+        Assertions.assertEquals(Map.of("//only", "kept"), loaded.hidden);
+    }
+
+    public static class Sized {
+
+        @Value
+        public int size = 1;
+    }
+
+    public static class Notes {
+
+        @Value(comment = "Notes about the config.")
+        public Map<String, String> notes = new LinkedHashMap<>();
+
+        @Value
+        public Map<String, String> hidden = new LinkedHashMap<>();
+    }
+
+    public static class Located {
+
+        @Value
+        public Point point = new Point();
+    }
+
+    public static class Point {
+
+        public int x;
+        public int y;
+    }
+
+    private static class XOnlyAdapter extends TypeAdapter<Point> {
+
+        @Override
+        public void write(JsonWriter out, Point value) throws IOException {
+            out.beginObject().name("x").value(value.x).name("y").value(value.y).endObject();
+        }
+
+        @Override
+        public Point read(JsonReader in) throws IOException {
+            final Point point = new Point();
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("x".equals(in.nextName())) {
+                    point.x = in.nextInt();
+                }
+                else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return point;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package net.darkhax.prickle.tests;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.ConfigManager;
+import net.darkhax.prickle.config.PrickleContext;
+import net.darkhax.prickle.config.PropertyResolver;
+import net.darkhax.prickle.config.property.IPropertyAdapter;
+import net.darkhax.prickle.config.property.ObjectProperty;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+
+public class ContextTests {
+
+    @Test
+    public void defaultManagersShareOneContext() {
+        Assertions.assertSame(PrickleContext.shared(), PrickleContext.shared());
+        Assertions.assertSame(PrickleContext.shared().gson(), PrickleContext.shared().gson());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> PrickleContext.shared().adapters().clear());
+    }
+
+    @Test
+    public void adaptersAreCreatedOncePerContext() {
+        final PrickleContext context = new PrickleContext.Builder().build();
+        Assertions.assertSame(context.adapter(NoAdapter.class), context.adapter(NoAdapter.class));
+        Assertions.assertNotSame(context.adapter(NoAdapter.class), new PrickleContext.Builder().build().adapter(NoAdapter.class));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> context.adapter(String.class));
+    }
+
+    @Test
+    public void managersUseTheGsonOfTheirContext() throws IOException {
+        final PrickleContext context = new PrickleContext.Builder().gsonConfig(builder -> builder.registerTypeAdapter(Point.class, new PointAdapter())).build();
+        final Settings first = new Settings();
+        final ConfigManager<Settings> firstManager = new ConfigManager.Builder<Settings>(TestFiles.tempFile()).context(context).build(first);
+        final Settings second = new Settings();
+        final ConfigManager<Settings> secondManager = new ConfigManager.Builder<Settings>(TestFiles.tempFile()).context(context).build(second);
+
+        Assertions.assertTrue(TestFiles.save(firstManager).contains("\"1,2\""));
+        secondManager.load(TestFiles.utf8("{\"point\":{\"value\":\"5,6\"}}"));
+        Assertions.assertEquals(5, second.point.x);
+        Assertions.assertEquals(6, second.point.y);
+    }
+
+    @Test
+    public void contextsCanNotBeCustomized() throws IOException {
+        final ConfigManager.Builder<Settings> builder = new ConfigManager.Builder<Settings>(TestFiles.tempFile()).context(PrickleContext.shared()).gsonConfig(gson -> gson.serializeNulls());
+        Assertions.assertThrows(IllegalStateException.class, () -> builder.build(new Settings()));
+    }
+
+    public static class Settings {
+
+        @Value
+        public Point point = new Point(1, 2);
+    }
+
+    public record Point(int x, int y) {
+    }
+
+    private static class PointAdapter extends TypeAdapter<Point> {
+
+        @Override
+        public void write(JsonWriter out, Point value) throws IOException {
+            out.value(value.x() + "," + value.y());
+        }
+
+        @Override
+        public Point read(JsonReader in) throws IOException {
+            final String[] parts = in.nextString().split(",");
+            return new Point(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+        }
+    }
+
+    /**
+     * An adapter that never maps a field.
+     */
+    public static class NoAdapter implements IPropertyAdapter<ObjectProperty<?>> {
+
+        @Override
+        public ObjectProperty<?> toValue(PropertyResolver resolver, Field field, Object parent, Object value, Value valueMeta) {
+            return null;
+        }
+    }
+}
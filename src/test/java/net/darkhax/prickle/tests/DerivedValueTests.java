@@ -0,0 +1,113 @@
+package net.darkhax.prickle.tests;
+
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.ConfigKey;
+import net.darkhax.prickle.config.ConfigManager;
+import net.darkhax.prickle.config.DerivedValue;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class DerivedValueTests {
+
+    @Test
+    public void onlyChangedDependenciesProduceTheValueAgain() throws IOException {
+        final ConfigManager<Settings> manager = manager();
+        final ConfigKey<Integer> port = manager.key("port", Integer.class);
+        final AtomicInteger computed = new AtomicInteger();
+        final DerivedValue<String> label = manager.derive(() -> {
+            computed.incrementAndGet();
+            return "port " + port.get();
+        });
+        Assertions.assertEquals("port 8080", label.get());
+
+        manager.load(TestFiles.utf8("{\"host\":{\"value\":\"example.com\"}}"));
+        Assertions.assertTrue(label.isCached());
+        Assertions.assertEquals(1, computed.get());
+
+        manager.load(TestFiles.utf8("{\"port\":{\"value\":25565}}"));
+        Assertions.assertFalse(label.isCached());
+        Assertions.assertEquals("port 25565", label.get());
+        Assertions.assertEquals(2, computed.get());
+    }
+
+    @Test
+    public void valuesProducedDuringALoadAreNotCached() throws IOException {
+        final ConfigManager<Settings> manager = manager();
+        final ConfigKey<Integer> port = manager.key("port", Integer.class);
+        final AtomicBoolean first = new AtomicBoolean(true);
+        final DerivedValue<String> label = manager.derive(() -> {
+            final int value = port.get();
+            if (first.getAndSet(false)) {
+                // The property changes after it was read, but before its snapshot is taken.
+                manager.load(TestFiles.utf8("{\"port\":{\"value\":25565}}"));
+            }
+            return "port " + value;
+        });
+        Assertions.assertEquals("port 8080", label.get());
+        Assertions.assertFalse(label.isCached());
+        Assertions.assertEquals("port 25565", label.get());
+        Assertions.assertTrue(label.isCached());
+    }
+
+    @Test
+    public void invalidatedValuesDoNotRecordDependencies() throws IOException {
+        final ConfigManager<Settings> manager = manager();
+        final ConfigKey<Integer> port = manager.key("port", Integer.class);
+        final AtomicReference<DerivedValue<String>> self = new AtomicReference<>();
+        final AtomicBoolean first = new AtomicBoolean(true);
+        final DerivedValue<String> label = manager.derive(() -> {
+            final String value = "port " + port.get();
+            if (first.getAndSet(false)) {
+                self.get().invalidate();
+            }
+            return value;
+        });
+        self.set(label);
+        Assertions.assertEquals("port 8080", label.get());
+        Assertions.assertFalse(label.isCached());
+        Assertions.assertTrue(label.dependencies().isEmpty());
+        label.get();
+        Assertions.assertTrue(label.isCached());
+        Assertions.assertEquals(1, label.dependencies().size());
+    }
+
+    @Test
+    public void droppedDependenciesAreNoLongerTracked() throws IOException {
+        final ConfigManager<Settings> manager = manager();
+        final ConfigKey<Integer> port = manager.key("port", Integer.class);
+        final ConfigKey<String> host = manager.key("host", String.class);
+        final AtomicBoolean usePort = new AtomicBoolean(true);
+        final DerivedValue<String> label = manager.derive(() -> usePort.get() ? "port " + port.get() : "host " + host.get());
+        Assertions.assertEquals("port 8080", label.get());
+
+        usePort.set(false);
+        label.invalidate();
+        Assertions.assertEquals("host localhost", label.get());
+
+        manager.load(TestFiles.utf8("{\"port\":{\"value\":25565}}"));
+        Assertions.assertTrue(label.isCached());
+        manager.load(TestFiles.utf8("{\"host\":{\"value\":\"example.com\"}}"));
+        Assertions.assertFalse(label.isCached());
+        Assertions.assertEquals("host example.com", label.get());
+    }
+
+    private static ConfigManager<Settings> manager() throws IOException {
+        final ConfigManager<Settings> manager = new ConfigManager.Builder<Settings>(TestFiles.tempFile()).build(new Settings());
+        manager.load();
+        return manager;
+    }
+
+    public static class Settings {
+
+        @Value
+        public String host = "localhost";
+
+        @Value
+        public int port = 8080;
+    }
+}
@@ -0,0 +1,151 @@
+package net.darkhax.prickle.tests;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.ConfigManager;
+import net.darkhax.prickle.config.PropertyResolver;
+import net.darkhax.prickle.config.property.IConfigProperty;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ElementSchemaTests {
+
+    @Test
+    public void elementsAreReadWithSchema() throws IOException {
+        final Servers config = new Servers();
+        final ConfigManager<Servers> manager = new ConfigManager.Builder<Servers>(TestFiles.tempFile()).build(config);
+        manager.load(TestFiles.utf8("{\"servers\":{\"value\":[{\"port\":{\"value\":25565}},{\"host\":{\"value\":\"example.com\"}}]}}"));
+
+        Assertions.assertEquals(2, config.servers.size());
+        Assertions.assertEquals(25565, config.servers.get(0).port);
+        Assertions.assertEquals("localhost", config.servers.get(0).host);
+        Assertions.assertEquals(8080, config.servers.get(1).port);
+        Assertions.assertEquals("example.com", config.servers.get(1).host);
+    }
+
+    @Test
+    public void selfReferentialElements() throws IOException {
+        final Tree config = new Tree();
+        config.root.name = "root";
+        config.root.children.add(new Node("a"));
+        config.root.children.get(0).children.add(new Node("b"));
+
+        final ConfigManager<Tree> manager = new ConfigManager.Builder<Tree>(TestFiles.tempFile()).build(config);
+        final String json = TestFiles.save(manager);
+
+        final Tree loaded = new Tree();
+        new ConfigManager.Builder<Tree>(TestFiles.tempFile()).build(loaded).load(TestFiles.utf8(json));
+        Assertions.assertEquals("root", loaded.root.name);
+        Assertions.assertEquals(1, loaded.root.children.size());
+        Assertions.assertEquals("a", loaded.root.children.get(0).name);
+        Assertions.assertEquals("b", loaded.root.children.get(0).children.get(0).name);
+        Assertions.assertTrue(loaded.root.children.get(0).children.get(0).children.isEmpty());
+    }
+
+    @Test
+    public void selfReferentialElementsCanBeCached() throws IOException {
+        final Path file = TestFiles.tempFile();
+        final Tree config = new Tree();
+        config.root.children.add(new Node("cached"));
+        new ConfigManager.Builder<Tree>(file).cache().build(config).load();
+
+        final Tree loaded = new Tree();
+        new ConfigManager.Builder<Tree>(file).cache().build(loaded).load();
+        Assertions.assertEquals("cached", loaded.root.children.get(0).name);
+    }
+
+    @Test
+    public void nestedObjectsUseCustomProperties() throws IOException {
+        final Labelled config = new Labelled();
+        final ConfigManager<Labelled> manager = new ConfigManager.Builder<Labelled>(TestFiles.tempFile())
+                .adapter((resolver, field, parent, value, meta) -> parent instanceof Label label && "text".equals(field.getName()) ? new TextProperty(label) : null)
+                .build(config);
+
+        Assertions.assertTrue(TestFiles.save(manager).contains("\"text\": \"default\""));
+        manager.load(TestFiles.utf8("{\"label\":{\"value\":{\"text\":\"changed\"}}}"));
+        Assertions.assertEquals("changed", config.label.text);
+    }
+
+    public static class Servers {
+
+        @Value
+        public List<Server> servers = new ArrayList<>();
+    }
+
+    public static class Server {
+
+        @Value
+        public int port = 8080;
+
+        @Value
+        public String host = "localhost";
+    }
+
+    public static class Tree {
+
+        @Value
+        public Node root = new Node("");
+    }
+
+    public static class Node {
+
+        @Value
+        public String name;
+
+        @Value
+        public List<Node> children = new ArrayList<>();
+
+        public Node() {
+            this("");
+        }
+
+        public Node(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Labelled {
+
+        @Value
+        public Label label = new Label();
+    }
+
+    public static class Label {
+
+        @Value
+        public String text = "default";
+    }
+
+    /**
+     * A property that does not extend ObjectProperty, so it can only be applied to the object it was mapped from.
+     */
+    private record TextProperty(Label label) implements IConfigProperty<String> {
+
+        @Override
+        public String value() {
+            return this.label.text;
+        }
+
+        @Override
+        public void read(JsonReader reader, PropertyResolver resolver, Logger logger) throws IOException {
+            this.label.text = reader.nextString();
+        }
+
+        @Override
+        public void write(JsonWriter writer, PropertyResolver resolver, Logger logger) throws IOException {
+            writer.value(this.label.text);
+        }
+
+        @Override
+        public boolean validate(String value) {
+            return true;
+        }
+    }
+}
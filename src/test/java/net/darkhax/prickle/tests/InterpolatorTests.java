@@ -0,0 +1,96 @@
+package net.darkhax.prickle.tests;
+
+import net.darkhax.prickle.annotations.Interpolate;
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.ConfigManager;
+import net.darkhax.prickle.config.interpolate.Template;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+public class InterpolatorTests {
+
+    @Test
+    public void escapesAreReadOnce() {
+        Assertions.assertEquals("${a}", render("$${a}"));
+        Assertions.assertEquals("$${a}", render("$$${a}"));
+        Assertions.assertEquals("[a]${b}", render("${a}$${b}"));
+        Assertions.assertEquals("$-[a]", render("$-${a}"));
+        Assertions.assertEquals(List.of("a", "b"), Template.compile("${a}$${c}${b}").references());
+    }
+
+    @Test
+    public void unclosedReferencesAreRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Template.compile("${a"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Template.compile("${ }"));
+    }
+
+    @Test
+    public void nestedFieldsFollowTheirProperties() throws IOException {
+        final Settings config = new Settings();
+        final ConfigManager<Settings> manager = new ConfigManager.Builder<Settings>(TestFiles.tempFile()).build(config);
+        manager.load();
+        Assertions.assertEquals("localhost:8080", config.address);
+        Assertions.assertEquals("http://localhost:8080/api", config.network.url);
+
+        manager.load(TestFiles.utf8("{\"port\":{\"value\":25565},\"network\":{\"value\":{\"path\":{\"value\":\"v2\"}}}}"));
+        Assertions.assertEquals("localhost:25565", config.address);
+        Assertions.assertEquals("http://localhost:25565/v2", config.network.url);
+    }
+
+    @Test
+    public void arraysAreRenderedAsJson() throws IOException {
+        final Servers config = new Servers();
+        final ConfigManager<Servers> manager = new ConfigManager.Builder<Servers>(TestFiles.tempFile()).build(config);
+        manager.load();
+        Assertions.assertEquals("hosts=[\"a\",\"b\"]", config.summary);
+
+        // Reading an equal array is not a change, so the field is not rendered again.
+        config.summary = "unchanged";
+        manager.load(TestFiles.utf8("{\"hosts\":{\"value\":[\"a\",\"b\"]}}"));
+        Assertions.assertEquals("unchanged", config.summary);
+
+        manager.load(TestFiles.utf8("{\"hosts\":{\"value\":[\"c\"]}}"));
+        Assertions.assertEquals("hosts=[\"c\"]", config.summary);
+    }
+
+    private static String render(String source) {
+        final Template template = Template.compile(source);
+        return template.render(i -> "[" + template.references().get(i) + "]");
+    }
+
+    public static class Settings {
+
+        @Value
+        public String host = "localhost";
+
+        @Value
+        public int port = 8080;
+
+        @Value
+        public Network network = new Network();
+
+        @Interpolate("${host}:${port}")
+        public String address;
+    }
+
+    public static class Network {
+
+        @Value
+        public String path = "api";
+
+        @Interpolate("http://${address}/${network.path}")
+        public String url;
+    }
+
+    public static class Servers {
+
+        @Value
+        public String[] hosts = {"a", "b"};
+
+        @Interpolate("hosts=${hosts}")
+        public String summary;
+    }
+}
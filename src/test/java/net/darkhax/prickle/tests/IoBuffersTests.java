@@ -0,0 +1,103 @@
+package net.darkhax.prickle.tests;
+
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.ConfigManager;
+import net.darkhax.prickle.util.IoBuffers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class IoBuffersTests {
+
+    /**
+     * Text with surrogate pairs at every offset, long enough to cross several internal buffer boundaries.
+     */
+    private static final String TEXT = "a🌶é".repeat(2000) + "🌶";
+
+    @Test
+    public void encodesTextWrittenInPieces() throws IOException {
+        final IoBuffers buffers = new IoBuffers(16);
+        final Writer writer = buffers.writer();
+        for (int i = 0; i < TEXT.length(); i += 7) {
+            writer.write(TEXT, i, Math.min(7, TEXT.length() - i));
+        }
+        Assertions.assertEquals(TEXT, StandardCharsets.UTF_8.decode(buffers.encode()).toString());
+
+        // The buffers are reused, so a second document must not contain any of the first.
+        buffers.writer().write("short");
+        Assertions.assertEquals("short", StandardCharsets.UTF_8.decode(buffers.encode()).toString());
+    }
+
+    @Test
+    public void decodesOneCharAtATime() throws IOException {
+        final IoBuffers buffers = new IoBuffers(16);
+        final Reader reader = buffers.decode(ByteBuffer.wrap(TEXT.getBytes(StandardCharsets.UTF_8)));
+        final StringBuilder read = new StringBuilder();
+        final char[] single = new char[1];
+        int count;
+        while ((count = reader.read(single, 0, 1)) != -1) {
+            read.append(single, 0, count);
+        }
+        Assertions.assertEquals(TEXT, read.toString());
+
+        final Reader reused = buffers.decode(ByteBuffer.wrap(TestFiles.utf8("again")));
+        final char[] chunk = new char[64];
+        Assertions.assertEquals("again", new String(chunk, 0, reused.read(chunk, 0, chunk.length)));
+        Assertions.assertEquals(-1, reused.read(chunk, 0, chunk.length));
+    }
+
+    @Test
+    public void reportsMalformedInput() {
+        final IoBuffers buffers = new IoBuffers();
+        final Reader reader = buffers.decode(ByteBuffer.wrap(new byte[] {'{', (byte) 0xC3, '}'}));
+        Assertions.assertThrows(CharacterCodingException.class, () -> reader.read(new char[16], 0, 16));
+    }
+
+    @Test
+    public void largeConfigRoundTrip() throws IOException {
+        final Path file = TestFiles.tempFile();
+        final Settings config = new Settings();
+        for (int i = 0; i < 5000; i++) {
+            config.entries.add("entry 🌶 " + i);
+        }
+        final ConfigManager<Settings> manager = new ConfigManager.Builder<Settings>(file).build(config);
+        manager.save();
+        final String saved = Files.readString(file);
+        Assertions.assertEquals(saved, TestFiles.save(manager));
+
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        manager.save(stream);
+        Assertions.assertEquals(saved, stream.toString(StandardCharsets.UTF_8));
+
+        final ByteArrayOutputStream channel = new ByteArrayOutputStream();
+        manager.save(Channels.newChannel(channel));
+        Assertions.assertEquals(saved, channel.toString(StandardCharsets.UTF_8));
+
+        final Settings loaded = new Settings();
+        final ConfigManager<Settings> reader = new ConfigManager.Builder<Settings>(file).build(loaded);
+        reader.load();
+        Assertions.assertEquals(config.entries, loaded.entries);
+        Assertions.assertEquals(config.name, loaded.name);
+    }
+
+    public static class Settings {
+
+        @Value
+        public String name = "été 🌶";
+
+        @Value
+        public List<String> entries = new ArrayList<>();
+    }
+}
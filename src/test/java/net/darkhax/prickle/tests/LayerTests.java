@@ -0,0 +1,97 @@
+package net.darkhax.prickle.tests;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.ConfigManager;
+import net.darkhax.prickle.config.layer.ConfigLayer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+public class LayerTests {
+
+    @Test
+    public void removedValuesReturnToTheirDefaults() throws IOException {
+        final ConfigLayer base = ConfigLayer.of("base", TestFiles.utf8("{\"a\":{\"value\":20},\"nested\":{\"value\":{\"x\":{\"value\":99}}}}"));
+        final Settings config = new Settings();
+        final ConfigManager<Settings> manager = new ConfigManager.Builder<Settings>(TestFiles.tempFile()).layer(base).build(config);
+        manager.load();
+        Assertions.assertEquals(20, config.a);
+        Assertions.assertEquals(99, config.nested.x);
+
+        base.update(TestFiles.utf8("{}"));
+        Assertions.assertEquals(1, config.a);
+        Assertions.assertEquals(5, config.nested.x);
+    }
+
+    @Test
+    public void removedValuesFallBackToLowerLayers() throws IOException {
+        final ConfigLayer base = ConfigLayer.of("base", TestFiles.utf8("{\"a\":{\"value\":20},\"nested\":{\"value\":{\"x\":{\"value\":99}}}}"));
+        final ConfigLayer host = ConfigLayer.of("host", TestFiles.utf8("{\"a\":{\"value\":30},\"nested\":{\"value\":{\"x\":{\"value\":40},\"y\":{\"value\":41}}}}"));
+        final Settings config = new Settings();
+        final ConfigManager<Settings> manager = new ConfigManager.Builder<Settings>(TestFiles.tempFile()).layer(base).layer(host).build(config);
+        manager.load();
+        Assertions.assertEquals(30, config.a);
+        Assertions.assertEquals(40, config.nested.x);
+        Assertions.assertEquals(41, config.nested.y);
+
+        host.update(TestFiles.utf8("{\"nested\":{\"value\":{\"y\":{\"value\":42}}}}"));
+        Assertions.assertEquals(20, config.a);
+        Assertions.assertEquals(99, config.nested.x);
+        Assertions.assertEquals(42, config.nested.y);
+    }
+
+    @Test
+    public void savingOnlyWritesOverriddenValues() throws IOException {
+        final ConfigLayer base = ConfigLayer.of("base", TestFiles.utf8("{\"a\":{\"value\":20},\"nested\":{\"value\":{\"x\":{\"value\":99}}}}"));
+        final Path file = TestFiles.tempFile();
+        Files.writeString(file, "{\"nested\":{\"value\":{\"y\":{\"value\":8}}}}");
+        final Settings config = new Settings();
+        final ConfigManager<Settings> manager = new ConfigManager.Builder<Settings>(file).layer(base).build(config);
+        manager.load();
+        Assertions.assertEquals(99, config.nested.x);
+        Assertions.assertEquals(8, config.nested.y);
+
+        final JsonObject saved = JsonParser.parseString(TestFiles.save(manager)).getAsJsonObject();
+        Assertions.assertEquals(Set.of("nested"), saved.keySet());
+        Assertions.assertEquals(Set.of("y"), saved.getAsJsonObject("nested").getAsJsonObject("value").keySet());
+
+        config.a = 50;
+        config.nested.x = 60;
+        final JsonObject changed = JsonParser.parseString(TestFiles.save(manager)).getAsJsonObject();
+        Assertions.assertEquals(Set.of("a", "nested"), changed.keySet());
+        Assertions.assertEquals(50, changed.getAsJsonObject("a").get("value").getAsInt());
+        Assertions.assertEquals(Set.of("x", "y"), changed.getAsJsonObject("nested").getAsJsonObject("value").keySet());
+    }
+
+    @Test
+    public void savingWithoutChangesWritesNothing() throws IOException {
+        final ConfigLayer base = ConfigLayer.of("base", TestFiles.utf8("{\"a\":{\"value\":20}}"));
+        final ConfigManager<Settings> manager = new ConfigManager.Builder<Settings>(TestFiles.tempFile()).layer(base).build(new Settings());
+        manager.load();
+        Assertions.assertEquals(0, JsonParser.parseString(TestFiles.save(manager)).getAsJsonObject().size());
+    }
+
+    public static class Settings {
+
+        @Value
+        public int a = 1;
+
+        @Value
+        public Nested nested = new Nested();
+    }
+
+    public static class Nested {
+
+        @Value
+        public int x = 5;
+
+        @Value
+        public int y = 6;
+    }
+}
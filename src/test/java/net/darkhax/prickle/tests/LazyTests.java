@@ -0,0 +1,160 @@
+package net.darkhax.prickle.tests;
+
+import net.darkhax.prickle.annotations.Interpolate;
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.ConfigKey;
+import net.darkhax.prickle.config.ConfigManager;
+import net.darkhax.prickle.config.DerivedValue;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class LazyTests {
+
+    private static final String JSON = "{\"host\":{\"value\":\"example.com\"},\"port\":{\"value\":25565},\"network\":{\"value\":{\"timeout\":{\"value\":90}}}}";
+
+    @Test
+    public void keysReadLazyProperties() throws IOException {
+        final Settings config = new Settings();
+        final ConfigManager<Settings> manager = lazyManager(config);
+        final ConfigKey<Integer> port = manager.key("port", Integer.class);
+        final ConfigKey<Integer> timeout = manager.key("network.timeout", Integer.class);
+        Assertions.assertEquals(25565, (int) port.get());
+        Assertions.assertEquals(90, (int) timeout.get());
+        Assertions.assertEquals(25565, config.port);
+    }
+
+    @Test
+    public void derivedValuesReadLazyProperties() throws IOException {
+        final Settings config = new Settings();
+        final ConfigManager<Settings> manager = lazyManager(config);
+        final ConfigKey<Integer> port = manager.key("port", Integer.class);
+        final DerivedValue<String> label = manager.derive(() -> "port " + port.get());
+        Assertions.assertEquals("port 25565", label.get());
+    }
+
+    @Test
+    public void interpolatedFieldsReadLazyProperties() throws IOException {
+        final Settings config = new Settings();
+        lazyManager(config);
+        Assertions.assertEquals("example.com:25565", config.address);
+    }
+
+    @Test
+    public void unreadPropertiesKeepTheirDefaults() throws IOException {
+        final Settings config = new Settings();
+        lazyManager(config);
+        Assertions.assertEquals(30, config.network.timeout);
+    }
+
+    @Test
+    public void onlyRequestedPropertiesAreRead() throws IOException {
+        final Plain config = new Plain();
+        final ConfigManager<Plain> manager = lazyManager(config, JSON);
+        Assertions.assertEquals("localhost", config.host);
+        Assertions.assertEquals("example.com", manager.value("host"));
+        Assertions.assertEquals("example.com", config.host);
+        Assertions.assertEquals(8080, config.port);
+        Assertions.assertEquals(30, config.network.timeout);
+    }
+
+    @Test
+    public void nestedPathsReadOnlyTheNestedProperty() throws IOException {
+        final Plain config = new Plain();
+        final ConfigManager<Plain> manager = lazyManager(config, "{\"network\":{\"value\":{\"timeout\":{\"value\":90},\"retries\":{\"value\":9}}}}");
+        manager.require("network.timeout");
+        Assertions.assertEquals(90, config.network.timeout);
+        Assertions.assertEquals(3, config.network.retries);
+        manager.require("network");
+        Assertions.assertEquals(9, config.network.retries);
+    }
+
+    @Test
+    public void savingKeepsPropertiesThatWereRead() throws IOException {
+        final Plain config = new Plain();
+        final ConfigManager<Plain> manager = lazyManager(config, "{\"network\":{\"value\":{\"timeout\":{\"value\":90},\"retries\":{\"value\":9}}}}");
+        manager.require("network.timeout");
+        config.network.timeout = 5;
+        manager.save();
+        Assertions.assertEquals(5, config.network.timeout);
+        Assertions.assertEquals(9, config.network.retries);
+
+        final Plain saved = new Plain();
+        lazyManager(saved, TestFiles.save(manager)).require("network");
+        Assertions.assertEquals(5, saved.network.timeout);
+        Assertions.assertEquals(9, saved.network.retries);
+    }
+
+    @Test
+    public void propertiesAreOnlyReadOnce() throws IOException {
+        final Plain config = new Plain();
+        final ConfigManager<Plain> manager = lazyManager(config, JSON);
+        manager.require("port");
+        config.port = 1;
+        manager.require("port");
+        Assertions.assertEquals(1, (int) manager.value("port"));
+    }
+
+    @Test
+    public void missingPropertiesKeepTheirDefaults() throws IOException {
+        final Plain config = new Plain();
+        final ConfigManager<Plain> manager = lazyManager(config, "{\"host\":{\"value\":\"example.com\"}}");
+        Assertions.assertEquals(8080, (int) manager.value("port"));
+        Assertions.assertEquals(3, (int) manager.value("network.retries"));
+    }
+
+    private static <T> ConfigManager<T> lazyManager(T config, String json) throws IOException {
+        final Path file = TestFiles.tempFile();
+        Files.writeString(file, json);
+        final ConfigManager<T> manager = new ConfigManager.Builder<T>(file).lazy().build(config);
+        manager.load();
+        return manager;
+    }
+
+    private static ConfigManager<Settings> lazyManager(Settings config) throws IOException {
+        final Path file = TestFiles.tempFile();
+        Files.writeString(file, JSON);
+        final ConfigManager<Settings> manager = new ConfigManager.Builder<Settings>(file).lazy().build(config);
+        manager.load();
+        return manager;
+    }
+
+    public static class Settings {
+
+        @Value
+        public String host = "localhost";
+
+        @Value
+        public int port = 8080;
+
+        @Value
+        public Network network = new Network();
+
+        @Interpolate("${host}:${port}")
+        public String address;
+    }
+
+    public static class Network {
+
+        @Value
+        public int timeout = 30;
+
+        @Value
+        public int retries = 3;
+    }
+
+    public static class Plain {
+
+        @Value
+        public String host = "localhost";
+
+        @Value
+        public int port = 8080;
+
+        @Value
+        public Network network = new Network();
+    }
+}
@@ -0,0 +1,116 @@
+package net.darkhax.prickle.tests;
+
+import net.darkhax.prickle.annotations.RangedInt;
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.ConfigManager;
+import net.darkhax.prickle.config.property.MapProperty;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+public class MapPropertyTests {
+
+    @Test
+    public void entriesAreAppliedToExistingMap() throws IOException {
+        final Limits config = new Limits();
+        final Map<String, Integer> original = config.limits;
+        final ConfigManager<Limits> manager = new ConfigManager.Builder<Limits>(TestFiles.tempFile()).build(config);
+
+        manager.load(TestFiles.utf8("{\"limits\":{\"value\":{\"a\":1,\"b\":5,\"c\":3}}}"));
+        Assertions.assertSame(original, config.limits);
+        Assertions.assertEquals(Map.of("a", 1, "b", 5, "c", 3), config.limits);
+
+        final MapProperty.Changes changes = changes(manager, "limits");
+        Assertions.assertEquals(Set.of("c"), changes.added());
+        Assertions.assertEquals(Set.of("b"), changes.changed());
+        Assertions.assertTrue(changes.removed().isEmpty());
+
+        manager.load(TestFiles.utf8("{\"limits\":{\"value\":{\"a\":1}}}"));
+        Assertions.assertEquals(Set.of("b", "c"), changes(manager, "limits").removed());
+    }
+
+    @Test
+    public void invalidEntryLeavesMapUnchanged() throws IOException {
+        final Limits config = new Limits();
+        final ConfigManager<Limits> manager = new ConfigManager.Builder<Limits>(TestFiles.tempFile()).build(config);
+        Assertions.assertThrows(RuntimeException.class, () -> manager.load(TestFiles.utf8("{\"limits\":{\"value\":{\"a\":7,\"b\":500}}}")));
+        Assertions.assertEquals(Map.of("a", 1, "b", 2), config.limits);
+    }
+
+    @Test
+    public void unchangedConfigObjectsAreNotReported() throws IOException {
+        final Servers config = new Servers();
+        final ConfigManager<Servers> manager = new ConfigManager.Builder<Servers>(TestFiles.tempFile()).build(config);
+        final byte[] json = TestFiles.utf8("{\"servers\":{\"value\":{\"main\":{\"port\":{\"value\":1}},\"backup\":{\"port\":{\"value\":2}}}}}");
+
+        manager.load(json);
+        final ElementSchemaTests.Server main = config.servers.get("main");
+        Assertions.assertEquals(Set.of("main", "backup"), changes(manager, "servers").added());
+
+        manager.load(json);
+        Assertions.assertTrue(changes(manager, "servers").isEmpty());
+        Assertions.assertSame(main, config.servers.get("main"));
+
+        manager.load(TestFiles.utf8("{\"servers\":{\"value\":{\"main\":{\"port\":{\"value\":3}},\"backup\":{\"port\":{\"value\":2}}}}}"));
+        Assertions.assertEquals(Set.of("main"), changes(manager, "servers").changed());
+        Assertions.assertEquals(3, config.servers.get("main").port);
+    }
+
+    @Test
+    public void nestedConfigObjectsAreComparedByTheirProperties() throws IOException {
+        final Nodes config = new Nodes();
+        final ConfigManager<Nodes> manager = new ConfigManager.Builder<Nodes>(TestFiles.tempFile()).build(config);
+        final byte[] json = TestFiles.utf8("{\"nodes\":{\"value\":{\"root\":{\"name\":{\"value\":\"a\"},\"children\":{\"value\":[{\"name\":{\"value\":\"b\"}}]}}}}}");
+
+        manager.load(json);
+        manager.load(json);
+        Assertions.assertTrue(changes(manager, "nodes").isEmpty());
+
+        manager.load(TestFiles.utf8("{\"nodes\":{\"value\":{\"root\":{\"name\":{\"value\":\"a\"},\"children\":{\"value\":[{\"name\":{\"value\":\"c\"}}]}}}}}"));
+        Assertions.assertEquals(Set.of("root"), changes(manager, "nodes").changed());
+        Assertions.assertEquals("c", config.nodes.get("root").children.get(0).name);
+    }
+
+    @Test
+    public void nullMapsRemoveEveryKey() throws IOException {
+        final Limits limits = new Limits();
+        final ConfigManager<Limits> limitsManager = new ConfigManager.Builder<Limits>(TestFiles.tempFile()).build(limits);
+        limitsManager.load(TestFiles.utf8("{\"limits\":{\"value\":null}}"));
+        Assertions.assertTrue(limits.limits.isEmpty());
+        Assertions.assertEquals(Set.of("a", "b"), changes(limitsManager, "limits").removed());
+
+        final Servers servers = new Servers();
+        final ConfigManager<Servers> serversManager = new ConfigManager.Builder<Servers>(TestFiles.tempFile()).build(servers);
+        serversManager.load(TestFiles.utf8("{\"servers\":{\"value\":{\"main\":{\"port\":{\"value\":1}}}}}"));
+        serversManager.load(TestFiles.utf8("{\"servers\":{\"value\":null}}"));
+        Assertions.assertTrue(servers.servers.isEmpty());
+        Assertions.assertEquals(Set.of("main"), changes(serversManager, "servers").removed());
+    }
+
+    private static MapProperty.Changes changes(ConfigManager<?> manager, String name) {
+        return ((MapProperty<?>) manager.property(name)).lastChanges();
+    }
+
+    public static class Limits {
+
+        @Value
+        @RangedInt(min = 0, max = 10)
+        public Map<String, Integer> limits = new LinkedHashMap<>(Map.of("a", 1, "b", 2));
+    }
+
+    public static class Servers {
+
+        @Value
+        public Map<String, ElementSchemaTests.Server> servers = new LinkedHashMap<>();
+    }
+
+    public static class Nodes {
+
+        @Value
+        public Map<String, ElementSchemaTests.Node> nodes = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,87 @@
+package net.darkhax.prickle.tests;
+
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.ConfigManager;
+import net.darkhax.prickle.config.property.mapped.MappedNumericArray;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MappedArrayTests {
+
+    @Test
+    public void valuesAreReadFromSidecar() throws IOException {
+        final Path file = TestFiles.tempFile();
+        final Table config = new Table();
+        config.table = MappedNumericArray.ofDoubles(1.5, 2.5, 3.5, 4.5);
+        new ConfigManager.Builder<Table>(file).build(config).save();
+        Assertions.assertTrue(Files.exists(file.resolveSibling("config.table.bin")));
+
+        final Table loaded = new Table();
+        new ConfigManager.Builder<Table>(file).build(loaded).load();
+        Assertions.assertEquals(4, loaded.table.length());
+        Assertions.assertEquals(3.5, loaded.table.getDouble(2));
+    }
+
+    @Test
+    public void configsInSameDirectoryUseSeparateSidecars() throws IOException {
+        final Path first = TestFiles.tempFile();
+        final Path second = first.resolveSibling("other.json");
+
+        final Table firstConfig = new Table();
+        firstConfig.table = MappedNumericArray.ofDoubles(1, 2, 3);
+        new ConfigManager.Builder<Table>(first).build(firstConfig).save();
+        final Table secondConfig = new Table();
+        secondConfig.table = MappedNumericArray.ofDoubles(9, 8);
+        new ConfigManager.Builder<Table>(second).build(secondConfig).save();
+
+        final Table loaded = new Table();
+        new ConfigManager.Builder<Table>(first).build(loaded).load();
+        Assertions.assertEquals(3, loaded.table.length());
+        Assertions.assertEquals(2.0, loaded.table.getDouble(1));
+    }
+
+    @Test
+    public void sidecarsOutsideDirectoryAreRejected() throws IOException {
+        final Path file = TestFiles.tempFile().resolveSibling("nested").resolve("config.json");
+        Files.createDirectories(file.getParent());
+        final Table config = new Table();
+        final ConfigManager<Table> manager = new ConfigManager.Builder<Table>(file).build(config);
+        Files.write(file.getParent().resolveSibling("escaped.bin"), new byte[8]);
+
+        Assertions.assertThrows(RuntimeException.class, () -> manager.load(TestFiles.utf8("{\"table\":{\"value\":{\"file\":\"../escaped.bin\",\"dtype\":\"float64\",\"length\":1}}}")));
+        Assertions.assertEquals(1, config.table.length());
+    }
+
+    @Test
+    public void sidecarsAreOnlyWrittenWhenTheFileIsSaved() throws IOException {
+        final Path file = TestFiles.tempFile();
+        final Table config = new Table();
+        final ConfigManager<Table> manager = new ConfigManager.Builder<Table>(file).build(config);
+        TestFiles.save(manager);
+        Assertions.assertFalse(Files.exists(file.resolveSibling("config.table.bin")));
+
+        manager.save();
+        Assertions.assertTrue(Files.exists(file.resolveSibling("config.table.bin")));
+    }
+
+    @Test
+    public void validatedSidecarsAreResolvedAgainstTheirFile() throws IOException {
+        final Path other = TestFiles.tempFile();
+        final Table saved = new Table();
+        saved.table = MappedNumericArray.ofDoubles(1, 2);
+        new ConfigManager.Builder<Table>(other).build(saved).save();
+
+        final ConfigManager<Table> manager = new ConfigManager.Builder<Table>(TestFiles.tempFile()).build(new Table());
+        Assertions.assertTrue(manager.validator().validate(other).isEmpty());
+    }
+
+    public static class Table {
+
+        @Value
+        public MappedNumericArray table = MappedNumericArray.ofDoubles(0.5);
+    }
+}
@@ -0,0 +1,138 @@
+package net.darkhax.prickle.tests;
+
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.ConfigManager;
+import net.darkhax.prickle.config.layer.OverrideSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class OverrideTests {
+
+    @Test
+    public void keysMatchPropertiesIgnoringCaseAndSeparators() throws IOException {
+        final Settings config = load(Map.of("APP_NETWORK_MAX_CONNECTIONS", "64", "app.port", "9000"));
+        Assertions.assertEquals(64, config.network.maxConnections);
+        Assertions.assertEquals(9000, config.port);
+    }
+
+    @Test
+    public void overridesOnlyChangeTheirProperty() throws IOException {
+        final Settings config = load(Map.of("APP_NETWORK_MAX_CONNECTIONS", "64"));
+        Assertions.assertEquals(30, config.network.timeout);
+        Assertions.assertEquals("file.example.com", config.host);
+    }
+
+    @Test
+    public void textIsUsedAsWritten() throws IOException {
+        final Settings config = load(Map.of("APP_HOST", "override.example.com", "APP_MODE", "FAST", "APP_TAGS", "[\"a\",\"b\"]"));
+        Assertions.assertEquals("override.example.com", config.host);
+        Assertions.assertEquals(Mode.FAST, config.mode);
+        Assertions.assertEquals(List.of("a", "b"), config.tags);
+    }
+
+    @Test
+    public void otherKeysAreIgnored() throws IOException {
+        final Settings config = load(Map.of("OTHER_PORT", "1", "APP_UNKNOWN", "2", "APP_NETWORK", "3"));
+        Assertions.assertEquals(8080, config.port);
+        Assertions.assertEquals(10, config.network.maxConnections);
+    }
+
+    @Test
+    public void invalidValuesAreRejected() {
+        Assertions.assertThrows(RuntimeException.class, () -> load(Map.of("APP_PORT", "not a number")));
+    }
+
+    @Test
+    public void overridesAreNotSaved() throws IOException {
+        final Path file = TestFiles.tempFile();
+        Files.writeString(file, "{\"password\":{\"value\":\"file\"}}");
+        final Settings config = new Settings();
+        final ConfigManager<Settings> manager = new ConfigManager.Builder<Settings>(file).cache().overrides(OverrideSource.of("env", "APP_", Map.of("APP_PASSWORD", "secret", "APP_NETWORK_TIMEOUT", "5"))).build(config);
+        manager.load();
+        Assertions.assertEquals("secret", config.password);
+        Assertions.assertEquals(5, config.network.timeout);
+
+        manager.save();
+        Assertions.assertFalse(TestFiles.save(manager).contains("secret"));
+        try (Stream<Path> files = Files.list(file.getParent())) {
+            for (Path saved : files.toList()) {
+                Assertions.assertFalse(new String(Files.readAllBytes(saved), StandardCharsets.ISO_8859_1).contains("secret"));
+            }
+        }
+
+        final Settings reloaded = new Settings();
+        new ConfigManager.Builder<Settings>(file).cache().build(reloaded).load();
+        Assertions.assertEquals("file", reloaded.password);
+        Assertions.assertEquals(30, reloaded.network.timeout);
+        Assertions.assertEquals("secret", config.password);
+    }
+
+    @Test
+    public void changedOverridesAreSaved() throws IOException {
+        final Settings config = new Settings();
+        final ConfigManager<Settings> manager = new ConfigManager.Builder<Settings>(TestFiles.tempFile()).overrides(OverrideSource.of("test", "app", Map.of("APP_PORT", "9000", "APP_NETWORK_TIMEOUT", "5"))).build(config);
+        manager.load(TestFiles.utf8("{\"port\":{\"value\":8000}}"));
+        config.port = 1234;
+
+        final Settings saved = new Settings();
+        new ConfigManager.Builder<Settings>(TestFiles.tempFile()).build(saved).load(TestFiles.utf8(TestFiles.save(manager)));
+        Assertions.assertEquals(1234, saved.port);
+        Assertions.assertEquals(30, saved.network.timeout);
+    }
+
+    @Test
+    public void keysAreCanonicalized() {
+        Assertions.assertEquals("NETWORKMAXCONNECTIONS", OverrideSource.canonicalize("network.max-Connections"));
+        Assertions.assertEquals("NETWORKMAXCONNECTIONS", OverrideSource.canonicalize("NETWORK_MAX_CONNECTIONS"));
+    }
+
+    private static Settings load(Map<String, String> values) throws IOException {
+        final Settings config = new Settings();
+        final ConfigManager<Settings> manager = new ConfigManager.Builder<Settings>(TestFiles.tempFile()).overrides(OverrideSource.of("test", "app", values)).build(config);
+        manager.load(TestFiles.utf8("{\"host\":{\"value\":\"file.example.com\"}}"));
+        return config;
+    }
+
+    public enum Mode {
+        SAFE,
+        FAST
+    }
+
+    public static class Settings {
+
+        @Value
+        public String host = "localhost";
+
+        @Value
+        public int port = 8080;
+
+        @Value
+        public String password = "";
+
+        @Value
+        public Mode mode = Mode.SAFE;
+
+        @Value
+        public List<String> tags = List.of();
+
+        @Value
+        public Network network = new Network();
+    }
+
+    public static class Network {
+
+        @Value
+        public int maxConnections = 10;
+
+        @Value
+        public int timeout = 30;
+    }
+}
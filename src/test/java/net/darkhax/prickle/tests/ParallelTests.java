@@ -0,0 +1,113 @@
+package net.darkhax.prickle.tests;
+
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.ConfigManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParallelTests {
+
+    @Test
+    public void smallConfigsAreWrittenOnOneThread() throws IOException {
+        final CountingPool pool = new CountingPool();
+        final ConfigManager<Settings> manager = new ConfigManager.Builder<Settings>(TestFiles.tempFile()).parallel(pool).build(new Settings());
+        TestFiles.save(manager);
+        TestFiles.save(manager);
+        Assertions.assertEquals(0, pool.submitted.get());
+    }
+
+    @Test
+    public void largeConfigsAreWrittenInParallel() throws IOException {
+        final Settings config = new Settings();
+        for (int i = 0; i < 10000; i++) {
+            config.entries.add("entry number " + i);
+        }
+        final CountingPool pool = new CountingPool();
+        final ConfigManager<Settings> manager = new ConfigManager.Builder<Settings>(TestFiles.tempFile()).parallel(pool).build(config);
+        final ConfigManager<Settings> sequential = new ConfigManager.Builder<Settings>(TestFiles.tempFile()).build(config);
+
+        // The size is not known until the config has been written once.
+        final String first = TestFiles.save(manager);
+        Assertions.assertEquals(0, pool.submitted.get());
+        Assertions.assertTrue(first.length() >= 64 * 1024);
+
+        final String second = TestFiles.save(manager);
+        Assertions.assertEquals(2, pool.submitted.get());
+        Assertions.assertEquals(TestFiles.save(sequential), second);
+    }
+
+    @Test
+    public void largeConfigsAreReadInParallel() throws IOException {
+        final Settings source = new Settings();
+        source.name = "parallel";
+        for (int i = 0; i < 10000; i++) {
+            source.entries.add("entry number " + i);
+        }
+        final byte[] data = TestFiles.utf8(TestFiles.save(new ConfigManager.Builder<Settings>(TestFiles.tempFile()).build(source)));
+        Assertions.assertTrue(data.length >= 64 * 1024);
+
+        final CountingPool pool = new CountingPool();
+        final Settings config = new Settings();
+        new ConfigManager.Builder<Settings>(TestFiles.tempFile()).parallel(pool).build(config).load(data);
+        Assertions.assertTrue(pool.read.get() > 0);
+        Assertions.assertEquals("parallel", config.name);
+        Assertions.assertEquals(source.entries, config.entries);
+    }
+
+    @Test
+    public void smallConfigsAreReadOnOneThread() throws IOException {
+        final CountingPool pool = new CountingPool();
+        final Settings config = new Settings();
+        new ConfigManager.Builder<Settings>(TestFiles.tempFile()).parallel(pool).build(config).load(TestFiles.utf8("{\"name\":{\"value\":\"small\"}}"));
+        Assertions.assertEquals(0, pool.read.get());
+        Assertions.assertEquals("small", config.name);
+    }
+
+    @Test
+    public void parallelReadsKeepTheLastDuplicate() throws IOException {
+        final StringBuilder json = new StringBuilder("{\"name\":{\"value\":\"first\"},\"entries\":{\"value\":[");
+        for (int i = 0; i < 10000; i++) {
+            json.append(i > 0 ? "," : "").append("\"entry number ").append(i).append('"');
+        }
+        json.append("]},\"name\":{\"value\":\"last\"}}");
+        final Settings config = new Settings();
+        new ConfigManager.Builder<Settings>(TestFiles.tempFile()).parallel(new CountingPool()).build(config).load(TestFiles.utf8(json.toString()));
+        Assertions.assertEquals("last", config.name);
+        Assertions.assertEquals(10000, config.entries.size());
+    }
+
+    public static class Settings {
+
+        @Value
+        public String name = "prickle";
+
+        @Value
+        public List<String> entries = new ArrayList<>();
+    }
+
+    private static class CountingPool extends ForkJoinPool {
+
+        private final AtomicInteger submitted = new AtomicInteger();
+        private final AtomicInteger read = new AtomicInteger();
+
+        @Override
+        public <T> ForkJoinTask<T> submit(Callable<T> task) {
+            this.submitted.incrementAndGet();
+            return super.submit(task);
+        }
+
+        @Override
+        public ForkJoinTask<?> submit(Runnable task) {
+            this.read.incrementAndGet();
+            return super.submit(task);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package net.darkhax.prickle.tests;
+
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonReader;
+import net.darkhax.prickle.query.PrickleQuery;
+import net.darkhax.prickle.query.PropertyPath;
+import net.darkhax.prickle.query.QueryResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class QueryTests {
+
+    private static final String JSON = "{\"name\":{\"//\":\"The value of the name.\",\"value\":\"prickle\"},\"database\":{\"value\":{\"pool\":{\"value\":{\"size\":{\"//default\":4,\"value\":16}}}}},\"a/b\":{\"value\":true}}";
+
+    @Test
+    public void dottedPathsAndPointersFindTheSameValue() throws IOException {
+        Assertions.assertEquals(16, find("database.pool.size").getAsInt());
+        Assertions.assertEquals(16, find("/database/pool/size").getAsInt());
+        Assertions.assertEquals("prickle", find("name").getAsString());
+        Assertions.assertTrue(find("/a~1b").getAsBoolean());
+    }
+
+    @Test
+    public void missingPropertiesAreNull() throws IOException {
+        Assertions.assertNull(find("missing"));
+        Assertions.assertNull(find("database.pool.missing"));
+        Assertions.assertNull(find("name.inner"));
+    }
+
+    @Test
+    public void readingStopsOnceThePropertyIsFound() throws IOException {
+        final JsonReader reader = new JsonReader(new StringReader("{\"first\":{\"value\":1},\"second\":{\"value\": not json"));
+        Assertions.assertEquals(1, PrickleQuery.find(reader, PropertyPath.parse("first")).getAsInt());
+    }
+
+    @Test
+    public void filesAreQueriedIndependently() throws IOException {
+        final Path file = TestFiles.tempFile();
+        Files.writeString(file, JSON);
+        final Path missing = file.resolveSibling("missing.json");
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final List<QueryResult> results = PrickleQuery.findAll(List.of(missing, file), PropertyPath.parse("name"), executor);
+            Assertions.assertEquals(missing, results.get(0).file());
+            Assertions.assertNotNull(results.get(0).error());
+            Assertions.assertEquals(file, results.get(1).file());
+            Assertions.assertNull(results.get(1).error());
+            Assertions.assertEquals("prickle", results.get(1).value().getAsString());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void pathsAreParsed() {
+        Assertions.assertEquals(List.of("a", "b"), PropertyPath.parse("a.b").segments());
+        Assertions.assertEquals(List.of("a.b", "c/d", "e~f"), PropertyPath.parse("/a.b/c~1d/e~0f").segments());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PropertyPath.parse("a..b"));
+    }
+
+    private static JsonElement find(String path) throws IOException {
+        return PrickleQuery.find(new JsonReader(new StringReader(JSON)), PropertyPath.parse(path));
+    }
+}
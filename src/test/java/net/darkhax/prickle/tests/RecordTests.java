@@ -0,0 +1,82 @@
+package net.darkhax.prickle.tests;
+
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.ConfigManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class RecordTests {
+
+    @Test
+    public void recordsAreReplacedWhenLoaded() throws IOException {
+        final ConfigManager<Server> manager = new ConfigManager.Builder<Server>(TestFiles.tempFile()).build(Server.DEFAULT);
+        manager.load(TestFiles.utf8("{\"port\":{\"value\":25},\"limits\":{\"value\":{\"burst\":{\"value\":9}}}}"));
+        Assertions.assertEquals(25, manager.get().port());
+        Assertions.assertEquals(9, manager.get().limits().burst());
+        Assertions.assertEquals(80, Server.DEFAULT.port());
+    }
+
+    @Test
+    public void rejectedValuesAreDiscarded() throws IOException {
+        final ConfigManager<Server> manager = new ConfigManager.Builder<Server>(TestFiles.tempFile()).build(Server.DEFAULT);
+        final String saved = TestFiles.save(manager);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> manager.load(TestFiles.utf8("{\"port\":{\"value\":81},\"tags\":{\"value\":[\"changed\"]}}")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> manager.load(TestFiles.utf8("{\"limits\":{\"value\":{\"burst\":{\"value\":-1}}},\"tags\":{\"value\":[\"changed\"]}}")));
+        Assertions.assertSame(Server.DEFAULT, manager.get());
+        Assertions.assertEquals(80, (int) manager.value("port"));
+        Assertions.assertEquals(List.of("web"), manager.value("tags"));
+        Assertions.assertEquals(4, (int) manager.value("limits.burst"));
+        Assertions.assertEquals(saved, TestFiles.save(manager));
+
+        // A valid load after a rejected one still applies.
+        manager.load(TestFiles.utf8("{\"port\":{\"value\":70}}"));
+        Assertions.assertEquals(70, manager.get().port());
+        Assertions.assertEquals(List.of("web"), manager.get().tags());
+    }
+
+    @Test
+    public void lazyPropertiesAreReadConcurrently() throws Exception {
+        final Path file = TestFiles.tempFile();
+        Files.writeString(file, "{\"port\":{\"value\":25},\"tags\":{\"value\":[\"a\",\"b\"]},\"limits\":{\"value\":{\"burst\":{\"value\":9}}}}");
+        for (int attempt = 0; attempt < 20; attempt++) {
+            final ConfigManager<Server> manager = new ConfigManager.Builder<Server>(file).lazy().build(Server.DEFAULT);
+            manager.load();
+            final List<Thread> threads = new ArrayList<>();
+            for (String path : List.of("port", "tags", "limits.burst")) {
+                threads.add(new Thread(() -> manager.require(path)));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            Assertions.assertEquals(new Server(25, List.of("a", "b"), new Limits(9)), manager.get());
+        }
+    }
+
+    public record Server(@Value int port, @Value List<String> tags, @Value Limits limits) {
+
+        public static final Server DEFAULT = new Server(80, List.of("web"), new Limits(4));
+
+        public Server {
+            if (port > 80) {
+                throw new IllegalArgumentException("Port " + port + " is not allowed.");
+            }
+        }
+    }
+
+    public record Limits(@Value int burst) {
+
+        public Limits {
+            if (burst < 0) {
+                throw new IllegalArgumentException("Burst must not be negative.");
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package net.darkhax.prickle.tests;
+
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.ConfigManager;
+import net.darkhax.prickle.util.ByteBufferOutputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class StreamTests {
+
+    @Test
+    public void streamsRoundTrip() throws IOException {
+        final Settings source = new Settings();
+        source.name = "héllo 🌵";
+        source.size = 12;
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        manager(source).save(out);
+
+        final Settings target = new Settings();
+        final ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        manager(target).load(in);
+        Assertions.assertEquals(source.name, target.name);
+        Assertions.assertEquals(12, target.size);
+    }
+
+    @Test
+    public void channelsMatchStreams() throws IOException {
+        final ConfigManager<Settings> manager = manager(new Settings());
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        manager.save(stream);
+        final ByteArrayOutputStream channel = new ByteArrayOutputStream();
+        manager.save(Channels.newChannel(channel));
+        Assertions.assertArrayEquals(stream.toByteArray(), channel.toByteArray());
+    }
+
+    @Test
+    public void buffersAreNotMoved() throws IOException {
+        final Settings config = new Settings();
+        final ByteBuffer buffer = ByteBuffer.wrap(TestFiles.utf8("  {\"size\":{\"value\":7}}")).position(2);
+        manager(config).load(buffer);
+        Assertions.assertEquals(7, config.size);
+        Assertions.assertEquals(2, buffer.position());
+    }
+
+    @Test
+    public void reusableBuffersAreReset() throws IOException {
+        final Settings config = new Settings();
+        final ConfigManager<Settings> manager = manager(config);
+        final ByteBufferOutputStream buffer = new ByteBufferOutputStream(16);
+        final ByteBuffer first = manager.saveToBuffer(buffer);
+        final int size = first.remaining();
+        Assertions.assertTrue(first.isReadOnly());
+
+        final ByteBuffer second = manager.saveToBuffer(buffer);
+        Assertions.assertEquals(size, second.remaining());
+        Assertions.assertEquals(size, buffer.size());
+    }
+
+    @Test
+    public void memoryTargetsDoNotTouchTheFile() throws IOException {
+        final Path file = TestFiles.tempFile();
+        final ConfigManager<Settings> manager = new ConfigManager.Builder<Settings>(file).build(new Settings());
+        manager.load(TestFiles.utf8("{\"size\":{\"value\":3}}"));
+        manager.save(new ByteArrayOutputStream());
+        Assertions.assertFalse(Files.exists(file));
+    }
+
+    private static ConfigManager<Settings> manager(Settings config) throws IOException {
+        return new ConfigManager.Builder<Settings>(TestFiles.tempFile()).build(config);
+    }
+
+    public static class Settings {
+
+        @Value
+        public String name = "prickle";
+
+        @Value
+        public int size = 4;
+    }
+}
@@ -0,0 +1,69 @@
+package net.darkhax.prickle.tests;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import net.darkhax.prickle.config.PrickleContext;
+import net.darkhax.prickle.util.StringDeduplicator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+public class StringDeduplicatorTests {
+
+    @Test
+    public void anyPositiveCapacityWorks() {
+        for (int capacity : new int[] {1, 2, 3, 4, 5, 1000}) {
+            final StringDeduplicator strings = new StringDeduplicator(capacity);
+            final String first = new String("prickle");
+            Assertions.assertSame(first, strings.dedupe(first));
+            Assertions.assertSame(first, strings.dedupe(new String("prickle")));
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new StringDeduplicator(0));
+    }
+
+    @Test
+    public void singleSlotReplacesPreviousString() {
+        final StringDeduplicator strings = new StringDeduplicator(1);
+        final String first = new String("a");
+        final String second = new String("b");
+        strings.dedupe(first);
+        Assertions.assertSame(second, strings.dedupe(second));
+        Assertions.assertNotSame(first, strings.dedupe(new String("a")));
+        Assertions.assertEquals(0L, strings.stats().hits());
+    }
+
+    @Test
+    public void userStringAdaptersAreKept() {
+        final StringDeduplicator strings = new StringDeduplicator(64);
+        final PrickleContext context = new PrickleContext.Builder()
+                .gsonConfig(builder -> builder.registerTypeAdapter(String.class, new UpperCaseAdapter()))
+                .dedupeStrings(strings)
+                .build();
+        final Gson gson = context.gson();
+        final List<String> values = gson.fromJson("[\"host\",\"host\"]", new TypeToken<List<String>>() {}.getType());
+        Assertions.assertEquals(List.of("HOST", "HOST"), values);
+        Assertions.assertSame(values.get(0), values.get(1));
+        Assertions.assertEquals("\"shout\"", gson.toJson("SHOUT"));
+    }
+
+    /**
+     * Reads strings in upper case and writes them in lower case.
+     */
+    private static class UpperCaseAdapter extends TypeAdapter<String> {
+
+        @Override
+        public void write(JsonWriter out, String value) throws IOException {
+            out.value(value.toLowerCase());
+        }
+
+        @Override
+        public String read(JsonReader in) throws IOException {
+            return in.nextString().toUpperCase();
+        }
+    }
+}
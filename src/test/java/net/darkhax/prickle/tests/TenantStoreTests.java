@@ -0,0 +1,85 @@
+package net.darkhax.prickle.tests;
+
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.tenant.TenantStore;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TenantStoreTests {
+
+    private static final String JSON = "{\"port\":{\"value\":25},\"tags\":{\"value\":[\"a\"]},\"limits\":{\"value\":{\"burst\":3}},\"network\":{\"value\":{\"timeout\":{\"value\":90}}}}";
+
+    @Test
+    public void materializedValuesAreCopies() throws IOException {
+        final TenantStore<Settings> store = new TenantStore.Builder<>(Settings::new).build();
+        store.load("acme", write(JSON));
+
+        final Settings copy = store.materialize("acme");
+        copy.tags.add("b");
+        copy.limits.put("burst", 99);
+        copy.network.timeout = 1;
+        final List<String> tags = store.get("acme", "tags");
+        tags.add("c");
+
+        final Settings fresh = store.materialize("acme");
+        Assertions.assertEquals(List.of("a"), fresh.tags);
+        Assertions.assertEquals(Map.of("burst", 3), fresh.limits);
+        Assertions.assertEquals(90, fresh.network.timeout);
+        Assertions.assertEquals(25, fresh.port);
+    }
+
+    @Test
+    public void removedIndicesAreReused() throws IOException {
+        final TenantStore<Settings> store = new TenantStore.Builder<>(Settings::new).build();
+        final Path file = write(JSON);
+        final int first = store.load("first", file);
+        final int second = store.load("second", file);
+        Assertions.assertTrue(store.remove("first"));
+        Assertions.assertFalse(store.contains("first"));
+        Assertions.assertEquals(first, store.load("third", file));
+        Assertions.assertEquals(List.of("third", "second"), store.tenants());
+
+        for (int i = 0; i < 1000; i++) {
+            store.load("churn", file);
+            store.remove("churn");
+        }
+        Assertions.assertNotEquals(second, store.load("fourth", file));
+        Assertions.assertEquals(3, store.tenants().size());
+        Assertions.assertEquals(List.of("third", "second", "fourth"), store.scanInt("port", port -> port == 25));
+    }
+
+    private static Path write(String json) throws IOException {
+        final Path file = TestFiles.tempFile();
+        Files.writeString(file, json);
+        return file;
+    }
+
+    public static class Settings {
+
+        @Value
+        public int port = 8080;
+
+        @Value
+        public List<String> tags = new ArrayList<>();
+
+        @Value
+        public Map<String, Integer> limits = new LinkedHashMap<>();
+
+        @Value
+        public Network network = new Network();
+    }
+
+    public static class Network {
+
+        @Value
+        public int timeout = 30;
+    }
+}
@@ -0,0 +1,50 @@
+package net.darkhax.prickle.tests;
+
+import net.darkhax.prickle.config.ConfigManager;
+import net.darkhax.prickle.util.ByteBufferOutputStream;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Helpers for tests that read and write config files.
+ */
+final class TestFiles {
+
+    private TestFiles() {
+    }
+
+    /**
+     * Gets the path of a config file in a new temporary directory. The file does not exist yet.
+     *
+     * @return The path of the config file.
+     * @throws IOException If the directory could not be created.
+     */
+    static Path tempFile() throws IOException {
+        return Files.createTempDirectory("prickle").resolve("config.json");
+    }
+
+    /**
+     * Saves a config to a string.
+     *
+     * @param manager The config to save.
+     * @return The saved JSON.
+     */
+    static String save(ConfigManager<?> manager) {
+        final ByteBufferOutputStream buffer = new ByteBufferOutputStream();
+        manager.saveToBuffer(buffer);
+        return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encodes JSON as UTF-8.
+     *
+     * @param json The JSON to encode.
+     * @return The encoded JSON.
+     */
+    static byte[] utf8(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
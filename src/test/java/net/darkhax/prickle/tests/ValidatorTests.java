@@ -0,0 +1,144 @@
+package net.darkhax.prickle.tests;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import net.darkhax.prickle.annotations.Value;
+import net.darkhax.prickle.config.ConfigManager;
+import net.darkhax.prickle.config.PropertyResolver;
+import net.darkhax.prickle.config.property.IConfigProperty;
+import net.darkhax.prickle.config.property.mapped.MappedNumericArray;
+import net.darkhax.prickle.config.validate.ValidationReport;
+import net.darkhax.prickle.config.validate.Violation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ValidatorTests {
+
+    @Test
+    public void validatingDoesNotChangeTheConfig() throws IOException {
+        final Path file = TestFiles.tempFile();
+        final Settings config = new Settings();
+        final ConfigManager<Settings> manager = new ConfigManager.Builder<Settings>(file).build(config);
+        manager.save();
+        final String saved = Files.readString(file);
+
+        // Every file references its own sidecar and holds different values.
+        final List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            final Path other = file.resolveSibling("other" + i + ".json");
+            final String sidecar = "other" + i + ".bin";
+            Files.write(other.resolveSibling(sidecar), new byte[8 * (i + 1)]);
+            Files.writeString(other, "{\"limits\":{\"value\":{\"a\":" + i + "}},\"table\":{\"value\":{\"file\":\"" + sidecar + "\",\"dtype\":\"float64\",\"length\":" + (i + 1) + "}}}");
+            files.add(other);
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final ValidationReport report = manager.validator().validateAll(files, executor);
+            Assertions.assertTrue(report.isValid(), report.violations().toString());
+        }
+        finally {
+            executor.shutdown();
+        }
+
+        Assertions.assertEquals(Map.of("a", 1, "b", 2), config.limits);
+        Assertions.assertEquals(3, config.table.length());
+        manager.save();
+        Assertions.assertEquals(saved, Files.readString(file));
+    }
+
+    @Test
+    public void invalidValuesAreReported() throws IOException {
+        final Path file = TestFiles.tempFile();
+        final ConfigManager<Settings> manager = new ConfigManager.Builder<Settings>(file).build(new Settings());
+        Files.writeString(file, "{\"limits\":{\"value\":{\"a\":\"many\"}},\"table\":{\"value\":{\"file\":\"missing.bin\",\"dtype\":\"float64\",\"length\":1}}}");
+        Assertions.assertEquals(2, manager.validator().validate(file).size());
+    }
+
+    @Test
+    public void violationsAreLocatedOnTheirLines() throws IOException {
+        final Path file = TestFiles.tempFile();
+        final ConfigManager<Settings> manager = new ConfigManager.Builder<Settings>(file).build(new Settings());
+        Files.writeString(file, "{\n\n  \"limits\": {\"value\": {\"\u00e9\": \"many\"}}, \"table\": {\"value\": {\"file\": \"missing.bin\", \"dtype\": \"float64\", \"length\": 1}}\n}");
+        final List<Violation> violations = manager.validator().validate(file);
+        Assertions.assertEquals(2, violations.size());
+        Assertions.assertEquals("limits", violations.get(0).property());
+        Assertions.assertEquals(3, violations.get(0).line());
+        Assertions.assertEquals(3, violations.get(0).column());
+
+        // Columns are counted in characters, so the two bytes of the accented name count once.
+        Assertions.assertEquals("table", violations.get(1).property());
+        Assertions.assertEquals(3, violations.get(1).line());
+        Assertions.assertEquals(39, violations.get(1).column());
+    }
+
+    @Test
+    public void customPropertiesAreNotApplied() throws IOException {
+        final Path file = TestFiles.tempFile();
+        final Custom config = new Custom();
+        final AtomicInteger reads = new AtomicInteger();
+        final ConfigManager<Custom> manager = new ConfigManager.Builder<Custom>(file)
+                .adapter((resolver, field, parent, value, meta) -> "name".equals(field.getName()) ? new TextProperty(config, reads) : null)
+                .build(config);
+
+        Files.writeString(file, "{\"name\":\"other\"}");
+        Assertions.assertTrue(manager.validator().validate(file).isEmpty());
+        Files.writeString(file, "{\"name\":[\"other\"");
+        Assertions.assertFalse(manager.validator().validate(file).isEmpty());
+        Assertions.assertEquals("prickle", config.name);
+        Assertions.assertEquals(0, reads.get());
+    }
+
+    public static class Settings {
+
+        @Value
+        public Map<String, Integer> limits = new LinkedHashMap<>(Map.of("a", 1, "b", 2));
+
+        @Value
+        public MappedNumericArray table = MappedNumericArray.ofDoubles(1, 2, 3);
+    }
+
+    public static class Custom {
+
+        @Value
+        public String name = "prickle";
+    }
+
+    /**
+     * A property that only implements the required methods, and counts how many times it was read.
+     */
+    private record TextProperty(Custom config, AtomicInteger reads) implements IConfigProperty<String> {
+
+        @Override
+        public String value() {
+            return this.config.name;
+        }
+
+        @Override
+        public void read(JsonReader reader, PropertyResolver resolver, Logger logger) throws IOException {
+            this.reads.incrementAndGet();
+            this.config.name = reader.nextString();
+        }
+
+        @Override
+        public void write(JsonWriter writer, PropertyResolver resolver, Logger logger) throws IOException {
+            writer.value(this.config.name);
+        }
+
+        @Override
+        public boolean validate(String value) {
+            return true;
+        }
+    }
+}
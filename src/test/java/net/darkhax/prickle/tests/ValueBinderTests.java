@@ -0,0 +1,111 @@
+package net.darkhax.prickle.tests;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import net.darkhax.prickle.config.PrickleContext;
+import net.darkhax.prickle.config.bind.ValueBinder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+
+public class ValueBinderTests {
+
+    @Test
+    public void matchesGsonWithDefaultExclusions() {
+        final Gson bound = new GsonBuilder().registerTypeAdapterFactory(ValueBinder.INSTANCE).create();
+        final Account account = new Account("prickle", "hunter2", 3);
+        Assertions.assertEquals(new Gson().toJson(account), bound.toJson(account));
+        Assertions.assertEquals("{\"name\":\"prickle\",\"password\":\"hunter2\"}", bound.toJson(account));
+        Assertions.assertEquals("prickle", bound.fromJson("{\"name\":\"prickle\",\"sessions\":5}", Account.class).name);
+    }
+
+    @Test
+    public void honoursExcludedModifiers() {
+        final Gson bound = new GsonBuilder().registerTypeAdapterFactory(ValueBinder.INSTANCE).excludeFieldsWithModifiers(Modifier.STATIC).create();
+        final Account account = new Account("prickle", "hunter2", 3);
+        Assertions.assertEquals("{\"name\":\"prickle\",\"password\":\"hunter2\",\"sessions\":3}", bound.toJson(account));
+        Assertions.assertEquals(5, bound.fromJson("{\"name\":\"prickle\",\"sessions\":5}", Account.class).sessions);
+    }
+
+    @Test
+    public void honoursExclusionStrategies() {
+        final Gson bound = new GsonBuilder().registerTypeAdapterFactory(ValueBinder.INSTANCE).setExclusionStrategies(new ExclusionStrategy() {
+
+            @Override
+            public boolean shouldSkipField(FieldAttributes field) {
+                return "password".equals(field.getName());
+            }
+
+            @Override
+            public boolean shouldSkipClass(Class<?> type) {
+                return false;
+            }
+        }).create();
+        final Account account = new Account("prickle", "hunter2", 3);
+        Assertions.assertEquals("{\"name\":\"prickle\"}", bound.toJson(account));
+        Assertions.assertEquals("{\"owner\":{\"name\":\"prickle\"}}", bound.toJson(new Group(account)));
+        Assertions.assertNull(bound.fromJson("{\"name\":\"prickle\",\"password\":\"other\"}", Account.class).password);
+    }
+
+    @Test
+    public void customAdaptersArePreferred() {
+        final Gson gson = new PrickleContext.Builder().gsonBuilder(new GsonBuilder().registerTypeAdapter(Endpoint.class, new EndpointAdapter())).build().gson();
+        Assertions.assertEquals("\"h:1\"", gson.toJson(new Endpoint("h", 1)));
+        Assertions.assertEquals(2, gson.fromJson("\"h:2\"", Endpoint.class).port);
+        Assertions.assertEquals("{\"host\":\"h\",\"port\":1}", new PrickleContext.Builder().build().gson().toJson(new Endpoint("h", 1)).replaceAll("\\s", ""));
+    }
+
+    public static class Account {
+
+        public String name;
+        public String password;
+        public transient int sessions;
+
+        public Account() {
+        }
+
+        public Account(String name, String password, int sessions) {
+            this.name = name;
+            this.password = password;
+            this.sessions = sessions;
+        }
+    }
+
+    public record Group(Account owner) {
+    }
+
+    public static class Endpoint {
+
+        public String host;
+        public int port;
+
+        public Endpoint() {
+        }
+
+        public Endpoint(String host, int port) {
+            this.host = host;
+            this.port = port;
+        }
+    }
+
+    public static class EndpointAdapter extends TypeAdapter<Endpoint> {
+
+        @Override
+        public void write(JsonWriter out, Endpoint value) throws IOException {
+            out.value(value.host + ":" + value.port);
+        }
+
+        @Override
+        public Endpoint read(JsonReader in) throws IOException {
+            final String[] parts = in.nextString().split(":");
+            return new Endpoint(parts[0], Integer.parseInt(parts[1]));
+        }
+    }
+}